@@ -1,10 +1,13 @@
 package ai.libs.jaicore.graphvisualizer.events.graph;
 
+import java.util.Arrays;
+
 import org.api4.java.algorithm.IAlgorithm;
 
 import ai.libs.jaicore.basic.algorithm.AAlgorithmEvent;
+import ai.libs.jaicore.basic.algorithm.ICoalescableEvent;
 
-public class NodeTypeSwitchEvent<T> extends AAlgorithmEvent implements GraphEvent {
+public class NodeTypeSwitchEvent<T> extends AAlgorithmEvent implements GraphEvent, ICoalescableEvent {
 
 	private final T node;
 	private final String type;
@@ -23,4 +26,12 @@ public class NodeTypeSwitchEvent<T> extends AAlgorithmEvent implements GraphEven
 		return this.type;
 	}
 
+	/**
+	 * Only the latest type of a node is relevant.
+	 */
+	@Override
+	public Object getCoalescingKey() {
+		return Arrays.asList(NodeTypeSwitchEvent.class, this.node);
+	}
+
 }
@@ -0,0 +1,242 @@
+package ai.libs.jaicore.graphvisualizer.events.recorder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Encodes {@link AlgorithmEventHistoryEntry}s into a compact binary representation and decodes them again.
+ *
+ * An entry is first turned into the same tree the {@link AlgorithmEventHistorySerializer} writes as JSON, so that both formats support the same events and properties. The tree is then written with
+ * one-byte tags, variable-length integers, and a dictionary of strings: every string (in particular, property names and type information) is written only once and referenced by its id afterwards.
+ * The dictionary grows with the encoded entries until {@link #reset()} is called, so entries must be decoded in the order in which they have been encoded by a codec with the same history of resets.
+ */
+class AlgorithmEventHistoryEntryCodec {
+
+	private static final int TAG_NULL = 0;
+	private static final int TAG_TRUE = 1;
+	private static final int TAG_FALSE = 2;
+	private static final int TAG_INT = 3;
+	private static final int TAG_LONG = 4;
+	private static final int TAG_FLOAT = 5;
+	private static final int TAG_DOUBLE = 6;
+	private static final int TAG_BIG_INTEGER = 7;
+	private static final int TAG_BIG_DECIMAL = 8;
+	private static final int TAG_STRING = 9;
+	private static final int TAG_BINARY = 10;
+	private static final int TAG_ARRAY = 11;
+	private static final int TAG_OBJECT = 12;
+
+	private final ObjectMapper objectMapper = AlgorithmEventHistorySerializer.createObjectMapper();
+	private final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+	private final Map<String, Integer> stringIds = new HashMap<>(); // used for encoding
+	private final List<String> strings = new ArrayList<>(); // used for decoding
+
+	/**
+	 * Forgets all strings seen so far.
+	 */
+	public void reset() {
+		this.stringIds.clear();
+		this.strings.clear();
+	}
+
+	public void encode(final AlgorithmEventHistoryEntry entry, final DataOutput out) throws IOException {
+		this.writeNode(this.objectMapper.valueToTree(entry), out);
+	}
+
+	public AlgorithmEventHistoryEntry decode(final DataInput in) throws IOException {
+		return this.objectMapper.treeToValue(this.readNode(in), AlgorithmEventHistoryEntry.class);
+	}
+
+	private void writeNode(final JsonNode node, final DataOutput out) throws IOException {
+		switch (node.getNodeType()) {
+		case NULL:
+		case MISSING:
+			out.writeByte(TAG_NULL);
+			break;
+		case BOOLEAN:
+			out.writeByte(node.booleanValue() ? TAG_TRUE : TAG_FALSE);
+			break;
+		case NUMBER:
+			this.writeNumber(node, out);
+			break;
+		case STRING:
+			out.writeByte(TAG_STRING);
+			this.writeString(node.textValue(), out);
+			break;
+		case BINARY:
+			byte[] bytes = node.binaryValue();
+			out.writeByte(TAG_BINARY);
+			writeVarLong(bytes.length, out);
+			out.write(bytes);
+			break;
+		case ARRAY:
+			out.writeByte(TAG_ARRAY);
+			writeVarLong(node.size(), out);
+			for (JsonNode element : node) {
+				this.writeNode(element, out);
+			}
+			break;
+		case OBJECT:
+			out.writeByte(TAG_OBJECT);
+			writeVarLong(node.size(), out);
+			Iterator<Entry<String, JsonNode>> fields = node.fields();
+			while (fields.hasNext()) {
+				Entry<String, JsonNode> field = fields.next();
+				this.writeString(field.getKey(), out);
+				this.writeNode(field.getValue(), out);
+			}
+			break;
+		default:
+			throw new IOException("Cannot encode node " + node + " of type " + node.getNodeType());
+		}
+	}
+
+	private void writeNumber(final JsonNode node, final DataOutput out) throws IOException {
+		switch (node.numberType()) {
+		case INT:
+			out.writeByte(TAG_INT);
+			writeVarLong(zigZag(node.intValue()), out);
+			break;
+		case LONG:
+			out.writeByte(TAG_LONG);
+			writeVarLong(zigZag(node.longValue()), out);
+			break;
+		case FLOAT:
+			out.writeByte(TAG_FLOAT);
+			out.writeFloat(node.floatValue());
+			break;
+		case DOUBLE:
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble(node.doubleValue());
+			break;
+		case BIG_INTEGER:
+			out.writeByte(TAG_BIG_INTEGER);
+			this.writeString(node.bigIntegerValue().toString(), out);
+			break;
+		case BIG_DECIMAL:
+			out.writeByte(TAG_BIG_DECIMAL);
+			this.writeString(node.decimalValue().toString(), out);
+			break;
+		default:
+			throw new IOException("Cannot encode number " + node + " of type " + node.numberType());
+		}
+	}
+
+	private JsonNode readNode(final DataInput in) throws IOException {
+		int tag = in.readByte();
+		switch (tag) {
+		case TAG_NULL:
+			return this.nodeFactory.nullNode();
+		case TAG_TRUE:
+			return this.nodeFactory.booleanNode(true);
+		case TAG_FALSE:
+			return this.nodeFactory.booleanNode(false);
+		case TAG_INT:
+			return this.nodeFactory.numberNode((int) unZigZag(readVarLong(in)));
+		case TAG_LONG:
+			return this.nodeFactory.numberNode(unZigZag(readVarLong(in)));
+		case TAG_FLOAT:
+			return this.nodeFactory.numberNode(in.readFloat());
+		case TAG_DOUBLE:
+			return this.nodeFactory.numberNode(in.readDouble());
+		case TAG_BIG_INTEGER:
+			return this.nodeFactory.numberNode(new BigInteger(this.readString(in)));
+		case TAG_BIG_DECIMAL:
+			return this.nodeFactory.numberNode(new BigDecimal(this.readString(in)));
+		case TAG_STRING:
+			return this.nodeFactory.textNode(this.readString(in));
+		case TAG_BINARY:
+			byte[] bytes = new byte[(int) readVarLong(in)];
+			in.readFully(bytes);
+			return this.nodeFactory.binaryNode(bytes);
+		case TAG_ARRAY:
+			int numElements = (int) readVarLong(in);
+			ArrayNode array = this.nodeFactory.arrayNode();
+			for (int i = 0; i < numElements; i++) {
+				array.add(this.readNode(in));
+			}
+			return array;
+		case TAG_OBJECT:
+			int numFields = (int) readVarLong(in);
+			ObjectNode object = this.nodeFactory.objectNode();
+			for (int i = 0; i < numFields; i++) {
+				String name = this.readString(in);
+				object.set(name, this.readNode(in));
+			}
+			return object;
+		default:
+			throw new IOException("Unknown tag " + tag + " in encoded history entry.");
+		}
+	}
+
+	/* a string is written as the id of its first occurrence plus one or, on its first occurrence, as 0 followed by its UTF-8 bytes */
+	private void writeString(final String string, final DataOutput out) throws IOException {
+		Integer id = this.stringIds.get(string);
+		if (id != null) {
+			writeVarLong(id + 1L, out);
+			return;
+		}
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(0, out);
+		writeVarLong(bytes.length, out);
+		out.write(bytes);
+		this.stringIds.put(string, this.stringIds.size());
+	}
+
+	private String readString(final DataInput in) throws IOException {
+		int ref = (int) readVarLong(in);
+		if (ref > 0) {
+			return this.strings.get(ref - 1);
+		}
+		byte[] bytes = new byte[(int) readVarLong(in)];
+		in.readFully(bytes);
+		String string = new String(bytes, StandardCharsets.UTF_8);
+		this.strings.add(string);
+		return string;
+	}
+
+	private static long zigZag(final long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(final long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(long value, final DataOutput out) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(final DataInput in) throws IOException {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = in.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+}
@@ -35,7 +35,17 @@ public class AlgorithmEventHistoryRecorder implements AlgorithmEventListener {
 	private final List<AlgorithmEventPropertyComputer> eventPropertyComputers = new ArrayList<>();
 
 	public AlgorithmEventHistoryRecorder() {
-		this.algorithmEventHistory = new AlgorithmEventHistory();
+		this(new AlgorithmEventHistory());
+	}
+
+	/**
+	 * Creates a new {@link AlgorithmEventHistoryRecorder} which records into the given {@link AlgorithmEventHistory}. For long runs, a {@link BinaryAlgorithmEventHistory} can be used to write the
+	 * recorded events incrementally to a file instead of keeping them in memory.
+	 *
+	 * @param algorithmEventHistory The {@link AlgorithmEventHistory} to which the recorded events are added.
+	 */
+	public AlgorithmEventHistoryRecorder(final AlgorithmEventHistory algorithmEventHistory) {
+		this.algorithmEventHistory = algorithmEventHistory;
 	}
 
 	/**
@@ -44,7 +54,17 @@ public class AlgorithmEventHistoryRecorder implements AlgorithmEventListener {
 	 * @param eventPropertyComputers A list of {@link AlgorithmEventPropertyComputer}s which can extract information from {@link IAlgorithmEvent}s which in turn is stored in the {@link IPropertyProcessedAlgorithmEvent}s.
 	 */
 	public AlgorithmEventHistoryRecorder(final List<AlgorithmEventPropertyComputer> eventPropertyComputers) {
-		this();
+		this(new AlgorithmEventHistory(), eventPropertyComputers);
+	}
+
+	/**
+	 * Creates a new {@link AlgorithmEventHistoryRecorder} which records into the given {@link AlgorithmEventHistory} using the given {@link AlgorithmEventPropertyComputer}s.
+	 *
+	 * @param algorithmEventHistory The {@link AlgorithmEventHistory} to which the recorded events are added.
+	 * @param eventPropertyComputers A list of {@link AlgorithmEventPropertyComputer}s which can extract information from {@link IAlgorithmEvent}s which in turn is stored in the {@link IPropertyProcessedAlgorithmEvent}s.
+	 */
+	public AlgorithmEventHistoryRecorder(final AlgorithmEventHistory algorithmEventHistory, final List<AlgorithmEventPropertyComputer> eventPropertyComputers) {
+		this(algorithmEventHistory);
 		this.eventPropertyComputers.addAll(eventPropertyComputers);
 	}
 
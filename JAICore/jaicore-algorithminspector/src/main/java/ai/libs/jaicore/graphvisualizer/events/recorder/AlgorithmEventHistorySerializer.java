@@ -35,14 +35,19 @@ public class AlgorithmEventHistorySerializer {
 	}
 
 	private void initializeObjectMapper() {
-		this.objectMapper = new ObjectMapper();
+		this.objectMapper = createObjectMapper();
+	}
+
+	static ObjectMapper createObjectMapper() {
+		ObjectMapper objectMapper = new ObjectMapper();
 
 		// make sure that the object mapper sees all fields
-		this.objectMapper.setVisibility(PropertyAccessor.ALL, Visibility.NONE);
-		this.objectMapper.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
+		objectMapper.setVisibility(PropertyAccessor.ALL, Visibility.NONE);
+		objectMapper.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
 
 		// make sure that the object mapper stores type information when serializing objects
-		this.objectMapper.enableDefaultTyping();
+		objectMapper.enableDefaultTyping();
+		return objectMapper;
 	}
 
 	/**
@@ -0,0 +1,358 @@
+package ai.libs.jaicore.graphvisualizer.events.recorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.api4.java.algorithm.events.serializable.IPropertyProcessedAlgorithmEvent;
+
+/**
+ * An {@link AlgorithmEventHistory} that is stored in an append-only binary log file instead of main memory. Such a history can be used by an {@link AlgorithmEventHistoryRecorder} to write the
+ * entries incrementally while an algorithm is running, and it can be opened again later to replay the recording.
+ *
+ * The entries are written in chunks of (at most) a fixed number of entries. Each chunk is compressed and self-contained, i.e., it is encoded with its own string dictionary by an
+ * {@link AlgorithmEventHistoryEntryCodec}, so it can be decoded without reading any other chunk. The header of a chunk holds the number of its entries and the reception times of its first and last
+ * entry. When a log is opened, only these headers are read; they form the index that is used to locate the chunk of a time step or of a point in time.
+ *
+ * Apart from this index, only the entries of the chunk that is currently written and a few recently decoded chunks are kept in memory. A history that is being recorded can be read at the same time,
+ * e.g., by the {@link AlgorithmEventHistoryEntryDeliverer} of a live visualization.
+ */
+public class BinaryAlgorithmEventHistory extends AlgorithmEventHistory implements Closeable {
+
+	private static final long serialVersionUID = -6312862541727931263L;
+
+	public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+	private static final int MAGIC_NUMBER = 0x41454831; // "AEH1"
+	private static final int FILE_HEADER_SIZE = Integer.BYTES;
+	private static final int CHUNK_HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+	private static final int NUMBER_OF_CACHED_CHUNKS = 4;
+
+	private static class Chunk {
+		private final long offset;
+		private final int firstTimeStep;
+		private final int numEntries;
+		private final int payloadLength;
+		private final long firstReceptionTime;
+		private final long lastReceptionTime;
+
+		private Chunk(final long offset, final int firstTimeStep, final int numEntries, final int payloadLength, final long firstReceptionTime, final long lastReceptionTime) {
+			this.offset = offset;
+			this.firstTimeStep = firstTimeStep;
+			this.numEntries = numEntries;
+			this.payloadLength = payloadLength;
+			this.firstReceptionTime = firstReceptionTime;
+			this.lastReceptionTime = lastReceptionTime;
+		}
+	}
+
+	private final transient File file;
+	private final transient RandomAccessFile log;
+	private final boolean writable;
+	private final int chunkSize;
+
+	private final transient List<Chunk> chunks = new ArrayList<>();
+	private int numEntriesInChunks;
+	private final transient Map<Integer, List<AlgorithmEventHistoryEntry>> decodedChunks = new LinkedHashMap<Integer, List<AlgorithmEventHistoryEntry>>(16, 0.75f, true) {
+		private static final long serialVersionUID = 2962375734346627525L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, List<AlgorithmEventHistoryEntry>> eldest) {
+			return this.size() > NUMBER_OF_CACHED_CHUNKS;
+		}
+	};
+
+	/* the chunk that is currently written */
+	private final transient AlgorithmEventHistoryEntryCodec pendingCodec = new AlgorithmEventHistoryEntryCodec();
+	private final transient ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+	private final transient DataOutputStream pendingOut = new DataOutputStream(this.pendingBytes);
+	private final transient List<AlgorithmEventHistoryEntry> pendingEntries = new ArrayList<>();
+
+	private BinaryAlgorithmEventHistory(final File file, final RandomAccessFile log, final boolean writable, final int chunkSize) {
+		super();
+		this.file = file;
+		this.log = log;
+		this.writable = writable;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Creates a new (empty) log at the given location. An existing file is overwritten.
+	 *
+	 * @param file The file of the log.
+	 * @return The history backed by the new log.
+	 * @throws IOException If the file could not be created.
+	 */
+	public static BinaryAlgorithmEventHistory create(final File file) throws IOException {
+		return create(file, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates a new (empty) log at the given location. An existing file is overwritten.
+	 *
+	 * @param file The file of the log.
+	 * @param chunkSize The number of entries that are written together as one chunk.
+	 * @return The history backed by the new log.
+	 * @throws IOException If the file could not be created.
+	 */
+	public static BinaryAlgorithmEventHistory create(final File file, final int chunkSize) throws IOException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The chunk size must be positive but is " + chunkSize);
+		}
+		RandomAccessFile log = new RandomAccessFile(file, "rw");
+		try {
+			log.setLength(0);
+			log.writeInt(MAGIC_NUMBER);
+		} catch (IOException e) {
+			log.close();
+			throw e;
+		}
+		return new BinaryAlgorithmEventHistory(file, log, true, chunkSize);
+	}
+
+	/**
+	 * Opens an existing log for reading. If the last chunk of the log has not been written completely (e.g., because the recording process was killed), it is ignored.
+	 *
+	 * @param file The file of the log.
+	 * @return The (read-only) history backed by the log.
+	 * @throws IOException If the file could not be read or is not a log of an {@link AlgorithmEventHistory}.
+	 */
+	public static BinaryAlgorithmEventHistory open(final File file) throws IOException {
+		RandomAccessFile log = new RandomAccessFile(file, "r");
+		try {
+			if (log.length() < FILE_HEADER_SIZE || log.readInt() != MAGIC_NUMBER) {
+				throw new IOException(file + " is not a binary algorithm event history.");
+			}
+			BinaryAlgorithmEventHistory history = new BinaryAlgorithmEventHistory(file, log, false, DEFAULT_CHUNK_SIZE);
+			history.readIndex();
+			return history;
+		} catch (IOException e) {
+			log.close();
+			throw e;
+		}
+	}
+
+	private void readIndex() throws IOException {
+		long length = this.log.length();
+		long offset = FILE_HEADER_SIZE;
+		while (offset + CHUNK_HEADER_SIZE <= length) {
+			this.log.seek(offset);
+			int numEntries = this.log.readInt();
+			int payloadLength = this.log.readInt();
+			long firstReceptionTime = this.log.readLong();
+			long lastReceptionTime = this.log.readLong();
+			if (offset + CHUNK_HEADER_SIZE + payloadLength > length) {
+				break;
+			}
+			this.chunks.add(new Chunk(offset, this.numEntriesInChunks, numEntries, payloadLength, firstReceptionTime, lastReceptionTime));
+			this.numEntriesInChunks += numEntries;
+			offset += CHUNK_HEADER_SIZE + payloadLength;
+		}
+	}
+
+	/**
+	 * Adds the given {@link IPropertyProcessedAlgorithmEvent} to the log. The entry becomes visible immediately but is only written to the file once its chunk is complete or the history is flushed.
+	 *
+	 * @param propertyProcessedAlgorithmEvent The {@link IPropertyProcessedAlgorithmEvent} to be added to this history.
+	 */
+	@Override
+	public void addEvent(final IPropertyProcessedAlgorithmEvent propertyProcessedAlgorithmEvent) {
+		this.addEntry(new AlgorithmEventHistoryEntry(propertyProcessedAlgorithmEvent, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Adds the given entry to the log, e.g., when converting an in-memory {@link AlgorithmEventHistory}.
+	 *
+	 * @param entry The entry to be added.
+	 */
+	public synchronized void addEntry(final AlgorithmEventHistoryEntry entry) {
+		if (!this.writable) {
+			throw new UnsupportedOperationException("Cannot add entries to a history that has been opened for reading.");
+		}
+		try {
+			this.pendingCodec.encode(entry, this.pendingOut);
+			this.pendingEntries.add(entry);
+			if (this.pendingEntries.size() >= this.chunkSize) {
+				this.writePendingChunk();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write entry " + entry + " to " + this.file, e);
+		}
+	}
+
+	/**
+	 * Writes the entries that have not been written yet to the file. Subsequent entries are written into a new chunk.
+	 *
+	 * @throws IOException If the entries could not be written.
+	 */
+	public synchronized void flush() throws IOException {
+		if (!this.pendingEntries.isEmpty()) {
+			this.writePendingChunk();
+		}
+	}
+
+	private void writePendingChunk() throws IOException {
+		this.pendingOut.flush();
+		ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream(this.pendingBytes.size() / 4 + 64);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DeflaterOutputStream out = new DeflaterOutputStream(compressedBytes, deflater)) {
+			this.pendingBytes.writeTo(out);
+		} finally {
+			deflater.end();
+		}
+		byte[] payload = compressedBytes.toByteArray();
+		int numEntries = this.pendingEntries.size();
+		long firstReceptionTime = this.pendingEntries.get(0).getTimeEventWasReceived();
+		long lastReceptionTime = this.pendingEntries.get(numEntries - 1).getTimeEventWasReceived();
+
+		/* write header and payload at once, so that readers of the file never see a header without its payload */
+		ByteBuffer chunk = ByteBuffer.allocate(CHUNK_HEADER_SIZE + payload.length);
+		chunk.putInt(numEntries).putInt(payload.length).putLong(firstReceptionTime).putLong(lastReceptionTime).put(payload);
+		long offset = this.log.length();
+		this.log.seek(offset);
+		this.log.write(chunk.array());
+
+		/* the entries just written are the most likely ones to be read next, so keep them decoded */
+		this.decodedChunks.put(this.chunks.size(), new ArrayList<>(this.pendingEntries));
+		this.chunks.add(new Chunk(offset, this.numEntriesInChunks, numEntries, payload.length, firstReceptionTime, lastReceptionTime));
+		this.numEntriesInChunks += numEntries;
+		this.pendingEntries.clear();
+		this.pendingBytes.reset();
+		this.pendingCodec.reset();
+	}
+
+	@Override
+	public synchronized AlgorithmEventHistoryEntry getEntryAtTimeStep(final int timestep) {
+		if (timestep < 0 || timestep >= this.getLength()) {
+			throw new IndexOutOfBoundsException("Time step " + timestep + " is not in the history of length " + this.getLength());
+		}
+		if (timestep >= this.numEntriesInChunks) {
+			return this.pendingEntries.get(timestep - this.numEntriesInChunks);
+		}
+
+		/* binary search for the chunk containing the time step */
+		int low = 0;
+		int high = this.chunks.size() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (this.chunks.get(mid).firstTimeStep <= timestep) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return this.getChunkEntries(low).get(timestep - this.chunks.get(low).firstTimeStep);
+	}
+
+	/**
+	 * Determines the first time step whose entry has been received at or after the given time. This assumes that the reception times are non-decreasing, which is the case for histories recorded
+	 * by an {@link AlgorithmEventHistoryRecorder}.
+	 *
+	 * @param timeEventWasReceived The reception time (in milliseconds since the epoch).
+	 * @return The first time step whose entry has been received at or after the given time or the length of the history if there is no such entry.
+	 */
+	public synchronized int getFirstTimeStepReceivedAtOrAfter(final long timeEventWasReceived) {
+		int low = 0;
+		int high = this.chunks.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.chunks.get(mid).lastReceptionTime < timeEventWasReceived) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		List<AlgorithmEventHistoryEntry> entries;
+		int firstTimeStep;
+		if (low < this.chunks.size()) {
+			entries = this.chunks.get(low).firstReceptionTime >= timeEventWasReceived ? Collections.emptyList() : this.getChunkEntries(low);
+			firstTimeStep = this.chunks.get(low).firstTimeStep;
+		} else {
+			entries = this.pendingEntries;
+			firstTimeStep = this.numEntriesInChunks;
+		}
+		for (int i = 0; i < entries.size(); i++) {
+			if (entries.get(i).getTimeEventWasReceived() >= timeEventWasReceived) {
+				return firstTimeStep + i;
+			}
+		}
+		return firstTimeStep + entries.size();
+	}
+
+	private List<AlgorithmEventHistoryEntry> getChunkEntries(final int chunkIndex) {
+		List<AlgorithmEventHistoryEntry> entries = this.decodedChunks.get(chunkIndex);
+		if (entries != null) {
+			return entries;
+		}
+		Chunk chunk = this.chunks.get(chunkIndex);
+		try {
+			byte[] payload = new byte[chunk.payloadLength];
+			this.log.seek(chunk.offset + CHUNK_HEADER_SIZE);
+			this.log.readFully(payload);
+			AlgorithmEventHistoryEntryCodec codec = new AlgorithmEventHistoryEntryCodec();
+			entries = new ArrayList<>(chunk.numEntries);
+			try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+				for (int i = 0; i < chunk.numEntries; i++) {
+					entries.add(codec.decode(in));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read chunk " + chunkIndex + " of " + this.file, e);
+		}
+		this.decodedChunks.put(chunkIndex, entries);
+		return entries;
+	}
+
+	@Override
+	public synchronized long getLength() {
+		return (long) this.numEntriesInChunks + this.pendingEntries.size();
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Writes all pending entries (if the history is writable) and closes the log file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			if (this.writable) {
+				this.flush();
+			}
+		} finally {
+			this.log.close();
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		return this == obj;
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryAlgorithmEventHistory [file=" + this.file + ", length=" + this.getLength() + "]";
+	}
+}
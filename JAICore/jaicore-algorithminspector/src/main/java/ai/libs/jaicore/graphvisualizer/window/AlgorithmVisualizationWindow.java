@@ -60,8 +60,8 @@ public class AlgorithmVisualizationWindow implements Runnable {
 
 	private TabPane pluginTabPane;
 
-	private AlgorithmVisualizationWindow() {
-		this.historyRecorder = new AlgorithmEventHistoryRecorder();
+	private AlgorithmVisualizationWindow(final AlgorithmEventHistoryRecorder historyRecorder) {
+		this.historyRecorder = historyRecorder;
 		this.setup(this.historyRecorder.getHistory());
 	}
 
@@ -108,7 +108,18 @@ public class AlgorithmVisualizationWindow implements Runnable {
 	 * @param visualizationPlugins A list of additional {@link IGUIPlugin}s displaying side information.
 	 */
 	public AlgorithmVisualizationWindow(final IAlgorithm<?, ?> algorithm) {
-		this();
+		this(algorithm, new AlgorithmEventHistory());
+	}
+
+	/**
+	 * Creates a new {@link AlgorithmVisualizationWindow} for an online run of the given {@link IAlgorithm}, which records the events into the given {@link AlgorithmEventHistory}. Passing a
+	 * {@link ai.libs.jaicore.graphvisualizer.events.recorder.BinaryAlgorithmEventHistory} writes the recording to a file while the algorithm runs instead of keeping it in memory.
+	 *
+	 * @param algorithm The {@link IAlgorithm} yielding information to be displayed.
+	 * @param algorithmEventHistory The {@link AlgorithmEventHistory} into which the events are recorded.
+	 */
+	public AlgorithmVisualizationWindow(final IAlgorithm<?, ?> algorithm, final AlgorithmEventHistory algorithmEventHistory) {
+		this(new AlgorithmEventHistoryRecorder(algorithmEventHistory));
 		algorithm.registerListener(this.historyRecorder);
 	}
 
@@ -0,0 +1,83 @@
+package ai.libs.jaicore.graphvisualizer.events.recorder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.api4.java.algorithm.IAlgorithm;
+import org.api4.java.algorithm.events.IAlgorithmEvent;
+import org.api4.java.algorithm.exceptions.AlgorithmException;
+import org.api4.java.algorithm.exceptions.AlgorithmExecutionCanceledException;
+import org.api4.java.algorithm.exceptions.AlgorithmTimeoutedException;
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.basic.algorithm.AAlgorithm;
+import ai.libs.jaicore.basic.algorithm.AlgorithmFinishedEvent;
+import ai.libs.jaicore.basic.algorithm.AlgorithmInitializedEvent;
+import ai.libs.jaicore.graphvisualizer.events.graph.GraphInitializedEvent;
+import ai.libs.jaicore.graphvisualizer.events.graph.NodeAddedEvent;
+import ai.libs.jaicore.graphvisualizer.events.graph.NodeTypeSwitchEvent;
+import ai.libs.jaicore.graphvisualizer.events.recorder.property.AlgorithmEventPropertyComputer;
+import ai.libs.jaicore.graphvisualizer.plugin.nodeinfo.NodeDisplayInfoAlgorithmEventPropertyComputer;
+import ai.libs.jaicore.graphvisualizer.plugin.nodeinfo.NodeInfoAlgorithmEventPropertyComputer;
+
+class BinaryAlgorithmEventHistoryTest {
+
+	private static final int CHUNK_SIZE = 4;
+
+	@Test
+	void testThatRecordedHistoryCanBeReplayed() throws IOException {
+		List<AlgorithmEventPropertyComputer> algorithmEventPropertyComputers = Arrays.asList(new NodeInfoAlgorithmEventPropertyComputer(), new NodeDisplayInfoAlgorithmEventPropertyComputer<>(n -> n.toString()));
+
+		File file = File.createTempFile("history", ".aeh");
+		file.deleteOnExit();
+		BinaryAlgorithmEventHistory history = BinaryAlgorithmEventHistory.create(file, CHUNK_SIZE);
+		AlgorithmEventHistoryRecorder recorder = new AlgorithmEventHistoryRecorder(history, algorithmEventPropertyComputers);
+
+		IAlgorithm<?, ?> dummyAlg = new AAlgorithm<Object, Object>(null) {
+
+			@Override
+			public IAlgorithmEvent nextWithException() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+				return null;
+			}
+
+			@Override
+			public Object call() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+				return null;
+			}
+		};
+
+		recorder.handleAlgorithmEvent(new AlgorithmInitializedEvent(dummyAlg));
+		recorder.handleAlgorithmEvent(new GraphInitializedEvent<>(dummyAlg, "root"));
+		for (int i = 0; i < 5 * CHUNK_SIZE; i++) {
+			recorder.handleAlgorithmEvent(new NodeAddedEvent<>(dummyAlg, "root", "n" + i, "open"));
+			recorder.handleAlgorithmEvent(new NodeTypeSwitchEvent<>(dummyAlg, "n" + i, "closed"));
+		}
+		recorder.handleAlgorithmEvent(new AlgorithmFinishedEvent(dummyAlg));
+
+		/* the history can be read while it is recorded */
+		int length = (int) history.getLength();
+		assertEquals(3 + 10 * CHUNK_SIZE, length);
+		List<AlgorithmEventHistoryEntry> recordedEntries = new ArrayList<>();
+		for (int i = 0; i < length; i++) {
+			recordedEntries.add(history.getEntryAtTimeStep(i));
+		}
+		history.close();
+
+		/* a replay reads the same entries from the file, in any order */
+		try (BinaryAlgorithmEventHistory replay = BinaryAlgorithmEventHistory.open(file)) {
+			assertEquals(length, replay.getLength());
+			for (int i = length - 1; i >= 0; i--) {
+				assertEquals(recordedEntries.get(i), replay.getEntryAtTimeStep(i));
+			}
+			long firstTime = recordedEntries.get(0).getTimeEventWasReceived();
+			long lastTime = recordedEntries.get(length - 1).getTimeEventWasReceived();
+			assertEquals(0, replay.getFirstTimeStepReceivedAtOrAfter(firstTime));
+			assertEquals(length, replay.getFirstTimeStepReceivedAtOrAfter(lastTime + 1));
+		}
+	}
+}
@@ -6,6 +6,9 @@ import org.aeonbits.owner.Reloadable;
 import org.api4.java.algorithm.IAlgorithmConfig;
 import org.api4.java.algorithm.Timeout;
 
+import ai.libs.jaicore.basic.algorithm.AsynchronousEventBus;
+import ai.libs.jaicore.basic.algorithm.EEventOverflowPolicy;
+
 /**
  * Configuration interface to defined the access properties for a database connection
  *
@@ -18,6 +21,10 @@ public interface IOwnerBasedAlgorithmConfig extends IOwnerBasedConfig, IAlgorith
 	public static final String K_THREADS = "threads";
 	public static final String K_MEMORY = "memory";
 	public static final String K_TIMEOUT = "timeout";
+	public static final String K_EVENTS_ASYNC = "events.async";
+	public static final String K_EVENTS_QUEUE_SIZE = "events.queuesize";
+	public static final String K_EVENTS_BATCH_SIZE = "events.batchsize";
+	public static final String K_EVENTS_OVERFLOW_POLICY = "events.overflowpolicy";
 
 	/**
 	 * @return Number of CPU cores available for parallelization.
@@ -51,6 +58,34 @@ public interface IOwnerBasedAlgorithmConfig extends IOwnerBasedConfig, IAlgorith
 	@DefaultValue("-1")
 	public long timeout();
 
+	/**
+	 * @return Whether events are dispatched to the listeners in a separate thread by an {@link AsynchronousEventBus} instead of in the thread posting them.
+	 */
+	@Key(K_EVENTS_ASYNC)
+	@DefaultValue("false")
+	public boolean asyncEvents();
+
+	/**
+	 * @return The number of events that may be pending if events are dispatched asynchronously.
+	 */
+	@Key(K_EVENTS_QUEUE_SIZE)
+	@DefaultValue("16384")
+	public int eventQueueSize();
+
+	/**
+	 * @return The maximum number of events that are delivered to one listener before the next listener receives them if events are dispatched asynchronously.
+	 */
+	@Key(K_EVENTS_BATCH_SIZE)
+	@DefaultValue("256")
+	public int eventBatchSize();
+
+	/**
+	 * @return The treatment of coalescable events by the asynchronous dispatch: BLOCK treats them like other events, DROP discards them if the queue is full, and COALESCE always delivers only the latest
+	 *         of the pending events with the same key.
+	 */
+	@Key(K_EVENTS_OVERFLOW_POLICY)
+	@DefaultValue("BLOCK")
+	public EEventOverflowPolicy eventOverflowPolicy();
 
 	/**
 	 * This is just a shortcut to avoid confusions about the semantics of the defined timeout, which is always defined in milliseconds.
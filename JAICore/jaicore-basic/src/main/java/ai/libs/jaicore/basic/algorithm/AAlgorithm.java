@@ -52,7 +52,7 @@ public abstract class AAlgorithm<I, O> implements IAlgorithm<I, O>, ILoggingCust
 	private long canceled = -1; // timestamp for when the algorithm has been canceled
 	private final Set<Thread> activeThreads = new HashSet<>();
 	private EAlgorithmState state = EAlgorithmState.CREATED;
-	private final EventBus eventBus = new EventBus();
+	private EventBus eventBus;
 	private final List<Object> listeners = new ArrayList<>();
 
 	private int timeoutPrecautionOffset = 100; // this offset is substracted from the true remaining time whenever a timer is scheduled to ensure that the timeout is respected
@@ -81,6 +81,22 @@ public abstract class AAlgorithm<I, O> implements IAlgorithm<I, O>, ILoggingCust
 	protected AAlgorithm(final IOwnerBasedAlgorithmConfig config, final I input) {
 		this.input = input;
 		this.config = (config != null) ? config : ConfigFactory.create(IOwnerBasedAlgorithmConfig.class);
+		this.initializeEventBus();
+	}
+
+	/**
+	 * Creates the event bus according to the configuration unless the current bus already matches it. Listeners that have been registered on a previous bus are moved to the new one.
+	 */
+	private void initializeEventBus() {
+		boolean async = this.config != null && this.config.asyncEvents();
+		if (this.eventBus != null && async == (this.eventBus instanceof AsynchronousEventBus)) {
+			return;
+		}
+		if (this.eventBus instanceof AsynchronousEventBus) {
+			((AsynchronousEventBus) this.eventBus).shutdown();
+		}
+		this.eventBus = async ? new AsynchronousEventBus(this.getClass().getSimpleName(), this.config.eventQueueSize(), this.config.eventBatchSize(), this.config.eventOverflowPolicy()) : new EventBus();
+		this.listeners.forEach(this.eventBus::register);
 	}
 
 	@Override
@@ -121,6 +137,13 @@ public abstract class AAlgorithm<I, O> implements IAlgorithm<I, O>, ILoggingCust
 		return Collections.unmodifiableList(this.listeners);
 	}
 
+	/**
+	 * @return The bus dispatching the events of this algorithm if they are dispatched asynchronously (e.g., to obtain the metrics of the queue), or null if events are dispatched synchronously.
+	 */
+	public AsynchronousEventBus getAsynchronousEventBus() {
+		return this.eventBus instanceof AsynchronousEventBus ? (AsynchronousEventBus) this.eventBus : null;
+	}
+
 	@Override
 	public int getNumCPUs() {
 		return this.getConfig().cpus();
@@ -434,6 +457,11 @@ public abstract class AAlgorithm<I, O> implements IAlgorithm<I, O>, ILoggingCust
 		AlgorithmFinishedEvent finishedEvent = new AlgorithmFinishedEvent(this);
 		this.unregisterThreadAndShutdown();
 		this.eventBus.post(finishedEvent);
+
+		/* make sure that listeners have seen all events once the algorithm has terminated */
+		if (this.eventBus instanceof AsynchronousEventBus) {
+			((AsynchronousEventBus) this.eventBus).shutdown();
+		}
 		return finishedEvent;
 	}
 
@@ -460,6 +488,7 @@ public abstract class AAlgorithm<I, O> implements IAlgorithm<I, O>, ILoggingCust
 	 */
 	public void setConfig(final IOwnerBasedAlgorithmConfig config) {
 		this.config = config;
+		this.initializeEventBus();
 	}
 
 	@Override
@@ -0,0 +1,448 @@
+package ai.libs.jaicore.basic.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * An {@link EventBus} that dispatches the posted events in a separate thread, so that the listeners do not slow down the thread that posts the events (usually the thread running the algorithm).
+ *
+ * Posted events are put into a bounded lock-free ring buffer. A single dispatcher thread takes the events from the buffer in batches and delivers each batch to one listener after the other. Hence, every
+ * listener receives the events in the order in which they have been posted, and no listener is invoked concurrently. If the buffer is full, posting blocks until the dispatcher has made space, so
+ * the algorithm is slowed down to the pace of its listeners. This does not hold for {@link ICoalescableEvent}s under the {@link EEventOverflowPolicy} DROP, which discards them if the buffer is full.
+ * Under the policy COALESCE, an {@link ICoalescableEvent} always supersedes the pending events with the same key, and it is delivered at the position at which it has been posted.
+ *
+ * Listeners may post events themselves. If the buffer is full, such events are kept aside and delivered after the events posted before them, because the dispatcher cannot wait for itself.
+ *
+ * Listeners registered while events are pending also receive these events. Once the bus has been shut down, events are dispatched synchronously in the posting thread. The dispatcher thread is a
+ * daemon thread that ends after some idle time and is restarted with the next event.
+ */
+public class AsynchronousEventBus extends EventBus {
+
+	private static final Logger logger = LoggerFactory.getLogger(AsynchronousEventBus.class);
+
+	private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final String identifier;
+	private final RingBuffer queue;
+	private final int batchSize;
+	private final EEventOverflowPolicy overflowPolicy;
+	private final List<ListenerBus> listenerBuses = new CopyOnWriteArrayList<>();
+	private final Map<Object, CoalescedEvent> pendingCoalescableEvents = new ConcurrentHashMap<>();
+	private final ArrayDeque<OverflowEvent> overflowEvents = new ArrayDeque<>(); // events posted by listeners while the buffer is full; guarded by the dispatch lock
+
+	private final Object lifecycleLock = new Object();
+	private final Object dispatchLock = new Object(); // held while events are taken from the queue and delivered, so listeners are never invoked concurrently
+	private volatile Thread dispatcher;
+	private volatile boolean dispatcherIdle;
+	private volatile boolean shutdown;
+
+	/* metrics */
+	private final AtomicLong numPostedEvents = new AtomicLong();
+	private final AtomicLong numDispatchedEvents = new AtomicLong();
+	private final AtomicLong numDroppedEvents = new AtomicLong();
+	private final AtomicLong numCoalescedEvents = new AtomicLong();
+	private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+	/* every listener has its own synchronous bus, so that a batch can be delivered to one listener after the other */
+	private static class ListenerBus {
+		private final Object listener;
+		private final EventBus bus;
+
+		private ListenerBus(final Object listener, final EventBus bus) {
+			this.listener = listener;
+			this.bus = bus;
+		}
+	}
+
+	/* wrapper of a coalescable event in the queue; it is only delivered if no later event with the same key has been posted in the meantime */
+	private static class CoalescedEvent {
+		private final Object key;
+		private final Object event;
+
+		private CoalescedEvent(final Object key, final Object event) {
+			this.key = key;
+			this.event = event;
+		}
+	}
+
+	/* event posted by a listener while the buffer was full, together with the position in the buffer that the event would have had */
+	private static class OverflowEvent {
+		private final long position;
+		private final Object event;
+
+		private OverflowEvent(final long position, final Object event) {
+			this.position = position;
+			this.event = event;
+		}
+	}
+
+	/**
+	 * A bounded multi-producer queue based on sequence numbers per slot (due to D. Vyukov). Producers claim a slot with a single CAS on the tail and never block each other.
+	 */
+	private static class RingBuffer {
+		private final int mask;
+		private final AtomicReferenceArray<Object> elements;
+		private final AtomicLongArray sequences;
+		private final AtomicLong head = new AtomicLong();
+		private final AtomicLong tail = new AtomicLong();
+
+		private RingBuffer(final int capacity) {
+			int size = 2;
+			while (size < capacity) {
+				size <<= 1;
+			}
+			this.mask = size - 1;
+			this.elements = new AtomicReferenceArray<>(size);
+			this.sequences = new AtomicLongArray(size);
+			for (int i = 0; i < size; i++) {
+				this.sequences.set(i, i);
+			}
+		}
+
+		private boolean offer(final Object element) {
+			long pos = this.tail.get();
+			while (true) {
+				int index = (int) (pos & this.mask);
+				long diff = this.sequences.get(index) - pos;
+				if (diff == 0) {
+					if (this.tail.compareAndSet(pos, pos + 1)) {
+						this.elements.lazySet(index, element);
+						this.sequences.set(index, pos + 1);
+						return true;
+					}
+					pos = this.tail.get();
+				} else if (diff < 0) {
+					return false;
+				} else {
+					pos = this.tail.get();
+				}
+			}
+		}
+
+		private Object poll() {
+			long pos = this.head.get();
+			while (true) {
+				int index = (int) (pos & this.mask);
+				long diff = this.sequences.get(index) - (pos + 1);
+				if (diff == 0) {
+					if (this.head.compareAndSet(pos, pos + 1)) {
+						Object element = this.elements.get(index);
+						this.elements.lazySet(index, null);
+						this.sequences.set(index, pos + this.mask + 1);
+						return element;
+					}
+					pos = this.head.get();
+				} else if (diff < 0) {
+					return null;
+				} else {
+					pos = this.head.get();
+				}
+			}
+		}
+
+		private long headPosition() {
+			return this.head.get();
+		}
+
+		private long tailPosition() {
+			return this.tail.get();
+		}
+
+		private int size() {
+			return (int) Math.max(0, Math.min(this.tail.get() - this.head.get(), this.capacity()));
+		}
+
+		private int capacity() {
+			return this.mask + 1;
+		}
+	}
+
+	/**
+	 * @param identifier
+	 *            The identifier of the bus (used for the name of the dispatcher thread).
+	 * @param capacity
+	 *            The number of events that may be pending. The capacity is rounded up to the next power of two.
+	 * @param batchSize
+	 *            The maximum number of events that are delivered to one listener before the next listener receives them.
+	 * @param overflowPolicy
+	 *            The treatment of {@link ICoalescableEvent}s.
+	 */
+	public AsynchronousEventBus(final String identifier, final int capacity, final int batchSize, final EEventOverflowPolicy overflowPolicy) {
+		super(identifier);
+		if (capacity <= 0 || batchSize <= 0) {
+			throw new IllegalArgumentException("Capacity and batch size must be positive but are " + capacity + " and " + batchSize);
+		}
+		this.identifier = identifier;
+		this.queue = new RingBuffer(capacity);
+		this.batchSize = batchSize;
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	@Override
+	public void register(final Object listener) {
+		EventBus bus = new EventBus(this.identifier);
+		bus.register(listener);
+		this.listenerBuses.add(new ListenerBus(listener, bus));
+	}
+
+	@Override
+	public void unregister(final Object listener) {
+		for (ListenerBus listenerBus : this.listenerBuses) {
+			if (listenerBus.listener == listener) {
+				this.listenerBuses.remove(listenerBus);
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Listener " + listener + " is not registered.");
+	}
+
+	@Override
+	public void post(final Object event) {
+		this.numPostedEvents.incrementAndGet();
+		if (this.shutdown && !Thread.holdsLock(this.dispatchLock)) { // events of listeners are queued, so that the thread holding the lock delivers them in order
+			this.dispatchPendingEventsAnd(event);
+			return;
+		}
+		Object coalescingKey = event instanceof ICoalescableEvent ? ((ICoalescableEvent) event).getCoalescingKey() : null;
+		if (coalescingKey == null || this.overflowPolicy == EEventOverflowPolicy.BLOCK) {
+			this.enqueue(event);
+		} else if (this.overflowPolicy == EEventOverflowPolicy.COALESCE) {
+			CoalescedEvent coalescedEvent = new CoalescedEvent(coalescingKey, event);
+			if (this.pendingCoalescableEvents.put(coalescingKey, coalescedEvent) != null) {
+				this.numCoalescedEvents.incrementAndGet();
+			}
+			this.enqueue(coalescedEvent);
+		} else if (this.queue.offer(event)) {
+			this.afterEnqueue();
+		} else {
+			this.numDroppedEvents.incrementAndGet();
+		}
+	}
+
+	private void enqueue(final Object event) {
+		while (!this.queue.offer(event)) {
+
+			/* a listener that posts events must not wait for itself, so its event is delivered after the events that are in the queue now */
+			if (Thread.holdsLock(this.dispatchLock)) {
+				this.overflowEvents.add(new OverflowEvent(this.queue.tailPosition(), event));
+				return;
+			}
+			if (this.dispatcher == null) {
+				this.startDispatcher();
+			}
+			LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+		}
+		this.afterEnqueue();
+	}
+
+	private void afterEnqueue() {
+		int depth = this.queue.size();
+		if (depth > this.maxQueueDepth.get()) {
+			this.maxQueueDepth.accumulateAndGet(depth, Math::max);
+		}
+		Thread currentDispatcher = this.dispatcher;
+		if (currentDispatcher == null) {
+			this.startDispatcher();
+		} else if (this.dispatcherIdle) {
+			LockSupport.unpark(currentDispatcher);
+		}
+
+		/* the bus may have been shut down while the event was enqueued */
+		if (this.shutdown && !Thread.holdsLock(this.dispatchLock)) {
+			this.dispatchPendingEventsAnd(null);
+		}
+	}
+
+	private void startDispatcher() {
+		synchronized (this.lifecycleLock) {
+			if (this.dispatcher != null || this.shutdown) {
+				return;
+			}
+			Thread thread = new Thread(this::dispatchEvents, this.identifier + "-event-dispatcher");
+			thread.setDaemon(true);
+			this.dispatcher = thread;
+			thread.start();
+		}
+	}
+
+	private void dispatchEvents() {
+		Object[] batch = new Object[this.batchSize];
+		long idleSince = -1;
+		while (true) {
+			int numEvents;
+			synchronized (this.dispatchLock) {
+				numEvents = this.drainQueue(batch);
+				this.deliver(batch, numEvents);
+			}
+			if (numEvents > 0) {
+				idleSince = -1;
+				continue;
+			}
+
+			/* the queue is empty, so either end the thread or wait for events */
+			long now = System.nanoTime();
+			if (idleSince < 0) {
+				idleSince = now;
+			}
+			if (this.shutdown || now - idleSince > KEEP_ALIVE_NANOS) {
+
+				/*
+				 * unregister first and check the queue afterwards; producers enqueue first and check the dispatcher afterwards, so no event is left behind. Overflow events are left only if an event before them
+				 * has not been completely enqueued yet, in which case the queue is not empty either.
+				 */
+				synchronized (this.lifecycleLock) {
+					this.dispatcher = null;
+					if (this.queue.size() == 0) {
+						return;
+					}
+					this.dispatcher = Thread.currentThread();
+				}
+				continue;
+			}
+			this.dispatcherIdle = true;
+			if (this.queue.size() == 0) {
+				Thread.interrupted(); // an interrupt must not turn waiting into spinning
+				LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+			}
+			this.dispatcherIdle = false;
+		}
+	}
+
+	/* must be called with the dispatch lock; an overflow event is taken once all events that were in the queue before it have been taken */
+	private int drainQueue(final Object[] batch) {
+		int numEvents = 0;
+		while (numEvents < batch.length) {
+			Object event;
+			OverflowEvent overflowEvent = this.overflowEvents.peek();
+			if (overflowEvent != null && overflowEvent.position <= this.queue.headPosition()) {
+				event = this.overflowEvents.poll().event;
+			} else if ((event = this.queue.poll()) == null) {
+				break;
+			}
+			if (event instanceof CoalescedEvent) {
+				CoalescedEvent coalescedEvent = (CoalescedEvent) event;
+				event = this.pendingCoalescableEvents.remove(coalescedEvent.key, coalescedEvent) ? coalescedEvent.event : null; // superseded events are skipped
+			}
+			batch[numEvents++] = event;
+		}
+		return numEvents;
+	}
+
+	private void deliver(final Object[] batch, final int numEvents) {
+		for (ListenerBus listenerBus : this.listenerBuses) {
+			for (int i = 0; i < numEvents; i++) {
+				if (batch[i] != null) {
+					listenerBus.bus.post(batch[i]);
+				}
+			}
+		}
+		this.numDispatchedEvents.addAndGet(Arrays.stream(batch, 0, numEvents).filter(e -> e != null).count());
+		Arrays.fill(batch, 0, numEvents, null);
+	}
+
+	/* dispatches the events that are still in the queue and then the given event (if any) in the current thread */
+	private void dispatchPendingEventsAnd(final Object event) {
+		synchronized (this.dispatchLock) {
+			Object[] batch = new Object[this.batchSize];
+			int numEvents;
+			while ((numEvents = this.drainQueue(batch)) > 0) {
+				this.deliver(batch, numEvents);
+			}
+			if (event != null) {
+				this.deliver(new Object[] { event }, 1);
+			}
+		}
+	}
+
+	/**
+	 * Delivers all pending events and switches to synchronous dispatch. If called from a thread other than the dispatcher thread, this method returns once all events posted before have been
+	 * delivered.
+	 */
+	public void shutdown() {
+		Thread currentDispatcher;
+		synchronized (this.lifecycleLock) {
+			this.shutdown = true;
+			currentDispatcher = this.dispatcher;
+		}
+		if (currentDispatcher == Thread.currentThread()) {
+			return;
+		}
+		if (currentDispatcher != null) {
+			LockSupport.unpark(currentDispatcher);
+			try {
+				currentDispatcher.join();
+			} catch (InterruptedException e) {
+				logger.info("Interrupted while waiting for the dispatcher of {}, delivering the remaining events in the current thread.", this.identifier);
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.dispatchPendingEventsAnd(null);
+		logger.debug("Shut down event bus {}. Posted: {}, dispatched: {}, dropped: {}, coalesced: {}, maximum queue depth: {}", this.identifier, this.getNumberOfPostedEvents(), this.getNumberOfDispatchedEvents(),
+				this.getNumberOfDroppedEvents(), this.getNumberOfCoalescedEvents(), this.getMaxQueueDepth());
+	}
+
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	/**
+	 * @return The number of events currently waiting to be dispatched.
+	 */
+	public int getQueueDepth() {
+		return this.queue.size();
+	}
+
+	/**
+	 * @return The largest number of events that have been waiting to be dispatched at the same time.
+	 */
+	public int getMaxQueueDepth() {
+		return this.maxQueueDepth.get();
+	}
+
+	public int getCapacity() {
+		return this.queue.capacity();
+	}
+
+	public EEventOverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	public long getNumberOfPostedEvents() {
+		return this.numPostedEvents.get();
+	}
+
+	/**
+	 * @return The number of (possibly coalesced) events that have been delivered to the listeners. An event counts once regardless of the number of listeners.
+	 */
+	public long getNumberOfDispatchedEvents() {
+		return this.numDispatchedEvents.get();
+	}
+
+	public long getNumberOfDroppedEvents() {
+		return this.numDroppedEvents.get();
+	}
+
+	/**
+	 * @return The number of events that have been replaced by a later event with the same coalescing key.
+	 */
+	public long getNumberOfCoalescedEvents() {
+		return this.numCoalescedEvents.get();
+	}
+}
@@ -0,0 +1,13 @@
+package ai.libs.jaicore.basic.algorithm;
+
+/**
+ * This enum encapsulates how an {@link AsynchronousEventBus} treats {@link ICoalescableEvent}s. Other events are never dropped; posting them blocks until the queue has space.
+ */
+public enum EEventOverflowPolicy {
+	// all events block the posting thread until there is space in the queue
+	BLOCK,
+	// coalescable events are dropped if the queue is full
+	DROP,
+	// a coalescable event always supersedes the pending events with the same key, which are then skipped; it is delivered at the position at which it has been posted, and posting blocks if the queue is full
+	COALESCE;
+}
@@ -0,0 +1,14 @@
+package ai.libs.jaicore.basic.algorithm;
+
+/**
+ * An event that may be dropped or merged with other events by an {@link AsynchronousEventBus} if listeners cannot keep up with the algorithm.
+ *
+ * Events with the same coalescing key describe the state of the same entity (e.g., the type of a node in a search graph), so only the latest of them is relevant.
+ */
+public interface ICoalescableEvent {
+
+	/**
+	 * @return The key identifying the entity whose state is described by this event.
+	 */
+	public Object getCoalescingKey();
+}
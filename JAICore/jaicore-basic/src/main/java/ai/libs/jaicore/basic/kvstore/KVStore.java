@@ -14,6 +14,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -298,38 +299,18 @@ public class KVStore extends HashMap<String, Object> implements IKVStore, Serial
 	@Override
 	public boolean matches(final Map<String, String> selection) {
 		boolean doesNotMatchAllSelectionCriteria = selection.entrySet().stream().anyMatch(x -> {
-			boolean isEqual = this.getAsString(x.getKey()).equals(x.getValue());
-
-			if (!x.getValue().contains("*")) {
-				return !x.getValue().equals(this.getAsString(x.getKey()));
+			String value = this.getAsString(x.getKey());
+			if (value == null) {
+				return true;
 			}
 
-			String[] exprSplit = x.getValue().split("\\*");
-			String currentValue = x.getValue();
-			boolean matchesPattern = true;
-
-			for (int i = 0; i < exprSplit.length; i++) {
-				if (i == 0 && !x.getValue().startsWith("*") && !currentValue.startsWith(exprSplit[i])) {
-					matchesPattern = false;
-				}
-
-				if (currentValue.contains(exprSplit[i])) {
-					currentValue = currentValue.replaceFirst("(" + exprSplit[i] + ")", "#$#");
-					currentValue = currentValue.split("#$#")[1];
-				} else {
-					matchesPattern = false;
-				}
-
-				if (i == (exprSplit.length - 1) && !x.getValue().endsWith("*") && !currentValue.endsWith(exprSplit[i])) {
-					matchesPattern = false;
-				}
-
-				if (!matchesPattern) {
-					break;
-				}
+			if (!x.getValue().contains("*")) {
+				return !x.getValue().equals(value);
 			}
 
-			return !isEqual && !matchesPattern;
+			/* each * matches an arbitrary (possibly empty) sequence of characters, all other characters are matched literally */
+			String pattern = Arrays.stream(x.getValue().split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*"));
+			return !value.matches(pattern);
 		});
 
 		return !doesNotMatchAllSelectionCriteria;
@@ -457,6 +457,13 @@ public class KVStoreCollection extends LinkedList<IKVStore> {
 		return this.group(groupingKeys, new HashMap<>());
 	}
 
+	/**
+	 * @return A column-oriented copy of this collection, which is better suited for analyzing large collections.
+	 */
+	public KVStoreTable toTable() {
+		return new KVStoreTable(this);
+	}
+
 	@Override
 	public boolean equals(final Object obj) {
 		if (!(obj instanceof KVStoreCollection)) {
@@ -0,0 +1,355 @@
+package ai.libs.jaicore.basic.kvstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of a single key in a {@link KVStoreTable}.
+ *
+ * Columns whose values are all integers, longs, or doubles are stored in primitive arrays. All other values are stored by their string representation, which is dictionary-encoded, i.e. each row
+ * refers to the code of its value in a dictionary of the distinct values. Numeric columns are dictionary-encoded on demand, as soon as rows are compared by their values (e.g. for selections and
+ * groupings). The codes of a column can be indexed such that the rows with a certain value are found without a scan.
+ *
+ * Null values have the code -1.
+ */
+class KVStoreColumn {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private enum EColumnType {
+		NONE, INTEGER, LONG, DOUBLE, STRING
+	}
+
+	private final String name;
+	private EColumnType type = EColumnType.NONE;
+	private int numRows;
+	private final BitSet nonNull = new BitSet();
+
+	/* values of numeric columns */
+	private long[] longValues;
+	private double[] doubleValues;
+
+	/* dictionary encoding (built from the start for string columns, and on demand for numeric ones) */
+	private int[] codes;
+	private List<String> dictionary;
+	private Map<String, Integer> codeOfValue;
+	private Map<Long, Integer> codeOfNumericValue;
+
+	/* the values of the dictionary parsed as doubles */
+	private double[] parsedDictionary;
+
+	/* index: the rows with code c are rowsByCode[offsets[c+1]], ..., rowsByCode[offsets[c+2]-1] in ascending order */
+	private int[] offsets;
+	private int[] rowsByCode;
+
+	KVStoreColumn(final String name) {
+		this.name = name;
+	}
+
+	String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets the value of the given row. Rows must be set in ascending order, and rows that are skipped are null.
+	 */
+	void set(final int row, final Object value) {
+		this.numRows = row + 1;
+		if (value == null) {
+			return;
+		}
+		EColumnType typeOfValue = getType(value);
+		if (this.type == EColumnType.NONE) {
+			this.type = typeOfValue;
+		} else if (this.type != EColumnType.STRING && this.type != typeOfValue) {
+			if (this.type != EColumnType.DOUBLE && typeOfValue != EColumnType.DOUBLE && typeOfValue != EColumnType.STRING) {
+				this.type = EColumnType.LONG; // integers and longs
+			} else {
+				this.convertToStringColumn();
+			}
+		}
+		this.nonNull.set(row);
+		switch (this.type) {
+		case INTEGER:
+		case LONG:
+			this.longValues = ensureCapacity(this.longValues, row);
+			this.longValues[row] = ((Number) value).longValue();
+			break;
+		case DOUBLE:
+			this.doubleValues = ensureCapacity(this.doubleValues, row);
+			this.doubleValues[row] = (Double) value;
+			break;
+		default:
+			this.codes = ensureCapacity(this.codes, row);
+			this.codes[row] = this.encode(value + "");
+			break;
+		}
+	}
+
+	/**
+	 * Trims the arrays of the column to the given number of rows. Afterwards, no values can be set anymore.
+	 */
+	void seal(final int numRows) {
+		this.numRows = numRows;
+		if (this.type == EColumnType.STRING) {
+			this.codes = Arrays.copyOf(this.codes, numRows);
+			for (int row = this.nonNull.nextClearBit(0); row < numRows; row = this.nonNull.nextClearBit(row + 1)) {
+				this.codes[row] = -1;
+			}
+		} else if (this.longValues != null) {
+			this.longValues = Arrays.copyOf(this.longValues, numRows);
+		} else if (this.doubleValues != null) {
+			this.doubleValues = Arrays.copyOf(this.doubleValues, numRows);
+		}
+	}
+
+	private static EColumnType getType(final Object value) {
+		if (value instanceof Integer) {
+			return EColumnType.INTEGER;
+		} else if (value instanceof Long) {
+			return EColumnType.LONG;
+		} else if (value instanceof Double) {
+			return EColumnType.DOUBLE;
+		} else {
+			return EColumnType.STRING;
+		}
+	}
+
+	private void convertToStringColumn() {
+		int[] stringCodes = new int[Math.max(INITIAL_CAPACITY, this.numRows)];
+		this.dictionary = new ArrayList<>();
+		this.codeOfValue = new HashMap<>();
+		for (int row = this.nonNull.nextSetBit(0); row >= 0; row = this.nonNull.nextSetBit(row + 1)) {
+			stringCodes[row] = this.encode(this.getAsString(row));
+		}
+		this.type = EColumnType.STRING;
+		this.codes = stringCodes;
+		this.longValues = null;
+		this.doubleValues = null;
+		this.codeOfNumericValue = null;
+	}
+
+	private int encode(final String value) {
+		if (this.dictionary == null) {
+			this.dictionary = new ArrayList<>();
+			this.codeOfValue = new HashMap<>();
+		}
+		return this.codeOfValue.computeIfAbsent(value, v -> {
+			this.dictionary.add(v);
+			return this.dictionary.size() - 1;
+		});
+	}
+
+	private static long[] ensureCapacity(final long[] array, final int index) {
+		if (array == null) {
+			return new long[Math.max(INITIAL_CAPACITY, index + 1)];
+		}
+		return index < array.length ? array : Arrays.copyOf(array, Math.max(2 * array.length, index + 1));
+	}
+
+	private static double[] ensureCapacity(final double[] array, final int index) {
+		if (array == null) {
+			return new double[Math.max(INITIAL_CAPACITY, index + 1)];
+		}
+		return index < array.length ? array : Arrays.copyOf(array, Math.max(2 * array.length, index + 1));
+	}
+
+	private static int[] ensureCapacity(final int[] array, final int index) {
+		if (array == null) {
+			return new int[Math.max(INITIAL_CAPACITY, index + 1)];
+		}
+		return index < array.length ? array : Arrays.copyOf(array, Math.max(2 * array.length, index + 1));
+	}
+
+	boolean isNull(final int row) {
+		return !this.nonNull.get(row);
+	}
+
+	/**
+	 * @return Whether the values of the column are stored in a primitive array.
+	 */
+	boolean isNumeric() {
+		return this.type == EColumnType.INTEGER || this.type == EColumnType.LONG || this.type == EColumnType.DOUBLE;
+	}
+
+	/**
+	 * @return The value of the given row as it has been set, except for values that are neither integers, longs, nor doubles, which are returned as strings.
+	 */
+	Object get(final int row) {
+		if (this.isNull(row)) {
+			return null;
+		}
+		switch (this.type) {
+		case INTEGER:
+			return (int) this.longValues[row];
+		case LONG:
+			return this.longValues[row];
+		case DOUBLE:
+			return this.doubleValues[row];
+		default:
+			return this.dictionary.get(this.codes[row]);
+		}
+	}
+
+	/**
+	 * @return The string representation of the value of the given row (cf. {@link KVStore#getAsString(String)}).
+	 */
+	String getAsString(final int row) {
+		if (this.isNull(row)) {
+			return null;
+		}
+		switch (this.type) {
+		case INTEGER:
+		case LONG:
+			return Long.toString(this.longValues[row]);
+		case DOUBLE:
+			return Double.toString(this.doubleValues[row]);
+		default:
+			return this.dictionary.get(this.codes[row]);
+		}
+	}
+
+	/**
+	 * @return The value of the given row as a double. Values of string columns are parsed only once per distinct value.
+	 * @throws NumberFormatException
+	 *             The value of a string column cannot be parsed as a double.
+	 */
+	double getAsDouble(final int row) {
+		switch (this.type) {
+		case INTEGER:
+		case LONG:
+			return this.longValues[row];
+		case DOUBLE:
+			return this.doubleValues[row];
+		default:
+			double value = this.parsedDictionary[this.codes[row]];
+			if (Double.isNaN(value)) {
+				// either NaN is the value or it is not a number, in which case parsing throws the exception
+				return Double.parseDouble(this.dictionary.get(this.codes[row]));
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Prepares the column for concurrent calls of {@link #getAsDouble(int)}.
+	 */
+	synchronized void prepareNumericAccess() {
+		if (this.type != EColumnType.STRING || (this.parsedDictionary != null && this.parsedDictionary.length == this.dictionary.size())) {
+			return;
+		}
+		this.parsedDictionary = new double[this.dictionary.size()];
+		for (int code = 0; code < this.parsedDictionary.length; code++) {
+			try {
+				this.parsedDictionary[code] = Double.parseDouble(this.dictionary.get(code));
+			} catch (NumberFormatException e) {
+				this.parsedDictionary[code] = Double.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Encodes the values of a numeric column such that codes are available. Codes of numeric values are assigned by their bits, so two values have the same code if and only if they have the same string
+	 * representation.
+	 */
+	synchronized void prepareCodes() {
+		if (this.codes != null && this.codes.length == this.numRows) {
+			return;
+		}
+		this.codes = new int[this.numRows];
+		this.dictionary = new ArrayList<>();
+		this.codeOfValue = new HashMap<>();
+		this.codeOfNumericValue = new HashMap<>();
+		for (int row = 0; row < this.numRows; row++) {
+			if (this.isNull(row)) {
+				this.codes[row] = -1;
+				continue;
+			}
+			final int r = row;
+			long bits = this.type == EColumnType.DOUBLE ? Double.doubleToLongBits(this.doubleValues[row]) : this.longValues[row];
+			this.codes[row] = this.codeOfNumericValue.computeIfAbsent(bits, b -> {
+				String value = this.getAsString(r);
+				this.dictionary.add(value);
+				this.codeOfValue.put(value, this.dictionary.size() - 1);
+				return this.dictionary.size() - 1;
+			});
+		}
+	}
+
+	/**
+	 * @return The code of the value of the given row, or -1 if the value is null.
+	 */
+	int getCode(final int row) {
+		return this.codes[row];
+	}
+
+	/**
+	 * @return The code of the given string representation of a value, or -1 if no row has this value.
+	 */
+	int getCodeOfValue(final String value) {
+		this.prepareCodes();
+		Integer code = this.codeOfValue.get(value);
+		return code != null ? code : -1;
+	}
+
+	/**
+	 * @return The number of distinct non-null values.
+	 */
+	int getCardinality() {
+		this.prepareCodes();
+		return this.dictionary.size();
+	}
+
+	/**
+	 * @return The string representation of the value with the given code.
+	 */
+	String getValueOfCode(final int code) {
+		return this.dictionary.get(code);
+	}
+
+	/**
+	 * Creates a hash index on the values of the column.
+	 */
+	synchronized void createIndex() {
+		if (this.offsets != null) {
+			return;
+		}
+		this.prepareCodes();
+		int[] counts = new int[this.dictionary.size() + 2];
+		for (int row = 0; row < this.numRows; row++) {
+			counts[this.codes[row] + 2]++;
+		}
+		for (int i = 1; i < counts.length; i++) {
+			counts[i] += counts[i - 1];
+		}
+		int[] rows = new int[this.numRows];
+		int[] next = Arrays.copyOf(counts, counts.length);
+		for (int row = 0; row < this.numRows; row++) {
+			rows[next[this.codes[row] + 1]++] = row;
+		}
+		this.rowsByCode = rows;
+		this.offsets = counts;
+	}
+
+	boolean hasIndex() {
+		return this.offsets != null;
+	}
+
+	/**
+	 * @return The rows with the given code (or -1 for null values) in ascending order. Requires an index.
+	 */
+	int[] getRowsWithCode(final int code) {
+		return Arrays.copyOfRange(this.rowsByCode, this.offsets[code + 1], this.offsets[code + 2]);
+	}
+
+	/**
+	 * @return The number of rows with the given code (or -1 for null values). Requires an index.
+	 */
+	int getNumberOfRowsWithCode(final int code) {
+		return this.offsets[code + 2] - this.offsets[code + 1];
+	}
+}
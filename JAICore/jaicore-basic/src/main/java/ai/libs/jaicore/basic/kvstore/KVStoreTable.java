@@ -0,0 +1,567 @@
+package ai.libs.jaicore.basic.kvstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import org.api4.java.datastructure.kvstore.IKVStore;
+
+import ai.libs.jaicore.basic.kvstore.KVStoreCollection.EGroupMethod;
+
+/**
+ * A column-oriented representation of a collection of KVStores for analyzing large amounts of data, e.g. results of experiments that have been fetched from a database.
+ *
+ * Each key is stored in a column of primitive values or of dictionary-encoded strings (cf. {@link KVStoreColumn}), so selections and groupings compare integer codes instead of strings, and aggregations
+ * work on primitive values. Keys that are frequently used in selections can be indexed via {@link #createIndex(String...)}. The rows of a grouping are aggregated in parallel.
+ *
+ * The table offers the operations of {@link KVStoreCollection} for selecting, removing, projecting, and grouping with the same semantics. Selections do not copy any values but yield a new table that
+ * shares the columns of this table.
+ */
+public class KVStoreTable {
+
+	private static final String LABEL_GROUP_SIZE = "GROUP_SIZE";
+	private static final String WILDCARD = "*";
+
+	private final String collectionID;
+	private final int numRowsOfColumns;
+	private final Map<String, KVStoreColumn> columns;
+
+	/* the rows of the columns that belong to this table in ascending order, or null if all rows belong to it */
+	private int[] rows;
+
+	/**
+	 * Creates a table with the data of the given collection.
+	 *
+	 * @param collection
+	 *            The collection of KVStores.
+	 */
+	public KVStoreTable(final KVStoreCollection collection) {
+		this(collection.getCollectionID(), collection.iterator());
+	}
+
+	/**
+	 * Creates a table with the data of the given KVStores, e.g. as they are serialized from a database via {@link ai.libs.jaicore.db.sql.ResultSetToKVStoreSerializer#getSerializationIterator}. The
+	 * KVStores are not kept.
+	 *
+	 * @param collectionID
+	 *            The ID of the collection, which is used for the collections obtained from the table.
+	 * @param kvStores
+	 *            The KVStores.
+	 */
+	public KVStoreTable(final String collectionID, final Iterator<? extends IKVStore> kvStores) {
+		this.collectionID = collectionID;
+		this.columns = new LinkedHashMap<>();
+		int row = 0;
+		while (kvStores.hasNext()) {
+			for (Entry<String, Object> entry : kvStores.next().entrySet()) {
+				this.columns.computeIfAbsent(entry.getKey(), KVStoreColumn::new).set(row, entry.getValue());
+			}
+			row++;
+		}
+		this.numRowsOfColumns = row;
+		for (KVStoreColumn column : this.columns.values()) {
+			column.seal(row);
+		}
+	}
+
+	private KVStoreTable(final KVStoreTable table, final int[] rows) {
+		this.collectionID = table.collectionID;
+		this.numRowsOfColumns = table.numRowsOfColumns;
+		this.columns = new LinkedHashMap<>(table.columns);
+		this.rows = rows;
+	}
+
+	/**
+	 * @return The number of rows of this table.
+	 */
+	public int size() {
+		return this.rows != null ? this.rows.length : this.numRowsOfColumns;
+	}
+
+	public String getCollectionID() {
+		return this.collectionID;
+	}
+
+	/**
+	 * @return The keys of this table.
+	 */
+	public Set<String> getKeys() {
+		return Collections.unmodifiableSet(this.columns.keySet());
+	}
+
+	private int getRow(final int index) {
+		return this.rows != null ? this.rows[index] : index;
+	}
+
+	private int[] getRows() {
+		return this.rows != null ? this.rows : IntStream.range(0, this.numRowsOfColumns).toArray();
+	}
+
+	/**
+	 * @param index
+	 *            The index of the row in this table.
+	 * @param key
+	 *            The key.
+	 * @return The string representation of the value of the key in the row, or null if there is none.
+	 */
+	public String getAsString(final int index, final String key) {
+		KVStoreColumn column = this.columns.get(key);
+		return column != null ? column.getAsString(this.getRow(index)) : null;
+	}
+
+	/**
+	 * @param index
+	 *            The index of the row in this table.
+	 * @param key
+	 *            The key.
+	 * @return The value of the key in the row as a double, or null if there is none.
+	 */
+	public Double getAsDouble(final int index, final String key) {
+		KVStoreColumn column = this.columns.get(key);
+		if (column == null || column.isNull(this.getRow(index))) {
+			return null;
+		}
+		column.prepareNumericAccess();
+		return column.getAsDouble(this.getRow(index));
+	}
+
+	/**
+	 * @param index
+	 *            The index of the row in this table.
+	 * @return A new KVStore with the (non-null) values of the row.
+	 */
+	public IKVStore getKVStore(final int index) {
+		return this.getKVStoreOfRow(this.getRow(index));
+	}
+
+	private IKVStore getKVStoreOfRow(final int row) {
+		KVStore store = new KVStore();
+		for (KVStoreColumn column : this.columns.values()) {
+			if (!column.isNull(row)) {
+				store.put(column.getName(), column.get(row));
+			}
+		}
+		return store;
+	}
+
+	/**
+	 * @return A new collection with a KVStore for each row of this table.
+	 */
+	public KVStoreCollection toKVStoreCollection() {
+		KVStoreCollection collection = new KVStoreCollection();
+		collection.setCollectionID(this.collectionID);
+		for (int index = 0; index < this.size(); index++) {
+			KVStore store = (KVStore) this.getKVStore(index);
+			store.setCollection(collection);
+			collection.add(store);
+		}
+		return collection;
+	}
+
+	/**
+	 * Creates hash indices for the given keys, which speed up selections of single values for these keys.
+	 *
+	 * @param keys
+	 *            The keys to index.
+	 */
+	public void createIndex(final String... keys) {
+		for (String key : keys) {
+			KVStoreColumn column = this.columns.get(key);
+			if (column == null) {
+				throw new IllegalArgumentException("The table has no key " + key);
+			}
+			column.createIndex();
+		}
+	}
+
+	/**
+	 * Selects the rows whose values match the given selection (cf. {@link KVStore#matches(Map)}), i.e. which are equal to the selected values or, for values that contain wildcards (*), match the
+	 * pattern.
+	 *
+	 * @param selection
+	 *            The selected value for each key.
+	 * @return A table with the selected rows.
+	 */
+	public KVStoreTable select(final Map<String, String> selection) {
+		List<KVStoreColumn> selectedColumns = new ArrayList<>();
+		List<boolean[]> acceptedCodes = new ArrayList<>();
+		KVStoreColumn mostSelectiveIndex = null;
+		int codeOfMostSelectiveIndex = -1;
+		for (Entry<String, String> criterion : selection.entrySet()) {
+			KVStoreColumn column = this.columns.get(criterion.getKey());
+			if (column == null) {
+				return new KVStoreTable(this, new int[0]);
+			}
+			boolean[] accepted = new boolean[column.getCardinality() + 1];
+			if (!criterion.getValue().contains(WILDCARD)) {
+				int code = column.getCodeOfValue(criterion.getValue());
+				if (code < 0) {
+					return new KVStoreTable(this, new int[0]);
+				}
+				accepted[code + 1] = true;
+				if (column.hasIndex() && (mostSelectiveIndex == null || column.getNumberOfRowsWithCode(code) < mostSelectiveIndex.getNumberOfRowsWithCode(codeOfMostSelectiveIndex))) {
+					mostSelectiveIndex = column;
+					codeOfMostSelectiveIndex = code;
+				}
+			} else {
+				Map<String, String> pattern = Collections.singletonMap(criterion.getKey(), criterion.getValue());
+				for (int code = 0; code < accepted.length - 1; code++) {
+					KVStore value = new KVStore();
+					value.put(criterion.getKey(), column.getValueOfCode(code));
+					accepted[code + 1] = value.matches(pattern);
+				}
+			}
+			selectedColumns.add(column);
+			acceptedCodes.add(accepted);
+		}
+		int[] candidates = mostSelectiveIndex != null ? this.intersectWithRows(mostSelectiveIndex.getRowsWithCode(codeOfMostSelectiveIndex)) : this.getRows();
+		return new KVStoreTable(this, filterRows(candidates, selectedColumns, acceptedCodes, false, false));
+	}
+
+	/**
+	 * Selects the rows whose values are contained in the given collections (cf. {@link KVStoreCollection#selectContained(Map, boolean)}).
+	 *
+	 * @param containsSelect
+	 *            The collection of selected values for each key.
+	 * @param or
+	 *            If true, a row is selected if one of its values is selected, otherwise all of them have to be selected.
+	 * @return A table with the selected rows.
+	 */
+	public KVStoreTable selectContained(final Map<String, Collection<String>> containsSelect, final boolean or) {
+		List<KVStoreColumn> selectedColumns = new ArrayList<>();
+		List<boolean[]> acceptedCodes = new ArrayList<>();
+		this.acceptContainedValues(containsSelect, KVStoreTable::containsNull, selectedColumns, acceptedCodes);
+		return new KVStoreTable(this, filterRows(this.getRows(), selectedColumns, acceptedCodes, or, false));
+	}
+
+	/**
+	 * Removes the rows with the given values (cf. {@link KVStoreCollection#removeAny(Map, boolean)}).
+	 *
+	 * @param condition
+	 *            The value for each key.
+	 * @param or
+	 *            If true, a row is removed if one of its values is equal to the given one, otherwise all of them have to be equal.
+	 */
+	public void removeAny(final Map<String, String> condition, final boolean or) {
+		Map<String, Collection<String>> containsCondition = new HashMap<>();
+		for (Entry<String, String> entry : condition.entrySet()) {
+			containsCondition.put(entry.getKey(), Collections.singleton(entry.getValue()));
+		}
+		this.removeRows(containsCondition, or, KVStoreTable::containsNull);
+	}
+
+	/**
+	 * Removes the rows whose values are contained in the given collections (cf. {@link KVStoreCollection#removeAnyContained(Map, boolean)}).
+	 *
+	 * @param condition
+	 *            The collection of values for each key.
+	 * @param or
+	 *            If true, a row is removed if one of its values is contained, otherwise all of them have to be contained.
+	 */
+	public void removeAnyContained(final Map<String, Collection<String>> condition, final boolean or) {
+		// like in the collection, a missing value is only contained in an empty collection if any value has to be contained
+		this.removeRows(condition, or, or ? (c -> c == null || c.isEmpty()) : KVStoreTable::containsNull);
+	}
+
+	private void removeRows(final Map<String, Collection<String>> condition, final boolean or, final Predicate<Collection<String>> nullIsContained) {
+		List<KVStoreColumn> selectedColumns = new ArrayList<>();
+		List<boolean[]> acceptedCodes = new ArrayList<>();
+		this.acceptContainedValues(condition, nullIsContained, selectedColumns, acceptedCodes);
+		this.rows = filterRows(this.getRows(), selectedColumns, acceptedCodes, or, true);
+	}
+
+	private static boolean containsNull(final Collection<String> values) {
+		return values != null && values.contains(null);
+	}
+
+	private void acceptContainedValues(final Map<String, Collection<String>> containedValues, final Predicate<Collection<String>> nullIsContained, final List<KVStoreColumn> selectedColumns,
+			final List<boolean[]> acceptedCodes) {
+		for (Entry<String, Collection<String>> criterion : containedValues.entrySet()) {
+			KVStoreColumn column = this.columns.get(criterion.getKey());
+			if (column == null) { // all values of a missing key are null
+				column = new KVStoreColumn(criterion.getKey());
+				column.seal(this.numRowsOfColumns);
+			}
+			boolean[] accepted = new boolean[column.getCardinality() + 1];
+			accepted[0] = nullIsContained.test(criterion.getValue());
+			if (criterion.getValue() != null) {
+				for (String value : criterion.getValue()) {
+					int code = value != null ? column.getCodeOfValue(value) : -1;
+					if (code >= 0) {
+						accepted[code + 1] = true;
+					}
+				}
+			}
+			selectedColumns.add(column);
+			acceptedCodes.add(accepted);
+		}
+	}
+
+	/* returns the candidates whose values are accepted for all (or, if or is set, for any) columns, or, if negate is set, the remaining candidates */
+	private static int[] filterRows(final int[] candidates, final List<KVStoreColumn> columns, final List<boolean[]> acceptedCodes, final boolean or, final boolean negate) {
+		KVStoreColumn[] columnArray = columns.toArray(new KVStoreColumn[0]);
+		boolean[][] acceptedArray = acceptedCodes.toArray(new boolean[0][]);
+		return Arrays.stream(candidates).parallel().filter(row -> {
+			boolean accepted = !or;
+			for (int i = 0; i < columnArray.length; i++) {
+				if (acceptedArray[i][columnArray[i].getCode(row) + 1] == or) {
+					accepted = or;
+					break;
+				}
+			}
+			return accepted != negate;
+		}).toArray();
+	}
+
+	/* returns the given rows of the columns that belong to this table */
+	private int[] intersectWithRows(final int[] rowsOfColumns) {
+		if (this.rows == null) {
+			return rowsOfColumns;
+		}
+		int[] intersection = new int[Math.min(rowsOfColumns.length, this.rows.length)];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < rowsOfColumns.length && j < this.rows.length) {
+			if (rowsOfColumns[i] < this.rows[j]) {
+				i++;
+			} else if (rowsOfColumns[i] > this.rows[j]) {
+				j++;
+			} else {
+				intersection[size++] = rowsOfColumns[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(intersection, size);
+	}
+
+	/**
+	 * Keeps only the given keys.
+	 *
+	 * @param keepKeys
+	 *            The keys to keep.
+	 */
+	public void project(final String... keepKeys) {
+		this.columns.keySet().retainAll(Arrays.asList(keepKeys));
+	}
+
+	/**
+	 * Removes the given keys.
+	 *
+	 * @param removeKeys
+	 *            The keys to remove.
+	 */
+	public void projectRemove(final String... removeKeys) {
+		this.columns.keySet().removeAll(Arrays.asList(removeKeys));
+	}
+
+	/**
+	 * Groups the rows by the values of the given keys.
+	 *
+	 * @param groupingKeys
+	 *            The keys to group by.
+	 * @return A collection with a KVStore for each group.
+	 */
+	public KVStoreCollection group(final String... groupingKeys) {
+		return this.group(groupingKeys, new HashMap<>());
+	}
+
+	/**
+	 * Groups the rows by the values of the given keys and aggregates the values of all other keys like {@link KVStoreCollection#group(String[], Map)}, except that null values are not aggregated.
+	 *
+	 * The rows are grouped by the combination of the codes of their values, and the groups are aggregated in parallel. The groups are ordered by their first row.
+	 *
+	 * @param groupingKeys
+	 *            The keys to group by.
+	 * @param groupingHandler
+	 *            The method to aggregate the values of each key (default: {@link EGroupMethod#LIST}).
+	 * @return A collection with a KVStore for each group.
+	 */
+	public KVStoreCollection group(final String[] groupingKeys, final Map<String, EGroupMethod> groupingHandler) {
+		/* compute the key of the group of each row */
+		KVStoreColumn[] groupingColumns = new KVStoreColumn[groupingKeys.length];
+		long[] radix = new long[groupingKeys.length];
+		long numberOfCombinations = 1;
+		for (int i = 0; i < groupingKeys.length; i++) {
+			groupingColumns[i] = this.columns.get(groupingKeys[i]);
+			if (groupingColumns[i] != null) {
+				groupingColumns[i].prepareCodes();
+			}
+		}
+		for (int i = 0; i < groupingKeys.length; i++) {
+			radix[i] = numberOfCombinations;
+			long numberOfCodes = groupingColumns[i] != null ? groupingColumns[i].getCardinality() + 1L : 1L;
+			numberOfCombinations = numberOfCombinations <= Long.MAX_VALUE / numberOfCodes ? numberOfCombinations * numberOfCodes : -1;
+			if (numberOfCombinations < 0) {
+				break;
+			}
+		}
+		int[] rowsOfTable = this.getRows();
+		List<?> groupKeys;
+		if (numberOfCombinations >= 0) {
+			groupKeys = Arrays.stream(rowsOfTable).parallel().mapToObj(row -> {
+				long key = 0;
+				for (int i = 0; i < groupingColumns.length; i++) {
+					if (groupingColumns[i] != null) {
+						key += (groupingColumns[i].getCode(row) + 1) * radix[i];
+					}
+				}
+				return key;
+			}).collect(Collectors.toList());
+		} else {
+			groupKeys = Arrays.stream(rowsOfTable).parallel().mapToObj(row -> Arrays.stream(groupingColumns).map(c -> c != null ? c.getCode(row) : -1).collect(Collectors.toList())).collect(Collectors.toList());
+		}
+
+		/* assign the rows to their groups */
+		Map<Object, Integer> groupOfKey = new HashMap<>();
+		int[] groupOfRow = new int[rowsOfTable.length];
+		for (int i = 0; i < rowsOfTable.length; i++) {
+			groupOfRow[i] = groupOfKey.computeIfAbsent(groupKeys.get(i), k -> groupOfKey.size());
+		}
+		int numGroups = groupOfKey.size();
+		int[] offsets = new int[numGroups + 1];
+		for (int group : groupOfRow) {
+			offsets[group + 1]++;
+		}
+		for (int group = 0; group < numGroups; group++) {
+			offsets[group + 1] += offsets[group];
+		}
+		int[] rowsByGroup = new int[rowsOfTable.length];
+		int[] next = Arrays.copyOf(offsets, numGroups);
+		for (int i = 0; i < rowsOfTable.length; i++) {
+			rowsByGroup[next[groupOfRow[i]]++] = rowsOfTable[i];
+		}
+
+		/* aggregate the groups */
+		List<String> keys = Arrays.asList(groupingKeys);
+		List<KVStoreColumn> aggregatedColumns = this.columns.values().stream().filter(c -> !keys.contains(c.getName())).collect(Collectors.toList());
+		for (KVStoreColumn column : aggregatedColumns) {
+			EGroupMethod groupingMethod = groupingHandler.get(column.getName());
+			if (groupingMethod == EGroupMethod.MAJORITY || groupingMethod == EGroupMethod.MINORITY) {
+				column.prepareCodes();
+			} else {
+				column.prepareNumericAccess();
+			}
+		}
+		List<IKVStore> groupedTasks = IntStream.range(0, numGroups).parallel()
+				.mapToObj(group -> this.aggregate(Arrays.copyOfRange(rowsByGroup, offsets[group], offsets[group + 1]), aggregatedColumns, groupingHandler)).collect(Collectors.toList());
+
+		KVStoreCollection tempCollection = new KVStoreCollection();
+		tempCollection.setCollectionID(this.collectionID);
+		tempCollection.addAll(groupedTasks);
+		return new KVStoreCollection(tempCollection.toString());
+	}
+
+	private IKVStore aggregate(final int[] rowsOfGroup, final List<KVStoreColumn> aggregatedColumns, final Map<String, EGroupMethod> groupingHandler) {
+		IKVStore groupedTask = this.getKVStoreOfRow(rowsOfGroup[0]);
+		groupedTask.put(LABEL_GROUP_SIZE, rowsOfGroup.length);
+
+		for (KVStoreColumn column : aggregatedColumns) {
+			int[] rowsWithValue = Arrays.stream(rowsOfGroup).filter(row -> !column.isNull(row)).toArray();
+			if (rowsWithValue.length == 0) {
+				continue;
+			}
+			String key = column.getName();
+			EGroupMethod groupingMethod = groupingHandler.get(key);
+			if (groupingMethod == null) {
+				groupingMethod = EGroupMethod.getStandardGroupingHandler();
+			}
+
+			Object value = null;
+			switch (groupingMethod) {
+			case AVG_TRIMMED:
+			case AVG:
+				double[] values = Arrays.stream(rowsWithValue).mapToDouble(column::getAsDouble).toArray();
+				if (groupingMethod == EGroupMethod.AVG_TRIMMED && values.length > 5) {
+					for (int i = 0; i < 2; i++) {
+						values = removeFirstOccurrence(values, DoubleStream.of(values).min().getAsDouble());
+						values = removeFirstOccurrence(values, DoubleStream.of(values).max().getAsDouble());
+					}
+				}
+				double mean = DoubleStream.of(values).average().getAsDouble();
+				double variance = variance(values, mean);
+				groupedTask.put(key + "_stdDev", Math.sqrt(variance));
+				groupedTask.put(key + "_max", DoubleStream.of(values).max().getAsDouble());
+				groupedTask.put(key + "_min", DoubleStream.of(values).min().getAsDouble());
+				groupedTask.put(key + "_var", variance);
+				groupedTask.put(key + "_sum", DoubleStream.of(values).sum());
+				groupedTask.put(key + "_list", DoubleStream.of(values).mapToObj(Double::toString).collect(Collectors.joining(",")));
+				value = mean;
+				break;
+			case MIN:
+				value = Arrays.stream(rowsWithValue).mapToDouble(column::getAsDouble).min().getAsDouble();
+				break;
+			case MAX:
+				value = Arrays.stream(rowsWithValue).mapToDouble(column::getAsDouble).max().getAsDouble();
+				break;
+			case MINORITY:
+				value = frequentValue(rowsWithValue, column, false);
+				break;
+			case MAJORITY:
+				value = frequentValue(rowsWithValue, column, true);
+				break;
+			case ADD:
+				value = Arrays.stream(rowsWithValue).mapToDouble(column::getAsDouble).sum();
+				break;
+			default:
+			case LIST:
+				value = Arrays.stream(rowsWithValue).mapToObj(column::getAsString).collect(Collectors.joining(","));
+				break;
+			}
+			groupedTask.put(key, value);
+		}
+		return groupedTask;
+	}
+
+	/* computes the variance like StatisticsUtil.variance */
+	private static double variance(final double[] values, final double mean) {
+		return DoubleStream.of(values).map(x -> Math.pow(x - mean, 2) / values.length).sum();
+	}
+
+	private static double[] removeFirstOccurrence(final double[] values, final double value) {
+		for (int i = 0; i < values.length; i++) {
+			if (Double.compare(values[i], value) == 0) {
+				double[] remainingValues = new double[values.length - 1];
+				System.arraycopy(values, 0, remainingValues, 0, i);
+				System.arraycopy(values, i + 1, remainingValues, i, values.length - i - 1);
+				return remainingValues;
+			}
+		}
+		return values;
+	}
+
+	/* returns the most (or least) frequent value of the given rows, where ties are broken in favor of the value that occurs first */
+	private static Object frequentValue(final int[] rowsOfGroup, final KVStoreColumn column, final boolean top) {
+		Map<Integer, Integer> counterMap = new LinkedHashMap<>();
+		for (int row : rowsOfGroup) {
+			counterMap.merge(column.getCode(row), 1, Integer::sum);
+		}
+		int frequentCode = -1;
+		int frequency = 0;
+		for (Entry<Integer, Integer> counterMapEntry : counterMap.entrySet()) {
+			if (frequentCode < 0 || (top && counterMapEntry.getValue() > frequency) || (!top && counterMapEntry.getValue() < frequency)) {
+				frequentCode = counterMapEntry.getKey();
+				frequency = counterMapEntry.getValue();
+			}
+		}
+		for (int row : rowsOfGroup) {
+			if (column.getCode(row) == frequentCode) {
+				return column.get(row);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,35 @@
+package ai.libs.jaicore.basic.metric;
+
+/**
+ * Provides the two rows of the dynamic programming matrix used by the elastic distance measures of this package.
+ * The rows are either allocated freshly or taken from a workspace that is reused by all calls within the same thread.
+ *
+ * @author fischor
+ */
+final class DistanceWorkspace {
+
+	private static final ThreadLocal<double[][]> ROWS = ThreadLocal.withInitial(() -> new double[2][0]);
+
+	private DistanceWorkspace() {
+		/* no instantiation desired */
+	}
+
+	/**
+	 * Returns two rows with at least the given length. The content of the rows is undefined.
+	 *
+	 * @param length The minimum length of each row.
+	 * @param reuse  Whether the thread-local workspace should be used.
+	 * @return Array with the two rows.
+	 */
+	static double[][] getRows(final int length, final boolean reuse) {
+		if (!reuse) {
+			return new double[2][length];
+		}
+		double[][] rows = ROWS.get();
+		if (rows[0].length < length) {
+			rows = new double[2][length];
+			ROWS.set(rows);
+		}
+		return rows;
+	}
+}
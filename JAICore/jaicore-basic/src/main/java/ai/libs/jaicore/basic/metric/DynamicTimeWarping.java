@@ -1,5 +1,7 @@
 package ai.libs.jaicore.basic.metric;
 
+import java.util.Arrays;
+
 import org.api4.java.common.metric.IDistanceMetric;
 import org.api4.java.common.metric.IScalarDistance;
 
@@ -20,18 +22,47 @@ import org.api4.java.common.metric.IScalarDistance;
  * <code>delta(i,j) is the point distance between <code>A_i</code> and
  * <code>B_i</code>.
  *
+ * Only two rows of the matrix are kept in memory. The calculation is abandoned
+ * as soon as all cells of a row exceed the best-so-far value (see
+ * {@link IAbandonable}). For the absolute and the squared point distance, the
+ * lower bounds LB_Kim and LB_Keogh can be used to prune candidates before the
+ * distance is calculated at all.
+ *
  * @author fischor
  */
-public class DynamicTimeWarping implements IDistanceMetric {
+public class DynamicTimeWarping implements IDistanceMetric, IAbandonable {
 
 	/** Distance measure for scalar points. */
 	private IScalarDistance delta;
 
+	/** Whether the lower bounds are valid for the point distance. */
+	private final boolean lowerBoundable;
+
+	/** Warping window used by {@link #distance(double[], double[])}; negative for no window. */
+	private final int window;
+
+	/** Best-so-far value used for early abandoning. */
+	private double bestSoFar = Double.POSITIVE_INFINITY;
+
+	/** Whether the thread-local workspace is used for the matrix rows. */
+	private boolean reuseWorkspace = true;
+
 	/**
 	 * Creates an instance with absolute distance as point distance.
 	 */
 	public DynamicTimeWarping() {
-		this((x, y) -> Math.abs(x - y));
+		this(-1);
+	}
+
+	/**
+	 * Creates an instance with absolute distance as point distance and a warping
+	 * window.
+	 *
+	 * @param window Maximum distance of two aligned points in the time dimension;
+	 *               negative for no window.
+	 */
+	public DynamicTimeWarping(final int window) {
+		this(ScalarDistanceUtil.getAbsoluteDistance(), window, true);
 	}
 
 	/**
@@ -40,70 +71,227 @@ public class DynamicTimeWarping implements IDistanceMetric {
 	 * @param delta Scalar distance measure.
 	 */
 	public DynamicTimeWarping(final IScalarDistance delta) {
+		this(delta, -1, false);
+	}
+
+	/**
+	 * Creates an instance with a given scalar distance measure.
+	 *
+	 * @param delta          Scalar distance measure.
+	 * @param window         Maximum distance of two aligned points in the time
+	 *                       dimension; negative for no window.
+	 * @param lowerBoundable Whether delta is non-decreasing in the absolute
+	 *                       difference of the two points and 0 for equal points,
+	 *                       which makes the lower bounds valid.
+	 */
+	public DynamicTimeWarping(final IScalarDistance delta, final int window, final boolean lowerBoundable) {
 		// Parameter checks.
 		if (delta == null) {
 			throw new IllegalArgumentException("Parameter delta must not be null.");
 		}
 
 		this.delta = delta;
+		this.window = window;
+		this.lowerBoundable = lowerBoundable;
 	}
 
 	@Override
 	public double distance(final double[] a, final double[] b) {
-		// Care in the most algorithm descriptions, the time series are 1-indexed.
+		return this.distance(a, b, this.bestSoFar);
+	}
 
+	@Override
+	public double distance(final double[] a, final double[] b, final double bestSoFar) {
+		return this.distanceWithWindow(a, b, this.getEffectiveWindow(a.length, b.length), bestSoFar);
+	}
+
+	public double distanceWithWindow(final double[] a, final double[] b, final int w) {
+		return this.distanceWithWindow(a, b, w, this.bestSoFar);
+	}
+
+	/**
+	 * Calculates the DTW distance with a warping window and abandons the
+	 * calculation once the best-so-far value is exceeded.
+	 *
+	 * @param a         First time series.
+	 * @param b         Second time series.
+	 * @param w         Warping window.
+	 * @param bestSoFar Limit for the calculation.
+	 * @return The distance or {@link Double#POSITIVE_INFINITY} if abandoned.
+	 */
+	public double distanceWithWindow(final double[] a, final double[] b, int w, final double bestSoFar) {
+		// Care in the most algorithm descriptions, the time series are 1-indexed.
 		int n = a.length;
 		int m = b.length;
-		double[][] matrix = new double[n + 1][m + 1]; // from 0 to n+1 incl. and 0 to m+1 incl.
+		w = Math.max(w, Math.abs(n - m));
 
-		// Initialize first row and column to infinity (except [0][0]).
-		for (int i = 1; i <= n; i++) {
-			matrix[i][0] = Double.MAX_VALUE;
-		}
-		for (int j = 1; j <= m; j++) {
-			matrix[0][j] = Double.MAX_VALUE;
-		}
-		// Initialize [0][0] with 0.
-		matrix[0][0] = 0d;
+		double[][] rows = DistanceWorkspace.getRows(m + 1, this.reuseWorkspace);
+		double[] previous = rows[0];
+		double[] current = rows[1];
+
+		// Initialize first row to infinity (except [0][0]).
+		Arrays.fill(previous, 0, m + 1, Double.MAX_VALUE);
+		previous[0] = 0d;
 
-		// Dynamic programming.
+		// Dynamic programming. Cells outside of the window are infinity.
 		for (int i = 1; i <= n; i++) {
-			for (int j = 1; j <= m; j++) {
+			int from = Math.max(1, i - w);
+			int to = Math.min(m, i + w);
+			current[from - 1] = Double.MAX_VALUE;
+			if (to < m) {
+				current[to + 1] = Double.MAX_VALUE;
+			}
+			double rowMinimum = Double.MAX_VALUE;
+			for (int j = from; j <= to; j++) {
 				double cost = this.delta.distance(a[i - 1], b[j - 1]); // 1 indexed in algo.
-				double mini = Math.min(matrix[i - 1][j], Math.min(matrix[i][j - 1], matrix[i - 1][j - 1]));
-				matrix[i][j] = cost + mini;
+				double mini = Math.min(previous[j], Math.min(current[j - 1], previous[j - 1]));
+				current[j] = cost + mini;
+				rowMinimum = Math.min(rowMinimum, current[j]);
+			}
+			if (rowMinimum > bestSoFar) {
+				return Double.POSITIVE_INFINITY;
 			}
+			double[] tmp = previous;
+			previous = current;
+			current = tmp;
 		}
 
-		return matrix[n][m];
+		return previous[m];
 	}
 
-	public double distanceWithWindow(final double[] a, final double[] b, int w) {
+	/**
+	 * Calculates the lower bound LB_Kim (in its first-last variant), i.e. the
+	 * point distances of the first and the last points. Requires
+	 * {@link #isLowerBoundable()}.
+	 *
+	 * @param a First time series.
+	 * @param b Second time series.
+	 * @return Lower bound for the DTW distance of a and b.
+	 */
+	public double lowerBoundKim(final double[] a, final double[] b) {
 		int n = a.length;
 		int m = b.length;
-		double[][] matrix = new double[n + 1][m + 1];
+		if (n == 0 || m == 0) {
+			return 0;
+		}
+		double bound = this.delta.distance(a[0], b[0]);
+		if (n > 1 || m > 1) {
+			bound += this.delta.distance(a[n - 1], b[m - 1]);
+		}
+		return bound;
+	}
 
-		w = Math.max(w, Math.abs(n - m));
+	/**
+	 * Computes the upper and lower envelope of a time series for the warping
+	 * window of this instance, which is required for
+	 * {@link #lowerBoundKeogh(double[], double[][], double)}.
+	 *
+	 * @param series The time series.
+	 * @return Array with the upper envelope at index 0 and the lower envelope at
+	 *         index 1.
+	 */
+	public double[][] computeEnvelope(final double[] series) {
+		int n = series.length;
+		int w = Math.min(this.getEffectiveWindow(n, n), n);
+		double[] upper = new double[n];
+		double[] lower = new double[n];
 
-		// Initialize first row and column to infinity (except [0][0]).
-		for (int i = 1; i <= n; i++) {
-			matrix[i][0] = Double.MAX_VALUE;
-		}
-		for (int j = 1; j <= m; j++) {
-			matrix[0][j] = Double.MAX_VALUE;
+		// Monotone deques of indices for the sliding maximum and minimum (Lemire).
+		int[] maxQueue = new int[n];
+		int[] minQueue = new int[n];
+		int maxHead = 0;
+		int maxTail = 0;
+		int minHead = 0;
+		int minTail = 0;
+		for (int k = 0; k < n + w; k++) {
+			if (k < n) {
+				while (maxTail > maxHead && series[maxQueue[maxTail - 1]] <= series[k]) {
+					maxTail--;
+				}
+				maxQueue[maxTail++] = k;
+				while (minTail > minHead && series[minQueue[minTail - 1]] >= series[k]) {
+					minTail--;
+				}
+				minQueue[minTail++] = k;
+			}
+			int i = k - w;
+			if (i >= 0) {
+				while (maxQueue[maxHead] < i - w) {
+					maxHead++;
+				}
+				while (minQueue[minHead] < i - w) {
+					minHead++;
+				}
+				upper[i] = series[maxQueue[maxHead]];
+				lower[i] = series[minQueue[minHead]];
+			}
 		}
-		// Initialize [0][0] with 0.
-		matrix[0][0] = 0d;
+		return new double[][] { upper, lower };
+	}
 
-		for (int i = 1; i <= n; i++) {
-			for (int j = Math.max(1, i - w); j <= Math.min(m, i + w); j++) {
-				double cost = this.delta.distance(a[i - 1], b[j - 1]);
-				double mini = Math.min(matrix[i - 1][j], Math.min(matrix[i][j - 1], matrix[i - 1][j - 1]));
-				matrix[i][j] = cost + mini;
+	/**
+	 * Calculates the lower bound LB_Keogh of a query against the envelope of a
+	 * candidate of the same length. Requires {@link #isLowerBoundable()}.
+	 *
+	 * @param query     The query time series.
+	 * @param envelope  Envelope of the candidate as computed by
+	 *                  {@link #computeEnvelope(double[])}.
+	 * @param bestSoFar The calculation stops once this value is exceeded.
+	 * @return Lower bound for the DTW distance of query and candidate (partial if
+	 *         it exceeds bestSoFar).
+	 */
+	public double lowerBoundKeogh(final double[] query, final double[][] envelope, final double bestSoFar) {
+		double[] upper = envelope[0];
+		double[] lower = envelope[1];
+		if (query.length != upper.length) {
+			throw new IllegalArgumentException("LB_Keogh requires time series of same length.");
+		}
+		double bound = 0;
+		for (int i = 0; i < query.length && bound <= bestSoFar; i++) {
+			double q = query[i];
+			if (q > upper[i]) {
+				bound += this.delta.distance(q, upper[i]);
+			} else if (q < lower[i]) {
+				bound += this.delta.distance(q, lower[i]);
 			}
 		}
+		return bound;
+	}
+
+	private int getEffectiveWindow(final int n, final int m) {
+		return this.window < 0 ? Math.max(n, m) : this.window;
+	}
+
+	/**
+	 * @return Whether the lower bounds are valid for the point distance of this
+	 *         instance.
+	 */
+	public boolean isLowerBoundable() {
+		return this.lowerBoundable;
+	}
+
+	public int getWindow() {
+		return this.window;
+	}
 
-		return matrix[n][m];
+	@Override
+	public void setBestSoFar(final double limit) {
+		this.bestSoFar = limit;
+	}
+
+	@Override
+	public double getBestSoFar() {
+		return this.bestSoFar;
+	}
+
+	/**
+	 * Sets whether the rows of the dynamic programming matrix are taken from a
+	 * thread-local workspace (default) or allocated for each calculation.
+	 *
+	 * @param reuseWorkspace
+	 */
+	public void setReuseWorkspace(final boolean reuseWorkspace) {
+		this.reuseWorkspace = reuseWorkspace;
 	}
 
-}
\ No newline at end of file
+}
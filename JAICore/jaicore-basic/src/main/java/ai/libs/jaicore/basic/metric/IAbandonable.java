@@ -22,4 +22,18 @@ public interface IAbandonable {
      * @return The limit.
      */
     public double getBestSoFar();
-}
\ No newline at end of file
+
+    /**
+     * Calculates the distance between two time series, but abandons the
+     * calculation once it is clear that the distance exceeds the given
+     * best-so-far value.
+     * 
+     * @param a         First time series.
+     * @param b         Second time series.
+     * @param bestSoFar The limit for this calculation (overrides the limit set
+     *                  via {@link #setBestSoFar(double)}).
+     * @return The distance or {@link Double#POSITIVE_INFINITY} if the
+     *         calculation has been abandoned.
+     */
+    public double distance(double[] a, double[] b, double bestSoFar);
+}
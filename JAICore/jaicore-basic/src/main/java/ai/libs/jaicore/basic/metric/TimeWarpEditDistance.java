@@ -1,5 +1,8 @@
 package ai.libs.jaicore.basic.metric;
 
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 import org.api4.java.common.metric.IScalarDistance;
 import org.api4.java.common.metric.ITimeseriesDistanceMetric;
 
@@ -13,7 +16,7 @@ import org.api4.java.common.metric.ITimeseriesDistanceMetric;
  *
  * @author fischor
  */
-public class TimeWarpEditDistance implements ITimeseriesDistanceMetric {
+public class TimeWarpEditDistance implements ITimeseriesDistanceMetric, IAbandonable {
 
 	/**
 	 * Stiffness parameter. Used to parametrize the influence of the time stamp
@@ -29,6 +32,12 @@ public class TimeWarpEditDistance implements ITimeseriesDistanceMetric {
 	 */
 	private IScalarDistance d;
 
+	/** Best-so-far value used for early abandoning. */
+	private double bestSoFar = Double.POSITIVE_INFINITY;
+
+	/** Whether the thread-local workspace is used for the matrix rows. */
+	private boolean reuseWorkspace = true;
+
 	/**
 	 * Constructor.
 	 *
@@ -67,11 +76,33 @@ public class TimeWarpEditDistance implements ITimeseriesDistanceMetric {
 
 	@Override
 	public double distance(final double[] a, final double[] tA, final double[] b, final double[] tB) {
+		return this.distance(a, tA, b, tB, this.bestSoFar);
+	}
+
+	@Override
+	public double distance(final double[] a, final double[] b, final double bestSoFar) {
+		return this.distance(a, IntStream.range(0, a.length).mapToDouble(x -> x).toArray(), b, IntStream.range(0, b.length).mapToDouble(x -> x).toArray(), bestSoFar);
+	}
+
+	/**
+	 * Calculates the distance between two time series and abandons the
+	 * calculation once the best-so-far value is exceeded.
+	 *
+	 * @param a         First time series.
+	 * @param tA        Timestamps for the first time series.
+	 * @param b         Second time series.
+	 * @param tB        Timestamps for the second times series.
+	 * @param bestSoFar Limit for the calculation.
+	 * @return The distance or {@link Double#POSITIVE_INFINITY} if abandoned.
+	 */
+	public double distance(final double[] a, final double[] tA, final double[] b, final double[] tB, final double bestSoFar) {
 		int n = a.length;
 		int m = b.length;
 
-		// DP[0..n, 0..m]
-		double[][] dp = new double[n + 1][m + 1];
+		// DP[0..n, 0..m], of which only the rows i-1 (previous) and i (current) are kept.
+		double[][] rows = DistanceWorkspace.getRows(m + 1, this.reuseWorkspace);
+		double[] previous = rows[0];
+		double[] current = rows[1];
 
 		// declare A[0] := 0, tA[0] := 0
 		// declare B[0] := 0, tB[0] := 0
@@ -79,16 +110,13 @@ public class TimeWarpEditDistance implements ITimeseriesDistanceMetric {
 		// referencing A[i-1] use A[i-2]
 
 		// Dynamic Programming initialization.
-		for (int i = 1; i <= n; i++) {
-			dp[i][0] = Double.MAX_VALUE;
-		}
-		for (int i = 1; i <= m; i++) {
-			dp[0][i] = Double.MAX_VALUE;
-		}
-		dp[0][0] = 0d;
+		Arrays.fill(previous, 0, m + 1, Double.MAX_VALUE);
+		previous[0] = 0d;
 
 		// Dynamic programming.
 		for (int i = 1; i <= n; i++) {
+			current[0] = Double.MAX_VALUE;
+			double rowMinimum = Double.MAX_VALUE;
 			for (int j = 1; j <= m; j++) {
 
 				// Cost for Deletion in A.
@@ -100,33 +128,60 @@ public class TimeWarpEditDistance implements ITimeseriesDistanceMetric {
 
 				if (i == 1 && j == 1) {
 					// Substitute A[i-2] with 0 and B[j-2] with 0.
-					c1 = dp[i - 1][j] + this.d.distance(0, a[i - 1]) + this.nu * tA[i - 1] + this.lambda;
-					c2 = dp[i][j - 1] + this.d.distance(0, b[j - 1]) + this.nu * tB[j - 1] + this.lambda;
-					c3 = dp[i - 1][j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.nu * Math.abs(tA[i - 1] - tB[j - 1]);
+					c1 = previous[j] + this.d.distance(0, a[i - 1]) + this.nu * tA[i - 1] + this.lambda;
+					c2 = current[j - 1] + this.d.distance(0, b[j - 1]) + this.nu * tB[j - 1] + this.lambda;
+					c3 = previous[j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.nu * Math.abs(tA[i - 1] - tB[j - 1]);
 				} else if (i == 1) {
 					// Substitute A[i-2] with 0.
-					c1 = dp[i - 1][j] + this.d.distance(0, a[i - 1]) + this.nu * tA[i - 1] + this.lambda;
-					c2 = dp[i][j - 1] + this.d.distance(b[j - 2], b[j - 1]) + this.nu * (tB[j - 1] - tB[j - 2]) + this.lambda;
-					c3 = dp[i - 1][j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.d.distance(0, b[j - 2]) + this.nu * (Math.abs(tA[i - 1] - tB[j - 1]) + tB[j - 2]);
+					c1 = previous[j] + this.d.distance(0, a[i - 1]) + this.nu * tA[i - 1] + this.lambda;
+					c2 = current[j - 1] + this.d.distance(b[j - 2], b[j - 1]) + this.nu * (tB[j - 1] - tB[j - 2]) + this.lambda;
+					c3 = previous[j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.d.distance(0, b[j - 2]) + this.nu * (Math.abs(tA[i - 1] - tB[j - 1]) + tB[j - 2]);
 				} else if (j == 1) {
 					// Substitute B[j-2] with 0.
-					c1 = dp[i - 1][j] + this.d.distance(a[i - 2], a[i - 1]) + this.nu * (tA[i - 1] - tA[i - 2]) + this.lambda;
-					c2 = dp[i][j - 1] + this.d.distance(0, b[j - 1]) + this.nu * tB[j - 1] + this.lambda;
-					c3 = dp[i - 1][j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.d.distance(a[i - 2], 0) + this.nu * (Math.abs(tA[i - 1] - tB[j - 1]) + tA[i - 2]);
+					c1 = previous[j] + this.d.distance(a[i - 2], a[i - 1]) + this.nu * (tA[i - 1] - tA[i - 2]) + this.lambda;
+					c2 = current[j - 1] + this.d.distance(0, b[j - 1]) + this.nu * tB[j - 1] + this.lambda;
+					c3 = previous[j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.d.distance(a[i - 2], 0) + this.nu * (Math.abs(tA[i - 1] - tB[j - 1]) + tA[i - 2]);
 				} else {
 					// No substitution.
-					c1 = dp[i - 1][j] + this.d.distance(a[i - 2], a[i - 1]) + this.nu * (tA[i - 1] - tA[i - 2]) + this.lambda;
-					c2 = dp[i][j - 1] + this.d.distance(b[j - 2], b[j - 1]) + this.nu * (tB[j - 1] - tB[j - 2]) + this.lambda;
-					c3 = dp[i - 1][j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.d.distance(a[i - 2], b[j - 2]) + this.nu * (Math.abs(tA[i - 1] - tB[j - 1]) + Math.abs(tA[i - 2] - tB[j - 2]));
+					c1 = previous[j] + this.d.distance(a[i - 2], a[i - 1]) + this.nu * (tA[i - 1] - tA[i - 2]) + this.lambda;
+					c2 = current[j - 1] + this.d.distance(b[j - 2], b[j - 1]) + this.nu * (tB[j - 1] - tB[j - 2]) + this.lambda;
+					c3 = previous[j - 1] + this.d.distance(a[i - 1], b[i - 1]) + this.d.distance(a[i - 2], b[j - 2]) + this.nu * (Math.abs(tA[i - 1] - tB[j - 1]) + Math.abs(tA[i - 2] - tB[j - 2]));
 				}
 
 				// Minimum cost.
 				double minimum = Math.min(c1, Math.min(c2, c3));
-				dp[i][j] = minimum;
+				current[j] = minimum;
+				rowMinimum = Math.min(rowMinimum, minimum);
+			}
+			if (rowMinimum > bestSoFar) {
+				return Double.POSITIVE_INFINITY;
 			}
+			double[] tmp = previous;
+			previous = current;
+			current = tmp;
 		}
 
-		return dp[n][m];
+		return previous[m];
+	}
+
+	@Override
+	public void setBestSoFar(final double limit) {
+		this.bestSoFar = limit;
+	}
+
+	@Override
+	public double getBestSoFar() {
+		return this.bestSoFar;
+	}
+
+	/**
+	 * Sets whether the rows of the dynamic programming matrix are taken from a
+	 * thread-local workspace (default) or allocated for each calculation.
+	 *
+	 * @param reuseWorkspace
+	 */
+	public void setReuseWorkspace(final boolean reuseWorkspace) {
+		this.reuseWorkspace = reuseWorkspace;
 	}
 
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
 package ai.libs.jaicore.basic.metric;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.api4.java.common.metric.IDistanceMetric;
 import org.api4.java.common.metric.IScalarDistance;
@@ -22,7 +23,7 @@ import org.api4.java.common.metric.IScalarDistance;
  *
  * @author fischor
  */
-public class WeightedDynamicTimeWarping implements IDistanceMetric {
+public class WeightedDynamicTimeWarping implements IDistanceMetric, IAbandonable {
 
 	/**
 	 * Controls the level of penalization for the points with larger phase
@@ -40,7 +41,13 @@ public class WeightedDynamicTimeWarping implements IDistanceMetric {
 	private IScalarDistance d;
 
 	/** Memorizes the calculated weight vectors for a specific length. */
-	private Map<Integer, double[]> weightMemoization = new HashMap<>();
+	private Map<Integer, double[]> weightMemoization = new ConcurrentHashMap<>();
+
+	/** Best-so-far value used for early abandoning. */
+	private double bestSoFar = Double.POSITIVE_INFINITY;
+
+	/** Whether the thread-local workspace is used for the matrix rows. */
+	private boolean reuseWorkspace = true;
 
 	/**
 	 * Constructor.
@@ -58,31 +65,42 @@ public class WeightedDynamicTimeWarping implements IDistanceMetric {
 
 	@Override
 	public double distance(final double[] a, final double[] b) {
+		return this.distance(a, b, this.bestSoFar);
+	}
+
+	@Override
+	public double distance(final double[] a, final double[] b, final double bestSoFar) {
 		int n = a.length;
 		int m = b.length;
-		double[][] matrix = new double[n + 1][m + 1];
 
 		double[] weights = this.calculateWeights(Math.max(n, m));
 
-		// Dynamic Programming initialization.
-		for (int i = 1; i <= n; i++) {
-			matrix[i][0] = Double.MAX_VALUE;
-		}
-		for (int j = 1; j <= m; j++) {
-			matrix[0][j] = Double.MAX_VALUE;
-		}
-		matrix[0][0] = 0d;
+		// Dynamic Programming initialization. Only two rows of the matrix are kept.
+		double[][] rows = DistanceWorkspace.getRows(m + 1, this.reuseWorkspace);
+		double[] previous = rows[0];
+		double[] current = rows[1];
+		Arrays.fill(previous, 0, m + 1, Double.MAX_VALUE);
+		previous[0] = 0d;
 
 		// Dynamic programming.
 		for (int i = 1; i <= n; i++) {
+			current[0] = Double.MAX_VALUE;
+			double rowMinimum = Double.MAX_VALUE;
 			for (int j = 1; j <= m; j++) {
 				// Paper: | w[i-j] (a_i - b_j) |^p
 				double cost = weights[Math.abs(i - j)] * this.d.distance(a[i - 1], b[j - 1]);
-				double minimum = Math.min(matrix[i - 1][j], Math.min(matrix[i][j - 1], matrix[i - 1][j - 1]));
-				matrix[i][j] = cost + minimum;
+				double minimum = Math.min(previous[j], Math.min(current[j - 1], previous[j - 1]));
+				current[j] = cost + minimum;
+				rowMinimum = Math.min(rowMinimum, current[j]);
 			}
+			if (rowMinimum > bestSoFar) {
+				return Double.POSITIVE_INFINITY;
+			}
+			double[] tmp = previous;
+			previous = current;
+			current = tmp;
 		}
-		return matrix[n][m];
+		return previous[m];
 	}
 
 	/**
@@ -115,4 +133,24 @@ public class WeightedDynamicTimeWarping implements IDistanceMetric {
 		return weights;
 	}
 
+	@Override
+	public void setBestSoFar(final double limit) {
+		this.bestSoFar = limit;
+	}
+
+	@Override
+	public double getBestSoFar() {
+		return this.bestSoFar;
+	}
+
+	/**
+	 * Sets whether the rows of the dynamic programming matrix are taken from a
+	 * thread-local workspace (default) or allocated for each calculation.
+	 *
+	 * @param reuseWorkspace
+	 */
+	public void setReuseWorkspace(final boolean reuseWorkspace) {
+		this.reuseWorkspace = reuseWorkspace;
+	}
+
 }
\ No newline at end of file
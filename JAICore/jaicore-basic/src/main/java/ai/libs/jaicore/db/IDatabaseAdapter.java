@@ -33,6 +33,8 @@ public interface IDatabaseAdapter extends Serializable, AutoCloseable, ILoggingC
 
 	public boolean doesTableExist(final String tablename) throws SQLException, IOException;
 
+	public boolean doesColumnExist(final String tablename, final String columnname) throws SQLException, IOException;
+
 	public void createTable(final String tablename, final String nameOfPrimaryField, final Collection<String> fieldnames, final Map<String, String> types, final Collection<String> keys) throws SQLException;
 
 	/**
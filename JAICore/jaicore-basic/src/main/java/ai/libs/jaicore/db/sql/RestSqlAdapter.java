@@ -261,4 +261,9 @@ class RestSqlAdapter implements IDatabaseAdapter {
 	public boolean doesTableExist(final String tablename) throws SQLException, IOException {
 		return this.getResultsOfQuery("SHOW TABLES").stream().anyMatch(r -> r.values().iterator().next().equals(tablename));
 	}
+
+	@Override
+	public boolean doesColumnExist(final String tablename, final String columnname) throws SQLException, IOException {
+		return !this.getResultsOfQuery("SHOW COLUMNS FROM `" + tablename + "` LIKE '" + columnname + "'").isEmpty();
+	}
 }
\ No newline at end of file
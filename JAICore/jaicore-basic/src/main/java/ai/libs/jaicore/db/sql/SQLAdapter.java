@@ -645,4 +645,12 @@ class SQLAdapter implements IDatabaseAdapter {
 	public boolean doesTableExist(final String tablename) throws IOException, SQLException {
 		return this.getResultsOfQuery("SHOW TABLES").stream().anyMatch(r -> r.values().iterator().next().equals(tablename));
 	}
+
+	@Override
+	public boolean doesColumnExist(final String tablename, final String columnname) throws SQLException {
+		this.checkConnection();
+		try (ResultSet columns = this.connect.getMetaData().getColumns(this.connect.getCatalog(), null, tablename, columnname)) {
+			return columns.next();
+		}
+	}
 }
\ No newline at end of file
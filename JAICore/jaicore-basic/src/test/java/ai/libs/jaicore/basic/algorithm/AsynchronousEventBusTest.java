@@ -0,0 +1,204 @@
+package ai.libs.jaicore.basic.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.eventbus.Subscribe;
+
+class AsynchronousEventBusTest {
+
+	private static class Event {
+		private final int producer;
+		private final int index;
+
+		private Event(final int producer, final int index) {
+			this.producer = producer;
+			this.index = index;
+		}
+	}
+
+	private static class StateEvent extends Event implements ICoalescableEvent {
+		private StateEvent(final int index) {
+			super(0, index);
+		}
+
+		@Override
+		public Object getCoalescingKey() {
+			return "state";
+		}
+	}
+
+	private static class Listener {
+		private final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+		private final CountDownLatch blocked = new CountDownLatch(1);
+		private final CountDownLatch release;
+
+		private Listener(final boolean blockOnFirstEvent) {
+			this.release = new CountDownLatch(blockOnFirstEvent ? 1 : 0);
+		}
+
+		@Subscribe
+		public void receive(final Event event) throws InterruptedException {
+			this.blocked.countDown();
+			this.release.await();
+			this.events.add(event);
+		}
+	}
+
+	@Test
+	void testThatEveryListenerReceivesAllEventsInOrder() throws InterruptedException {
+		AsynchronousEventBus bus = new AsynchronousEventBus("test", 64, 8, EEventOverflowPolicy.BLOCK);
+		Listener first = new Listener(false);
+		Listener second = new Listener(false);
+		bus.register(first);
+		bus.register(second);
+
+		/* several producers post concurrently and fill the (small) queue */
+		int numProducers = 4;
+		int numEventsPerProducer = 5000;
+		List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < numProducers; p++) {
+			final int producer = p;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < numEventsPerProducer; i++) {
+					bus.post(new Event(producer, i));
+				}
+			});
+			producers.add(thread);
+			thread.start();
+		}
+		for (Thread thread : producers) {
+			thread.join();
+		}
+		bus.shutdown();
+
+		assertEquals(numProducers * numEventsPerProducer, bus.getNumberOfDispatchedEvents());
+		assertEquals(0, bus.getQueueDepth());
+		assertTrue(bus.getMaxQueueDepth() <= bus.getCapacity());
+		for (Listener listener : new Listener[] { first, second }) {
+			assertEquals(numProducers * numEventsPerProducer, listener.events.size());
+			int[] nextIndex = new int[numProducers];
+			for (Event event : listener.events) {
+				assertEquals(nextIndex[event.producer]++, event.index);
+			}
+		}
+	}
+
+	@Test
+	void testCoalescing() throws InterruptedException {
+		AsynchronousEventBus bus = new AsynchronousEventBus("test", 64, 8, EEventOverflowPolicy.COALESCE);
+		Listener listener = new Listener(true);
+		bus.register(listener);
+
+		/* while the listener is blocked, all state events are coalesced into the latest one */
+		bus.post(new Event(1, 0));
+		listener.blocked.await();
+		for (int i = 0; i < 10; i++) {
+			bus.post(new StateEvent(i));
+		}
+		bus.post(new Event(1, 1));
+		listener.release.countDown();
+		bus.shutdown();
+
+		assertEquals(9, bus.getNumberOfCoalescedEvents());
+		assertEquals(3, listener.events.size());
+		assertEquals(9, listener.events.get(1).index);
+		assertEquals(1, listener.events.get(2).index);
+	}
+
+	@Test
+	void testThatCoalescedEventDoesNotOvertakeEventsPostedBeforeIt() throws InterruptedException {
+		AsynchronousEventBus bus = new AsynchronousEventBus("test", 64, 8, EEventOverflowPolicy.COALESCE);
+		Listener listener = new Listener(true);
+		bus.register(listener);
+
+		bus.post(new Event(1, 0));
+		listener.blocked.await();
+		bus.post(new StateEvent(0));
+		bus.post(new Event(1, 1));
+		bus.post(new StateEvent(1));
+		listener.release.countDown();
+		bus.shutdown();
+
+		assertEquals(1, bus.getNumberOfCoalescedEvents());
+		assertEquals(3, listener.events.size());
+		assertEquals(1, listener.events.get(1).producer);
+		assertEquals(1, listener.events.get(1).index);
+		assertEquals(0, listener.events.get(2).producer);
+		assertEquals(1, listener.events.get(2).index);
+	}
+
+	@Test
+	void testThatEventsOfListenersAreDeliveredInOrderIfQueueIsFull() throws InterruptedException {
+		AsynchronousEventBus bus = new AsynchronousEventBus("test", 2, 8, EEventOverflowPolicy.BLOCK);
+		int numReposts = 5;
+		Listener reposting = new Listener(false) {
+			@Override
+			@Subscribe
+			public void receive(final Event event) throws InterruptedException {
+				super.receive(event);
+				if (event.producer == 0) {
+					for (int i = 0; i < numReposts; i++) {
+						bus.post(new Event(1, i));
+					}
+				}
+			}
+		};
+		Listener other = new Listener(false);
+		bus.register(reposting);
+		bus.register(other);
+
+		/* the reposting listener posts more events than fit into the queue while the first event has not been delivered to the other listener yet */
+		bus.post(new Event(0, 0));
+		bus.shutdown();
+
+		for (Listener listener : new Listener[] { reposting, other }) {
+			assertEquals(numReposts + 1, listener.events.size());
+			for (int i = 0; i <= numReposts; i++) {
+				assertEquals(i == 0 ? 0 : 1, listener.events.get(i).producer);
+				assertEquals(i == 0 ? 0 : i - 1, listener.events.get(i).index);
+			}
+		}
+	}
+
+	@Test
+	void testDropping() throws InterruptedException {
+		AsynchronousEventBus bus = new AsynchronousEventBus("test", 2, 8, EEventOverflowPolicy.DROP);
+		Listener listener = new Listener(true);
+		bus.register(listener);
+
+		/* while the listener is blocked, state events that do not fit into the queue are dropped */
+		bus.post(new Event(1, 0));
+		listener.blocked.await();
+		for (int i = 0; i < 5; i++) {
+			bus.post(new StateEvent(i));
+		}
+		listener.release.countDown();
+		bus.shutdown();
+
+		assertEquals(3, bus.getNumberOfDroppedEvents());
+		assertEquals(3, listener.events.size());
+		assertEquals(6, bus.getNumberOfPostedEvents());
+	}
+
+	@Test
+	void testSynchronousDispatchAfterShutdown() {
+		AsynchronousEventBus bus = new AsynchronousEventBus("test", 16, 8, EEventOverflowPolicy.BLOCK);
+		Listener listener = new Listener(false);
+		bus.register(listener);
+		bus.post(new Event(0, 0));
+		bus.shutdown();
+		bus.post(new Event(0, 1));
+		assertEquals(2, listener.events.size());
+		bus.unregister(listener);
+		bus.post(new Event(0, 2));
+		assertEquals(2, listener.events.size());
+	}
+}
@@ -0,0 +1,240 @@
+package ai.libs.jaicore.basic.kvstore;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.api4.java.datastructure.kvstore.IKVStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.basic.kvstore.KVStoreCollection.EGroupMethod;
+
+/**
+ * Checks that the operations of a {@link KVStoreTable} yield the same KVStores as those of the {@link KVStoreCollection} it has been created from.
+ */
+public class KVStoreTableTest {
+
+	private static final int NUMBER_OF_STORES = 600;
+	private static final String[] VOTES = { "a", "a", "a", "b", "b", "c" };
+
+	private KVStoreCollection collection;
+	private KVStoreTable table;
+
+	/*
+	 * Creates stores with an integer, a double, and a string column, a column of integers and longs, a column of integers and strings (which is converted to a string column), and a column that is
+	 * missing in some stores and, if desired, null in others. Doubles are multiples of 0.25, so their sums do not depend on the order of the summation, and in the stores of each dataset, the votes have
+	 * distinct frequencies.
+	 */
+	private static KVStoreCollection createCollection(final boolean withNullValues) {
+		Random random = new Random(0);
+		KVStoreCollection collection = new KVStoreCollection();
+		collection.setCollectionID("experiments");
+		for (int i = 0; i < NUMBER_OF_STORES; i++) {
+			KVStore store = new KVStore();
+			store.put("dataset", "ds" + (i % 4));
+			store.put("algorithm", "algo" + random.nextInt(12));
+			store.put("seed", random.nextInt(10));
+			store.put("error", random.nextInt(400) / 4.0);
+			store.put("time", random.nextBoolean() ? (Object) random.nextInt(1000) : (Object) (long) random.nextInt(1000));
+			store.put("note", random.nextBoolean() ? (Object) random.nextInt(3) : "n" + random.nextInt(3));
+			store.put("vote", VOTES[(i / 4) % VOTES.length]);
+			if (random.nextInt(4) > 0) {
+				store.put("option", withNullValues && random.nextInt(5) == 0 ? null : "o" + random.nextInt(3));
+			}
+			collection.add(store);
+		}
+		return collection;
+	}
+
+	private static KVStoreCollection copy(final KVStoreCollection collection) {
+		KVStoreCollection copy = new KVStoreCollection(collection.stream().map(s -> (IKVStore) new KVStore((Map<String, Object>) s)).collect(Collectors.toList()));
+		copy.setCollectionID(collection.getCollectionID());
+		return copy;
+	}
+
+	/* the non-null values of each store in a canonical order, since a table does not keep null values */
+	private static List<String> canonicalize(final Collection<? extends IKVStore> stores) {
+		return stores.stream().map(s -> {
+			Map<String, Object> values = new TreeMap<>();
+			s.forEach((k, v) -> {
+				if (v != null) {
+					values.put(k, v.toString());
+				}
+			});
+			return values.toString();
+		}).sorted().collect(Collectors.toList());
+	}
+
+	private static void assertSameStores(final Collection<? extends IKVStore> expected, final KVStoreTable actual) {
+		assertSameStores(expected, actual.toKVStoreCollection());
+	}
+
+	private static void assertSameStores(final Collection<? extends IKVStore> expected, final Collection<? extends IKVStore> actual) {
+		assertEquals(canonicalize(expected), canonicalize(actual));
+	}
+
+	private static Map<String, String> selection(final String... keysAndValues) {
+		Map<String, String> selection = new HashMap<>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			selection.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return selection;
+	}
+
+	@BeforeEach
+	public void setup() {
+		this.collection = createCollection(true);
+		this.table = this.collection.toTable();
+	}
+
+	@Test
+	public void testConversion() {
+		assertEquals(this.collection.size(), this.table.size());
+		assertSameStores(this.collection, this.table);
+		for (int i = 0; i < this.collection.size(); i++) {
+			for (String key : Arrays.asList("dataset", "seed", "error", "time", "note", "vote", "option", "unknown")) {
+				assertEquals(this.collection.get(i).getAsString(key), this.table.getAsString(i, key));
+			}
+			assertEquals(this.collection.get(i).getAsDouble("time"), this.table.getAsDouble(i, "time"));
+		}
+	}
+
+	@Test
+	public void testSelect() {
+		List<Map<String, String>> selections = Arrays.asList(selection("dataset", "ds3"), selection("dataset", "ds3", "seed", "4"), selection("note", "2"), selection("note", "n1"), selection("time", "17"),
+				selection("error", "12.25"), selection("option", "o1"), selection("unknown", "x"), selection("dataset", "ds1*"), selection("algorithm", "*1"), selection("algorithm", "a*o*1*", "seed", "*"),
+				selection("error", "1*.5"), selection("dataset", "nothing*"));
+		for (boolean indexed : new boolean[] { false, true }) {
+			if (indexed) {
+				this.table.createIndex("dataset", "seed", "note", "time", "error", "option");
+			}
+			for (Map<String, String> selection : selections) {
+				assertSameStores(this.collection.select(selection), this.table.select(selection));
+			}
+		}
+	}
+
+	@Test
+	public void testSelectOnFilteredView() {
+		for (boolean indexed : new boolean[] { false, true }) {
+			KVStoreTable filteredTable = createCollection(true).toTable();
+			if (indexed) {
+				filteredTable.createIndex("dataset", "algorithm");
+			}
+			KVStoreTable view = filteredTable.select(selection("seed", "1"));
+			KVStoreCollection filteredCollection = this.collection.select(selection("seed", "1"));
+			for (Map<String, String> selection : Arrays.asList(selection("dataset", "ds2"), selection("dataset", "ds2", "algorithm", "algo3"), selection("algorithm", "algo1*"))) {
+				assertSameStores(filteredCollection.select(selection), view.select(selection));
+			}
+			view.removeAny(selection("dataset", "ds2"), true);
+			filteredCollection.removeAny(selection("dataset", "ds2"), true);
+			assertSameStores(filteredCollection.select(selection("algorithm", "algo3")), view.select(selection("algorithm", "algo3")));
+		}
+	}
+
+	@Test
+	public void testSelectContained() {
+		Map<String, Collection<String>> condition = new HashMap<>();
+		condition.put("dataset", Arrays.asList("ds1", "ds2"));
+		condition.put("note", Arrays.asList("1", "n2"));
+		Map<String, Collection<String>> conditionWithNull = new HashMap<>(condition);
+		conditionWithNull.put("option", Arrays.asList("o1", null));
+		Map<String, Collection<String>> conditionWithEmptyCollection = new HashMap<>(condition);
+		conditionWithEmptyCollection.put("option", Collections.emptyList());
+		for (Map<String, Collection<String>> c : Arrays.asList(condition, conditionWithNull, conditionWithEmptyCollection, Collections.<String, Collection<String>> singletonMap("unknown", Arrays.asList("x", null)))) {
+			for (boolean or : new boolean[] { true, false }) {
+				assertSameStores(this.collection.selectContained(c, or), this.table.selectContained(c, or));
+			}
+		}
+	}
+
+	@Test
+	public void testRemoveAny() {
+		for (boolean or : new boolean[] { true, false }) {
+			KVStoreCollection expected = copy(this.collection);
+			KVStoreTable actual = this.collection.toTable();
+			expected.removeAny(selection("dataset", "ds1", "seed", "2"), or);
+			actual.removeAny(selection("dataset", "ds1", "seed", "2"), or);
+			assertSameStores(expected, actual);
+		}
+		KVStoreCollection expected = copy(this.collection);
+		KVStoreTable actual = this.collection.toTable();
+		expected.removeAny(selection("option", null, "note", "n1"), true);
+		actual.removeAny(selection("option", null, "note", "n1"), true);
+		assertSameStores(expected, actual);
+	}
+
+	@Test
+	public void testRemoveAnyContained() {
+		Map<String, Collection<String>> condition = new HashMap<>();
+		condition.put("dataset", Arrays.asList("ds1", "ds2"));
+		condition.put("time", Arrays.asList("1", "2", "3"));
+		Map<String, Collection<String>> conditionWithNull = new HashMap<>(condition);
+		conditionWithNull.put("option", Arrays.asList("o1", null));
+		Map<String, Collection<String>> conditionWithEmptyCollection = new HashMap<>(condition);
+		conditionWithEmptyCollection.put("option", Collections.emptyList());
+		for (Map<String, Collection<String>> c : Arrays.asList(condition, conditionWithNull, conditionWithEmptyCollection)) {
+			for (boolean or : new boolean[] { true, false }) {
+				KVStoreCollection expected = copy(this.collection);
+				KVStoreTable actual = this.collection.toTable();
+				expected.removeAnyContained(c, or);
+				actual.removeAnyContained(c, or);
+				assertSameStores(expected, actual);
+			}
+		}
+	}
+
+	@Test
+	public void testProjection() {
+		String[] keys = { "dataset", "time", "option" };
+		KVStoreCollection expected = copy(this.collection);
+		expected.forEach(s -> s.project(keys));
+		this.table.project(keys);
+		assertEquals(expected.size(), this.table.size());
+		assertSameStores(expected, this.table);
+
+		expected = copy(this.collection);
+		expected.forEach(s -> s.removeAll(keys));
+		KVStoreTable actual = this.collection.toTable();
+		actual.projectRemove(keys);
+		assertSameStores(expected, actual);
+	}
+
+	@Test
+	public void testGroup() {
+		KVStoreCollection withoutNullValues = createCollection(false);
+		KVStoreTable tableWithoutNullValues = withoutNullValues.toTable();
+		for (EGroupMethod method : EGroupMethod.values()) {
+			Map<String, EGroupMethod> groupingHandler = new HashMap<>();
+			if (method == EGroupMethod.MAJORITY || method == EGroupMethod.MINORITY) {
+				groupingHandler.put("vote", method);
+			} else if (method == EGroupMethod.LIST) {
+				groupingHandler.put("note", method);
+				groupingHandler.put("option", method);
+			} else {
+				groupingHandler.put("error", method);
+				groupingHandler.put("time", method);
+				groupingHandler.put("seed", method);
+			}
+			String[] keysWithOtherMethods = withoutNullValues.get(0).keySet().stream().filter(k -> !k.equals("dataset") && !k.equals("option") && !groupingHandler.containsKey(k)).toArray(String[]::new);
+			KVStoreCollection expected = copy(withoutNullValues);
+			expected.forEach(s -> s.removeAll(keysWithOtherMethods));
+			KVStoreTable actual = withoutNullValues.toTable();
+			actual.projectRemove(keysWithOtherMethods);
+			assertSameStores(expected.group(new String[] { "dataset" }, groupingHandler), actual.group(new String[] { "dataset" }, groupingHandler));
+		}
+		assertSameStores(withoutNullValues.group("algorithm", "seed"), tableWithoutNullValues.group("algorithm", "seed"));
+		KVStoreCollection filteredCollection = withoutNullValues.select(selection("seed", "3"));
+		filteredCollection.setCollectionID(withoutNullValues.getCollectionID());
+		assertSameStores(filteredCollection.group("dataset", "option"), tableWithoutNullValues.select(selection("seed", "3")).group("dataset", "option"));
+	}
+}
@@ -1,6 +1,9 @@
 package ai.libs.jaicore.basic.metric;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -97,4 +100,49 @@ public class DynamicTimeWarpingTest {
 		});
 	}
 
+	/**
+	 * Tests that the calculation is abandoned iff the distance exceeds the
+	 * best-so-far value.
+	 */
+	@Test
+	public void testEarlyAbandoning() {
+		double[] timeSeries1 = { 0.50, 0.87, 0.90, 0.82, 0.70 };
+		double[] timeSeries2 = { 0.10, 0.10, 0.10, 0.10, 0.10 };
+
+		DynamicTimeWarping dtw = new DynamicTimeWarping();
+		assertEquals(3.29, dtw.distance(timeSeries1, timeSeries2, 3.5), 1.0E-5);
+		assertEquals(Double.POSITIVE_INFINITY, dtw.distance(timeSeries1, timeSeries2, 3.0), 0);
+		dtw.setBestSoFar(3.0);
+		assertEquals(Double.POSITIVE_INFINITY, dtw.distance(timeSeries1, timeSeries2), 0);
+	}
+
+	/**
+	 * Tests that LB_Kim and LB_Keogh never exceed the (windowed) DTW distance.
+	 */
+	@Test
+	public void testLowerBounds() {
+		Random random = new Random(0);
+		for (int window : new int[] { -1, 0, 2, 5 }) {
+			DynamicTimeWarping dtw = new DynamicTimeWarping(window);
+			for (int k = 0; k < 100; k++) {
+				double[] query = random.doubles(20).toArray();
+				double[] candidate = random.doubles(20).toArray();
+				double distance = dtw.distance(query, candidate);
+				assertTrue(dtw.lowerBoundKim(query, candidate) <= distance + 1.0E-9);
+				assertTrue(dtw.lowerBoundKeogh(query, dtw.computeEnvelope(candidate), Double.POSITIVE_INFINITY) <= distance + 1.0E-9);
+			}
+		}
+	}
+
+	/**
+	 * Tests that the envelope contains the minimum and maximum within the window.
+	 */
+	@Test
+	public void testEnvelope() {
+		double[] timeSeries = { 1, 3, 2, 0, 4, 1 };
+		double[][] envelope = new DynamicTimeWarping(1).computeEnvelope(timeSeries);
+		Assertions.assertArrayEquals(new double[] { 3, 3, 3, 4, 4, 4 }, envelope[0], 0);
+		Assertions.assertArrayEquals(new double[] { 1, 1, 0, 0, 0, 1 }, envelope[1], 0);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package ai.libs.jaicore.benchmarks.basic;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.basic.metric.DynamicTimeWarping;
+
+/**
+ * Measures the {@link DynamicTimeWarping} distance on random walks, with and without a best-so-far value for early abandoning, and the LB_Keogh lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicTimeWarpingBenchmark {
+
+	@Param({ "128", "512" })
+	private int length;
+
+	@Param({ "-1", "10" })
+	private int window;
+
+	private DynamicTimeWarping dtw;
+	private double[] a;
+	private double[] b;
+	private double[][] envelopeOfB;
+	private double bestSoFar;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		this.dtw = new DynamicTimeWarping(this.window);
+		this.a = randomWalk(this.length, random);
+		this.b = randomWalk(this.length, random);
+		this.envelopeOfB = this.dtw.computeEnvelope(this.b);
+		this.bestSoFar = this.dtw.distance(this.a, this.b, Double.POSITIVE_INFINITY) / 2;
+	}
+
+	@Benchmark
+	public double distance() {
+		return this.dtw.distance(this.a, this.b, Double.POSITIVE_INFINITY);
+	}
+
+	@Benchmark
+	public double distanceWithEarlyAbandoning() {
+		return this.dtw.distance(this.a, this.b, this.bestSoFar);
+	}
+
+	@Benchmark
+	public double lowerBoundKeogh() {
+		return this.dtw.lowerBoundKeogh(this.a, this.envelopeOfB, Double.POSITIVE_INFINITY);
+	}
+
+	private static double[] randomWalk(final int length, final Random random) {
+		double[] series = new double[length];
+		double value = 0;
+		for (int i = 0; i < length; i++) {
+			value += random.nextGaussian();
+			series[i] = value;
+		}
+		return series;
+	}
+}
@@ -0,0 +1,66 @@
+package ai.libs.jaicore.benchmarks.logic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.logic.fol.structure.Monom;
+
+/**
+ * Measures {@link Monom#implies(ai.libs.jaicore.logic.fol.structure.LiteralSet)}, whose cost is dominated by the enumeration of the variable mappings from the premise to the conclusion.
+ *
+ * The premise is a chain <code>P(x0, x1) &amp; P(x1, x2) &amp; ...</code> of the given length, the conclusion is a chain of two literals over fresh variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonomImplicationBenchmark {
+
+	@Param({ "3", "5" })
+	private int premiseLength;
+
+	private Monom premise;
+	private Monom conclusion;
+	private Monom nonConclusion;
+
+	@Setup
+	public void setup() {
+		this.premise = new Monom(chain("P", "x", this.premiseLength));
+		this.conclusion = new Monom(chain("P", "y", 2));
+		this.nonConclusion = new Monom(chain("P", "y", 2) + " & Q(y0)");
+	}
+
+	@Benchmark
+	public boolean impliedConclusion() throws InterruptedException {
+		return this.premise.implies(this.conclusion);
+	}
+
+	@Benchmark
+	public boolean notImpliedConclusion() throws InterruptedException {
+		return this.premise.implies(this.nonConclusion);
+	}
+
+	private static String chain(final String predicate, final String variablePrefix, final int length) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			if (i > 0) {
+				sb.append(" & ");
+			}
+			sb.append(predicate).append("(").append(variablePrefix).append(i).append(", ").append(variablePrefix).append(i + 1).append(")");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,50 @@
+package ai.libs.jaicore.benchmarks.ml;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.api4.java.ai.ml.core.dataset.serialization.DatasetDeserializationFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.ml.core.dataset.serialization.ArffDatasetAdapter;
+
+/**
+ * Measures how fast {@link ArffDatasetAdapter} reads a dense numeric dataset from disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArffParsingBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int numInstances;
+
+	@Param({ "20" })
+	private int numAttributes;
+
+	private File arffFile;
+
+	@Setup
+	public void setup() throws IOException {
+		this.arffFile = SyntheticArffGenerator.createTemporaryArff(this.numInstances, this.numAttributes, 3, 0);
+	}
+
+	@Benchmark
+	public int readDataset() throws DatasetDeserializationFailedException {
+		return ArffDatasetAdapter.readDataset(false, this.arffFile, this.numAttributes).size();
+	}
+}
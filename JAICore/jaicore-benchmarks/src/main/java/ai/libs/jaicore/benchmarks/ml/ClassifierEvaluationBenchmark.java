@@ -0,0 +1,78 @@
+package ai.libs.jaicore.benchmarks.ml;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.api4.java.ai.ml.core.dataset.serialization.DatasetDeserializationFailedException;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.api4.java.common.attributedobjects.ObjectEvaluationFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.ml.classification.singlelabel.learner.MajorityClassifier;
+import ai.libs.jaicore.ml.core.dataset.serialization.ArffDatasetAdapter;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.MonteCarloCrossValidationEvaluator;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.TrainPredictionBasedClassifierEvaluator;
+
+/**
+ * Measures the overhead of {@link TrainPredictionBasedClassifierEvaluator} (splitting, training, prediction and metric aggregation) with a {@link MajorityClassifier}, so that the learner itself hardly contributes
+ * to the score. The splits are executed sequentially or on a fixed thread pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassifierEvaluationBenchmark {
+
+	@Param({ "1000" })
+	private int numInstances;
+
+	@Param({ "10" })
+	private int repeats;
+
+	@Param({ "1", "4" })
+	private int threads;
+
+	private ILabeledDataset<ILabeledInstance> data;
+	private ExecutorService foldExecutor;
+
+	@Setup
+	public void setup() throws IOException, DatasetDeserializationFailedException {
+		this.data = ArffDatasetAdapter.readDataset(false, SyntheticArffGenerator.createTemporaryArff(this.numInstances, 10, 3, 0), 10);
+		if (this.threads > 1) {
+			this.foldExecutor = Executors.newFixedThreadPool(this.threads);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (this.foldExecutor != null) {
+			this.foldExecutor.shutdownNow();
+		}
+	}
+
+	@Benchmark
+	public double monteCarloCrossValidation() throws InterruptedException, ObjectEvaluationFailedException {
+		MonteCarloCrossValidationEvaluator evaluator = new MonteCarloCrossValidationEvaluator(this.data, this.repeats, 0.7, new Random(0));
+		if (this.foldExecutor != null) {
+			evaluator.setFoldExecutor(this.foldExecutor, learner -> new MajorityClassifier());
+		}
+		return evaluator.evaluate(new MajorityClassifier());
+	}
+}
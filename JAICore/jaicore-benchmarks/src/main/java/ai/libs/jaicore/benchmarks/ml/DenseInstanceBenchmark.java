@@ -0,0 +1,55 @@
+package ai.libs.jaicore.benchmarks.ml;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.ml.core.dataset.DenseInstance;
+
+/**
+ * Measures the conversion of a {@link DenseInstance} into a point, which happens for every instance in most distance-based and numeric learners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DenseInstanceBenchmark {
+
+	@Param({ "10", "100" })
+	private int numAttributes;
+
+	private DenseInstance instance;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		Object[] attributes = new Object[this.numAttributes];
+		for (int i = 0; i < this.numAttributes; i++) {
+			attributes[i] = random.nextDouble();
+		}
+		this.instance = new DenseInstance(attributes, "c0");
+	}
+
+	@Benchmark
+	public double[] getPoint() {
+		return this.instance.getPoint();
+	}
+
+	@Benchmark
+	public double getPointValue() {
+		return this.instance.getPointValue(this.numAttributes - 1);
+	}
+}
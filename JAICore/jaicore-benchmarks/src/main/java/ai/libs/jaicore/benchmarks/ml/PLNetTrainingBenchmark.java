@@ -0,0 +1,92 @@
+package ai.libs.jaicore.benchmarks.ml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.IPLNetDyadRankerConfiguration;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.PLNetDyadRanker;
+
+/**
+ * Measures the training throughput of the {@link PLNetDyadRanker} in rankings per second for the per-dyad updates, the batched updates and the batched updates split among several threads.
+ * Every invocation trains one epoch on synthetic rankings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PLNetTrainingBenchmark {
+
+	private static final int NUM_RANKINGS = 512;
+	private static final int RANKING_LENGTH = 5;
+	private static final int DYAD_SIZE = 20;
+
+	@Param({ "perDyad", "batched", "batchedParallel" })
+	private String mode;
+
+	private PLNetDyadRanker ranker;
+	private List<INDArray> rankings;
+
+	@Setup
+	public void setup() {
+		IPLNetDyadRankerConfiguration config = ConfigFactory.create(IPLNetDyadRankerConfiguration.class);
+		config.setProperty(IPLNetDyadRankerConfiguration.K_MINI_BATCH_SIZE, "32");
+		config.setProperty(IPLNetDyadRankerConfiguration.K_EARLY_STOPPING_PATIENCE, "0");
+		config.setProperty(IPLNetDyadRankerConfiguration.K_BATCHED_TRAINING, String.valueOf(!this.mode.equals("perDyad")));
+		config.setProperty(IPLNetDyadRankerConfiguration.K_TRAINING_THREADS, this.mode.equals("batchedParallel") ? String.valueOf(Runtime.getRuntime().availableProcessors()) : "1");
+		this.ranker = new PLNetDyadRanker(config);
+
+		/* the rankings order the dyads by a random linear utility */
+		Random random = new Random(0);
+		double[] weights = new double[DYAD_SIZE];
+		for (int i = 0; i < DYAD_SIZE; i++) {
+			weights[i] = random.nextGaussian();
+		}
+		this.rankings = new ArrayList<>(NUM_RANKINGS);
+		for (int r = 0; r < NUM_RANKINGS; r++) {
+			double[][] dyads = new double[RANKING_LENGTH][DYAD_SIZE];
+			for (double[] dyad : dyads) {
+				for (int i = 0; i < DYAD_SIZE; i++) {
+					dyad[i] = random.nextDouble();
+				}
+			}
+			Arrays.sort(dyads, (d1, d2) -> Double.compare(utility(weights, d2), utility(weights, d1)));
+			this.rankings.add(Nd4j.create(dyads));
+		}
+	}
+
+	private static double utility(final double[] weights, final double[] dyad) {
+		double utility = 0;
+		for (int i = 0; i < weights.length; i++) {
+			utility += weights[i] * dyad[i];
+		}
+		return utility;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_RANKINGS)
+	public PLNetDyadRanker trainEpoch() {
+		this.ranker.fit(this.rankings, 1, 1.0);
+		return this.ranker;
+	}
+}
@@ -0,0 +1,57 @@
+package ai.libs.jaicore.benchmarks.ml;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Writes small random classification datasets in ARFF format, so that the ML benchmarks do not depend on external data. All attributes are numeric; the last attribute is the nominal class.
+ */
+public class SyntheticArffGenerator {
+
+	private SyntheticArffGenerator() {
+		/* avoids instantiation */
+	}
+
+	public static File createTemporaryArff(final int numInstances, final int numAttributes, final int numClasses, final long seed) throws IOException {
+		File file = File.createTempFile("jaicore-benchmark-", ".arff");
+		file.deleteOnExit();
+		writeArff(file, numInstances, numAttributes, numClasses, seed);
+		return file;
+	}
+
+	public static void writeArff(final File file, final int numInstances, final int numAttributes, final int numClasses, final long seed) throws IOException {
+		Random random = new Random(seed);
+		try (BufferedWriter bw = Files.newBufferedWriter(file.toPath())) {
+			bw.write("@relation synthetic");
+			bw.newLine();
+			for (int i = 0; i < numAttributes; i++) {
+				bw.write("@attribute a" + i + " numeric");
+				bw.newLine();
+			}
+			StringBuilder classValues = new StringBuilder();
+			for (int c = 0; c < numClasses; c++) {
+				if (c > 0) {
+					classValues.append(",");
+				}
+				classValues.append("c").append(c);
+			}
+			bw.write("@attribute class {" + classValues + "}");
+			bw.newLine();
+			bw.write("@data");
+			bw.newLine();
+			StringBuilder line = new StringBuilder();
+			for (int n = 0; n < numInstances; n++) {
+				line.setLength(0);
+				for (int i = 0; i < numAttributes; i++) {
+					line.append(random.nextDouble()).append(",");
+				}
+				line.append("c").append(random.nextInt(numClasses));
+				bw.write(line.toString());
+				bw.newLine();
+			}
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package ai.libs.jaicore.benchmarks.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.api4.java.algorithm.exceptions.AlgorithmException;
+import org.api4.java.algorithm.exceptions.AlgorithmExecutionCanceledException;
+import org.api4.java.algorithm.exceptions.AlgorithmTimeoutedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.problems.enhancedttsp.EnhancedTTSP;
+import ai.libs.jaicore.problems.enhancedttsp.EnhancedTTSPGenerator;
+import ai.libs.jaicore.problems.enhancedttsp.EnhancedTTSPState;
+import ai.libs.jaicore.problems.enhancedttsp.locationgenerator.RandomLocationGenerator;
+import ai.libs.jaicore.problems.knapsack.KnapsackConfiguration;
+import ai.libs.jaicore.problems.knapsack.KnapsackProblemGenerator;
+import ai.libs.jaicore.problems.npuzzle.NPuzzleProblem;
+import ai.libs.jaicore.problems.npuzzle.NPuzzleState;
+import ai.libs.jaicore.problems.nqueens.NQueensProblem;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.StandardBestFirst;
+import ai.libs.jaicore.search.exampleproblems.enhancedttsp.EnhancedTTSPToSimpleGraphSearchReducer;
+import ai.libs.jaicore.search.exampleproblems.knapsack.KnapsackToGraphSearchReducer;
+import ai.libs.jaicore.search.exampleproblems.npuzzle.standard.NPuzzleToGraphSearchReducer;
+import ai.libs.jaicore.search.exampleproblems.nqueens.NQueensToGraphSearchReducer;
+import ai.libs.jaicore.search.exampleproblems.nqueens.QueenNode;
+import ai.libs.jaicore.search.probleminputs.GraphSearchWithSubpathEvaluationsInput;
+import ai.libs.jaicore.search.problemtransformers.GraphSearchProblemInputToGraphSearchWithSubpathEvaluationViaUninformedness;
+
+/**
+ * Measures node expansion in {@link StandardBestFirst} on the synthetic problems of ai.libs.jaicore.problems.
+ *
+ * Each invocation runs a fresh search until the given number of nodes has been expanded (or the search space is exhausted), so the score is the time for <code>expansions</code> expansions including node
+ * generation, evaluation and OPEN list maintenance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BestFirstBenchmark {
+
+	@Param({ "1000" })
+	private int expansions;
+
+	private GraphSearchWithSubpathEvaluationsInput<QueenNode, String, Double> nQueens;
+	private GraphSearchWithSubpathEvaluationsInput<NPuzzleState, String, Integer> nPuzzle;
+	private GraphSearchWithSubpathEvaluationsInput<KnapsackConfiguration, String, Double> knapsack;
+	private GraphSearchWithSubpathEvaluationsInput<EnhancedTTSPState, String, Double> enhancedTTSP;
+
+	@Setup
+	public void setup() {
+		this.nQueens = new GraphSearchProblemInputToGraphSearchWithSubpathEvaluationViaUninformedness<QueenNode, String>().encodeProblem(new NQueensToGraphSearchReducer().encodeProblem(new NQueensProblem(12)));
+		this.nPuzzle = new NPuzzleToGraphSearchReducer().encodeProblem(new NPuzzleProblem(3, 0));
+		this.knapsack = new KnapsackToGraphSearchReducer().encodeProblem(KnapsackProblemGenerator.getKnapsackProblem(20, 0));
+		EnhancedTTSP ttsp = new EnhancedTTSPGenerator(new RandomLocationGenerator(new Random(0))).generate(10, 100, 0);
+		this.enhancedTTSP = new EnhancedTTSPToSimpleGraphSearchReducer().encodeProblem(ttsp);
+	}
+
+	@Benchmark
+	public int nQueens() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		return expand(new StandardBestFirst<>(this.nQueens), this.expansions);
+	}
+
+	@Benchmark
+	public int nPuzzle() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		return expand(new StandardBestFirst<>(this.nPuzzle), this.expansions);
+	}
+
+	@Benchmark
+	public int knapsack() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		return expand(new StandardBestFirst<>(this.knapsack), this.expansions);
+	}
+
+	@Benchmark
+	public int enhancedTTSP() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		return expand(new StandardBestFirst<>(this.enhancedTTSP), this.expansions);
+	}
+
+	private static int expand(final StandardBestFirst<?, ?, ?> search, final int expansions) throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		while (search.hasNext() && search.getExpandedCounter() < expansions) {
+			search.nextWithException();
+		}
+		return search.getExpandedCounter();
+	}
+}
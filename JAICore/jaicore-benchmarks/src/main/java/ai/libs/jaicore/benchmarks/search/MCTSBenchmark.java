@@ -0,0 +1,61 @@
+package ai.libs.jaicore.benchmarks.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.api4.java.algorithm.exceptions.AlgorithmException;
+import org.api4.java.algorithm.exceptions.AlgorithmExecutionCanceledException;
+import org.api4.java.algorithm.exceptions.AlgorithmTimeoutedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.libs.jaicore.problems.samegame.SameGameCell;
+import ai.libs.jaicore.problems.samegame.SameGameGenerator;
+import ai.libs.jaicore.problems.samegame.SameGameState;
+import ai.libs.jaicore.search.algorithms.mdp.mcts.GraphBasedMDP;
+import ai.libs.jaicore.search.algorithms.mdp.mcts.MCTS;
+import ai.libs.jaicore.search.algorithms.mdp.mcts.uct.UCTFactory;
+import ai.libs.jaicore.search.exampleproblems.samegame.SameGameGraphSearchProblem;
+import ai.libs.jaicore.search.exampleproblems.samegame.SameGameNode;
+
+/**
+ * Measures the iteration throughput of {@link MCTS} with the UCT tree policy on a SameGame board, i.e. tree policy queries, rollouts and back propagation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MCTSBenchmark {
+
+	@Param({ "100" })
+	private int iterations;
+
+	@Param({ "10" })
+	private int boardSize;
+
+	private SameGameState initState;
+
+	@Setup
+	public void setup() {
+		this.initState = new SameGameGenerator().generate(this.boardSize, this.boardSize, 5, 1.0, new Random(0));
+	}
+
+	@Benchmark
+	public int uctOnSameGame() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		GraphBasedMDP<SameGameNode, SameGameCell> mdp = new GraphBasedMDP<>(new SameGameGraphSearchProblem(this.initState, false));
+		MCTS<SameGameNode, SameGameCell> mcts = new UCTFactory<SameGameNode, SameGameCell>().withMaxIterations(this.iterations).withRandom(new Random(0)).getAlgorithm(mdp);
+		mcts.call();
+		return mcts.getNumberOfRealizedPlayouts();
+	}
+}
@@ -1,7 +1,17 @@
 package ai.libs.jaicore.experiments;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.api4.java.common.control.ILoggingCustomizable;
@@ -28,6 +38,8 @@ public class ExperimentRunner implements ILoggingCustomizable {
 	private static final double MAX_MEM_DEVIATION = .15;
 
 	private boolean checkMemory = true;
+	private long heartbeatIntervalInMS = 60 * 1000L;
+	private long orphanTimeoutInMS = 10 * 60 * 1000L;
 
 	private final IExperimentSetConfig config;
 	private final IExperimentSetEvaluator evaluator;
@@ -38,6 +50,47 @@ public class ExperimentRunner implements ILoggingCustomizable {
 	private final Runtime runtime = Runtime.getRuntime();
 
 	private boolean allExperimentsFinished = false;
+	private final Set<Integer> lostExperimentIds = ConcurrentHashMap.newKeySet(); // experiments of this runner that have been reclaimed by other executors
+
+	/**
+	 * Keeps track of the workers, CPUs, and memory used by the experiments that are conducted concurrently.
+	 */
+	private static class ResourceBudget {
+		private final int numWorkers;
+		private final int numCPUs;
+		private final long memoryInMB;
+		private int numRunningExperiments = 0;
+		private int usedCPUs = 0;
+		private long usedMemoryInMB = 0;
+
+		private ResourceBudget(final int numWorkers, final int numCPUs, final long memoryInMB) {
+			this.numWorkers = numWorkers;
+			this.numCPUs = numCPUs;
+			this.memoryInMB = memoryInMB;
+		}
+
+		private synchronized void acquire(final int cpus, final long memory) throws InterruptedException {
+			while (this.numRunningExperiments >= this.numWorkers || this.usedCPUs + cpus > this.numCPUs || this.usedMemoryInMB + memory > this.memoryInMB) {
+				this.wait();
+			}
+			this.numRunningExperiments++;
+			this.usedCPUs += cpus;
+			this.usedMemoryInMB += memory;
+		}
+
+		private synchronized void release(final int cpus, final long memory) {
+			this.numRunningExperiments--;
+			this.usedCPUs -= cpus;
+			this.usedMemoryInMB -= memory;
+			this.notifyAll();
+		}
+
+		private synchronized void awaitIdle() throws InterruptedException {
+			while (this.numRunningExperiments > 0) {
+				this.wait();
+			}
+		}
+	}
 
 	public ExperimentRunner(final IExperimentSetConfig config, final IExperimentSetEvaluator evaluator, final IExperimentDatabaseHandle databaseHandle) throws ExperimentDBInteractionFailedException {
 		this(config, evaluator, databaseHandle, null);
@@ -64,6 +117,28 @@ public class ExperimentRunner implements ILoggingCustomizable {
 		this.checkMemory = checkMemory;
 	}
 
+	/**
+	 * @param heartbeatIntervalInMS
+	 *            Time between two heartbeats sent for the experiments claimed in {@link #concurrentlyConductExperiments(int, int)}
+	 */
+	public void setHeartbeatInterval(final long heartbeatIntervalInMS) {
+		if (heartbeatIntervalInMS <= 0) {
+			throw new IllegalArgumentException("The heartbeat interval must be positive but is " + heartbeatIntervalInMS);
+		}
+		this.heartbeatIntervalInMS = heartbeatIntervalInMS;
+	}
+
+	/**
+	 * @param orphanTimeoutInMS
+	 *            Time without heartbeat after which an experiment is reclaimed by {@link #concurrentlyConductExperiments(int, int)}; should be several times the heartbeat interval
+	 */
+	public void setOrphanTimeout(final long orphanTimeoutInMS) {
+		if (orphanTimeoutInMS <= 0) {
+			throw new IllegalArgumentException("The orphan timeout must be positive but is " + orphanTimeoutInMS);
+		}
+		this.orphanTimeoutInMS = orphanTimeoutInMS;
+	}
+
 	/**
 	 * Conducts a limited number of not yet conducted experiments randomly chosen from the grid.
 	 *
@@ -163,6 +238,144 @@ public class ExperimentRunner implements ILoggingCustomizable {
 		this.logger.info("Successfully finished {} experiments.", numberOfConductedExperiments);
 	}
 
+	/**
+	 * Conducts a limited number of not yet conducted experiments with a pool of workers within this JVM.
+	 *
+	 * Experiments are claimed from the database in batches of up to <code>numWorkers</code> experiments and are started in the order of claiming as soon as a worker and the resources declared by the
+	 * experiment are available. The sum of the CPUs declared by the running experiments does not exceed the number of available processors, and, if memory is checked, the sum of their declared memory
+	 * does not exceed the maximum memory of the JVM. Experiments that declare more resources than the JVM has are marked as finished with an {@link ExperimentFailurePredictionException}.
+	 *
+	 * While experiments are claimed or running, heartbeats are sent to the database, and experiments whose heartbeats have stopped for longer than the orphan timeout (e.g. because their executor has
+	 * crashed) are made available again. If one of the experiments of this runner has been reclaimed nevertheless, e.g. because the database was not reachable for a while, it is interrupted and its
+	 * results are not written. If the calling thread is interrupted, the running experiments are interrupted, and claimed experiments that have not been started yet are reclaimed after the timeout.
+	 *
+	 * Ownership of an experiment is determined by the host and the executor info, so concurrent runners on the same host should use distinct executor infos.
+	 *
+	 * @param maxNumberOfExperiments
+	 *            Limit for the number of experiments; no limit if not positive
+	 * @param numWorkers
+	 *            The maximum number of experiments that are conducted at the same time
+	 * @throws ExperimentDBInteractionFailedException
+	 * @throws InterruptedException
+	 */
+	public void concurrentlyConductExperiments(final int maxNumberOfExperiments, final int numWorkers) throws ExperimentDBInteractionFailedException, InterruptedException {
+		if (numWorkers <= 0) {
+			throw new IllegalArgumentException("The number of workers must be positive but is " + numWorkers);
+		}
+		this.logger.info("Starting to run up to {} experiments with {} workers.", maxNumberOfExperiments, numWorkers);
+
+		int numCPUs = this.runtime.availableProcessors();
+		ResourceBudget budget = new ResourceBudget(numWorkers, numCPUs, this.checkMemory ? this.availableMemoryInMB : Long.MAX_VALUE);
+		Map<Integer, ExperimentDBEntry> ownedExperiments = new ConcurrentHashMap<>(); // claimed or running experiments, which receive heartbeats
+		Map<Integer, Thread> workerThreads = new ConcurrentHashMap<>(); // the threads of the running experiments, which are interrupted if an experiment is lost
+		Deque<ExperimentDBEntry> claimedExperiments = new ArrayDeque<>();
+		AtomicInteger workerCounter = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(numWorkers, r -> new Thread(r, "Experiment worker " + workerCounter.incrementAndGet()));
+		ScheduledExecutorService heartbeatService = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread heartbeatThread = new Thread(r, "Experiment heartbeat");
+			heartbeatThread.setDaemon(true);
+			return heartbeatThread;
+		});
+		heartbeatService.scheduleWithFixedDelay(() -> this.sendHeartbeat(ownedExperiments, workerThreads), this.heartbeatIntervalInMS, this.heartbeatIntervalInMS, TimeUnit.MILLISECONDS);
+
+		int numberOfStartedExperiments = 0;
+		try {
+			while ((maxNumberOfExperiments <= 0 || numberOfStartedExperiments < maxNumberOfExperiments)) {
+
+				/* claim a new batch of experiments if all claimed ones have been started */
+				if (claimedExperiments.isEmpty()) {
+					int batchSize = maxNumberOfExperiments <= 0 ? numWorkers : Math.min(numWorkers, maxNumberOfExperiments - numberOfStartedExperiments);
+					List<ExperimentDBEntry> batch = this.handle.startNextExperiments(this.executorInfo, batchSize);
+					if (batch.isEmpty()) {
+						this.logger.info("After starting {}/{} experiments, no more un-started experiments were found.", numberOfStartedExperiments, maxNumberOfExperiments);
+						this.allExperimentsFinished = true;
+						break;
+					}
+					this.logger.debug("Claimed {} experiments.", batch.size());
+					batch.forEach(e -> ownedExperiments.put(e.getId(), e));
+					claimedExperiments.addAll(batch);
+				}
+
+				/* if we WOULD conduct more experiments but are interrupted, throw an exception */
+				if (Thread.interrupted()) {
+					this.logger.info("Experimenter Thread is interrupted, throwing InterruptedException.");
+					throw new InterruptedException();
+				}
+
+				/* wait until the resources for the next experiment are available and let a worker conduct it */
+				ExperimentDBEntry exp = claimedExperiments.poll();
+				this.checkExperimentValidity(exp.getExperiment());
+				int cpus = exp.getExperiment().getNumCPUs();
+				long memory = this.checkMemory ? exp.getExperiment().getMemoryInMB() : 0;
+				if (cpus > numCPUs || memory > this.availableMemoryInMB) {
+					String message = "Cannot conduct experiment " + exp.getExperiment() + ", because only " + numCPUs + " CPU cores and " + this.availableMemoryInMB + "MB are available where declared are " + cpus + " and " + memory
+							+ "MB";
+					this.logger.error(message);
+					if (!this.lostExperimentIds.contains(exp.getId())) {
+						this.handle.finishExperiment(exp, new ExperimentFailurePredictionException(message)); // otherwise, the experiment would be reclaimed and claimed again
+					}
+					ownedExperiments.remove(exp.getId());
+					numberOfStartedExperiments++; // as in the sequential modes, rejected experiments count as conducted
+					continue;
+				}
+				budget.acquire(cpus, memory);
+				if (this.lostExperimentIds.contains(exp.getId())) {
+					this.logger.info("Not conducting experiment {}, because it has been reclaimed.", exp.getId());
+					budget.release(cpus, memory);
+					continue;
+				}
+				int experimentNumber = ++numberOfStartedExperiments;
+				this.logger.info("Conduct experiment #{} with key values: {}", experimentNumber, exp.getExperiment().getValuesOfKeyFields());
+				workers.submit(() -> {
+					workerThreads.put(exp.getId(), Thread.currentThread());
+					try {
+						if (!this.lostExperimentIds.contains(exp.getId())) {
+							this.evaluateAndFinishExperiment(exp);
+						}
+					} catch (InterruptedException e) {
+						this.logger.info("Experiment interrupted.");
+						Thread.currentThread().interrupt(); // interrupt myself to make Sonar happy
+					} catch (ExperimentDBInteractionFailedException e) {
+						this.logger.error(LoggerUtil.getExceptionInfo(e));
+					} finally {
+						workerThreads.remove(exp.getId());
+						ownedExperiments.remove(exp.getId());
+						budget.release(cpus, memory);
+						this.logger.info("Finished experiment #{} with key values {}", experimentNumber, exp.getExperiment().getValuesOfKeyFields());
+					}
+				});
+			}
+			budget.awaitIdle();
+		} finally {
+
+			/* keep sending heartbeats until interrupted experiments have stopped, so that they are not reclaimed while they are still running */
+			workers.shutdownNow();
+			if (!workers.awaitTermination(this.orphanTimeoutInMS, TimeUnit.MILLISECONDS)) {
+				this.logger.warn("Some experiments have not reacted to the interrupt within {}ms.", this.orphanTimeoutInMS);
+			}
+			heartbeatService.shutdownNow();
+		}
+
+		this.logger.info("Successfully finished {} experiments.", numberOfStartedExperiments);
+	}
+
+	private void sendHeartbeat(final Map<Integer, ExperimentDBEntry> ownedExperiments, final Map<Integer, Thread> workerThreads) {
+		try {
+			for (ExperimentDBEntry lostExperiment : this.handle.heartbeat(this.executorInfo, ownedExperiments.values())) {
+				this.logger.warn("Experiment {} has been reclaimed, so it is aborted without writing results.", lostExperiment.getId());
+				this.lostExperimentIds.add(lostExperiment.getId());
+				ownedExperiments.remove(lostExperiment.getId());
+				workerThreads.computeIfPresent(lostExperiment.getId(), (id, thread) -> {
+					thread.interrupt();
+					return thread;
+				});
+			}
+			this.handle.reclaimOrphanedExperiments(this.orphanTimeoutInMS);
+		} catch (ExperimentDBInteractionFailedException | RuntimeException e) {
+			this.logger.error("Could not send heartbeat for experiments {}: {}", ownedExperiments.keySet(), LoggerUtil.getExceptionInfo(e));
+		}
+	}
+
 	/**
 	 * Conducts an unbound number of randomly chosen experiments from the grid.
 	 *
@@ -200,21 +413,37 @@ public class ExperimentRunner implements ILoggingCustomizable {
 			throw new IllegalArgumentException("Cannot conduct NULL experiment!");
 		}
 		assert this.handle.hasExperimentStarted(expEntry);
+		if (this.checkMemory) {
+			double memoryDeviation = Math.abs(expEntry.getExperiment().getMemoryInMB() - this.availableMemoryInMB) * 1f / expEntry.getExperiment().getMemoryInMB();
+			if (memoryDeviation > MAX_MEM_DEVIATION) {
+				this.logger.error("Cannot conduct experiment {}, because the available memory is {} where declared is {}. Deviation: {}", expEntry.getExperiment(), this.availableMemoryInMB, expEntry.getExperiment().getMemoryInMB(),
+						memoryDeviation);
+				return;
+			}
+		}
+		if (expEntry.getExperiment().getNumCPUs() > Runtime.getRuntime().availableProcessors()) {
+			this.logger.error("Cannot conduct experiment {}, because only {} CPU cores are available where declared is {}", expEntry.getExperiment(), Runtime.getRuntime().availableProcessors(), expEntry.getExperiment().getNumCPUs());
+			return;
+		}
+		this.evaluateAndFinishExperiment(expEntry);
+	}
+
+	/**
+	 * Evaluates a started experiment without checking its resources and marks it as finished.
+	 *
+	 * @param expEntry
+	 *            the experiment to be conducted
+	 * @throws ExperimentDBInteractionFailedException
+	 * @throws InterruptedException
+	 */
+	private void evaluateAndFinishExperiment(final ExperimentDBEntry expEntry) throws ExperimentDBInteractionFailedException, InterruptedException {
 		Throwable error = null;
 		try {
-			if (this.checkMemory) {
-				double memoryDeviation = Math.abs(expEntry.getExperiment().getMemoryInMB() - this.availableMemoryInMB) * 1f / expEntry.getExperiment().getMemoryInMB();
-				if (memoryDeviation > MAX_MEM_DEVIATION) {
-					this.logger.error("Cannot conduct experiment {}, because the available memory is {} where declared is {}. Deviation: {}", expEntry.getExperiment(), this.availableMemoryInMB, expEntry.getExperiment().getMemoryInMB(),
-							memoryDeviation);
+			this.evaluator.evaluate(expEntry, m -> {
+				if (this.lostExperimentIds.contains(expEntry.getId())) {
+					this.logger.warn("Not updating experiment with id {}, because it has been reclaimed.", expEntry.getId());
 					return;
 				}
-			}
-			if (expEntry.getExperiment().getNumCPUs() > Runtime.getRuntime().availableProcessors()) {
-				this.logger.error("Cannot conduct experiment {}, because only {} CPU cores are available where declared is {}", expEntry.getExperiment(), Runtime.getRuntime().availableProcessors(), expEntry.getExperiment().getNumCPUs());
-				return;
-			}
-			this.evaluator.evaluate(expEntry, m -> {
 				try {
 					this.logger.info("Updating experiment with id {} in the following entries (enable DEBUG for values): {}", expEntry.getId(), m.keySet());
 					this.logger.debug("Update map is: {}", m);
@@ -232,6 +461,10 @@ public class ExperimentRunner implements ILoggingCustomizable {
 		if (error != null) {
 			this.logger.error("Experiment failed due to {}. Message: {}. Detail info: {}", error.getClass().getName(), error.getMessage(), LoggerUtil.getExceptionInfo(error));
 		}
+		if (this.lostExperimentIds.contains(expEntry.getId())) {
+			this.logger.warn("Not finishing experiment with id {}, because it has been reclaimed.", expEntry.getId());
+			return;
+		}
 		this.handle.finishExperiment(expEntry, error);
 	}
 
@@ -1,5 +1,6 @@
 package ai.libs.jaicore.experiments;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -112,6 +113,61 @@ public interface IExperimentDatabaseHandle {
 	 */
 	public Optional<ExperimentDBEntry> startNextExperiment(String executorInfo) throws ExperimentDBInteractionFailedException;
 
+	/**
+	 * Picks up to the given number of unstarted experiments, marks them as started and returns them. As for {@link #startNextExperiment(String)}, ownership can be assumed on each of the returned experiments.
+	 *
+	 * The default implementation starts the experiments one by one; handles should override it if they can claim several experiments at once.
+	 *
+	 * @param executorInfo
+	 *            The identifier of the executor who evaluates these experiments; important for tracking of experiments in compute centers
+	 * @param limit
+	 *            Maximum number of experiments that should be started
+	 * @return The started experiments; an empty list if no experiment is remaining.
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public default List<ExperimentDBEntry> startNextExperiments(final String executorInfo, final int limit) throws ExperimentDBInteractionFailedException {
+		List<ExperimentDBEntry> startedExperiments = new ArrayList<>();
+		while (startedExperiments.size() < limit) {
+			Optional<ExperimentDBEntry> nextExperiment = this.startNextExperiment(executorInfo);
+			if (!nextExperiment.isPresent()) {
+				break;
+			}
+			startedExperiments.add(nextExperiment.get());
+		}
+		return startedExperiments;
+	}
+
+	/**
+	 * Signals that the given started experiments are still owned by a living executor. Executors that send heartbeats must do so more frequently than the timeout used in
+	 * {@link #reclaimOrphanedExperiments(long)}. Only experiments that are still owned by the executor receive the heartbeat. The others have been reclaimed and possibly claimed by another executor,
+	 * so the executor must stop working on them without writing any results.
+	 *
+	 * The default implementation does nothing, i.e. handles that do not support heartbeats never reclaim experiments.
+	 *
+	 * @param executorInfo
+	 *            The identifier of the executor who has claimed the experiments
+	 * @param experiments
+	 *            The experiments that are still being worked on
+	 * @return The experiments among the given ones that are no longer owned by the executor
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public default List<ExperimentDBEntry> heartbeat(final String executorInfo, final Collection<ExperimentDBEntry> experiments) throws ExperimentDBInteractionFailedException {
+		return new ArrayList<>(); // heartbeats are not supported by default
+	}
+
+	/**
+	 * Marks started but unfinished experiments as unstarted again if they have received a heartbeat but none within the given time, i.e. if their executor has probably crashed. Experiments that have never
+	 * received a heartbeat are never reclaimed, because their executors might not send any.
+	 *
+	 * @param timeoutInMS
+	 *            Time in milliseconds since the last heartbeat after which an experiment is considered orphaned
+	 * @return The number of experiments that have been reclaimed
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public default int reclaimOrphanedExperiments(final long timeoutInMS) throws ExperimentDBInteractionFailedException {
+		return 0;
+	}
+
 	/**
 	 * Returns a list of all experiments that are currently being conducted.
 	 *
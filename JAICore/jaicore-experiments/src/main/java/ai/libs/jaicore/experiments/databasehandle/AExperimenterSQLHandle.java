@@ -14,6 +14,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.api4.java.common.control.ILoggingCustomizable;
@@ -51,6 +53,7 @@ public class AExperimenterSQLHandle implements IExperimentDatabaseHandle, ILoggi
 	private static final String FIELD_TIME = "time";
 	private static final String FIELD_TIME_START = FIELD_TIME + "_started";
 	private static final String FIELD_TIME_END = FIELD_TIME + "_end";
+	private static final String FIELD_TIME_HEARTBEAT = FIELD_TIME + "_heartbeat";
 	private static final String FIELD_EXCEPTION = "exception";
 	private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 	private static final String Q_AND = " AND ";
@@ -78,6 +81,7 @@ public class AExperimenterSQLHandle implements IExperimentDatabaseHandle, ILoggi
 	private ExperimentSetAnalyzer analyzer;
 	private String[] keyFields;
 	private String[] resultFields;
+	private boolean heartbeatFieldPresent = false;
 
 	public AExperimenterSQLHandle(final IDatabaseAdapter adapter, final String tablename) {
 		super();
@@ -130,6 +134,7 @@ public class AExperimenterSQLHandle implements IExperimentDatabaseHandle, ILoggi
 		sqlMainTable.append("`" + FIELD_HOST + "` varchar(255) NULL,");
 		sqlMainTable.append("`" + FIELD_EXECUTOR + "` varchar(100) NULL,");
 		sqlMainTable.append("`" + FIELD_TIME + "_started` TIMESTAMP NULL,");
+		sqlMainTable.append("`" + FIELD_TIME_HEARTBEAT + "` TIMESTAMP NULL,");
 
 		/* add columns for result fields */
 		List<String> fieldsForWhichToIgnoreTime = this.config.getFieldsForWhichToIgnoreTime();
@@ -352,6 +357,115 @@ public class AExperimenterSQLHandle implements IExperimentDatabaseHandle, ILoggi
 		return Optional.of(experimentWithId);
 	}
 
+	@Override
+	public List<ExperimentDBEntry> startNextExperiments(final String executorInfo, final int limit) throws ExperimentDBInteractionFailedException {
+		this.assertSetup();
+		if (this.cachedHost == null) {
+			// failed to retrieve host information.
+			throw new ExperimentUpdateFailedException(new IllegalStateException("Host information is unavailable."));
+		}
+		if (limit <= 0) {
+			return new ArrayList<>();
+		}
+		this.assertHeartbeatField();
+
+		/*
+		 * Claim up to limit experiments with a single update that writes a unique token into the executor field. The claimed experiments are then fetched by this token, and the token is replaced by
+		 * the executor info. This way, the number of queries does not depend on the number of claimed experiments. The claim also counts as the first heartbeat of the experiments.
+		 */
+		String claimToken = "claim-" + UUID.randomUUID();
+		String now = new SimpleDateFormat(DATE_FORMAT).format(new Date());
+		String claimQuery = "UPDATE `" + this.tablename + "` SET `" + FIELD_TIME_START + "` = ?, `" + FIELD_TIME_HEARTBEAT + "` = NOW(), `" + FIELD_HOST + "` = ?, `" + FIELD_EXECUTOR + "` = ? WHERE `"
+				+ FIELD_TIME_START + "` IS NULL LIMIT " + limit;
+		try {
+			int numClaimedExperiments = this.adapter.update(claimQuery, Arrays.asList(now, this.cachedHost, claimToken));
+			if (numClaimedExperiments == 0) {
+				this.logger.info("No experiment with time_started=null could be found. So no experiment could be started.");
+				return new ArrayList<>();
+			}
+			List<ExperimentDBEntry> claimedExperiments = this.getExperimentsForSQLQuery(this.getSQLPrefixForSelectQuery() + " WHERE `" + FIELD_EXECUTOR + "` = '" + claimToken + "'");
+			this.adapter.update("UPDATE `" + this.tablename + "` SET `" + FIELD_EXECUTOR + "` = ? WHERE `" + FIELD_EXECUTOR + "` = ?", Arrays.asList(String.valueOf(executorInfo), claimToken));
+			this.logger.debug("Claimed {} experiments.", claimedExperiments.size());
+			return claimedExperiments;
+		} catch (SQLException e) {
+			throw new ExperimentDBInteractionFailedException("Given query was:\n" + claimQuery, e);
+		}
+	}
+
+	/**
+	 * Heartbeats and deadlines are based on the clock of the database server, so that neither the clocks nor the time zones of the executors need to agree. An experiment is owned by an executor if its
+	 * host and executor fields still hold the values written when claiming it.
+	 */
+	@Override
+	public List<ExperimentDBEntry> heartbeat(final String executorInfo, final Collection<ExperimentDBEntry> experiments) throws ExperimentDBInteractionFailedException {
+		this.assertSetup();
+		if (experiments.isEmpty()) {
+			return new ArrayList<>();
+		}
+		this.assertHeartbeatField();
+		Map<String, String> owner = new HashMap<>();
+		owner.put(FIELD_HOST, this.cachedHost);
+		owner.put(FIELD_EXECUTOR, String.valueOf(executorInfo));
+		String ids = experiments.stream().map(e -> String.valueOf(e.getId())).collect(Collectors.joining(", "));
+		String heartbeatQuery = "UPDATE `" + this.tablename + "` SET `" + FIELD_TIME_HEARTBEAT + "` = NOW() WHERE `" + FIELD_TIME_END + "` IS NULL AND `" + FIELD_ID + "` IN (" + ids + ")" + Q_AND
+				+ this.buildWhereClause(owner);
+		try {
+			int numUpdatedExperiments = this.adapter.update(heartbeatQuery);
+			if (numUpdatedExperiments == experiments.size()) {
+				return new ArrayList<>();
+			}
+
+			/* some experiments have been finished or are owned by another executor; only the latter are lost */
+			List<Integer> ownedIds = this.adapter.getResultsOfQuery("SELECT `" + FIELD_ID + "`" + this.getSQLFromTable() + "WHERE `" + FIELD_ID + "` IN (" + ids + ")" + Q_AND + this.buildWhereClause(owner))
+					.stream().map(r -> r.getAsInt(FIELD_ID)).collect(Collectors.toList());
+			List<ExperimentDBEntry> lostExperiments = experiments.stream().filter(e -> !ownedIds.contains(e.getId())).collect(Collectors.toList());
+			if (!lostExperiments.isEmpty()) {
+				this.logger.warn("Experiments {} are no longer owned by executor {} on host {}.", lostExperiments.stream().map(ExperimentDBEntry::getId).collect(Collectors.toList()), executorInfo, this.cachedHost);
+			}
+			return lostExperiments;
+		} catch (SQLException e) {
+			throw new ExperimentDBInteractionFailedException("Given query was:\n" + heartbeatQuery, e);
+		}
+	}
+
+	@Override
+	public int reclaimOrphanedExperiments(final long timeoutInMS) throws ExperimentDBInteractionFailedException {
+		this.assertSetup();
+		this.assertHeartbeatField();
+		long timeoutInSeconds = TimeUnit.MILLISECONDS.toSeconds(timeoutInMS);
+		String reclaimQuery = "UPDATE `" + this.tablename + "` SET `" + FIELD_TIME_START + "` = NULL, `" + FIELD_TIME_HEARTBEAT + "` = NULL, `" + FIELD_HOST + "` = NULL, `" + FIELD_EXECUTOR + "` = NULL WHERE `"
+				+ FIELD_TIME_END + "` IS NULL AND `" + FIELD_TIME_HEARTBEAT + "` IS NOT NULL AND `" + FIELD_TIME_HEARTBEAT + "` < NOW() - INTERVAL ? SECOND";
+		try {
+			int numReclaimedExperiments = this.adapter.update(reclaimQuery, Arrays.asList(timeoutInSeconds));
+			if (numReclaimedExperiments > 0) {
+				this.logger.info("Reclaimed {} experiments without heartbeat for {}s.", numReclaimedExperiments, timeoutInSeconds);
+			}
+			return numReclaimedExperiments;
+		} catch (SQLException e) {
+			throw new ExperimentDBInteractionFailedException("Given query was:\n" + reclaimQuery, e);
+		}
+	}
+
+	/**
+	 * Adds the heartbeat column to tables that have been created before heartbeats were supported.
+	 *
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	private synchronized void assertHeartbeatField() throws ExperimentDBInteractionFailedException {
+		if (this.heartbeatFieldPresent) {
+			return;
+		}
+		try {
+			if (!this.adapter.doesColumnExist(this.tablename, FIELD_TIME_HEARTBEAT)) {
+				this.logger.info("Adding column {} to table {}.", FIELD_TIME_HEARTBEAT, this.tablename);
+				this.adapter.update("ALTER TABLE `" + this.tablename + "` ADD COLUMN `" + FIELD_TIME_HEARTBEAT + "` TIMESTAMP NULL AFTER `" + FIELD_TIME_START + "`");
+			}
+		} catch (SQLException | IOException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		}
+		this.heartbeatFieldPresent = true;
+	}
+
 	@Override
 	public List<ExperimentDBEntry> getRunningExperiments() throws ExperimentDBInteractionFailedException {
 		StringBuilder queryStringSB = new StringBuilder();
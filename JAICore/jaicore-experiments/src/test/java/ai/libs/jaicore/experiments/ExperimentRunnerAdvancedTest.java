@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -27,6 +29,7 @@ import org.aeonbits.owner.ConfigFactory;
 import org.awaitility.Awaitility;
 import org.junit.Assert;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -61,6 +64,10 @@ public class ExperimentRunnerAdvancedTest extends AExperimentTester {
 	}
 
 	private void prepareTable(final IExperimentDatabaseHandle handle) throws Exception {
+		this.prepareTable(handle, EX_CONFIG);
+	}
+
+	private void prepareTable(final IExperimentDatabaseHandle handle, final IExperimentSetConfig config) throws Exception {
 		this.logger.info("Preparing table.");
 
 		/* delete database */
@@ -74,7 +81,7 @@ public class ExperimentRunnerAdvancedTest extends AExperimentTester {
 		}
 
 		/* create database from scratch */
-		ExperimentDatabasePreparer preparer = new ExperimentDatabasePreparer(EX_CONFIG, handle);
+		ExperimentDatabasePreparer preparer = new ExperimentDatabasePreparer(config, handle);
 		preparer.synchronizeExperiments();
 
 		/* start some experiments */
@@ -181,6 +188,105 @@ public class ExperimentRunnerAdvancedTest extends AExperimentTester {
 		});
 	}
 
+	@ParameterizedTest(name = "Concurrent")
+	@MethodSource("getDatabaseConfigs")
+	public void testConcurrentExperimentRuntime(final Object dbConfig) throws Exception {
+		this.runExperiments("concurrent", dbConfig, (runner, count) -> {
+			try {
+				runner.setCheckMemory(false);
+				runner.concurrentlyConductExperiments(count, 2);
+			} catch (ExperimentDBInteractionFailedException | InterruptedException e) {
+				this.logger.error("Error concurrent batch: ", e);
+				Assert.fail();
+			}
+		});
+	}
+
+	@ParameterizedTest(name = "Reclaim Orphaned")
+	@MethodSource("getDatabaseConfigs")
+	public void testReclaimOrphanedExperiments(final Object dbConfig) throws Exception {
+		this.prepareTable(dbConfig);
+		IExperimentDatabaseHandle handle = this.getHandle(dbConfig);
+		handle.setup(EX_CONFIG);
+		int numRunningExperiments = handle.getRunningExperiments().size();
+
+		/* claim some experiments, which receive a heartbeat on claiming */
+		List<ExperimentDBEntry> claimedExperiments = handle.startNextExperiments(EXECUTOR_INFO, 3);
+		assertEquals(3, claimedExperiments.size());
+		assertEquals(numRunningExperiments + 3, handle.getRunningExperiments().size());
+
+		/* experiments with recent heartbeat are not reclaimed; experiments without heartbeat are never reclaimed */
+		assertEquals(0, handle.reclaimOrphanedExperiments(TimeUnit.MINUTES.toMillis(1)));
+		Thread.sleep(2000);
+		assertTrue(handle.heartbeat(EXECUTOR_INFO, claimedExperiments.subList(0, 1)).isEmpty());
+		assertEquals(2, handle.reclaimOrphanedExperiments(1000));
+		assertEquals(numRunningExperiments + 1, handle.getRunningExperiments().size());
+
+		/* the executor learns from the heartbeat that it has lost the reclaimed experiments, and another executor does not own the remaining one */
+		assertEquals(getIds(claimedExperiments.subList(1, 3)), getIds(handle.heartbeat(EXECUTOR_INFO, claimedExperiments)));
+		assertEquals(getIds(claimedExperiments.subList(0, 1)), getIds(handle.heartbeat("Otherexecutor", claimedExperiments.subList(0, 1))));
+		this.eraseTable(dbConfig);
+	}
+
+	private static List<Integer> getIds(final List<ExperimentDBEntry> experiments) {
+		return experiments.stream().map(ExperimentDBEntry::getId).sorted().collect(Collectors.toList());
+	}
+
+	@ParameterizedTest(name = "Concurrency Bound")
+	@MethodSource("getDatabaseConfigs")
+	public void testThatConcurrentExperimentsRespectWorkersAndCPUs(final Object dbConfig) throws Exception {
+		int numCPUs = Runtime.getRuntime().availableProcessors();
+		int cpusPerExperiment = EX_CONFIG.getNumberOfCPUs();
+		Assumptions.assumeTrue(numCPUs >= cpusPerExperiment, "Experiments declare more CPUs than available.");
+		IExperimentDatabaseHandle handle = this.getHandle(dbConfig);
+		this.prepareTable(handle);
+		int numWorkers = 3;
+		int numExperiments = 3 * numWorkers;
+		int expectedMaxRunningExperiments = Math.min(numWorkers, numCPUs / cpusPerExperiment);
+
+		/* record the maximum number of experiments that run at the same time */
+		AtomicInteger numRunningExperiments = new AtomicInteger();
+		AtomicInteger maxRunningExperiments = new AtomicInteger();
+		AtomicInteger numEvaluatedExperiments = new AtomicInteger();
+		IExperimentSetEvaluator evaluator = (final ExperimentDBEntry experimentEntry, final IExperimentIntermediateResultProcessor processor) -> {
+			maxRunningExperiments.accumulateAndGet(numRunningExperiments.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(500);
+			} finally {
+				numRunningExperiments.decrementAndGet();
+			}
+			numEvaluatedExperiments.incrementAndGet();
+			processor.processResults(Collections.singletonMap("R", "result"));
+		};
+		ExperimentRunner runner = new ExperimentRunner(EX_CONFIG, evaluator, handle);
+		runner.setCheckMemory(false);
+		runner.concurrentlyConductExperiments(numExperiments, numWorkers);
+		assertEquals(numExperiments, numEvaluatedExperiments.get());
+		assertEquals(expectedMaxRunningExperiments, maxRunningExperiments.get());
+		assertEquals(5, handle.getRunningExperiments().size()); // those started but not finished when preparing the table
+		this.eraseTable(dbConfig);
+	}
+
+	@ParameterizedTest(name = "Concurrent Resource Rejection")
+	@MethodSource("getDatabaseConfigs")
+	public void testThatConcurrentRunnerFinishesExperimentsWithExcessiveResourcesWithError(final Object dbConfig) throws Exception {
+		IExperimentSetConfig config = (IExperimentSetConfig) ConfigFactory.create(IExperimentSetConfig.class).loadPropertiesFromFile(new File("testrsc/artificial/experiment1.cfg"));
+		config.setProperty(IExperimentSetConfig.CPU_MAX, String.valueOf(Runtime.getRuntime().availableProcessors() + 1));
+		IExperimentDatabaseHandle handle = this.getHandle(dbConfig);
+		this.prepareTable(handle, config);
+		int numFailedExperiments = handle.getFailedExperiments().size();
+		AtomicInteger numEvaluatedExperiments = new AtomicInteger();
+		ExperimentRunner runner = new ExperimentRunner(config, (experimentEntry, processor) -> numEvaluatedExperiments.incrementAndGet(), handle);
+		runner.setCheckMemory(false);
+		runner.concurrentlyConductExperiments(4, 2);
+
+		/* the experiments are not evaluated, but they are finished with an error, so that they are not claimed again */
+		assertEquals(0, numEvaluatedExperiments.get());
+		assertEquals(numFailedExperiments + 4, handle.getFailedExperiments().size());
+		assertEquals(5, handle.getRunningExperiments().size());
+		this.eraseTable(dbConfig);
+	}
+
 	@ParameterizedTest(name = "Start 10")
 	@MethodSource("getDatabaseConfigs")
 	public void testStart10Experiments(final Object dbConfig) throws Exception {
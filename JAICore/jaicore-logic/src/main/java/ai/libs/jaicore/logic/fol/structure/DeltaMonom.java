@@ -0,0 +1,224 @@
+package ai.libs.jaicore.logic.fol.structure;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * A monom that shares its literals with the monom it has been derived from.
+ *
+ * The literals are stored as a base set together with the literals added to and removed from it. The base set is never modified, so all monoms derived from the same base (and their derivations) share it,
+ * and deriving a successor only copies the two deltas. Once the deltas grow too large compared to the base, the derived monom creates a new base of its own, so membership tests stay constant time and the
+ * copies stay small.
+ *
+ * A delta monom is a fully mutable monom; modifications only affect the deltas of the respective instance.
+ */
+public class DeltaMonom extends Monom {
+
+	private static final long serialVersionUID = -2401394497453519541L;
+
+	/* a new base is created once the deltas are larger than BASE_REBUILD_FACTOR^-1 of the base size plus BASE_REBUILD_SLACK */
+	private static final int BASE_REBUILD_FACTOR = 4;
+	private static final int BASE_REBUILD_SLACK = 16;
+
+	private final transient Set<Literal> base;
+	private final transient Set<Literal> unmodifiableBase; // shared together with the base so that it identifies the base
+	private final transient Set<Literal> added;
+	private final transient Set<Literal> removed;
+
+	/**
+	 * Creates a monom that contains exactly the literals of the given collection. If the collection is a delta monom, the new monom shares its base. Otherwise, the literals are copied (but not cloned)
+	 * once into a new base.
+	 *
+	 * @param literals
+	 *            The literals of the monom.
+	 */
+	public DeltaMonom(final Collection<Literal> literals) {
+		super();
+		if (literals instanceof DeltaMonom) {
+			DeltaMonom parent = (DeltaMonom) literals;
+			if (parent.added.size() + parent.removed.size() > parent.base.size() / BASE_REBUILD_FACTOR + BASE_REBUILD_SLACK) {
+				this.base = parent.flatten();
+				this.unmodifiableBase = Collections.unmodifiableSet(this.base);
+				this.added = new HashSet<>();
+				this.removed = new HashSet<>();
+			} else {
+				this.base = parent.base;
+				this.unmodifiableBase = parent.unmodifiableBase;
+				this.added = new HashSet<>(parent.added);
+				this.removed = new HashSet<>(parent.removed);
+			}
+		} else {
+			this.base = new HashSet<>(literals);
+			this.unmodifiableBase = Collections.unmodifiableSet(this.base);
+			this.added = new HashSet<>();
+			this.removed = new HashSet<>();
+		}
+	}
+
+	private Set<Literal> flatten() {
+		Set<Literal> literals = new HashSet<>(this.base.size() + this.added.size());
+		for (Literal l : this.base) {
+			if (!this.removed.contains(l)) {
+				literals.add(l);
+			}
+		}
+		literals.addAll(this.added);
+		return literals;
+	}
+
+	/**
+	 * @return The number of literals in which this monom differs from its base.
+	 */
+	public int getDeltaSize() {
+		return this.added.size() + this.removed.size();
+	}
+
+	/**
+	 * @return The base of this monom. All monoms sharing the base return the same object, so it can be used as a (weak) key for information derived from the base.
+	 */
+	public Set<Literal> getBase() {
+		return this.unmodifiableBase;
+	}
+
+	/**
+	 * @return The literals of this monom that are not in its base.
+	 */
+	public Set<Literal> getAddedLiterals() {
+		return Collections.unmodifiableSet(this.added);
+	}
+
+	/**
+	 * @return The literals of the base that are not in this monom.
+	 */
+	public Set<Literal> getRemovedLiterals() {
+		return Collections.unmodifiableSet(this.removed);
+	}
+
+	@Override
+	public int size() {
+		return this.base.size() - this.removed.size() + this.added.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return this.added.contains(o) || (this.base.contains(o) && !this.removed.contains(o));
+	}
+
+	@Override
+	public boolean add(final Literal l) {
+		if (this.removed.remove(l)) {
+			return true;
+		}
+		if (this.base.contains(l)) {
+			return false;
+		}
+		return this.added.add(l);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		if (this.added.remove(o)) {
+			return true;
+		}
+		return this.base.contains(o) && this.removed.add((Literal) o);
+	}
+
+	@Override
+	public void clear() {
+		this.added.clear();
+		this.removed.addAll(this.base);
+	}
+
+	@Override
+	public Iterator<Literal> iterator() {
+		return new Iterator<Literal>() {
+			private final Iterator<Literal> baseIterator = DeltaMonom.this.base.iterator();
+			private final Iterator<Literal> addedIterator = DeltaMonom.this.added.iterator();
+			private Literal next = this.advance();
+			private Literal last;
+			private boolean lastFromBase;
+
+			private Literal advance() {
+				while (this.baseIterator.hasNext()) {
+					Literal l = this.baseIterator.next();
+					if (!DeltaMonom.this.removed.contains(l)) {
+						return l;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return this.next != null || this.addedIterator.hasNext();
+			}
+
+			@Override
+			public Literal next() {
+				if (this.next != null) {
+					this.last = this.next;
+					this.lastFromBase = true;
+					this.next = this.advance();
+					return this.last;
+				}
+				if (!this.addedIterator.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				this.last = this.addedIterator.next();
+				this.lastFromBase = false;
+				return this.last;
+			}
+
+			@Override
+			public void remove() {
+				if (this.last == null) {
+					throw new IllegalStateException();
+				}
+				if (this.lastFromBase) {
+					DeltaMonom.this.removed.add(this.last);
+				} else {
+					this.addedIterator.remove();
+				}
+				this.last = null;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<Literal> spliterator() {
+		return Spliterators.spliterator(this, Spliterator.DISTINCT);
+	}
+
+	@Override
+	public Object[] toArray() {
+		return this.flatten().toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(final T[] a) {
+		return this.flatten().toArray(a);
+	}
+
+	@Override
+	public Object clone() {
+		return new DeltaMonom(this);
+	}
+
+	/**
+	 * The base set is shared among instances, so a delta monom is serialized as a plain monom.
+	 */
+	private Object writeReplace() {
+		return new Monom(this.flatten(), false);
+	}
+}
@@ -0,0 +1,144 @@
+package ai.libs.jaicore.logic.fol.structure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index over a fact base that groups the facts by predicate and polarity and, within each group, by the (interned) parameter at each position.
+ *
+ * It is used to look up the facts that may unify with a literal: instead of scanning the whole fact base, only the facts of the literal's predicate are considered, and if the literal has constant parameters,
+ * only the facts in the shortest posting list of these constants.
+ *
+ * The index is a snapshot of the facts at construction time; it does not reflect later modifications of the fact base.
+ */
+public class FactIndex {
+
+	private static final int FREE = -2;
+
+	private final SymbolTable symbols;
+	private final List<FactGroup> groups = new ArrayList<>(); // the group of predicate p and polarity b is at position 2p + b
+	private final Set<ConstantParam> constantParams = new HashSet<>();
+	private final int size;
+
+	private static class FactGroup {
+		private final List<Literal> facts = new ArrayList<>();
+		private final List<int[]> params = new ArrayList<>();
+		private final List<Map<Integer, List<Integer>>> factsByParam = new ArrayList<>(); // for each position, the ids of the facts by the id of the parameter
+		private int minArity = Integer.MAX_VALUE;
+	}
+
+	public FactIndex(final Collection<Literal> facts) {
+		this(facts, new SymbolTable());
+	}
+
+	public FactIndex(final Collection<Literal> facts, final SymbolTable symbols) {
+		this.symbols = symbols;
+		for (Literal fact : facts) {
+			int group = 2 * symbols.internPredicate(fact.getPropertyName()) + (fact.isPositive() ? 1 : 0);
+			while (this.groups.size() <= group) {
+				this.groups.add(null);
+			}
+			if (this.groups.get(group) == null) {
+				this.groups.set(group, new FactGroup());
+			}
+			FactGroup factGroup = this.groups.get(group);
+			int factId = factGroup.facts.size();
+			List<LiteralParam> params = fact.getParameters();
+			int[] paramIds = new int[params.size()];
+			for (int i = 0; i < paramIds.length; i++) {
+				LiteralParam param = params.get(i);
+				paramIds[i] = symbols.internParam(param);
+				if (factGroup.factsByParam.size() <= i) {
+					factGroup.factsByParam.add(new HashMap<>());
+				}
+				factGroup.factsByParam.get(i).computeIfAbsent(paramIds[i], id -> new ArrayList<>()).add(factId);
+				if (param instanceof ConstantParam) {
+					this.constantParams.add((ConstantParam) param);
+				}
+			}
+			factGroup.facts.add(fact);
+			factGroup.params.add(paramIds);
+			factGroup.minArity = Math.min(factGroup.minArity, paramIds.length);
+		}
+		this.size = facts.size();
+	}
+
+	/**
+	 * Determines the facts that may unify with the given literal. These are the facts with the same predicate and polarity that coincide with the literal on all positions at which the literal has no
+	 * variable.
+	 *
+	 * @param literal
+	 *            The (partially ground) literal.
+	 * @return The candidate facts for the literal.
+	 */
+	public List<Literal> getCandidates(final Literal literal) {
+		int predicate = this.symbols.getPredicateId(literal.getPropertyName());
+		if (predicate == SymbolTable.UNKNOWN) {
+			return Collections.emptyList();
+		}
+		int group = 2 * predicate + (literal.isPositive() ? 1 : 0);
+		FactGroup factGroup = group < this.groups.size() ? this.groups.get(group) : null;
+		if (factGroup == null) {
+			return Collections.emptyList();
+		}
+
+		/* look up the bound positions and pick the shortest posting list among them */
+		List<LiteralParam> params = literal.getParameters();
+		int n = Math.min(params.size(), factGroup.minArity);
+		int[] boundParamIds = new int[n];
+		List<Integer> shortestPostingList = null;
+		for (int i = 0; i < n; i++) {
+			LiteralParam param = params.get(i);
+			if (param instanceof VariableParam) {
+				boundParamIds[i] = FREE;
+				continue;
+			}
+			boundParamIds[i] = this.symbols.getParamId(param);
+			List<Integer> postingList = boundParamIds[i] != SymbolTable.UNKNOWN ? factGroup.factsByParam.get(i).get(boundParamIds[i]) : null;
+			if (postingList == null) {
+				return Collections.emptyList();
+			}
+			if (shortestPostingList == null || postingList.size() < shortestPostingList.size()) {
+				shortestPostingList = postingList;
+			}
+		}
+		if (shortestPostingList == null) {
+			return Collections.unmodifiableList(factGroup.facts);
+		}
+
+		/* filter the posting list by the other bound positions */
+		List<Literal> candidates = new ArrayList<>(shortestPostingList.size());
+		for (int factId : shortestPostingList) {
+			int[] factParamIds = factGroup.params.get(factId);
+			boolean matches = true;
+			for (int i = 0; i < n && matches; i++) {
+				matches = boundParamIds[i] == FREE || boundParamIds[i] == factParamIds[i];
+			}
+			if (matches) {
+				candidates.add(factGroup.facts.get(factId));
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * @return The constants occurring in the facts.
+	 */
+	public Set<ConstantParam> getConstantParams() {
+		return Collections.unmodifiableSet(this.constantParams);
+	}
+
+	public SymbolTable getSymbolTable() {
+		return this.symbols;
+	}
+
+	public int size() {
+		return this.size;
+	}
+}
@@ -0,0 +1,75 @@
+package ai.libs.jaicore.logic.fol.structure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns predicate names and literal parameters into consecutive integers, so that indices over literals can work on ints instead of repeatedly hashing and comparing strings.
+ *
+ * Symbol tables are not thread-safe.
+ */
+public class SymbolTable {
+
+	public static final int UNKNOWN = -1;
+
+	private final Map<String, Integer> predicateIds = new HashMap<>();
+	private final List<String> predicates = new ArrayList<>();
+	private final Map<LiteralParam, Integer> paramIds = new HashMap<>();
+	private final List<LiteralParam> params = new ArrayList<>();
+
+	/**
+	 * @param predicate
+	 *            The name of a predicate (without negation).
+	 * @return The id of the predicate, which is created if the predicate is not known yet.
+	 */
+	public int internPredicate(final String predicate) {
+		return this.predicateIds.computeIfAbsent(predicate, p -> {
+			this.predicates.add(p);
+			return this.predicates.size() - 1;
+		});
+	}
+
+	/**
+	 * @param param
+	 *            A parameter of a literal.
+	 * @return The id of the parameter, which is created if the parameter is not known yet.
+	 */
+	public int internParam(final LiteralParam param) {
+		return this.paramIds.computeIfAbsent(param, p -> {
+			this.params.add(p);
+			return this.params.size() - 1;
+		});
+	}
+
+	/**
+	 * @return The id of the predicate or {@link #UNKNOWN} if it has not been interned.
+	 */
+	public int getPredicateId(final String predicate) {
+		return this.predicateIds.getOrDefault(predicate, UNKNOWN);
+	}
+
+	/**
+	 * @return The id of the parameter or {@link #UNKNOWN} if it has not been interned.
+	 */
+	public int getParamId(final LiteralParam param) {
+		return this.paramIds.getOrDefault(param, UNKNOWN);
+	}
+
+	public String getPredicate(final int id) {
+		return this.predicates.get(id);
+	}
+
+	public LiteralParam getParam(final int id) {
+		return this.params.get(id);
+	}
+
+	public int getNumberOfPredicates() {
+		return this.predicates.size();
+	}
+
+	public int getNumberOfParams() {
+		return this.params.size();
+	}
+}
@@ -2,6 +2,7 @@ package ai.libs.jaicore.logic.fol.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ai.libs.jaicore.basic.algorithm.AAlgorithm;
+import ai.libs.jaicore.logic.fol.structure.FactIndex;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.LiteralParam;
 import ai.libs.jaicore.logic.fol.structure.LiteralSet;
@@ -35,6 +37,7 @@ public class ForwardChainer extends AAlgorithm<ForwardChainingProblem, Collectio
 	private Monom conclusion;
 	private Monom cwaRelevantNegativeLiterals; // contains the negative part of the conclusion IF CWA is active!
 	private Monom factbase;
+	private FactIndex factIndex;
 
 	private Literal chosenLiteral;
 	private List<Map<VariableParam, LiteralParam>> possibleChoicesForLocalLiteral;
@@ -65,6 +68,7 @@ public class ForwardChainer extends AAlgorithm<ForwardChainingProblem, Collectio
 			this.conclusion = this.getInput().getConclusion();
 			assert !this.conclusion.isEmpty() : "The algorithm should not be invoked with an empty conclusion";
 			this.factbase = this.getInput().getFactbase();
+			this.factIndex = this.getInput().getFactIndex();
 			this.logger.info("Computing substitution for {}-conclusion that enable forward chaining from factbase of size {}. Enable trace for more detailed output.", this.conclusion.size(), this.factbase.size());
 			this.logger.trace("Conclusion is {}", this.conclusion);
 			this.logger.trace("Factbase is {}", this.factbase);
@@ -86,14 +90,23 @@ public class ForwardChainer extends AAlgorithm<ForwardChainingProblem, Collectio
 				this.cwaRelevantNegativeLiterals = negativeLiterals;
 			}
 
-			/* select the literal that has the least options to be ground */
+			/*
+			 * select the literal that has the least options to be ground. The candidate facts of each literal are looked up in the index first, and the literals are considered in the order of their number
+			 * of candidates, so that the bound on the number of options prunes the grounding of the others early
+			 */
 			int currentlyFewestOptions = Integer.MAX_VALUE;
 			long timeToPrepareCWAVersion = System.currentTimeMillis();
-			for (Literal nextLitealCandidate : this.conclusion) {
+			Map<Literal, List<Literal>> candidateFacts = new HashMap<>();
+			for (Literal l : this.conclusion) {
+				candidateFacts.put(l, this.factIndex.getCandidates(l));
+			}
+			List<Literal> orderedConclusion = new ArrayList<>(this.conclusion);
+			orderedConclusion.sort(Comparator.comparingInt(l -> l.getVariableParams().isEmpty() ? 1 : candidateFacts.get(l).size()));
+			for (Literal nextLitealCandidate : orderedConclusion) {
 				this.checkAndConductTermination();
 				this.logger.debug("Considering {} as next literal for grounding.", nextLitealCandidate);
 				long candidateGroundingStart = System.currentTimeMillis();
-				List<Map<VariableParam, LiteralParam>> choicesTmp = this.getGroundingsUnderWhichALiteralAppearsInFactBase(this.factbase, nextLitealCandidate, currentlyFewestOptions);
+				List<Map<VariableParam, LiteralParam>> choicesTmp = this.getGroundingsUnderWhichALiteralAppearsInFacts(candidateFacts.get(nextLitealCandidate), nextLitealCandidate, currentlyFewestOptions);
 				this.logger.debug("Computation of {} groundings took {}ms.", choicesTmp.size(), System.currentTimeMillis() - candidateGroundingStart);
 				if (choicesTmp.size() < currentlyFewestOptions) {
 					this.chosenLiteral = nextLitealCandidate;
@@ -174,7 +187,7 @@ public class ForwardChainer extends AAlgorithm<ForwardChainingProblem, Collectio
 				return new NextBindingFoundEvent(this, this.currentGroundingOfLocalLiteral);
 			} else {
 				this.logger.debug("Recurse to {}-conclusion", this.currentGroundRemainingConclusion.size());
-				ForwardChainingProblem subProblem = new ForwardChainingProblem(this.factbase, this.currentGroundRemainingConclusion, this.getInput().isCwa());
+				ForwardChainingProblem subProblem = new ForwardChainingProblem(this.factbase, this.currentGroundRemainingConclusion, this.getInput().isCwa(), this.factIndex);
 				long startRecursiveCall = System.currentTimeMillis();
 				this.logger.debug("Finished recursion of {}-conclusion. Computation took {}ms", this.currentGroundRemainingConclusion.size(), System.currentTimeMillis() - startRecursiveCall);
 				this.currentlyActiveSubFC = new ForwardChainer(subProblem);
@@ -247,6 +260,14 @@ public class ForwardChainer extends AAlgorithm<ForwardChainingProblem, Collectio
 	}
 
 	public List<Map<VariableParam, LiteralParam>> getGroundingsUnderWhichALiteralAppearsInFactBase(final Collection<Literal> factbase, final Literal l, final int maxSubstitutions) {
+		return this.getGroundingsUnderWhichALiteralAppearsInFacts(factbase, l, maxSubstitutions);
+	}
+
+	public List<Map<VariableParam, LiteralParam>> getGroundingsUnderWhichALiteralAppearsInFactBase(final FactIndex factIndex, final Literal l, final int maxSubstitutions) {
+		return this.getGroundingsUnderWhichALiteralAppearsInFacts(factIndex.getCandidates(l), l, maxSubstitutions);
+	}
+
+	private List<Map<VariableParam, LiteralParam>> getGroundingsUnderWhichALiteralAppearsInFacts(final Collection<Literal> factbase, final Literal l, final int maxSubstitutions) {
 
 		List<VariableParam> openParams = l.getVariableParams();
 
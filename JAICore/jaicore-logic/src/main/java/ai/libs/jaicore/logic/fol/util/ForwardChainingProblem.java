@@ -1,17 +1,28 @@
 package ai.libs.jaicore.logic.fol.util;
 
+import ai.libs.jaicore.logic.fol.structure.FactIndex;
 import ai.libs.jaicore.logic.fol.structure.Monom;
 
 public class ForwardChainingProblem {
 	private final Monom factbase;
 	private final Monom conclusion;
 	private final boolean cwa;
+	private FactIndex factIndex;
 
 	public ForwardChainingProblem(Monom factbase, Monom conclusion, boolean cwa) {
+		this(factbase, conclusion, cwa, null);
+	}
+
+	/**
+	 * @param factIndex
+	 *            An index over the factbase, which can be shared among several problems over the same factbase. If null, it is built when needed.
+	 */
+	public ForwardChainingProblem(Monom factbase, Monom conclusion, boolean cwa, FactIndex factIndex) {
 		super();
 		this.factbase = factbase;
 		this.conclusion = conclusion;
 		this.cwa = cwa;
+		this.factIndex = factIndex;
 	}
 
 	public Monom getFactbase() {
@@ -25,4 +36,11 @@ public class ForwardChainingProblem {
 	public boolean isCwa() {
 		return cwa;
 	}
+
+	public FactIndex getFactIndex() {
+		if (factIndex == null) {
+			factIndex = new FactIndex(factbase);
+		}
+		return factIndex;
+	}
 }
@@ -0,0 +1,89 @@
+package ai.libs.jaicore.logic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.logic.fol.structure.DeltaMonom;
+import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.Monom;
+
+/**
+ * Test case for the DeltaMonom class.
+ */
+public class DeltaMonomTest {
+
+	@Test
+	public void testDerivedMonomDoesNotAffectParent() {
+		Monom init = new Monom("P(a) & Q(b) & R(c)");
+		DeltaMonom parent = new DeltaMonom(init);
+		DeltaMonom child = new DeltaMonom(parent);
+		child.remove(new Literal("Q(b)"));
+		child.add(new Literal("S(d)"));
+
+		assertEquals(init, parent);
+		assertEquals(new Monom("P(a) & R(c) & S(d)"), child);
+		assertEquals(new Monom("P(a) & R(c) & S(d)"), child.stream().collect(Collectors.toSet()));
+		assertEquals(3, child.toArray().length);
+		assertFalse(child.contains(new Literal("Q(b)")));
+		assertTrue(parent.contains(new Literal("Q(b)")));
+
+		/* re-adding a removed literal only undoes the delta */
+		child.add(new Literal("Q(b)"));
+		child.remove(new Literal("S(d)"));
+		assertEquals(0, child.getDeltaSize());
+		assertEquals(init, child);
+	}
+
+	@Test
+	public void testLongChainsOfDerivations() {
+		Set<Literal> expected = new HashSet<>();
+		DeltaMonom state = new DeltaMonom(new Monom());
+		for (int i = 0; i < 1000; i++) {
+			state = new DeltaMonom(state);
+			Literal l = new Literal("P(c" + i + ")");
+			state.add(l);
+			expected.add(l);
+			if (i % 3 == 0) {
+				Literal removed = new Literal("P(c" + (i / 2) + ")");
+				state.remove(removed);
+				expected.remove(removed);
+			}
+			assertEquals(expected.size(), state.size());
+		}
+		assertEquals(expected, state);
+		assertTrue(state.getDeltaSize() <= state.size());
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		DeltaMonom state = new DeltaMonom(new DeltaMonom(new Monom("P(a) & Q(b)")));
+		state.add(new Literal("R(c)"));
+		state.removeIf(l -> !l.getPropertyName().equals("Q"));
+		assertEquals(new Monom("Q(b)"), state);
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		DeltaMonom state = new DeltaMonom(new Monom("P(a) & Q(b)"));
+		state.remove(new Literal("P(a)"));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(state);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+			assertEquals(new Monom("Q(b)"), ois.readObject());
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package ai.libs.jaicore.logic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.logic.fol.structure.FactIndex;
+import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.Monom;
+
+/**
+ * Test case for the FactIndex class.
+ */
+public class FactIndexTest {
+
+	private final Monom factbase = new Monom("P('a', 'b') & P('a', 'c') & P('b', 'c') & !P('a', 'd') & Q('a')");
+	private final FactIndex index = new FactIndex(this.factbase);
+
+	@Test
+	public void testCandidatesOfUnboundLiteral() {
+		assertEquals(new HashSet<>(new Monom("P('a', 'b') & P('a', 'c') & P('b', 'c')")), new HashSet<>(this.index.getCandidates(new Literal("P(x, y)"))));
+		assertEquals(new HashSet<>(new Monom("!P('a', 'd')")), new HashSet<>(this.index.getCandidates(new Literal("!P(x, y)"))));
+	}
+
+	@Test
+	public void testCandidatesOfPartiallyBoundLiteral() {
+		assertEquals(new HashSet<>(new Monom("P('a', 'b') & P('a', 'c')")), new HashSet<>(this.index.getCandidates(new Literal("P('a', y)"))));
+		assertEquals(new HashSet<>(new Monom("P('a', 'c') & P('b', 'c')")), new HashSet<>(this.index.getCandidates(new Literal("P(x, 'c')"))));
+		assertEquals(new HashSet<>(new Monom("P('b', 'c')")), new HashSet<>(this.index.getCandidates(new Literal("P('b', 'c')"))));
+	}
+
+	@Test
+	public void testNoCandidatesForUnknownSymbols() {
+		assertTrue(this.index.getCandidates(new Literal("R(x)")).isEmpty());
+		assertTrue(this.index.getCandidates(new Literal("P('e', y)")).isEmpty());
+		assertTrue(this.index.getCandidates(new Literal("!Q(x)")).isEmpty());
+	}
+
+	@Test
+	public void testConstants() {
+		Set<?> expected = this.factbase.getConstantParams();
+		assertEquals(expected, this.index.getConstantParams());
+	}
+}
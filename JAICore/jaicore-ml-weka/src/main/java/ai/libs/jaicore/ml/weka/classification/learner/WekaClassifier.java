@@ -1,5 +1,6 @@
 package ai.libs.jaicore.ml.weka.classification.learner;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -7,16 +8,19 @@ import java.util.stream.IntStream;
 
 import org.api4.java.ai.ml.classification.singlelabel.evaluation.ISingleLabelClassification;
 import org.api4.java.ai.ml.classification.singlelabel.evaluation.ISingleLabelClassificationPredictionBatch;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
 import org.api4.java.ai.ml.core.exception.PredictionException;
 
 import ai.libs.jaicore.ml.classification.singlelabel.SingleLabelClassification;
 import ai.libs.jaicore.ml.classification.singlelabel.SingleLabelClassificationPredictionBatch;
 import ai.libs.jaicore.ml.weka.classification.pipeline.MLPipeline;
+import ai.libs.jaicore.ml.weka.dataset.WekaInstances;
 import weka.attributeSelection.ASEvaluation;
 import weka.attributeSelection.ASSearch;
 import weka.classifiers.AbstractClassifier;
 import weka.classifiers.Classifier;
+import weka.core.BatchPredictor;
 
 public class WekaClassifier extends AWekaLearner<ISingleLabelClassification, ISingleLabelClassificationPredictionBatch> implements IWekaClassifier {
 
@@ -45,10 +49,7 @@ public class WekaClassifier extends AWekaLearner<ISingleLabelClassification, ISi
 	@Override
 	public ISingleLabelClassification predict(final ILabeledInstance xTest) throws PredictionException, InterruptedException {
 		try {
-			Map<Integer, Double> distribution = new HashMap<>();
-			double[] dist = this.wrappedLearner.distributionForInstance(this.getWekaInstance(xTest).getElement());
-			IntStream.range(0, dist.length).forEach(x -> distribution.put(x, dist[x]));
-			return new SingleLabelClassification(distribution);
+			return getClassification(this.wrappedLearner.distributionForInstance(this.getWekaInstance(xTest).getElement()));
 		} catch (InterruptedException e) {
 			throw e;
 		} catch (Exception e) {
@@ -56,6 +57,38 @@ public class WekaClassifier extends AWekaLearner<ISingleLabelClassification, ISi
 		}
 	}
 
+	/**
+	 * If the wrapped classifier implements a more efficient batch prediction (like {@link MLPipeline} does), the whole dataset is passed to it at once. Otherwise, the instances are predicted one by
+	 * one.
+	 */
+	@Override
+	public ISingleLabelClassificationPredictionBatch predict(final ILabeledDataset<? extends ILabeledInstance> dTest) throws PredictionException, InterruptedException {
+		if (!(this.wrappedLearner instanceof BatchPredictor) || !((BatchPredictor) this.wrappedLearner).implementsMoreEfficientBatchPrediction()) {
+			return super.predict(dTest);
+		}
+		if (Thread.interrupted()) {
+			throw new InterruptedException("Weka learner was interrupted while predicting.");
+		}
+		try {
+			double[][] distributions = ((BatchPredictor) this.wrappedLearner).distributionsForInstances(new WekaInstances(dTest).getInstances());
+			List<ISingleLabelClassification> predictions = new ArrayList<>(distributions.length);
+			for (double[] dist : distributions) {
+				predictions.add(getClassification(dist));
+			}
+			return this.getPredictionListAsBatch(predictions);
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new PredictionException("Could not make a prediction since an exception occurred in the wrapped weka classifier.", e);
+		}
+	}
+
+	private static ISingleLabelClassification getClassification(final double[] dist) {
+		Map<Integer, Double> distribution = new HashMap<>();
+		IntStream.range(0, dist.length).forEach(x -> distribution.put(x, dist[x]));
+		return new SingleLabelClassification(distribution);
+	}
+
 	@Override
 	protected ISingleLabelClassificationPredictionBatch getPredictionListAsBatch(final List<ISingleLabelClassification> predictionList) {
 		return new SingleLabelClassificationPredictionBatch(predictionList);
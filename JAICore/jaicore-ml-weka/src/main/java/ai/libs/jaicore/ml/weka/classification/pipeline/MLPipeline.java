@@ -3,6 +3,7 @@ package ai.libs.jaicore.ml.weka.classification.pipeline;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.slf4j.Logger;
@@ -14,9 +15,11 @@ import weka.attributeSelection.ASSearch;
 import weka.attributeSelection.AttributeSelection;
 import weka.classifiers.Classifier;
 import weka.classifiers.SingleClassifierEnhancer;
+import weka.core.BatchPredictor;
 import weka.core.Capabilities;
 import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.Utils;
 
 /**
  *
@@ -30,6 +33,8 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 
 	private final List<SupervisedFilterSelector> preprocessors = new ArrayList<>();
 
+	private transient PreprocessingCache preprocessingCache;
+
 	private boolean trained = false;
 
 	private int timeForTrainingPreprocessors;
@@ -69,17 +74,37 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 		int numAttributesBefore = data.numAttributes();
 		logger.info("Starting to build the preprocessors of the pipeline.");
 
-		for (SupervisedFilterSelector pp : this.preprocessors) {
+		/* if a prefix of the preprocessors has already been fitted on this data, take the fitted preprocessors and the reduced data from the cache */
+		int numCachedPreprocessors = 0;
+		String fingerprint = null;
+		List<String> descriptors = null;
+		if (this.preprocessingCache != null && !this.preprocessors.isEmpty() && this.preprocessors.stream().noneMatch(SupervisedFilterSelector::isPrepared)) {
+			fingerprint = PreprocessingCache.getFingerprint(data);
+			descriptors = this.preprocessors.stream().map(SupervisedFilterSelector::toString).collect(Collectors.toList());
+			PreprocessingCache.CachedPrefix cachedPrefix = this.preprocessingCache.getLongestPrefix(fingerprint, descriptors);
+			if (cachedPrefix != null) {
+				numCachedPreprocessors = cachedPrefix.getPreprocessors().size();
+				for (int i = 0; i < numCachedPreprocessors; i++) {
+					this.preprocessors.set(i, cachedPrefix.getPreprocessors().get(i));
+				}
+				data = cachedPrefix.getData();
+				logger.info("Reusing {} cached preprocessors.", numCachedPreprocessors);
+			}
+		}
+
+		for (int i = numCachedPreprocessors; i < this.preprocessors.size(); i++) {
+			SupervisedFilterSelector pp = this.preprocessors.get(i);
 
 			/* if the filter has not been trained yet, do so now and store it */
+			Instances reducedData = null;
 			if (!pp.isPrepared()) {
 				try {
 					start = System.currentTimeMillis();
 					pp.prepare(data);
 					this.timeForTrainingPreprocessors = (int) (System.currentTimeMillis() - start);
-					int newNumberOfClasses = pp.apply(data).numClasses();
-					if (data.numClasses() != newNumberOfClasses) {
-						logger.info("{} changed number of classes from {} to {}", pp.getSelector(), data.numClasses(), newNumberOfClasses);
+					reducedData = pp.apply(data);
+					if (data.numClasses() != reducedData.numClasses()) {
+						logger.info("{} changed number of classes from {} to {}", pp.getSelector(), data.numClasses(), reducedData.numClasses());
 					}
 				} catch (NullPointerException e) {
 					logger.error("Could not apply preprocessor", e);
@@ -87,7 +112,10 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 			}
 
 			/* now apply the attribute selector */
-			data = pp.apply(data);
+			data = reducedData != null ? reducedData : pp.apply(data);
+			if (fingerprint != null) {
+				this.preprocessingCache.put(fingerprint, descriptors.subList(0, i + 1), this.preprocessors.subList(0, i + 1), data);
+			}
 		}
 		logger.info("Reduced number of attributes from {} to {}", numAttributesBefore, data.numAttributes());
 
@@ -109,6 +137,20 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 		return data;
 	}
 
+	private Instances applyPreprocessors(Instances data) throws PreprocessingException {
+		long start = System.currentTimeMillis();
+		for (SupervisedFilterSelector pp : this.preprocessors) {
+			data = pp.apply(data);
+		}
+		this.timeForExecutingPreprocessors.addValue((int) (System.currentTimeMillis() - start));
+		return data;
+	}
+
+	private boolean hasEfficientBatchClassifier() {
+		Classifier classifier = super.getClassifier();
+		return classifier instanceof BatchPredictor && ((BatchPredictor) classifier).implementsMoreEfficientBatchPrediction();
+	}
+
 	@Override
 	public double classifyInstance(Instance arg0) throws Exception {
 		if (!this.trained) {
@@ -125,15 +167,52 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 		return result;
 	}
 
-	public double[] classifyInstances(final Instances arg0) throws Exception {
+	/**
+	 * Classifies a batch of instances. Each preprocessor transforms the whole batch at once. If the base classifier implements a more efficient batch prediction, the classes are derived from the
+	 * distributions it computes for the batch; otherwise, the base classifier classifies the transformed instances one by one.
+	 *
+	 * The execution times of the preprocessors and the classifier are recorded once for the whole batch.
+	 *
+	 * @param arg0
+	 *            The instances to classify.
+	 * @return The predicted class (or value) for each instance.
+	 * @throws Exception
+	 */
+	public double[] classifyInstances(Instances arg0) throws Exception {
+		if (!this.trained) {
+			throw new IllegalStateException("Cannot make predictions on untrained pipeline!");
+		}
+		arg0 = this.applyPreprocessors(arg0);
 		int n = arg0.size();
 		double[] answers = new double[n];
-		for (int i = 0; i < n; i++) {
-			answers[i] = this.classifyInstance(arg0.get(i));
+		long start = System.currentTimeMillis();
+		if (this.hasEfficientBatchClassifier()) {
+			double[][] distributions = ((BatchPredictor) super.getClassifier()).distributionsForInstances(arg0);
+			boolean nominal = arg0.classAttribute().isNominal();
+			for (int i = 0; i < n; i++) {
+				answers[i] = getPrediction(distributions[i], nominal);
+			}
+		} else {
+			Classifier classifier = super.getClassifier();
+			for (int i = 0; i < n; i++) {
+				answers[i] = classifier.classifyInstance(arg0.get(i));
+			}
 		}
+		this.timeForExecutingClassifier.addValue((int) (System.currentTimeMillis() - start));
 		return answers;
 	}
 
+	/* derives the prediction from a distribution the same way as AbstractClassifier.classifyInstance */
+	private static double getPrediction(final double[] distribution, final boolean nominal) {
+		if (!nominal) {
+			return distribution[0];
+		}
+		if (Utils.sum(distribution) == 0) {
+			return Utils.missingValue();
+		}
+		return Utils.maxIndex(distribution);
+	}
+
 	@Override
 	public double[] distributionForInstance(Instance arg0) throws Exception {
 		if (!this.trained) {
@@ -152,6 +231,44 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 		return result;
 	}
 
+	/**
+	 * Computes the distributions for a batch of instances. Each preprocessor transforms the whole batch at once, and the transformed batch is passed to the batch prediction of the base classifier if
+	 * it implements a more efficient one.
+	 *
+	 * The execution times of the preprocessors and the classifier are recorded once for the whole batch.
+	 */
+	@Override
+	public double[][] distributionsForInstances(Instances arg0) throws Exception {
+		if (!this.trained) {
+			throw new IllegalStateException("Cannot make predictions on untrained pipeline!");
+		}
+		if (arg0 == null) {
+			throw new IllegalArgumentException("Cannot make predictions for null-instances");
+		}
+		arg0 = this.applyPreprocessors(arg0);
+		long start = System.currentTimeMillis();
+		double[][] result;
+		if (this.hasEfficientBatchClassifier()) {
+			result = ((BatchPredictor) super.getClassifier()).distributionsForInstances(arg0);
+		} else {
+			Classifier classifier = super.getClassifier();
+			result = new double[arg0.size()][];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = classifier.distributionForInstance(arg0.get(i));
+			}
+		}
+		this.timeForExecutingClassifier.addValue((int) (System.currentTimeMillis() - start));
+		return result;
+	}
+
+	/**
+	 * A pipeline transforms a batch with each preprocessor at once, which is more efficient than transforming the instances one by one.
+	 */
+	@Override
+	public boolean implementsMoreEfficientBatchPrediction() {
+		return true;
+	}
+
 	@Override
 	public Capabilities getCapabilities() {
 		return super.getClassifier().getCapabilities();
@@ -165,6 +282,21 @@ public class MLPipeline extends SingleClassifierEnhancer implements Classifier,
 		return this.preprocessors;
 	}
 
+	/**
+	 * Sets a cache that is used to share fitted preprocessors among pipelines. If the cache holds a prefix of the preprocessors of this pipeline fitted on the same training data, the preprocessors of
+	 * that prefix are replaced by fitted copies from the cache when the pipeline is built.
+	 *
+	 * @param preprocessingCache
+	 *            The cache or null if no cache should be used.
+	 */
+	public void setPreprocessingCache(final PreprocessingCache preprocessingCache) {
+		this.preprocessingCache = preprocessingCache;
+	}
+
+	public PreprocessingCache getPreprocessingCache() {
+		return this.preprocessingCache;
+	}
+
 	@Override
 	public String toString() {
 		return this.getPreprocessors() + " (preprocessors), " + WekaUtil.getClassifierDescriptor(this.getBaseClassifier()) + " (classifier)";
@@ -0,0 +1,225 @@
+package ai.libs.jaicore.ml.weka.classification.pipeline;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * A cache of fitted preprocessors and the data they produce, which can be shared among {@link MLPipeline}s.
+ *
+ * An entry is keyed by the fingerprint of the training data and the configurations of a prefix of the preprocessors of a pipeline. A pipeline whose preprocessing prefix has already been fitted on the same
+ * data only needs to fit the remaining preprocessors and its classifier.
+ *
+ * The fitted preprocessors are stored in serialized form, so each pipeline obtains its own copy and can use it independently of other pipelines. The transformed data is shared among the pipelines; each
+ * pipeline gets its own {@link Instances} object, but the contained {@link Instance} objects must not be modified. The cache is bounded by an estimate of the memory consumed by the entries, and the least
+ * recently used entries are evicted first.
+ */
+public class PreprocessingCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(PreprocessingCache.class);
+
+	private static final int BYTES_PER_INSTANCE = 32;
+
+	private final long maxSizeInBytes;
+	private long sizeInBytes = 0;
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private int hits = 0;
+	private int misses = 0;
+
+	private static class CacheEntry {
+		private final byte[] serializedPreprocessors;
+		private final Instances data;
+		private final long sizeInBytes;
+
+		private CacheEntry(final byte[] serializedPreprocessors, final Instances data) {
+			this.serializedPreprocessors = serializedPreprocessors;
+			this.data = data;
+			this.sizeInBytes = serializedPreprocessors.length + (long) data.numInstances() * (BYTES_PER_INSTANCE + Double.BYTES * data.numAttributes());
+		}
+	}
+
+	/**
+	 * The result of a lookup, i.e. copies of the fitted preprocessors of the longest cached prefix and the data they produce.
+	 */
+	public static class CachedPrefix {
+		private final List<SupervisedFilterSelector> preprocessors;
+		private final Instances data;
+
+		private CachedPrefix(final List<SupervisedFilterSelector> preprocessors, final Instances data) {
+			this.preprocessors = preprocessors;
+			this.data = data;
+		}
+
+		public List<SupervisedFilterSelector> getPreprocessors() {
+			return this.preprocessors;
+		}
+
+		public Instances getData() {
+			return this.data;
+		}
+	}
+
+	/**
+	 * @param maxSizeInBytes
+	 *            The (estimated) number of bytes the entries of the cache may consume.
+	 */
+	public PreprocessingCache(final long maxSizeInBytes) {
+		if (maxSizeInBytes <= 0) {
+			throw new IllegalArgumentException("The size of the cache must be positive but is " + maxSizeInBytes);
+		}
+		this.maxSizeInBytes = maxSizeInBytes;
+	}
+
+	/**
+	 * Computes a fingerprint of the data that identifies a training fold independently of the object holding it. The fingerprint is the SHA-256 digest of the attributes, all values and the weights of
+	 * the instances, so different data sharing a fingerprint (and hence fitted preprocessors) is practically impossible.
+	 *
+	 * @param data
+	 *            The data.
+	 * @return The fingerprint.
+	 */
+	public static String getFingerprint(final Instances data) {
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+		}
+		for (int j = 0; j < data.numAttributes(); j++) {
+			md.update(data.attribute(j).toString().getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+		}
+		ByteBuffer values = ByteBuffer.allocate(Double.BYTES * (data.numAttributes() + 1));
+		for (Instance i : data) {
+			values.clear();
+			values.putDouble(i.weight());
+			for (int j = 0; j < data.numAttributes(); j++) {
+				values.putDouble(i.value(j));
+			}
+			md.update(values.array());
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append(data.numInstances()).append('x').append(data.numAttributes()).append('x').append(data.classIndex()).append('-');
+		for (byte b : md.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private static String getKey(final String fingerprint, final List<String> descriptors, final int prefixLength) {
+		StringBuilder sb = new StringBuilder(fingerprint);
+		for (int i = 0; i < prefixLength; i++) {
+			sb.append('|');
+			sb.append(descriptors.get(i));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Looks up the longest prefix of the given preprocessors that has been fitted on the data with the given fingerprint.
+	 *
+	 * @param fingerprint
+	 *            The fingerprint of the training data.
+	 * @param descriptors
+	 *            The descriptors of the configurations of the preprocessors of a pipeline (before they are prepared).
+	 * @return Copies of the fitted preprocessors of the longest cached prefix and a copy of the data they produce, or null if no prefix has been cached.
+	 */
+	public CachedPrefix getLongestPrefix(final String fingerprint, final List<String> descriptors) {
+		CacheEntry entry = null;
+		synchronized (this) {
+			for (int length = descriptors.size(); length > 0 && entry == null; length--) {
+				entry = this.entries.get(getKey(fingerprint, descriptors, length));
+			}
+			if (entry == null) {
+				this.misses++;
+				return null;
+			}
+			this.hits++;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(entry.serializedPreprocessors))) {
+			@SuppressWarnings("unchecked")
+			List<SupervisedFilterSelector> fittedPreprocessors = (List<SupervisedFilterSelector>) in.readObject();
+			return new CachedPrefix(fittedPreprocessors, new Instances(entry.data));
+		} catch (IOException | ClassNotFoundException e) {
+			logger.warn("Could not restore cached preprocessors.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the fitted prefix of the preprocessors of a pipeline together with the data it produces.
+	 *
+	 * @param fingerprint
+	 *            The fingerprint of the training data.
+	 * @param descriptors
+	 *            The descriptors of the configurations of the preprocessors in the prefix (before they have been prepared).
+	 * @param fittedPreprocessors
+	 *            The prefix of fitted preprocessors.
+	 * @param data
+	 *            The data obtained by applying the prefix to the training data.
+	 */
+	public void put(final String fingerprint, final List<String> descriptors, final List<SupervisedFilterSelector> fittedPreprocessors, final Instances data) {
+		byte[] serializedPreprocessors;
+		try (ByteArrayOutputStream bos = new ByteArrayOutputStream(); ObjectOutputStream out = new ObjectOutputStream(bos)) {
+			out.writeObject(new ArrayList<>(fittedPreprocessors));
+			out.flush();
+			serializedPreprocessors = bos.toByteArray();
+		} catch (IOException e) {
+			logger.warn("Could not cache preprocessors {}.", fittedPreprocessors, e);
+			return;
+		}
+		CacheEntry entry = new CacheEntry(serializedPreprocessors, new Instances(data));
+		if (entry.sizeInBytes > this.maxSizeInBytes) {
+			logger.debug("Not caching preprocessors {} since their data exceeds the size of the cache.", fittedPreprocessors);
+			return;
+		}
+		synchronized (this) {
+			CacheEntry replacedEntry = this.entries.put(getKey(fingerprint, descriptors, fittedPreprocessors.size()), entry);
+			this.sizeInBytes += entry.sizeInBytes - (replacedEntry != null ? replacedEntry.sizeInBytes : 0);
+			Iterator<Map.Entry<String, CacheEntry>> it = this.entries.entrySet().iterator();
+			while (this.sizeInBytes > this.maxSizeInBytes && it.hasNext()) {
+				CacheEntry evictedEntry = it.next().getValue();
+				it.remove();
+				this.sizeInBytes -= evictedEntry.sizeInBytes;
+			}
+		}
+	}
+
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	public synchronized long getSizeInBytes() {
+		return this.sizeInBytes;
+	}
+
+	public synchronized int getHits() {
+		return this.hits;
+	}
+
+	public synchronized int getMisses() {
+		return this.misses;
+	}
+
+	public synchronized void clear() {
+		this.entries.clear();
+		this.sizeInBytes = 0;
+	}
+}
@@ -0,0 +1,37 @@
+package ai.libs.jaicore.ml.weka.classification.pipeline;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeAll;
+
+import weka.attributeSelection.InfoGainAttributeEval;
+import weka.attributeSelection.Ranker;
+import weka.classifiers.Classifier;
+import weka.core.Instances;
+
+/**
+ * Provides the vowel dataset and pipelines that select its five most informative attributes for tests of {@link MLPipeline}.
+ */
+public abstract class AVowelPipelineTest {
+
+	private static final File VOWEL_ARFF = new File("testrsc/ml/orig/vowel.arff");
+
+	protected static Instances data;
+
+	@BeforeAll
+	public static void setup() throws IOException {
+		try (BufferedReader reader = new BufferedReader(new FileReader(VOWEL_ARFF))) {
+			data = new Instances(reader);
+		}
+		data.setClassIndex(data.numAttributes() - 1);
+	}
+
+	protected MLPipeline getPipeline(final Classifier classifier) throws Exception {
+		Ranker ranker = new Ranker();
+		ranker.setNumToSelect(5);
+		return new MLPipeline(ranker, new InfoGainAttributeEval(), classifier);
+	}
+}
@@ -0,0 +1,39 @@
+package ai.libs.jaicore.ml.weka.classification.pipeline;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.J48;
+
+public class MLPipelineBatchPredictionTest extends AVowelPipelineTest {
+
+	private void testThatBatchPredictionsEqualSinglePredictions(final Classifier classifier) throws Exception {
+		MLPipeline pipeline = this.getPipeline(classifier);
+		pipeline.buildClassifier(data);
+
+		double[] batchPredictions = pipeline.classifyInstances(data);
+		double[][] batchDistributions = pipeline.distributionsForInstances(data);
+		assertEquals(data.size(), batchPredictions.length);
+		assertEquals(data.size(), batchDistributions.length);
+		for (int i = 0; i < data.size(); i++) {
+			assertEquals(pipeline.classifyInstance(data.get(i)), batchPredictions[i], 0.0);
+			assertArrayEquals(pipeline.distributionForInstance(data.get(i)), batchDistributions[i], 1E-10);
+		}
+
+		/* each batch is recorded once, each single prediction is recorded once per instance */
+		assertEquals(2 + 2 * data.size(), pipeline.getTimeForExecutingPreprocessor().getN());
+	}
+
+	@Test
+	public void testBatchPredictionWithPerInstanceClassifier() throws Exception {
+		this.testThatBatchPredictionsEqualSinglePredictions(new J48());
+	}
+
+	@Test
+	public void testBatchPredictionWithBatchClassifier() throws Exception {
+		this.testThatBatchPredictionsEqualSinglePredictions(new MLPipeline(null, null, new J48())); // pipelines implement more efficient batch predictions
+	}
+}
@@ -0,0 +1,70 @@
+package ai.libs.jaicore.ml.weka.classification.pipeline;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+public class PreprocessingCacheTest extends AVowelPipelineTest {
+
+	private MLPipeline getPipeline(final Classifier classifier, final PreprocessingCache cache) throws Exception {
+		MLPipeline pipeline = this.getPipeline(classifier);
+		pipeline.setPreprocessingCache(cache);
+		return pipeline;
+	}
+
+	@Test
+	public void testThatCachedPipelinesPredictLikeUncachedOnes() throws Exception {
+		PreprocessingCache cache = new PreprocessingCache(Long.MAX_VALUE);
+		MLPipeline uncached = this.getPipeline(new J48(), null);
+		uncached.buildClassifier(new Instances(data));
+
+		/* the first pipeline fills the cache, and the second one (on a copy of the data) reuses the fitted preprocessor */
+		MLPipeline first = this.getPipeline(new J48(), cache);
+		first.buildClassifier(new Instances(data));
+		MLPipeline second = this.getPipeline(new J48(), cache);
+		second.buildClassifier(new Instances(data));
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.size());
+
+		for (MLPipeline pipeline : new MLPipeline[] { first, second }) {
+			assertArrayEquals(uncached.classifyInstances(data), pipeline.classifyInstances(data), 0.0);
+		}
+	}
+
+	@Test
+	public void testThatOtherDataIsNotServedFromCache() throws Exception {
+		PreprocessingCache cache = new PreprocessingCache(Long.MAX_VALUE);
+		Instances otherData = new Instances(data);
+		otherData.delete(0);
+		this.getPipeline(new J48(), cache).buildClassifier(new Instances(data));
+		this.getPipeline(new J48(), cache).buildClassifier(otherData);
+		assertEquals(2, cache.getMisses());
+		assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	public void testThatFingerprintCoversEveryValue() {
+		assertEquals(PreprocessingCache.getFingerprint(data), PreprocessingCache.getFingerprint(new Instances(data)));
+		Instances otherData = new Instances(data);
+		int numericAttribute = 3;
+		assertTrue(otherData.attribute(numericAttribute).isNumeric());
+		otherData.lastInstance().setValue(numericAttribute, otherData.lastInstance().value(numericAttribute) + 1);
+		assertNotEquals(PreprocessingCache.getFingerprint(data), PreprocessingCache.getFingerprint(otherData));
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		PreprocessingCache cache = new PreprocessingCache(1);
+		this.getPipeline(new J48(), cache).buildClassifier(new Instances(data));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getSizeInBytes());
+	}
+}
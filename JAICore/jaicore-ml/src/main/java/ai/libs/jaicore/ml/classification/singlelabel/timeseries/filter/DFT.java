@@ -3,8 +3,6 @@ package ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.math3.complex.Complex;
-
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.dataset.TimeSeriesDataset2;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.exception.NoneFittedFilterExeception;
 
@@ -42,7 +40,10 @@ public class DFT extends AFilter {
 	private boolean meanCorrected = false;
 	private int startingpoint = 0;
 
-	private boolean rekursivFirstInstance;
+	/**
+	 * the twiddle factors for the length of the last fitted instance, which are reused as long as instances (e.g. sliding windows) have the same length
+	 */
+	private SlidingWindowDFT dftForInstanceLength;
 
 	public void setNumberOfDisieredCoefficients(final int numberOfDisieredCoefficients) {
 		this.numberOfDisieredCoefficients = numberOfDisieredCoefficients;
@@ -121,40 +122,9 @@ public class DFT extends AFilter {
 			throw new IllegalArgumentException("The to transform instance can not be of length zero.");
 		}
 
-		if (this.rekursivFirstInstance) {
-			this.startingpoint = 0;
-		}
-		// The buffer for the calculated DFT coefficeients
-		this.dftCoefficientsInstance = new double[this.numberOfDisieredCoefficients * 2 - (this.startingpoint * 2)];
-
-		// Variable used to make steps of size two in a loop that makes setps of size one
-		int loopcounter = 0;
-
-		for (int coefficient = this.startingpoint; coefficient < this.numberOfDisieredCoefficients; coefficient++) {
-
-			Complex result = new Complex(0.0, 0.0);
-
-			for (int entry = 0; entry < input.length; entry++) {
-
-				// calculates the real and imaginary part of the entry according to the desired coefficient
-				// c.f. p. 1510 "The BOSS is concerned with time series classification in the presence of noise" by Patrick Sch�fer
-				double realpart = Math.cos(-(1.0 / input.length) * 2.0 * Math.PI * entry * coefficient);
-				double imaginarypart = Math.sin(-(1.0 / input.length) * 2.0 * Math.PI * entry * coefficient);
-
-				Complex tmp = new Complex(realpart, imaginarypart);
-				tmp = tmp.multiply(input[entry]);
-
-				result = result.add(tmp);
-			}
-
-			// saves the calculated coefficient in the buffer with first the real part and than the imaginary
-			this.dftCoefficientsInstance[loopcounter] = result.getReal();
-			this.dftCoefficientsInstance[loopcounter + 1] = result.getImaginary();
-			loopcounter += 2;
-		}
-		if (this.rekursivFirstInstance && this.meanCorrected) {
-			this.startingpoint = 1;
-		}
+		// calculates the real and imaginary part of each desired coefficient with precomputed twiddle factors and saves them in the buffer with first the real part and than the imaginary
+		// c.f. p. 1510 "The BOSS is concerned with time series classification in the presence of noise" by Patrick Schäfer
+		this.dftCoefficientsInstance = this.getDFTForLength(input.length).transformWindow(input, 0);
 		this.fittedInstance = true;
 	}
 
@@ -194,9 +164,18 @@ public class DFT extends AFilter {
 		return this.transform(input);
 	}
 
+	private SlidingWindowDFT getDFTForLength(final int length) {
+		if (this.dftForInstanceLength == null || this.dftForInstanceLength.getWindowSize() != length || this.dftForInstanceLength.getNumberOfCoefficients() != this.numberOfDisieredCoefficients
+				|| this.dftForInstanceLength.isMeanCorrected() != this.meanCorrected) {
+			this.dftForInstanceLength = new SlidingWindowDFT(length, this.numberOfDisieredCoefficients, this.meanCorrected);
+		}
+		return this.dftForInstanceLength;
+	}
+
 	// It is required that the input is inform of the already sliced windows.
-	// cf. p. 1516 "The BOSS is concerned with time series classification in the presence of noise" by Patrick Sch�fer
+	// cf. p. 1516 "The BOSS is concerned with time series classification in the presence of noise" by Patrick Schäfer
 	// Best explanation of the algorithm can be found here : "https://www.dsprelated.com/showarticle/776.php"
+	// The series is reassembled from the windows, and the coefficients of each window are updated from those of its predecessor (see SlidingWindowDFT).
 
 	public double[][] rekursivDFT(final double[][] input) {
 		if (input.length == 0) {
@@ -211,49 +190,13 @@ public class DFT extends AFilter {
 			throw new IllegalArgumentException("The number of desiered DFT coefficients can not be negativ.");
 		}
 
-		Complex[][] outputComplex = new Complex[input.length][this.numberOfDisieredCoefficients];
-
-		for (int i = 0; i < input.length; i++) {
-			if (i == 0) {
-				this.rekursivFirstInstance = true;
-				double[] tmp = this.fitTransform(input[i]);
-				this.rekursivFirstInstance = false;
-				Complex[] firstEntry = new Complex[this.numberOfDisieredCoefficients];
-				for (int entry = 0; entry < tmp.length - 1; entry += 2) {
-					firstEntry[entry / 2] = new Complex(tmp[entry], tmp[entry + 1]);
-				}
-				outputComplex[0] = firstEntry;
-			} else {
-				Complex[] coefficientsForInstance = new Complex[this.numberOfDisieredCoefficients];
-				for (int j = 0; j < this.numberOfDisieredCoefficients; j++) {
-					coefficientsForInstance[j] = this.vFormular(j, input[i].length).multiply((outputComplex[i - 1][j].subtract(new Complex(input[i - 1][0], 0).subtract(new Complex(input[i][input[i].length - 1], 0)))));
-				}
-				outputComplex[i] = coefficientsForInstance;
-			}
-		}
-
-		return this.conversion(outputComplex);
-	}
-
-	private double[][] conversion(final Complex[][] input) {
-		if (input.length == 0) {
-			throw new IllegalArgumentException(MSG_EMPTYINPUT);
-		}
-
-		double[][] output = new double[input.length][input[0].length * 2 - (this.startingpoint * 2)];
-		for (int i = 0; i < input.length; i++) {
-			int loopcounter = this.startingpoint;
-			for (int j = 0; j < output[i].length; j += 2) {
-				output[i][j] = input[i][loopcounter].getReal();
-				output[i][j + 1] = input[i][loopcounter].getImaginary();
-				loopcounter++;
-			}
+		int windowSize = input[0].length;
+		double[] series = new double[windowSize + input.length - 1];
+		System.arraycopy(input[0], 0, series, 0, windowSize);
+		for (int i = 1; i < input.length; i++) {
+			series[windowSize + i - 1] = input[i][windowSize - 1];
 		}
-		return output;
-	}
-
-	private Complex vFormular(final int coefficient, final int legthOfinstance) {
-		return new Complex(Math.cos(2 * Math.PI * coefficient / legthOfinstance), Math.sin(2 * Math.PI * coefficient / legthOfinstance));
+		return this.getDFTForLength(windowSize).transform(series);
 	}
 
 	public TimeSeriesDataset2 rekursivDFT(final TimeSeriesDataset2 input) {
@@ -35,6 +35,8 @@ public class SFA implements IFilter {
 
 	private boolean rekursiv;
 
+	private SlidingWindowDFT slidingWindowDFT = null;
+
 	public void setNumberOfDesieredDFTCoefficients(final int numberOfDesieredDFTCoefficients) {
 		this.numberOfDesieredDFTCoefficients = numberOfDesieredDFTCoefficients;
 	}
@@ -114,8 +116,6 @@ public class SFA implements IFilter {
 			throw new IllegalArgumentException("The alphabet size can not be zero.");
 		}
 
-		this.lookupTable.clear();
-
 		DFT dftFilter = new DFT();
 		dftFilter.setMeanCorrected(this.meanCorrected);
 
@@ -128,14 +128,53 @@ public class SFA implements IFilter {
 			// Only works for sliding windows. However it is normally used for SFA.
 			this.dFTDataset = dftFilter.rekursivDFT(input);
 		}
+		this.fitLookupTables();
+	}
+
+	/**
+	 * Computes the SFA words of all sliding windows of an instance, where each window is z-normalized (cf. {@link ZTransformer}).
+	 *
+	 * The result is the same as fitting and transforming the dataset of the z-normalized windows of the instance (cf. {@link SlidingWindowBuilder#specialFitTransform(double[])}), but the DFT
+	 * coefficients of the windows are computed with a {@link SlidingWindowDFT}, which updates the coefficients of each window from those of its predecessor. So the costs are linear in the length of
+	 * the instance rather than in the product of its length and the window size.
+	 *
+	 * @param instance
+	 *            The instance.
+	 * @param windowSize
+	 *            The size of the sliding windows.
+	 * @return The dataset of the SFA words of the windows.
+	 */
+	public TimeSeriesDataset2 fitTransformSlidingWindows(final double[] instance, final int windowSize) {
+		if (instance.length == 0) {
+			throw new IllegalArgumentException("The input instance can not be empty");
+		}
+		if (this.alphabet.length == 0) {
+			throw new IllegalArgumentException("The alphabet size can not be zero.");
+		}
 
+		// the twiddle factors of the sliding DFT are reused as long as the window size does not change
+		if (this.slidingWindowDFT == null || this.slidingWindowDFT.getWindowSize() != windowSize || this.slidingWindowDFT.getNumberOfCoefficients() != this.numberOfDesieredDFTCoefficients
+				|| this.slidingWindowDFT.isMeanCorrected() != this.meanCorrected) {
+			this.slidingWindowDFT = new SlidingWindowDFT(windowSize, this.numberOfDesieredDFTCoefficients, this.meanCorrected);
+			this.slidingWindowDFT.setZNormalized(true);
+		}
+		List<double[][]> dftMatrices = new ArrayList<>();
+		dftMatrices.add(this.slidingWindowDFT.transform(instance));
+		this.dFTDataset = new TimeSeriesDataset2(dftMatrices, null, null);
+		this.fitLookupTables();
+		return this.transform(this.dFTDataset);
+	}
+
+	/* computes the lookup tables for the alphabet from the DFT dataset */
+	private void fitLookupTables() {
+		this.lookupTable.clear();
 		for (int matrix = 0; matrix < this.dFTDataset.getNumberOfVariables(); matrix++) {
 			// for each part of every coefficient calculate the bins for the alphabet (number of bins == number of letters)
 			double[][] lookUpTable = new double[this.numberOfDesieredDFTCoefficients * 2][this.alphabet.length - 1];
 
 			for (int coeficient = 0; coeficient < this.numberOfDesieredDFTCoefficients * 2; coeficient++) {
 				// get the columns of the DFT dataset
-				double[] toBin = new double[input.getNumberOfInstances()];
+				double[] toBin = new double[this.dFTDataset.getNumberOfInstances()];
 				for (int instances = 0; instances < this.dFTDataset.getNumberOfInstances(); instances++) {
 					toBin[instances] = this.dFTDataset.getValues(matrix)[instances][coeficient];
 				}
@@ -0,0 +1,240 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter;
+
+/**
+ * Computes the DFT coefficients of all sliding windows of a time series, where the coefficients of a window are obtained from those of its predecessor in O(number of coefficients) (momentary
+ * Fourier transform).
+ *
+ * Moving a window by one step removes its first value, appends the next value of the series, and rotates every coefficient by its twiddle factor: X_f(t+1) = (X_f(t) - x_t + x_(t+w)) * e^(2 pi i f / w).
+ * The twiddle factors of the window size are computed once, and to bound the accumulation of rounding errors, the coefficients are computed from scratch after every windowSize steps, which keeps the
+ * amortized cost per window linear in the number of coefficients.
+ *
+ * Optionally, the coefficients are those of the z-normalized windows (cf. {@link ZTransformer}), which only requires the mean and deviation of each window: z-normalization removes the first
+ * coefficient and scales all others by the reciprocal of the deviation. Mean and deviation are updated along with the coefficients (and recomputed along with them), and windows with constant values
+ * are recognized exactly, so their coefficients are 0 like those of {@link ZTransformer}.
+ *
+ * The coefficients of a window are stored like in {@link DFT}, i.e. the real and imaginary part of each coefficient one after another.
+ *
+ * c.f. p. 1516 "The BOSS is concerned with time series classification in the presence of noise" by Patrick Schäfer
+ */
+public class SlidingWindowDFT {
+
+	private final int windowSize;
+	private final int numberOfCoefficients;
+	private final int startingpoint;
+
+	/* cos(2 pi m / w) and sin(2 pi m / w) for m = 0, ..., w - 1 */
+	private final double[] cosTable;
+	private final double[] sinTable;
+
+	private boolean zNormalized = false;
+	private boolean basselCorrected = true;
+
+	/**
+	 * @param windowSize
+	 *            The length of the windows.
+	 * @param numberOfCoefficients
+	 *            The number of DFT coefficients computed for each window (at most the window size).
+	 * @param meanCorrected
+	 *            If true, the first DFT coefficient is dropped.
+	 */
+	public SlidingWindowDFT(final int windowSize, final int numberOfCoefficients, final boolean meanCorrected) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("The window size must be positive.");
+		}
+		if (numberOfCoefficients > windowSize) {
+			throw new IllegalArgumentException("There cannot be more DFT coefficents calcualated than there entrys in the basis instance.");
+		}
+		this.startingpoint = meanCorrected ? 1 : 0;
+		if (numberOfCoefficients < this.startingpoint) {
+			throw new IllegalArgumentException("The number of desiered DFT coefficients can not be negativ.");
+		}
+		this.windowSize = windowSize;
+		this.numberOfCoefficients = numberOfCoefficients;
+		this.cosTable = new double[windowSize];
+		this.sinTable = new double[windowSize];
+		for (int m = 0; m < windowSize; m++) {
+			this.cosTable[m] = Math.cos(2.0 * Math.PI * m / windowSize);
+			this.sinTable[m] = Math.sin(2.0 * Math.PI * m / windowSize);
+		}
+	}
+
+	/**
+	 * @param zNormalized
+	 *            If true, the coefficients of the z-normalized windows are computed.
+	 */
+	public void setZNormalized(final boolean zNormalized) {
+		this.zNormalized = zNormalized;
+	}
+
+	/**
+	 * @param basselCorrected
+	 *            If true (default), the deviation used for the z-normalization is divided by n-1 instead of n (cf. {@link ZTransformer#setBasselCorrected(boolean)}).
+	 */
+	public void setBasselCorrected(final boolean basselCorrected) {
+		this.basselCorrected = basselCorrected;
+	}
+
+	public int getWindowSize() {
+		return this.windowSize;
+	}
+
+	public int getNumberOfCoefficients() {
+		return this.numberOfCoefficients;
+	}
+
+	public boolean isMeanCorrected() {
+		return this.startingpoint == 1;
+	}
+
+	/**
+	 * @return The number of values computed for each window, i.e. two per coefficient.
+	 */
+	public int getNumberOfValuesPerWindow() {
+		return 2 * (this.numberOfCoefficients - this.startingpoint);
+	}
+
+	/**
+	 * Computes the DFT coefficients of a single window.
+	 *
+	 * @param series
+	 *            The time series.
+	 * @param offset
+	 *            The index of the first value of the window in the series.
+	 * @return The real and imaginary parts of the coefficients of the window.
+	 */
+	public double[] transformWindow(final double[] series, final int offset) {
+		if (offset < 0 || offset + this.windowSize > series.length) {
+			throw new IllegalArgumentException("The window starting at " + offset + " does not fit into a series of length " + series.length);
+		}
+		double[] real = new double[this.numberOfCoefficients];
+		double[] imaginary = new double[this.numberOfCoefficients];
+		this.computeCoefficients(series, offset, real, imaginary);
+		double[] output = new double[this.getNumberOfValuesPerWindow()];
+		double scale = 1.0;
+		if (this.zNormalized) {
+			double mean = this.computeMean(series, offset);
+			scale = this.isConstant(series, offset) ? 0.0 : this.getScale(this.computeSumOfSquaredDeviations(series, offset, mean));
+		}
+		this.writeCoefficients(real, imaginary, scale, output);
+		return output;
+	}
+
+	/**
+	 * Computes the DFT coefficients of all windows of the series.
+	 *
+	 * @param series
+	 *            The time series.
+	 * @return A matrix with one row for each of the series.length - windowSize + 1 windows that contains the real and imaginary parts of the coefficients of the window.
+	 */
+	public double[][] transform(final double[] series) {
+		if (series.length < this.windowSize) {
+			throw new IllegalArgumentException("The input instance can not be smaller than the windowsize");
+		}
+		int numberOfWindows = series.length - this.windowSize + 1;
+		double[][] output = new double[numberOfWindows][this.getNumberOfValuesPerWindow()];
+		double[] real = new double[this.numberOfCoefficients];
+		double[] imaginary = new double[this.numberOfCoefficients];
+		double mean = 0;
+		double sumOfSquaredDeviations = 0;
+		int lengthOfConstantSuffix = 1; // the number of equal values at the end of the window
+		for (int i = 1; i < this.windowSize; i++) {
+			lengthOfConstantSuffix = series[i] == series[i - 1] ? lengthOfConstantSuffix + 1 : 1;
+		}
+		for (int window = 0; window < numberOfWindows; window++) {
+			if (window > 0) {
+				lengthOfConstantSuffix = series[window + this.windowSize - 1] == series[window + this.windowSize - 2] ? lengthOfConstantSuffix + 1 : 1;
+			}
+			if (window % this.windowSize == 0) {
+				this.computeCoefficients(series, window, real, imaginary);
+				if (this.zNormalized) {
+					mean = this.computeMean(series, window);
+					sumOfSquaredDeviations = this.computeSumOfSquaredDeviations(series, window, mean);
+				}
+			} else {
+				double removedValue = series[window - 1];
+				double addedValue = series[window + this.windowSize - 1];
+				double delta = addedValue - removedValue;
+				if (this.zNormalized) {
+					double updatedMean = mean + delta / this.windowSize;
+					sumOfSquaredDeviations += delta * (addedValue - updatedMean + removedValue - mean);
+					mean = updatedMean;
+				}
+				for (int coefficient = 0; coefficient < this.numberOfCoefficients; coefficient++) {
+					double shiftedReal = real[coefficient] + delta;
+					double cos = this.cosTable[coefficient];
+					double sin = this.sinTable[coefficient];
+					real[coefficient] = shiftedReal * cos - imaginary[coefficient] * sin;
+					imaginary[coefficient] = shiftedReal * sin + imaginary[coefficient] * cos;
+				}
+			}
+			double scale = 1.0;
+			if (this.zNormalized) {
+				scale = lengthOfConstantSuffix >= this.windowSize ? 0.0 : this.getScale(sumOfSquaredDeviations);
+			}
+			this.writeCoefficients(real, imaginary, scale, output[window]);
+		}
+		return output;
+	}
+
+	/* computes the coefficients of the window from scratch: X_f = sum_j x_j * e^(-2 pi i f j / w) */
+	private void computeCoefficients(final double[] series, final int offset, final double[] real, final double[] imaginary) {
+		for (int coefficient = 0; coefficient < this.numberOfCoefficients; coefficient++) {
+			double realSum = 0;
+			double imaginarySum = 0;
+			int m = 0; // coefficient * entry mod windowSize
+			for (int entry = 0; entry < this.windowSize; entry++) {
+				double value = series[offset + entry];
+				realSum += value * this.cosTable[m];
+				imaginarySum -= value * this.sinTable[m];
+				m += coefficient;
+				if (m >= this.windowSize) {
+					m -= this.windowSize;
+				}
+			}
+			real[coefficient] = realSum;
+			imaginary[coefficient] = imaginarySum;
+		}
+	}
+
+	private double computeMean(final double[] series, final int offset) {
+		double sum = 0;
+		for (int entry = offset; entry < offset + this.windowSize; entry++) {
+			sum += series[entry];
+		}
+		return sum / this.windowSize;
+	}
+
+	private double computeSumOfSquaredDeviations(final double[] series, final int offset, final double mean) {
+		double sum = 0;
+		for (int entry = offset; entry < offset + this.windowSize; entry++) {
+			sum += (series[entry] - mean) * (series[entry] - mean);
+		}
+		return sum;
+	}
+
+	private boolean isConstant(final double[] series, final int offset) {
+		for (int entry = offset + 1; entry < offset + this.windowSize; entry++) {
+			if (series[entry] != series[offset]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* returns the reciprocal of the deviation of a window, by which its coefficients are scaled for the z-normalization */
+	private double getScale(final double sumOfSquaredDeviations) {
+		double variance = Math.max(0, sumOfSquaredDeviations) / (this.basselCorrected ? this.windowSize - 1.0 : this.windowSize);
+		return variance > 0 ? 1.0 / Math.sqrt(variance) : 0.0;
+	}
+
+	private void writeCoefficients(final double[] real, final double[] imaginary, final double scale, final double[] output) {
+		int loopcounter = 0;
+		for (int coefficient = this.startingpoint; coefficient < this.numberOfCoefficients; coefficient++) {
+			// the first coefficient (the sum of the values) of a z-normalized window is 0
+			boolean removedByNormalization = this.zNormalized && coefficient == 0;
+			output[loopcounter] = removedByNormalization ? 0.0 : real[coefficient] * scale;
+			output[loopcounter + 1] = removedByNormalization ? 0.0 : imaginary[coefficient] * scale;
+			loopcounter += 2;
+		}
+	}
+}
@@ -84,7 +84,7 @@ public class ZTransformer extends AFilter {
 		double[] ztransform = new double[input.length];
 		for (int entry = 0; entry < input.length; entry++) {
 			if (this.deviation != 0) {
-				ztransform[entry] = (entry - this.mean) / this.deviation;
+				ztransform[entry] = (input[entry] - this.mean) / this.deviation;
 			}
 		}
 		this.fittedInstance = false;
@@ -10,8 +10,6 @@ import org.api4.java.ai.ml.core.exception.PredictionException;
 
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.dataset.TimeSeriesDataset2;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter.SFA;
-import ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter.SlidingWindowBuilder;
-import ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter.ZTransformer;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.BOSSLearningAlgorithm.IBossAlgorithmConfig;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.util.HistogramBuilder;
 
@@ -31,9 +29,8 @@ public class BOSSClassifier extends ASimplifiedTSClassifier<Integer> {
 
 	// ---------------------------------------------------------------
 	// All needed for every predict.
-	private SlidingWindowBuilder slide = new SlidingWindowBuilder();
 	private HistogramBuilder histoBuilder = new HistogramBuilder();
-	private ZTransformer znorm = new ZTransformer();
+	private SFA sfa;
 
 	public BOSSClassifier(final int windowLength, final int alphabetSize, final double[] alphabet, final int wordLength, final boolean meanCorrected) {
 		this.config = ConfigCache.getOrCreate(IBossAlgorithmConfig.class);
@@ -42,14 +39,10 @@ public class BOSSClassifier extends ASimplifiedTSClassifier<Integer> {
 		this.config.setProperty(IBossAlgorithmConfig.K_ALPHABET, "" + alphabet);
 		this.config.setProperty(IBossAlgorithmConfig.K_WORDLENGTH, "" + wordLength);
 		this.config.setProperty(IBossAlgorithmConfig.K_MEANCORRECTED, "" + meanCorrected);
-		this.slide.setDefaultWindowSize(this.config.windowSize());
 	}
 
 	public BOSSClassifier(final IBossAlgorithmConfig config) {
 		this.config = config;
-
-		// This is the same window size as used for the training samples
-		this.slide.setDefaultWindowSize(config.windowSize());
 	}
 
 	public List<Map<Integer, Integer>> getUnivirateHistograms() {
@@ -66,19 +59,14 @@ public class BOSSClassifier extends ASimplifiedTSClassifier<Integer> {
 
 	@Override
 	public Integer predict(final double[] univInstance) throws PredictionException {
-		SFA sfa = new SFA(this.config.alphabet(), this.config.wordLength());
-
-		// create windows for test instance an there for a small dataset with
-		// windows as instances.
-		TimeSeriesDataset2 tmp = this.slide.specialFitTransform(univInstance);
-
-		// need to call a new fit for each predict because each window gets z normalized by its own.
-		// c.f.p. 1509 "The BOSS is concerned with time series classification in the presence of noise by Patrick Schaefer"
-		for (int instance = 0; instance < tmp.getValues(0).length; instance++) {
-			tmp.getValues(0)[instance] = this.znorm.fitTransform(tmp.getValues(0)[instance]);
+		// The SFA is kept among predictions, so the twiddle factors for the window size are only computed once.
+		if (this.sfa == null) {
+			this.sfa = new SFA(this.config.alphabet(), this.config.wordLength());
 		}
 
-		TimeSeriesDataset2 tmpznormedsfaTransformed = sfa.fitTransform(tmp);
+		// create windows for test instance with the same window size as used for the training samples, where each window gets z normalized by its own.
+		// c.f.p. 1509 "The BOSS is concerned with time series classification in the presence of noise by Patrick Schaefer"
+		TimeSeriesDataset2 tmpznormedsfaTransformed = this.sfa.fitTransformSlidingWindows(univInstance, this.config.windowSize());
 		Map<Integer, Integer> histogram = this.histoBuilder.histogramForInstance(tmpznormedsfaTransformed);
 
 		// Calculate distance for all histograms for all instances in the training set.
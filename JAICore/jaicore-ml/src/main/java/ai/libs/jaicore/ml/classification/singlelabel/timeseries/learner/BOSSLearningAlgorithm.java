@@ -10,8 +10,6 @@ import org.api4.java.algorithm.events.IAlgorithmEvent;
 import ai.libs.jaicore.basic.IOwnerBasedAlgorithmConfig;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.dataset.TimeSeriesDataset2;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter.SFA;
-import ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter.SlidingWindowBuilder;
-import ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter.ZTransformer;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.util.HistogramBuilder;
 
 /**
@@ -97,10 +95,6 @@ public class BOSSLearningAlgorithm extends ASimplifiedTSCLearningAlgorithm<Integ
 		HistogramBuilder histoBuilder = new HistogramBuilder();
 		SFA sfa = new SFA(config.alphabet(), config.wordLength());
 
-		/* calculates the lookup table for the alphabet for the whole input dataset. */
-		SlidingWindowBuilder slide = new SlidingWindowBuilder();
-		slide.setDefaultWindowSize(config.windowSize());
-
 		TimeSeriesDataset2 data = this.getInput();
 		for (int matrix = 0; matrix < data.getNumberOfVariables(); matrix++) {
 			this.histograms.clear();
@@ -111,20 +105,11 @@ public class BOSSLearningAlgorithm extends ASimplifiedTSCLearningAlgorithm<Integ
 				 */
 
 				/*
-				 * By the special fit transform an instance is transformed to a dataset. This
-				 * is done because every instance creates a list of new smaller instances when
-				 * split into sliding windows.
+				 * The instance is split into sliding windows, each of which is z-normalized, and the SFA words of the windows are computed
+				 * using the MCB quantisation intervals of the windows. The DFT coefficients of each window are updated from those of the
+				 * previous one, so this is linear in the length of the instance.
 				 */
-				TimeSeriesDataset2 tmp = slide.specialFitTransform(data.getValues(matrix)[instance]);
-
-				/* The from one instance resulting dataset is z-normalized. */
-				ZTransformer znorm = new ZTransformer();
-				for (int i = 0; i < tmp.getValues(0).length; i++) {
-					tmp.getValues(0)[i] = znorm.fitTransform(tmp.getValues(0)[i]);
-				}
-
-				// The SFA words for that dataset are computed using the precomputed MCB quantisation intervals
-				TimeSeriesDataset2 tmpTransformed = sfa.fitTransform(tmp);
+				TimeSeriesDataset2 tmpTransformed = sfa.fitTransformSlidingWindows(data.getValues(matrix)[instance], config.windowSize());
 				// The occurring SFA words of the instance are getting counted with a parallel numerosity reduction.
 
 				Map<Integer, Integer> histogram = histoBuilder.histogramForInstance(tmpTransformed);
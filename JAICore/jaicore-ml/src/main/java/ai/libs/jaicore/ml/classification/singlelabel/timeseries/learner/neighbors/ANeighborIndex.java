@@ -0,0 +1,71 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
+
+import java.util.PriorityQueue;
+
+import org.api4.java.common.metric.IDistanceMetric;
+
+import ai.libs.jaicore.basic.sets.Pair;
+
+/**
+ * Base class for neighbor indices over a value matrix.
+ *
+ * @author fischor
+ */
+public abstract class ANeighborIndex implements INeighborIndex {
+
+	/** Value matrix containing the time series instances. */
+	protected final double[][] values;
+
+	/** Distance measure. */
+	protected final IDistanceMetric distanceMeasure;
+
+	protected ANeighborIndex(final double[][] values, final IDistanceMetric distanceMeasure) {
+		if (values == null) {
+			throw new IllegalArgumentException("Values must not be null");
+		}
+		if (distanceMeasure == null) {
+			throw new IllegalArgumentException("Distance measure must not be null");
+		}
+		this.values = values;
+		this.distanceMeasure = distanceMeasure;
+	}
+
+	/**
+	 * @return An empty queue for the nearest neighbors, sorted by distance descending.
+	 */
+	protected PriorityQueue<Pair<Integer, Double>> createQueue() {
+		return new PriorityQueue<>(NearestNeighborClassifier.nearestNeighborComparator);
+	}
+
+	/**
+	 * Returns the distance of the k-th nearest neighbor found so far, which is the bound that other candidates must not exceed.
+	 *
+	 * @param nearestNeighbors
+	 *            The neighbors found so far.
+	 * @param k
+	 *            Number of neighbors.
+	 * @return The bound or {@link Double#POSITIVE_INFINITY} if less than k neighbors have been found.
+	 */
+	protected double getBestSoFar(final PriorityQueue<Pair<Integer, Double>> nearestNeighbors, final int k) {
+		return nearestNeighbors.size() < k ? Double.POSITIVE_INFINITY : nearestNeighbors.peek().getY();
+	}
+
+	/**
+	 * Adds a candidate to the neighbors and drops the farthest one if there are more than k.
+	 *
+	 * @param nearestNeighbors
+	 *            The neighbors found so far.
+	 * @param k
+	 *            Number of neighbors.
+	 * @param instance
+	 *            Index of the candidate.
+	 * @param distance
+	 *            Distance of the candidate to the query.
+	 */
+	protected void offer(final PriorityQueue<Pair<Integer, Double>> nearestNeighbors, final int k, final int instance, final double distance) {
+		nearestNeighbors.add(new Pair<>(instance, distance));
+		if (nearestNeighbors.size() > k) {
+			nearestNeighbors.poll();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import ai.libs.jaicore.basic.metric.DynamicTimeWarping;
+import ai.libs.jaicore.basic.sets.Pair;
+
+/**
+ * Exact neighbor index for {@link DynamicTimeWarping} distances that support lower bounds.
+ *
+ * The envelopes of all instances are computed once. For a query, the lower bounds LB_Kim and (for instances of the same length) LB_Keogh are computed for every instance, and the instances are visited in ascending order of their
+ * bounds. The search stops as soon as the bound of the next instance exceeds the distance of the k-th nearest neighbor found so far, and each DTW calculation is abandoned once it exceeds this distance.
+ *
+ * @author fischor
+ */
+public class EnvelopeSortedNeighborIndex extends ANeighborIndex {
+
+	private final DynamicTimeWarping dtw;
+
+	/** Upper and lower envelope of each instance. */
+	private final double[][][] envelopes;
+
+	public EnvelopeSortedNeighborIndex(final double[][] values, final DynamicTimeWarping dtw) {
+		super(values, dtw);
+		if (!dtw.isLowerBoundable()) {
+			throw new IllegalArgumentException("The DTW instance does not support lower bounds.");
+		}
+		this.dtw = dtw;
+		this.envelopes = new double[values.length][][];
+		for (int i = 0; i < values.length; i++) {
+			this.envelopes[i] = dtw.computeEnvelope(values[i]);
+		}
+	}
+
+	@Override
+	public PriorityQueue<Pair<Integer, Double>> getNearestNeighbors(final double[] query, final int k) {
+		int n = this.values.length;
+		double[] bounds = new double[n];
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			double bound = this.dtw.lowerBoundKim(query, this.values[i]);
+			if (query.length == this.values[i].length) {
+				bound = Math.max(bound, this.dtw.lowerBoundKeogh(query, this.envelopes[i], Double.POSITIVE_INFINITY));
+			}
+			bounds[i] = bound;
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> bounds[i]));
+
+		PriorityQueue<Pair<Integer, Double>> nearestNeighbors = this.createQueue();
+		for (int i : order) {
+			double bestSoFar = this.getBestSoFar(nearestNeighbors, k);
+			if (bounds[i] > bestSoFar) {
+				break; // the bounds of all remaining instances are at least as high
+			}
+			this.offer(nearestNeighbors, k, i, this.dtw.distance(query, this.values[i], bestSoFar));
+		}
+		return nearestNeighbors;
+	}
+}
@@ -0,0 +1,26 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
+
+import java.util.PriorityQueue;
+
+import ai.libs.jaicore.basic.sets.Pair;
+
+/**
+ * Index over the training instances of a nearest neighbor classifier that answers k nearest neighbor queries.
+ *
+ * Implementations must be safe for concurrent queries.
+ *
+ * @author fischor
+ */
+public interface INeighborIndex {
+
+	/**
+	 * Determines the k nearest neighbors of a query.
+	 *
+	 * @param query
+	 *            The time series to determine the k nearest neighbors for.
+	 * @param k
+	 *            Number of neighbors.
+	 * @return Queue of the k nearest neighbors as pairs (index of the instance, distance), sorted by distance descending, i.e. the head is the farthest of the neighbors.
+	 */
+	public PriorityQueue<Pair<Integer, Double>> getNearestNeighbors(double[] query, int k);
+}
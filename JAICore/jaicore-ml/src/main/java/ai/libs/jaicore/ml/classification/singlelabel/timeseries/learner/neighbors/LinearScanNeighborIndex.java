@@ -0,0 +1,37 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
+
+import java.util.PriorityQueue;
+
+import org.api4.java.common.metric.IDistanceMetric;
+
+import ai.libs.jaicore.basic.metric.IAbandonable;
+import ai.libs.jaicore.basic.sets.Pair;
+
+/**
+ * Neighbor index that calculates the distance of the query to every instance. Works for arbitrary distance measures. If the distance measure is {@link IAbandonable}, the calculations are abandoned once they exceed the distance of
+ * the k-th nearest neighbor found so far.
+ *
+ * @author fischor
+ */
+public class LinearScanNeighborIndex extends ANeighborIndex {
+
+	public LinearScanNeighborIndex(final double[][] values, final IDistanceMetric distanceMeasure) {
+		super(values, distanceMeasure);
+	}
+
+	@Override
+	public PriorityQueue<Pair<Integer, Double>> getNearestNeighbors(final double[] query, final int k) {
+		PriorityQueue<Pair<Integer, Double>> nearestNeighbors = this.createQueue();
+		boolean abandonable = this.distanceMeasure instanceof IAbandonable;
+		for (int i = 0; i < this.values.length; i++) {
+			double d;
+			if (abandonable) {
+				d = ((IAbandonable) this.distanceMeasure).distance(query, this.values[i], this.getBestSoFar(nearestNeighbors, k));
+			} else {
+				d = this.distanceMeasure.distance(query, this.values[i]);
+			}
+			this.offer(nearestNeighbors, k, i, d);
+		}
+		return nearestNeighbors;
+	}
+}
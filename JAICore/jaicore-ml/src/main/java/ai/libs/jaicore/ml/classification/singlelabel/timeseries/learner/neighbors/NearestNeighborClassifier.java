@@ -1,17 +1,23 @@
 package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.PriorityQueue;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.aeonbits.owner.ConfigCache;
 import org.api4.java.ai.ml.core.exception.PredictionException;
 import org.api4.java.common.metric.IDistanceMetric;
 
 import ai.libs.jaicore.basic.IOwnerBasedAlgorithmConfig;
+import ai.libs.jaicore.basic.metric.DynamicTimeWarping;
+import ai.libs.jaicore.basic.metric.EuclideanDistance;
+import ai.libs.jaicore.basic.metric.ManhattanDistance;
 import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.dataset.TimeSeriesDataset2;
 import ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.ASimplifiedTSClassifier;
@@ -86,6 +92,15 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 	/** Target values for the instances. Set by the algorithm. */
 	protected int[] targets;
 
+	/** Index over the instances used to answer the nearest neighbor queries. Set by the algorithm. */
+	protected INeighborIndex index;
+
+	/** Creates the index for the instances; if null, {@link #createDefaultIndex(double[][], IDistanceMetric)} is used. */
+	private BiFunction<double[][], IDistanceMetric, INeighborIndex> indexFactory;
+
+	/** Whether predictions for a dataset are computed in parallel. */
+	private boolean parallelPrediction = false;
+
 	/**
 	 * Creates a k nearest neighbor classifier.
 	 *
@@ -161,12 +176,12 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 		double[][] testInstances = this.checkWhetherPredictionIsPossible(dataset);
 
 		// Calculate predictions.
-		ArrayList<Integer> predictions = new ArrayList<>(dataset.getNumberOfInstances());
-		for (double[] testInstance : testInstances) {
-			int prediction = this.calculatePrediction(testInstance);
-			predictions.add(prediction);
+		IntStream instances = IntStream.range(0, testInstances.length);
+		if (this.parallelPrediction) {
+			instances = instances.parallel();
 		}
-		return predictions;
+		int[] predictions = instances.map(i -> this.calculatePrediction(testInstances[i])).toArray();
+		return Arrays.stream(predictions).boxed().collect(Collectors.toList());
 	}
 
 	/**
@@ -191,20 +206,13 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 	 * @return Queue of the k nearest neighbors as pairs (class, distance).
 	 */
 	protected PriorityQueue<Pair<Integer, Double>> calculateNearestNeigbors(final double[] testInstance) {
-		int numberOfTrainInstances = this.values.length;
 		// Priority queue of (class, distance)-pairs for nearest neigbors, sorted by
 		// distance ascending.
 		PriorityQueue<Pair<Integer, Double>> nearestNeighbors = new PriorityQueue<>(nearestNeighborComparator);
 
-		// Calculate the k nearest neighbors.
-		for (int i = 0; i < numberOfTrainInstances; i++) {
-			double d = this.distanceMeasure.distance(testInstance, this.values[i]);
-
-			Pair<Integer, Double> neighbor = new Pair<>(this.targets[i], d);
-			nearestNeighbors.add(neighbor);
-			if (nearestNeighbors.size() > this.k) {
-				nearestNeighbors.poll();
-			}
+		// Query the index for the k nearest neighbors and map them to their classes.
+		for (Pair<Integer, Double> neighbor : this.index.getNearestNeighbors(testInstance, this.k)) {
+			nearestNeighbors.add(new Pair<>(this.targets[neighbor.getX()], neighbor.getY()));
 		}
 		return nearestNeighbors;
 	}
@@ -341,8 +349,49 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 			throw new IllegalArgumentException("Values must not be null");
 		}
 		this.values = values;
+		this.index = this.indexFactory != null ? this.indexFactory.apply(values, this.distanceMeasure) : createDefaultIndex(values, this.distanceMeasure);
 	}
 
+	/**
+	 * Creates the default index for the given distance measure: an {@link EnvelopeSortedNeighborIndex} for DTW with lower bounds, a {@link VantagePointTreeNeighborIndex} for the Euclidean and Manhattan distance, and a
+	 * {@link LinearScanNeighborIndex} otherwise.
+	 *
+	 * @param values
+	 *            The value matrix.
+	 * @param distanceMeasure
+	 *            The distance measure.
+	 * @return The index.
+	 */
+	public static INeighborIndex createDefaultIndex(final double[][] values, final IDistanceMetric distanceMeasure) {
+		if (distanceMeasure instanceof DynamicTimeWarping && ((DynamicTimeWarping) distanceMeasure).isLowerBoundable()) {
+			return new EnvelopeSortedNeighborIndex(values, (DynamicTimeWarping) distanceMeasure);
+		}
+		if (distanceMeasure instanceof EuclideanDistance || distanceMeasure instanceof ManhattanDistance) {
+			return new VantagePointTreeNeighborIndex(values, distanceMeasure);
+		}
+		return new LinearScanNeighborIndex(values, distanceMeasure);
+	}
+
+	/**
+	 * Sets the factory for the index over the instances. Must be set before training.
+	 *
+	 * @param indexFactory
+	 *            Function that creates an index given the value matrix and the distance measure.
+	 */
+	public void setIndexFactory(final BiFunction<double[][], IDistanceMetric, INeighborIndex> indexFactory) {
+		this.indexFactory = indexFactory;
+	}
+
+	/**
+	 * Sets whether the predictions for a dataset are computed in parallel (default: false). Requires a distance measure that can be used concurrently.
+	 *
+	 * @param parallelPrediction
+	 */
+	public void setParallelPrediction(final boolean parallelPrediction) {
+		this.parallelPrediction = parallelPrediction;
+	}
+
+
 	/**
 	 * Sets the timestamps.
 	 *
@@ -1,6 +1,7 @@
 package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
 
 import java.util.ArrayList;
+import java.util.stream.IntStream;
 
 import org.api4.java.algorithm.events.IAlgorithmEvent;
 import org.api4.java.algorithm.exceptions.AlgorithmException;
@@ -81,11 +82,10 @@ public class ShotgunEnsembleLearnerAlgorithm extends ASimplifiedTSCLearningAlgor
 		ArrayList<Pair<Integer, Integer>> scores = new ArrayList<>();
 
 		for (int windowLength = this.getConfig().windowSizeMax(); windowLength >= this.getConfig().windowSizeMin(); windowLength--) {
-			int correct = 0;
 
-			// 1-NN with Leave-One-Out CV.
+			// 1-NN with Leave-One-Out CV. The instances are predicted in parallel.
 			ShotgunDistance shotgunDistance = new ShotgunDistance(windowLength, this.getConfig().meanNormalization());
-			for (int i = 0; i < values.length; i++) {
+			int correct = (int) IntStream.range(0, values.length).parallel().filter(i -> {
 				// Predict for i-th instance.
 				double minDistance = Double.MAX_VALUE;
 				int instanceThatMinimizesDistance = -1;
@@ -99,10 +99,8 @@ public class ShotgunEnsembleLearnerAlgorithm extends ASimplifiedTSCLearningAlgor
 					}
 				}
 				// Check, if Leave-One-Out prediction for i-th was correct.
-				if (targets[i] == targets[instanceThatMinimizesDistance]) {
-					correct++;
-				}
-			}
+				return targets[i] == targets[instanceThatMinimizesDistance];
+			}).count();
 
 			scores.add(new Pair<>(correct, windowLength));
 		}
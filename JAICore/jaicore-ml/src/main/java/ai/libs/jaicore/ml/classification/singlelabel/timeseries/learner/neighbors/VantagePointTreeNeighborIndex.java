@@ -0,0 +1,139 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.api4.java.common.metric.IDistanceMetric;
+
+import ai.libs.jaicore.basic.sets.Pair;
+
+/**
+ * Exact neighbor index based on a vantage point tree as published in "Data Structures and Algorithms for Nearest Neighbor Search in General Metric Spaces" by Peter N. Yianilos (1993).
+ *
+ * Each node of the tree holds a vantage point and the median distance <code>mu</code> of the other instances of the node to it. Instances closer than <code>mu</code> go to the inner subtree, the others to the outer subtree. By
+ * the triangle inequality, a subtree can be skipped if it cannot contain an instance closer than the k-th nearest neighbor found so far. The index is only exact if the distance measure is a metric, e.g. the Euclidean or
+ * Manhattan distance.
+ *
+ * The tree is stored implicitly: a node covering the positions <code>[from, to)</code> of {@link #order} has its vantage point at <code>from</code>, its inner subtree at <code>[from + 1, mid)</code> and its outer subtree at
+ * <code>[mid, to)</code> with <code>mid = (from + 1 + to) / 2</code>.
+ *
+ * @author fischor
+ */
+public class VantagePointTreeNeighborIndex extends ANeighborIndex {
+
+	/** Instance indices in tree order. */
+	private final int[] order;
+
+	/** Median distance of the node whose vantage point is at the respective position of {@link #order}. */
+	private final double[] radii;
+
+	private final Random random;
+
+	public VantagePointTreeNeighborIndex(final double[][] values, final IDistanceMetric distanceMeasure) {
+		this(values, distanceMeasure, new Random(0));
+	}
+
+	public VantagePointTreeNeighborIndex(final double[][] values, final IDistanceMetric distanceMeasure, final Random random) {
+		super(values, distanceMeasure);
+		int n = values.length;
+		this.random = random;
+		this.order = new int[n];
+		this.radii = new double[n];
+		for (int i = 0; i < n; i++) {
+			this.order[i] = i;
+		}
+		this.build(0, n, new double[n]);
+	}
+
+	private void build(final int from, final int to, final double[] distances) {
+		if (to - from <= 1) {
+			return;
+		}
+
+		/* choose a random vantage point and move it to the front */
+		this.swap(distances, from, from + this.random.nextInt(to - from));
+		double[] vantagePoint = this.values[this.order[from]];
+		for (int i = from + 1; i < to; i++) {
+			distances[i] = this.distanceMeasure.distance(vantagePoint, this.values[this.order[i]]);
+		}
+
+		/* split the remaining instances at the median distance */
+		int mid = (from + 1 + to) / 2;
+		this.select(distances, from + 1, to, mid);
+		this.radii[from] = distances[mid];
+		this.build(from + 1, mid, distances);
+		this.build(mid, to, distances);
+	}
+
+	/**
+	 * Reorders the positions <code>[from, to)</code> such that position <code>nth</code> holds the element that would be there if the range was sorted by distance, all elements before it have a smaller or equal distance and all
+	 * elements after it a greater or equal distance.
+	 */
+	private void select(final double[] distances, int from, int to, final int nth) {
+		while (to - from > 1) {
+			double pivot = distances[from + this.random.nextInt(to - from)];
+			int lower = from;
+			int i = from;
+			int upper = to;
+			while (i < upper) {
+				if (distances[i] < pivot) {
+					this.swap(distances, lower++, i++);
+				} else if (distances[i] > pivot) {
+					this.swap(distances, i, --upper);
+				} else {
+					i++;
+				}
+			}
+			if (nth < lower) {
+				to = lower;
+			} else if (nth >= upper) {
+				from = upper;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void swap(final double[] distances, final int i, final int j) {
+		int tmpIndex = this.order[i];
+		this.order[i] = this.order[j];
+		this.order[j] = tmpIndex;
+		double tmpDistance = distances[i];
+		distances[i] = distances[j];
+		distances[j] = tmpDistance;
+	}
+
+	@Override
+	public PriorityQueue<Pair<Integer, Double>> getNearestNeighbors(final double[] query, final int k) {
+		PriorityQueue<Pair<Integer, Double>> nearestNeighbors = this.createQueue();
+		this.search(query, k, 0, this.order.length, nearestNeighbors);
+		return nearestNeighbors;
+	}
+
+	private void search(final double[] query, final int k, final int from, final int to, final PriorityQueue<Pair<Integer, Double>> nearestNeighbors) {
+		if (from >= to) {
+			return;
+		}
+		int vantagePoint = this.order[from];
+		double d = this.distanceMeasure.distance(query, this.values[vantagePoint]);
+		this.offer(nearestNeighbors, k, vantagePoint, d);
+		if (to - from == 1) {
+			return;
+		}
+
+		/* descend into the subtree of the query first; the other one is only visited if it may still contain a closer instance */
+		int mid = (from + 1 + to) / 2;
+		double mu = this.radii[from];
+		if (d < mu) {
+			this.search(query, k, from + 1, mid, nearestNeighbors);
+			if (mu - d <= this.getBestSoFar(nearestNeighbors, k)) {
+				this.search(query, k, mid, to, nearestNeighbors);
+			}
+		} else {
+			this.search(query, k, mid, to, nearestNeighbors);
+			if (d - mu <= this.getBestSoFar(nearestNeighbors, k)) {
+				this.search(query, k, from + 1, mid, nearestNeighbors);
+			}
+		}
+	}
+}
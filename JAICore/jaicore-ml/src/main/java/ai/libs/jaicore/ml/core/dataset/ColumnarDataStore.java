@@ -0,0 +1,291 @@
+package ai.libs.jaicore.ml.core.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.api4.java.ai.ml.core.dataset.schema.ILabeledInstanceSchema;
+import org.api4.java.ai.ml.core.dataset.schema.attribute.IAttribute;
+import org.api4.java.ai.ml.core.dataset.schema.attribute.ICategoricalAttribute;
+import org.api4.java.ai.ml.core.dataset.schema.attribute.INumericAttribute;
+
+/**
+ * Column-oriented storage of the rows of a {@link ColumnarDataset}. Numeric attributes are stored in double arrays and categorical attributes as int codes into a per-column dictionary; all other attributes are
+ * stored as objects. Missing values are tracked in a bitmap per column. The label is stored in the last column.
+ *
+ * Rows are only appended, never removed, so that the row indices held by the views on the store remain valid.
+ */
+class ColumnarDataStore {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final List<AColumn> columns = new ArrayList<>();
+	private int numRows = 0;
+	private int capacity = INITIAL_CAPACITY;
+
+	ColumnarDataStore(final ILabeledInstanceSchema schema) {
+		for (IAttribute attribute : schema.getAttributeList()) {
+			this.columns.add(createColumn(attribute, this.capacity));
+		}
+		this.columns.add(createColumn(schema.getLabelAttribute(), this.capacity));
+	}
+
+	private static AColumn createColumn(final IAttribute attribute, final int capacity) {
+		if (attribute instanceof INumericAttribute) {
+			return new NumericColumn(capacity);
+		}
+		if (attribute instanceof ICategoricalAttribute) {
+			return new CategoricalColumn(capacity);
+		}
+		return new ObjectColumn(capacity);
+	}
+
+	int getNumRows() {
+		return this.numRows;
+	}
+
+	/**
+	 * @return The number of attributes without the label.
+	 */
+	int getNumAttributes() {
+		return this.columns.size() - 1;
+	}
+
+	int getLabelColumn() {
+		return this.columns.size() - 1;
+	}
+
+	/**
+	 * Appends a row with the given attribute values and label.
+	 *
+	 * @return The index of the new row.
+	 */
+	int appendRow(final Object[] attributes, final Object label) {
+		if (attributes.length != this.getNumAttributes()) {
+			throw new IllegalArgumentException("Instance has " + attributes.length + " attributes, but the dataset defines " + this.getNumAttributes() + " attributes.");
+		}
+		int row = this.appendEmptyRow();
+		for (int i = 0; i < attributes.length; i++) {
+			this.columns.get(i).set(row, attributes[i]);
+		}
+		this.columns.get(this.getLabelColumn()).set(row, label);
+		return row;
+	}
+
+	/**
+	 * Appends a row whose values are all missing.
+	 *
+	 * @return The index of the new row.
+	 */
+	int appendEmptyRow() {
+		if (this.numRows == this.capacity) {
+			this.capacity = this.capacity + (this.capacity >> 1);
+			for (AColumn column : this.columns) {
+				column.grow(this.capacity);
+			}
+		}
+		int row = this.numRows++;
+		for (AColumn column : this.columns) {
+			column.setMissing(row, true);
+		}
+		return row;
+	}
+
+	Object get(final int row, final int column) {
+		return this.columns.get(column).get(row);
+	}
+
+	void set(final int row, final int column, final Object value) {
+		this.columns.get(column).set(row, value);
+	}
+
+	void setNumericValue(final int row, final int column, final double value) {
+		this.columns.get(column).setNumericValue(row, value);
+	}
+
+	boolean isMissing(final int row, final int column) {
+		return this.columns.get(column).isMissing(row);
+	}
+
+	double getPointValue(final int row, final int column) {
+		return this.columns.get(column).getPointValue(row);
+	}
+
+	void removeColumn(final int column) {
+		if (column < 0 || column >= this.getNumAttributes()) {
+			throw new IndexOutOfBoundsException("There is no attribute column " + column + ".");
+		}
+		this.columns.remove(column);
+	}
+
+	/**
+	 * Base class of the columns, which manages the bitmap of missing values.
+	 */
+	private abstract static class AColumn {
+		private long[] missing;
+
+		protected AColumn(final int capacity) {
+			this.missing = new long[(capacity >> 6) + 1];
+		}
+
+		protected void grow(final int capacity) {
+			this.missing = Arrays.copyOf(this.missing, (capacity >> 6) + 1);
+		}
+
+		protected boolean isMissing(final int row) {
+			return (this.missing[row >> 6] & (1L << row)) != 0;
+		}
+
+		protected void setMissing(final int row, final boolean isMissing) {
+			if (isMissing) {
+				this.missing[row >> 6] |= 1L << row;
+			} else {
+				this.missing[row >> 6] &= ~(1L << row);
+			}
+		}
+
+		protected Object get(final int row) {
+			return this.isMissing(row) ? null : this.getPresent(row);
+		}
+
+		protected void set(final int row, final Object value) {
+			this.setMissing(row, value == null);
+			if (value != null) {
+				this.setPresent(row, value);
+			}
+		}
+
+		protected void setNumericValue(final int row, final double value) {
+			this.set(row, value);
+		}
+
+		/**
+		 * Returns the numeric representation of the value as used for {@link ColumnarInstance#getPoint()}. Missing values are represented by 0.
+		 */
+		protected double getPointValue(final int row) {
+			return this.isMissing(row) ? 0 : this.getPresentPointValue(row);
+		}
+
+		protected abstract Object getPresent(int row);
+
+		protected abstract void setPresent(int row, Object value);
+
+		protected abstract double getPresentPointValue(int row);
+	}
+
+	private static class NumericColumn extends AColumn {
+		private double[] values;
+
+		private NumericColumn(final int capacity) {
+			super(capacity);
+			this.values = new double[capacity];
+		}
+
+		@Override
+		protected void grow(final int capacity) {
+			super.grow(capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		protected Object getPresent(final int row) {
+			return this.values[row];
+		}
+
+		@Override
+		protected void setPresent(final int row, final Object value) {
+			this.values[row] = toDouble(value);
+		}
+
+		@Override
+		protected void setNumericValue(final int row, final double value) {
+			this.setMissing(row, false);
+			this.values[row] = value;
+		}
+
+		@Override
+		protected double getPresentPointValue(final int row) {
+			return this.values[row];
+		}
+	}
+
+	/**
+	 * Stores the values as int codes into a dictionary of the distinct values of the column.
+	 */
+	private static class CategoricalColumn extends AColumn {
+		private int[] codes;
+		private final List<Object> dictionary = new ArrayList<>();
+		private final Map<Object, Integer> codesOfValues = new HashMap<>();
+
+		private CategoricalColumn(final int capacity) {
+			super(capacity);
+			this.codes = new int[capacity];
+		}
+
+		@Override
+		protected void grow(final int capacity) {
+			super.grow(capacity);
+			this.codes = Arrays.copyOf(this.codes, capacity);
+		}
+
+		@Override
+		protected Object getPresent(final int row) {
+			return this.dictionary.get(this.codes[row]);
+		}
+
+		@Override
+		protected void setPresent(final int row, final Object value) {
+			this.codes[row] = this.codesOfValues.computeIfAbsent(value, v -> {
+				this.dictionary.add(v);
+				return this.dictionary.size() - 1;
+			});
+		}
+
+		@Override
+		protected double getPresentPointValue(final int row) {
+			return toDouble(this.getPresent(row));
+		}
+	}
+
+	private static class ObjectColumn extends AColumn {
+		private Object[] values;
+
+		private ObjectColumn(final int capacity) {
+			super(capacity);
+			this.values = new Object[capacity];
+		}
+
+		@Override
+		protected void grow(final int capacity) {
+			super.grow(capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		protected Object getPresent(final int row) {
+			return this.values[row];
+		}
+
+		@Override
+		protected void setPresent(final int row, final Object value) {
+			this.values[row] = value;
+		}
+
+		@Override
+		protected double getPresentPointValue(final int row) {
+			return toDouble(this.values[row]);
+		}
+	}
+
+	private static double toDouble(final Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		if (value instanceof Boolean) {
+			return ((boolean) value) ? 1.0 : 0.0;
+		}
+		throw new UnsupportedOperationException("The value " + value + " cannot be cast to a point value, because it is non-numeric.");
+	}
+}
@@ -0,0 +1,324 @@
+package ai.libs.jaicore.ml.core.dataset;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.api4.java.ai.ml.core.dataset.schema.ILabeledInstanceSchema;
+import org.api4.java.ai.ml.core.dataset.schema.attribute.IAttribute;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.api4.java.common.reconstruction.IReconstructible;
+import org.api4.java.common.reconstruction.IReconstructionInstruction;
+import org.api4.java.common.reconstruction.IReconstructionPlan;
+
+import ai.libs.jaicore.basic.reconstruction.ReconstructionInstruction;
+import ai.libs.jaicore.basic.reconstruction.ReconstructionPlan;
+
+/**
+ * Column-oriented alternative to {@link Dataset}. The values are kept in primitive columns of a {@link ColumnarDataStore}, and the dataset itself is only a list of row indices into the store.
+ *
+ * This has the following consequences:
+ * <ul>
+ * <li>The instances returned by {@link #get(int)} are {@link ColumnarInstance} flyweights. Changing their values changes the values in the store.</li>
+ * <li>{@link #createEmptyCopy()} and {@link #createCopy()} share the store, so adding an instance of this dataset to a copy (as done by splitters and samplers) only adds its row index. Instances from
+ * elsewhere are appended to the store.</li>
+ * <li>As with {@link Dataset}, whose copies share the schema and the instances, removing a column affects all datasets that share the store.</li>
+ * </ul>
+ */
+public class ColumnarDataset extends AbstractList<ILabeledInstance> implements ILabeledDataset<ILabeledInstance>, IReconstructible {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final List<ReconstructionInstruction> instructions = new ArrayList<>();
+	private final ILabeledInstanceSchema schema;
+	private final ColumnarDataStore store;
+	private int[] rows;
+	private int size;
+
+	public ColumnarDataset(final ILabeledInstanceSchema schema) {
+		this(schema, new ColumnarDataStore(schema), new int[INITIAL_CAPACITY], 0);
+	}
+
+	public ColumnarDataset(final ILabeledInstanceSchema schema, final List<? extends ILabeledInstance> instances) {
+		this(schema, new ColumnarDataStore(schema), new int[Math.max(INITIAL_CAPACITY, instances.size())], 0);
+		this.addAll(instances);
+	}
+
+	private ColumnarDataset(final ILabeledInstanceSchema schema, final ColumnarDataStore store, final int[] rows, final int size) {
+		this.schema = schema;
+		this.store = store;
+		this.rows = rows;
+		this.size = size;
+	}
+
+	@Override
+	public ILabeledInstanceSchema getInstanceSchema() {
+		return this.schema;
+	}
+
+	@Override
+	public ColumnarInstance get(final int index) {
+		this.checkIndex(index);
+		return new ColumnarInstance(this.store, this.rows[index]);
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public void add(final int index, final ILabeledInstance instance) {
+		if (index < 0 || index > this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+		int row = this.getRowOf(instance);
+		this.growRowsIfFull();
+		System.arraycopy(this.rows, index, this.rows, index + 1, this.size - index);
+		this.rows[index] = row;
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Appends an instance whose values are all missing. Together with {@link #setNumericValue(int, int, double)} and {@link #setValue(int, int, Object)}, this allows to fill the columns directly, e.g. when
+	 * deserializing a dataset, instead of creating an instance (with boxed values) for every row first.
+	 *
+	 * @return The position of the new instance in this dataset.
+	 */
+	public int addEmptyInstance() {
+		int row = this.store.appendEmptyRow();
+		this.growRowsIfFull();
+		this.rows[this.size++] = row;
+		this.modCount++;
+		return this.size - 1;
+	}
+
+	/**
+	 * Sets a value of an instance without boxing it.
+	 *
+	 * @param index
+	 *            The position of the instance in this dataset.
+	 * @param column
+	 *            The index of the attribute, or the number of attributes for the label.
+	 * @param value
+	 *            The value, which is converted to the type of the attribute if it is not numeric.
+	 */
+	public void setNumericValue(final int index, final int column, final double value) {
+		this.checkIndex(index);
+		this.checkColumn(column);
+		this.store.setNumericValue(this.rows[index], column, value);
+	}
+
+	/**
+	 * Sets a value of an instance.
+	 *
+	 * @param index
+	 *            The position of the instance in this dataset.
+	 * @param column
+	 *            The index of the attribute, or the number of attributes for the label.
+	 * @param value
+	 *            The value or null if it is missing.
+	 */
+	public void setValue(final int index, final int column, final Object value) {
+		this.checkIndex(index);
+		this.checkColumn(column);
+		this.store.set(this.rows[index], column, value);
+	}
+
+	@Override
+	public ColumnarInstance set(final int index, final ILabeledInstance instance) {
+		ColumnarInstance previous = this.get(index);
+		this.rows[index] = this.getRowOf(instance);
+		return previous;
+	}
+
+	@Override
+	public ColumnarInstance remove(final int index) {
+		ColumnarInstance removed = this.get(index);
+		System.arraycopy(this.rows, index + 1, this.rows, index, this.size - index - 1);
+		this.size--;
+		this.modCount++;
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		this.size = 0;
+		this.modCount++;
+	}
+
+	/**
+	 * @return The row of the instance in the store; instances that are not views on the store are appended to it.
+	 */
+	private int getRowOf(final ILabeledInstance instance) {
+		if (instance instanceof ColumnarInstance && ((ColumnarInstance) instance).getStore() == this.store) {
+			return ((ColumnarInstance) instance).getRow();
+		}
+		return this.store.appendRow(instance.getAttributes(), instance.getLabel());
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+	}
+
+	private void checkColumn(final int column) {
+		if (column < 0 || column > this.store.getNumAttributes()) {
+			throw new IndexOutOfBoundsException("There is no column " + column + ".");
+		}
+	}
+
+	private void growRowsIfFull() {
+		if (this.size == this.rows.length) {
+			this.rows = Arrays.copyOf(this.rows, Math.max(INITIAL_CAPACITY, this.rows.length + (this.rows.length >> 1)));
+		}
+	}
+
+	/**
+	 * Creates a view on a subset of this dataset without copying any values.
+	 *
+	 * @param indices
+	 *            The positions of the instances in this dataset (not the rows of the store).
+	 * @return A dataset sharing the store with this one.
+	 */
+	public ColumnarDataset getView(final int[] indices) {
+		int[] viewRows = new int[Math.max(INITIAL_CAPACITY, indices.length)];
+		for (int i = 0; i < indices.length; i++) {
+			this.checkIndex(indices[i]);
+			viewRows[i] = this.rows[indices[i]];
+		}
+		return new ColumnarDataset(this.schema, this.store, viewRows, indices.length);
+	}
+
+	@Override
+	public ColumnarDataset createEmptyCopy() {
+		return new ColumnarDataset(this.schema, this.store, new int[INITIAL_CAPACITY], 0);
+	}
+
+	@Override
+	public ColumnarDataset createCopy() {
+		return new ColumnarDataset(this.schema, this.store, Arrays.copyOf(this.rows, Math.max(INITIAL_CAPACITY, this.size)), this.size);
+	}
+
+	@Override
+	public Object[][] getFeatureMatrix() {
+		Object[][] featureMatrix = new Object[this.size][];
+		for (int i = 0; i < this.size; i++) {
+			featureMatrix[i] = this.get(i).getAttributes();
+		}
+		return featureMatrix;
+	}
+
+	/**
+	 * Reads the numeric representation of all instances directly from the columns, as {@link ColumnarInstance#getPoint()} does for a single instance.
+	 *
+	 * @return Matrix with one row per instance.
+	 */
+	public double[][] getPointMatrix() {
+		int numAttributes = this.store.getNumAttributes();
+		double[][] pointMatrix = new double[this.size][numAttributes];
+		for (int j = 0; j < numAttributes; j++) {
+			for (int i = 0; i < this.size; i++) {
+				pointMatrix[i][j] = this.store.getPointValue(this.rows[i], j);
+			}
+		}
+		return pointMatrix;
+	}
+
+	/**
+	 * @param column
+	 *            The index of the attribute.
+	 * @return The numeric representation of the values of the attribute for all instances of this dataset.
+	 */
+	public double[] getPointColumn(final int column) {
+		if (column < 0 || column >= this.store.getNumAttributes()) {
+			throw new IndexOutOfBoundsException("There is no attribute column " + column + ".");
+		}
+		double[] values = new double[this.size];
+		for (int i = 0; i < this.size; i++) {
+			values[i] = this.store.getPointValue(this.rows[i], column);
+		}
+		return values;
+	}
+
+	@Override
+	public Object[] getLabelVector() {
+		int labelColumn = this.store.getLabelColumn();
+		Object[] labels = new Object[this.size];
+		for (int i = 0; i < this.size; i++) {
+			labels[i] = this.store.get(this.rows[i], labelColumn);
+		}
+		return labels;
+	}
+
+	@Override
+	public void removeColumn(final int columnPos) {
+		this.schema.removeAttribute(columnPos);
+		this.store.removeColumn(columnPos);
+	}
+
+	@Override
+	public void removeColumn(final String columnName) {
+		Optional<IAttribute> att = this.schema.getAttributeList().stream().filter(x -> x.getName().equals(columnName)).findFirst();
+		if (att.isPresent()) {
+			this.removeColumn(this.schema.getAttributeList().indexOf(att.get()));
+		} else {
+			throw new IllegalArgumentException("There is no such attribute with name " + columnName + " to remove.");
+		}
+	}
+
+	@Override
+	public void removeColumn(final IAttribute attribute) {
+		int index = this.schema.getAttributeList().indexOf(attribute);
+		if (index >= 0) {
+			this.removeColumn(index);
+		} else {
+			throw new IllegalArgumentException("There is no such attribute with name " + attribute.getName() + " to remove.");
+		}
+	}
+
+	@Override
+	public IReconstructionPlan getConstructionPlan() {
+		return new ReconstructionPlan(this.instructions);
+	}
+
+	@Override
+	public void addInstruction(final IReconstructionInstruction instruction) {
+		this.instructions.add((ReconstructionInstruction) instruction);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((this.schema == null) ? 0 : this.schema.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj)) {
+			return false;
+		}
+		if (this.getClass() != obj.getClass()) {
+			return false;
+		}
+		ColumnarDataset other = (ColumnarDataset) obj;
+		if (this.schema == null) {
+			if (other.schema != null) {
+				return false;
+			}
+		} else if (!this.schema.equals(other.schema)) {
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,120 @@
+package ai.libs.jaicore.ml.core.dataset;
+
+import java.util.Arrays;
+
+import ai.libs.jaicore.ml.core.filter.sampling.IClusterableInstance;
+
+/**
+ * Flyweight view on a row of a {@link ColumnarDataset}. It holds no values itself, so reading and writing values reads and writes the columns of the underlying store, and all views on the same row see the same
+ * values.
+ */
+public class ColumnarInstance implements IClusterableInstance {
+
+	private final ColumnarDataStore store;
+	private final int row;
+
+	ColumnarInstance(final ColumnarDataStore store, final int row) {
+		this.store = store;
+		this.row = row;
+	}
+
+	ColumnarDataStore getStore() {
+		return this.store;
+	}
+
+	int getRow() {
+		return this.row;
+	}
+
+	@Override
+	public Object getAttributeValue(final int pos) {
+		this.checkAttributeIndex(pos);
+		return this.store.get(this.row, pos);
+	}
+
+	@Override
+	public void setAttributeValue(final int pos, final Object value) {
+		this.checkAttributeIndex(pos);
+		this.store.set(this.row, pos, value);
+	}
+
+	@Override
+	public Object[] getAttributes() {
+		int n = this.store.getNumAttributes();
+		Object[] attributes = new Object[n];
+		for (int i = 0; i < n; i++) {
+			attributes[i] = this.store.get(this.row, i);
+		}
+		return attributes;
+	}
+
+	@Override
+	public double[] getPoint() {
+		int n = this.store.getNumAttributes();
+		double[] point = new double[n];
+		for (int i = 0; i < n; i++) {
+			point[i] = this.store.getPointValue(this.row, i);
+		}
+		return point;
+	}
+
+	@Override
+	public double getPointValue(final int pos) {
+		this.checkAttributeIndex(pos);
+		return this.store.getPointValue(this.row, pos);
+	}
+
+	/**
+	 * Columns can only be removed from the whole dataset via {@link ColumnarDataset#removeColumn(int)}.
+	 */
+	@Override
+	public void removeColumn(final int columnPos) {
+		throw new UnsupportedOperationException("Columns of a columnar dataset can only be removed from the dataset.");
+	}
+
+	@Override
+	public Object getLabel() {
+		return this.store.get(this.row, this.store.getLabelColumn());
+	}
+
+	@Override
+	public void setLabel(final Object label) {
+		this.store.set(this.row, this.store.getLabelColumn(), label);
+	}
+
+	@Override
+	public boolean isLabelPresent() {
+		return !this.store.isMissing(this.row, this.store.getLabelColumn());
+	}
+
+	private void checkAttributeIndex(final int pos) {
+		if (pos < 0 || pos >= this.store.getNumAttributes()) {
+			throw new IndexOutOfBoundsException("Attribute index " + pos + " is out of bounds for " + this.store.getNumAttributes() + " attributes.");
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.getAttributes());
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || this.getClass() != obj.getClass()) {
+			return false;
+		}
+		ColumnarInstance other = (ColumnarInstance) obj;
+		if (this.store == other.store && this.row == other.row) {
+			return true;
+		}
+		return Arrays.equals(this.getAttributes(), other.getAttributes());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.getAttributes()) + "->" + this.getLabel();
+	}
+}
@@ -284,6 +284,30 @@ public class ArffDatasetAdapter implements IDatasetDeserializer<ILabeledDataset<
 		}
 	}
 
+	/**
+	 * Creates an instance from the output of {@link #parseInstance(boolean, List, int, String)}.
+	 *
+	 * @param parsedInstance The parsed attribute values and the label.
+	 * @param numAttributes The number of attributes (without the label) defined by the dataset.
+	 * @return The instance.
+	 */
+	protected static ILabeledInstance toInstance(final List<Object> parsedInstance, final int numAttributes) {
+		ILabeledInstance newI;
+		if ((parsedInstance.get(0) instanceof Object[])) {
+			newI = new DenseInstance((Object[]) ((List<?>) parsedInstance).get(0), ((List<?>) parsedInstance).get(1));
+		} else if (parsedInstance.get(0) instanceof Map) {
+			@SuppressWarnings("unchecked")
+			Map<Integer, Object> parsedSparseInstance = (Map<Integer, Object>) parsedInstance.get(0);
+			newI = new SparseInstance(numAttributes, parsedSparseInstance, parsedInstance.get(1));
+		} else {
+			throw new IllegalStateException("Severe Error: The format of the parsed instance is not as expected.");
+		}
+		if (newI.getNumAttributes() != numAttributes) {
+			throw new IllegalStateException("Instance has " + newI.getNumAttributes() + " attributes, but the dataset defines " + numAttributes + " attributes.");
+		}
+		return newI;
+	}
+
 	protected static ILabeledDataset<ILabeledInstance> createDataset(final KVStore relationMetaData, final List<IAttribute> attributes) {
 		if (!relationMetaData.containsKey(K_CLASS_INDEX) || relationMetaData.getAsInt(K_CLASS_INDEX) < 0) {
 			throw new IllegalArgumentException("No (valid) class index given!");
@@ -302,6 +326,24 @@ public class ArffDatasetAdapter implements IDatasetDeserializer<ILabeledDataset<
 		return readDataset(sparseMode, datasetFile, -1);
 	}
 
+	/**
+	 * Reads the dataset with a {@link MappedArffReader}, which tokenizes memory-mapped chunks of the file and can parse them in parallel. This is considerably faster for large files.
+	 *
+	 * @param sparseMode Whether all lines are to be read as sparse instances.
+	 * @param datasetFile The ARFF file.
+	 * @param columnWithClassIndex The index of the class attribute or -1 to take it from the relation name (or the last attribute).
+	 * @param parallel Whether the chunks of the file are parsed in parallel.
+	 * @return The dataset.
+	 * @throws DatasetDeserializationFailedException
+	 */
+	public static ILabeledDataset<ILabeledInstance> readDataset(final boolean sparseMode, final File datasetFile, final int columnWithClassIndex, final boolean parallel) throws DatasetDeserializationFailedException {
+		try {
+			return new MappedArffReader(sparseMode, datasetFile, columnWithClassIndex, MappedArffReader.DEFAULT_CHUNK_SIZE).readDataset(parallel);
+		} catch (IOException | UnsupportedAttributeTypeException | IllegalArgumentException e) {
+			throw new DatasetDeserializationFailedException("Could not deserialize dataset from ARFF file " + datasetFile, e);
+		}
+	}
+
 	public static ILabeledDataset<ILabeledInstance> readDataset(final boolean sparseMode, final File datasetFile, final int columnWithClassIndex) throws DatasetDeserializationFailedException {
 		String line = null;
 		long lineCounter = 0;
@@ -343,20 +385,7 @@ public class ArffDatasetAdapter implements IDatasetDeserializer<ILabeledDataset<
 					line = line.trim();
 					if (!line.isEmpty() && !line.startsWith("%")) { // ignore empty and comment lines
 						List<Object> parsedInstance = parseInstance(sparseMode, attributes, relationMetaData.getAsInt(K_CLASS_INDEX), line);
-						ILabeledInstance newI;
-						if ((parsedInstance.get(0) instanceof Object[])) {
-							newI = new DenseInstance((Object[]) ((List<?>) parsedInstance).get(0), ((List<?>) parsedInstance).get(1));
-						} else if (parsedInstance.get(0) instanceof Map) {
-							@SuppressWarnings("unchecked")
-							Map<Integer, Object> parsedSparseInstance = (Map<Integer, Object>) parsedInstance.get(0);
-							newI = new SparseInstance(dataset.getNumAttributes(), parsedSparseInstance, parsedInstance.get(1));
-						} else {
-							throw new IllegalStateException("Severe Error: The format of the parsed instance is not as expected.");
-						}
-						if (newI.getNumAttributes() != dataset.getNumAttributes()) {
-							throw new IllegalStateException("Instance has " + newI.getNumAttributes() + " attributes, but the dataset defines " + dataset.getNumAttributes() + " attributes.");
-						}
-						dataset.add(newI);
+						dataset.add(toInstance(parsedInstance, dataset.getNumAttributes()));
 					}
 				}
 			}
@@ -0,0 +1,758 @@
+package ai.libs.jaicore.ml.core.dataset.serialization;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.api4.java.ai.ml.core.dataset.schema.attribute.IAttribute;
+import org.api4.java.ai.ml.core.dataset.serialization.DatasetDeserializationFailedException;
+import org.api4.java.ai.ml.core.dataset.serialization.UnsupportedAttributeTypeException;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+
+import ai.libs.jaicore.basic.kvstore.KVStore;
+import ai.libs.jaicore.ml.core.dataset.ColumnarDataset;
+import ai.libs.jaicore.ml.core.dataset.DenseInstance;
+import ai.libs.jaicore.ml.core.dataset.schema.attribute.IntBasedCategoricalAttribute;
+import ai.libs.jaicore.ml.core.dataset.schema.attribute.NumericAttribute;
+import ai.libs.jaicore.ml.core.dataset.serialization.arff.EArffItem;
+
+/**
+ * Reader for ARFF files that works on memory-mapped chunks of the file instead of a line-based reader.
+ *
+ * The data section is cut into chunks at line boundaries. Dense lines are tokenized directly on the bytes of the mapped chunk; numeric values are parsed without creating intermediate strings, and the values of
+ * categorical attributes are looked up in a per-attribute cache. Lines that are sparse or otherwise unusual are passed on to {@link ArffDatasetAdapter#parseInstance(boolean, List, int, String)}, so the resulting
+ * instances are the same as with {@link ArffDatasetAdapter#readDataset(boolean, File, int)}.
+ *
+ * The instances can be consumed in two ways:
+ * <ul>
+ * <li>{@link #iterator()} streams the instances chunk by chunk, so only the current chunk is held in memory. This is suitable for file-based algorithms that make a single pass over the data.</li>
+ * <li>{@link #readDataset(boolean)} materializes the whole dataset, optionally parsing the chunks in parallel.</li>
+ * <li>{@link #readColumnarDataset(boolean)} does the same, but writes the values into the columns of a {@link ColumnarDataset}, so that numeric values are neither boxed nor wrapped in an instance per line.</li>
+ * </ul>
+ */
+public class MappedArffReader implements Iterable<ILabeledInstance> {
+
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+	private static final int SCAN_BUFFER_SIZE = 1 << 13;
+	private static final int MAX_FAST_DIGITS = 15;
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private final File file;
+	private final boolean sparseMode;
+	private final KVStore relationMetaData;
+	private final List<IAttribute> attributes;
+	private final int classIndex;
+	private final long dataStart;
+	private final long fileSize;
+	private final int chunkSize;
+
+	/* caches of deserialized values of categorical attributes, indexed by column; null for other attribute types */
+	private final List<Map<String, Object>> categoricalValueCaches;
+
+	/* whether the attributes are numeric, indexed by column */
+	private final boolean[] numericAttributes;
+
+	public MappedArffReader(final File file) throws IOException, UnsupportedAttributeTypeException {
+		this(file, -1);
+	}
+
+	public MappedArffReader(final File file, final int columnWithClassIndex) throws IOException, UnsupportedAttributeTypeException {
+		this(false, file, columnWithClassIndex, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param sparseMode
+	 *            Whether all lines are to be read as sparse instances.
+	 * @param file
+	 *            The ARFF file.
+	 * @param columnWithClassIndex
+	 *            The index of the class attribute; if negative, the index given in the relation name or, if there is none, the last attribute is used.
+	 * @param chunkSize
+	 *            The (approximate) number of bytes of the data section that are mapped and parsed at once.
+	 */
+	public MappedArffReader(final boolean sparseMode, final File file, final int columnWithClassIndex, final int chunkSize) throws IOException, UnsupportedAttributeTypeException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be positive.");
+		}
+		this.file = file;
+		this.sparseMode = sparseMode;
+		this.chunkSize = chunkSize;
+		this.relationMetaData = new KVStore();
+		this.attributes = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			this.fileSize = channel.size();
+			this.dataStart = this.readHeader(channel, columnWithClassIndex);
+		}
+		if (!this.relationMetaData.containsKey(ArffDatasetAdapter.K_CLASS_INDEX) || this.relationMetaData.getAsInt(ArffDatasetAdapter.K_CLASS_INDEX) < 0) {
+			this.relationMetaData.put(ArffDatasetAdapter.K_CLASS_INDEX, this.attributes.size() - 1);
+		}
+		this.classIndex = this.relationMetaData.getAsInt(ArffDatasetAdapter.K_CLASS_INDEX);
+		this.categoricalValueCaches = new ArrayList<>(this.attributes.size());
+		for (IAttribute att : this.attributes) {
+			this.categoricalValueCaches.add(att instanceof IntBasedCategoricalAttribute ? new ConcurrentHashMap<>() : null);
+		}
+		this.numericAttributes = new boolean[this.attributes.size()];
+		for (int i = 0; i < this.numericAttributes.length; i++) {
+			this.numericAttributes[i] = this.attributes.get(i) instanceof NumericAttribute;
+		}
+	}
+
+	/**
+	 * Parses the header line by line and returns the offset of the first byte after the data declaration.
+	 */
+	private long readHeader(final FileChannel channel, final int columnWithClassIndex) throws IOException, UnsupportedAttributeTypeException {
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		LineBuilder lineBuilder = new LineBuilder();
+		long position = 0;
+		while (position < this.fileSize) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				byte b = buffer.get(i);
+				if (b != '\n') {
+					lineBuilder.append(b);
+					continue;
+				}
+				String line = lineBuilder.toStringAndReset();
+				if (this.processHeaderLine(line, columnWithClassIndex)) {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		if (lineBuilder.length() > 0 && this.processHeaderLine(lineBuilder.toStringAndReset(), columnWithClassIndex)) {
+			return this.fileSize;
+		}
+		throw new IllegalArgumentException("The file " + this.file + " has no data section.");
+	}
+
+	/**
+	 * @return true iff the line is the data declaration
+	 */
+	private boolean processHeaderLine(final String rawLine, final int columnWithClassIndex) throws UnsupportedAttributeTypeException {
+		String line = rawLine.endsWith("\r") ? rawLine.substring(0, rawLine.length() - 1) : rawLine;
+		String lowerCaseLine = line.toLowerCase();
+		if (lowerCaseLine.startsWith(EArffItem.RELATION.getValue())) {
+			this.relationMetaData.clear();
+			this.relationMetaData.putAll(ArffDatasetAdapter.parseRelation(line));
+			if (columnWithClassIndex >= 0) {
+				this.relationMetaData.put(ArffDatasetAdapter.K_CLASS_INDEX, columnWithClassIndex);
+			}
+		} else if (lowerCaseLine.startsWith(EArffItem.ATTRIBUTE.getValue())) {
+			this.attributes.add(ArffDatasetAdapter.parseAttribute(line));
+		} else if (lowerCaseLine.startsWith(EArffItem.DATA.getValue())) {
+			if (!lowerCaseLine.trim().equals(EArffItem.DATA.getValue())) {
+				throw new IllegalArgumentException("There is more in the data declaration line than just " + EArffItem.DATA.getValue() + ", which is not supported: " + line);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	public List<IAttribute> getAttributes() {
+		return Collections.unmodifiableList(this.attributes);
+	}
+
+	public int getClassIndex() {
+		return this.classIndex;
+	}
+
+	/**
+	 * @return An empty dataset with the schema declared in the header of the file.
+	 */
+	public ILabeledDataset<ILabeledInstance> createEmptyDataset() {
+		return ArffDatasetAdapter.createDataset(this.relationMetaData, this.attributes);
+	}
+
+	/**
+	 * Reads all instances of the file into a dataset.
+	 *
+	 * @param parallel
+	 *            Whether the chunks of the data section are parsed in parallel (using the common fork join pool).
+	 * @return The dataset.
+	 * @throws DatasetDeserializationFailedException
+	 */
+	public ILabeledDataset<ILabeledInstance> readDataset(final boolean parallel) throws DatasetDeserializationFailedException {
+		try {
+			List<long[]> chunks = this.computeChunks();
+			IntStream chunkIndices = IntStream.range(0, chunks.size());
+			if (parallel) {
+				chunkIndices = chunkIndices.parallel();
+			}
+			List<List<ILabeledInstance>> parsedChunks = chunkIndices.mapToObj(i -> this.parseChunk(chunks.get(i))).collect(Collectors.toList());
+			ILabeledDataset<ILabeledInstance> dataset = this.createEmptyDataset();
+			for (List<ILabeledInstance> parsedChunk : parsedChunks) {
+				dataset.addAll(parsedChunk);
+			}
+			return dataset;
+		} catch (IOException | UncheckedIOException | IllegalArgumentException | IllegalStateException e) {
+			throw new DatasetDeserializationFailedException("Could not deserialize dataset from ARFF file " + this.file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads all instances of the file into a {@link ColumnarDataset}. The chunks are parsed into primitive columns, which are then appended to the dataset.
+	 *
+	 * @param parallel
+	 *            Whether the chunks of the data section are parsed in parallel (using the common fork join pool).
+	 * @return The dataset.
+	 * @throws DatasetDeserializationFailedException
+	 */
+	public ColumnarDataset readColumnarDataset(final boolean parallel) throws DatasetDeserializationFailedException {
+		try {
+			List<long[]> chunks = this.computeChunks();
+			IntStream chunkIndices = IntStream.range(0, chunks.size());
+			if (parallel) {
+				chunkIndices = chunkIndices.parallel();
+			}
+			List<ParsedColumns> parsedChunks = chunkIndices.mapToObj(i -> this.parseChunkIntoColumns(chunks.get(i))).collect(Collectors.toList());
+			ColumnarDataset dataset = new ColumnarDataset(this.createEmptyDataset().getInstanceSchema());
+			for (ParsedColumns parsedChunk : parsedChunks) {
+				parsedChunk.addTo(dataset);
+			}
+			return dataset;
+		} catch (IOException | UncheckedIOException | IllegalArgumentException | IllegalStateException e) {
+			throw new DatasetDeserializationFailedException("Could not deserialize dataset from ARFF file " + this.file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Streams the instances of the file chunk by chunk. I/O errors are thrown as {@link UncheckedIOException}.
+	 */
+	@Override
+	public Iterator<ILabeledInstance> iterator() {
+		final List<long[]> chunks;
+		try {
+			chunks = this.computeChunks();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new Iterator<ILabeledInstance>() {
+			private int nextChunk = 0;
+			private Iterator<ILabeledInstance> currentChunk = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!this.currentChunk.hasNext() && this.nextChunk < chunks.size()) {
+					this.currentChunk = MappedArffReader.this.parseChunk(chunks.get(this.nextChunk++)).iterator();
+				}
+				return this.currentChunk.hasNext();
+			}
+
+			@Override
+			public ILabeledInstance next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return this.currentChunk.next();
+			}
+		};
+	}
+
+	/**
+	 * Counts the instances, i.e. the non-empty lines of the data section that are not comments, without parsing them.
+	 *
+	 * @return The number of instances in the file.
+	 * @throws IOException
+	 */
+	public int countInstances() throws IOException {
+		int count = 0;
+		for (long[] chunk : this.computeChunks()) {
+			MappedByteBuffer buffer = this.map(chunk);
+			int limit = buffer.limit();
+			int lineStart = 0;
+			while (lineStart < limit) {
+				int lineEnd = indexOfLineEnd(buffer, lineStart, limit);
+				int first = skipWhitespace(buffer, lineStart, lineEnd);
+				if (first < lineEnd && buffer.get(first) != '%') {
+					count++;
+				}
+				lineStart = lineEnd + 1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Cuts the data section into chunks of roughly the chunk size that end at line boundaries.
+	 *
+	 * @return List of pairs of start offset (inclusive) and end offset (exclusive).
+	 */
+	private List<long[]> computeChunks() throws IOException {
+		List<long[]> chunks = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+			long start = this.dataStart;
+			while (start < this.fileSize) {
+				long end = Math.min(this.fileSize, start + this.chunkSize);
+				end = this.findLineEnd(channel, buffer, end);
+				chunks.add(new long[] { start, end });
+				start = end;
+			}
+		}
+		return chunks;
+	}
+
+	/**
+	 * @return The offset after the first line break at or after the given position (or the file size).
+	 */
+	private long findLineEnd(final FileChannel channel, final ByteBuffer buffer, final long from) throws IOException {
+		long position = from;
+		while (position < this.fileSize) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return this.fileSize;
+	}
+
+	private MappedByteBuffer map(final long[] chunk) throws IOException {
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+		}
+	}
+
+	private ParsedColumns parseChunkIntoColumns(final long[] chunk) {
+		MappedByteBuffer buffer;
+		try {
+			buffer = this.map(chunk);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		int numAttributes = this.attributes.size();
+		ParsedColumns columns = new ParsedColumns(this.numericAttributes, this.classIndex);
+		int limit = buffer.limit();
+		int[] tokenStarts = new int[numAttributes + 1];
+		int[] tokenEnds = new int[numAttributes + 1];
+		int lineStart = 0;
+		while (lineStart < limit) {
+			int lineEnd = indexOfLineEnd(buffer, lineStart, limit);
+			int first = skipWhitespace(buffer, lineStart, lineEnd);
+			int last = lineEnd;
+			while (last > first && isWhitespace(buffer.get(last - 1))) {
+				last--;
+			}
+			if (first < last && buffer.get(first) != '%') {
+				if (!this.sparseMode && buffer.get(first) != '{' && this.tokenizeDenseLine(buffer, first, last, tokenStarts, tokenEnds)) {
+					int row = columns.addRow();
+					for (int i = 0; i < numAttributes; i++) {
+						this.parseValueIntoColumns(i, buffer, tokenStarts[i], tokenEnds[i], columns, row);
+					}
+				} else {
+					columns.addInstance(this.parseLineAsString(decode(buffer, first, last)));
+				}
+			}
+			lineStart = lineEnd + 1;
+		}
+		return columns;
+	}
+
+	private List<ILabeledInstance> parseChunk(final long[] chunk) {
+		MappedByteBuffer buffer;
+		try {
+			buffer = this.map(chunk);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		List<ILabeledInstance> instances = new ArrayList<>();
+		int limit = buffer.limit();
+		int numAttributes = this.attributes.size();
+		int[] tokenStarts = new int[numAttributes + 1];
+		int[] tokenEnds = new int[numAttributes + 1];
+		int lineStart = 0;
+		while (lineStart < limit) {
+			int lineEnd = indexOfLineEnd(buffer, lineStart, limit);
+			int first = skipWhitespace(buffer, lineStart, lineEnd);
+			int last = lineEnd;
+			while (last > first && isWhitespace(buffer.get(last - 1))) {
+				last--;
+			}
+			if (first < last && buffer.get(first) != '%') {
+				ILabeledInstance instance = null;
+				if (!this.sparseMode && buffer.get(first) != '{') {
+					instance = this.parseDenseLine(buffer, first, last, tokenStarts, tokenEnds);
+				}
+				if (instance == null) {
+					instance = this.parseLineAsString(decode(buffer, first, last));
+				}
+				instances.add(instance);
+			}
+			lineStart = lineEnd + 1;
+		}
+		return instances;
+	}
+
+	/**
+	 * Parses a dense line directly from the bytes of the buffer.
+	 *
+	 * @return The instance or null if the line is to be parsed by the string-based parser of {@link ArffDatasetAdapter}.
+	 */
+	private ILabeledInstance parseDenseLine(final ByteBuffer buffer, final int from, final int to, final int[] tokenStarts, final int[] tokenEnds) {
+		if (!this.tokenizeDenseLine(buffer, from, to, tokenStarts, tokenEnds)) {
+			return null;
+		}
+		int numAttributes = this.attributes.size();
+		Object[] values = new Object[numAttributes - 1];
+		Object label = null;
+		int valueIndex = 0;
+		for (int i = 0; i < numAttributes; i++) {
+			Object value = this.parseValue(i, buffer, tokenStarts[i], tokenEnds[i]);
+			if (i == this.classIndex) {
+				label = value;
+			} else {
+				values[valueIndex++] = value;
+			}
+		}
+		return new DenseInstance(values, label);
+	}
+
+	/**
+	 * Splits a dense line at the commas. Lines that do not have exactly one value per attribute are left to the string-based parser, which also creates the appropriate error messages.
+	 *
+	 * @return true iff the line has been split into one token per attribute
+	 */
+	private boolean tokenizeDenseLine(final ByteBuffer buffer, final int from, final int to, final int[] tokenStarts, final int[] tokenEnds) {
+		int numAttributes = this.attributes.size();
+		int numTokens = 0;
+		int tokenStart = from;
+		for (int i = from; i <= to; i++) {
+			if (i == to || buffer.get(i) == ',') {
+				if (numTokens == numAttributes) {
+					return false;
+				}
+				tokenStarts[numTokens] = tokenStart;
+				tokenEnds[numTokens++] = i;
+				tokenStart = i + 1;
+			}
+		}
+		return numTokens == numAttributes && !this.looksLikeSparseValue(buffer, tokenStarts[0], tokenEnds[0]);
+	}
+
+	/**
+	 * Conservative version of the detection of sparse lines in {@link ArffDatasetAdapter#parseInstance(boolean, List, int, String)}: every unquoted first value with a space is left to the string-based parser.
+	 */
+	private boolean looksLikeSparseValue(final ByteBuffer buffer, final int from, final int to) {
+		byte first = buffer.get(from);
+		byte last = buffer.get(to - 1);
+		if (to - from >= 2 && ((first == '\'' && last == '\'') || (first == '"' && last == '"'))) {
+			return false;
+		}
+		for (int i = from; i < to; i++) {
+			if (buffer.get(i) == ' ') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Object parseValue(final int attributeIndex, final ByteBuffer buffer, final int from, final int to) {
+		int first = skipWhitespace(buffer, from, to);
+		int last = to;
+		while (last > first && isWhitespace(buffer.get(last - 1))) {
+			last--;
+		}
+		if (last - first == 1 && buffer.get(first) == '?') {
+			return null;
+		}
+		IAttribute attribute = this.attributes.get(attributeIndex);
+		if (attribute instanceof NumericAttribute) {
+			double value = parseDouble(buffer, first, last);
+			if (!Double.isNaN(value)) {
+				return value;
+			}
+			return attribute.deserializeAttributeValue(decode(buffer, from, to));
+		}
+		Map<String, Object> cache = this.categoricalValueCaches.get(attributeIndex);
+		String token = decode(buffer, from, to);
+		if (cache != null) {
+			return cache.computeIfAbsent(token, attribute::deserializeAttributeValue);
+		}
+		return attribute.deserializeAttributeValue(token);
+	}
+
+	/**
+	 * Like {@link #parseValue(int, ByteBuffer, int, int)}, but numeric values that can be parsed from the bytes are written to the columns without boxing them.
+	 */
+	private void parseValueIntoColumns(final int attributeIndex, final ByteBuffer buffer, final int from, final int to, final ParsedColumns columns, final int row) {
+		if (this.numericAttributes[attributeIndex]) {
+			int first = skipWhitespace(buffer, from, to);
+			int last = to;
+			while (last > first && isWhitespace(buffer.get(last - 1))) {
+				last--;
+			}
+			double value = parseDouble(buffer, first, last);
+			if (!Double.isNaN(value)) {
+				columns.setNumericValue(row, attributeIndex, value);
+				return;
+			}
+		}
+		columns.setValue(row, attributeIndex, this.parseValue(attributeIndex, buffer, from, to));
+	}
+
+	private ILabeledInstance parseLineAsString(final String line) {
+		try {
+			return ArffDatasetAdapter.toInstance(ArffDatasetAdapter.parseInstance(this.sparseMode, this.attributes, this.classIndex, line), this.attributes.size() - 1);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Could not parse line " + line, e);
+		}
+	}
+
+	/**
+	 * Parses plain decimal numbers with at most 15 significant digits and a decimal exponent of at most 22, which are exactly representable so that a single multiplication or division yields the correctly rounded
+	 * value (Clinger's fast path).
+	 *
+	 * @return The value or NaN if the token is not of this form, in which case it is to be parsed by {@link Double#parseDouble(String)}.
+	 */
+	static double parseDouble(final ByteBuffer buffer, final int from, final int to) {
+		int i = from;
+		if (i >= to) {
+			return Double.NaN;
+		}
+		boolean negative = false;
+		byte b = buffer.get(i);
+		if (b == '-' || b == '+') {
+			negative = b == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean seenDigit = false;
+		boolean seenPoint = false;
+		for (; i < to; i++) {
+			b = buffer.get(i);
+			if (b >= '0' && b <= '9') {
+				seenDigit = true;
+				if (mantissa == 0 && b == '0') {
+					if (seenPoint) {
+						fractionDigits++;
+					}
+					continue;
+				}
+				if (++digits > MAX_FAST_DIGITS) {
+					return Double.NaN;
+				}
+				mantissa = mantissa * 10 + (b - '0');
+				if (seenPoint) {
+					fractionDigits++;
+				}
+			} else if (b == '.' && !seenPoint) {
+				seenPoint = true;
+			} else {
+				break;
+			}
+		}
+		if (!seenDigit) {
+			return Double.NaN;
+		}
+		int exponent = 0;
+		if (i < to) {
+			b = buffer.get(i);
+			if (b != 'e' && b != 'E') {
+				return Double.NaN;
+			}
+			i++;
+			boolean negativeExponent = false;
+			if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+				negativeExponent = buffer.get(i) == '-';
+				i++;
+			}
+			if (i == to) {
+				return Double.NaN;
+			}
+			for (; i < to; i++) {
+				b = buffer.get(i);
+				if (b < '0' || b > '9' || exponent > 1000) {
+					return Double.NaN;
+				}
+				exponent = exponent * 10 + (b - '0');
+			}
+			if (negativeExponent) {
+				exponent = -exponent;
+			}
+		}
+		exponent -= fractionDigits;
+		double value = mantissa;
+		if (mantissa != 0) {
+			if (exponent < -POWERS_OF_TEN.length + 1 || exponent > POWERS_OF_TEN.length - 1) {
+				return Double.NaN;
+			}
+			value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+		}
+		return negative ? -value : value;
+	}
+
+	private static int indexOfLineEnd(final ByteBuffer buffer, final int from, final int limit) {
+		for (int i = from; i < limit; i++) {
+			if (buffer.get(i) == '\n') {
+				return i;
+			}
+		}
+		return limit;
+	}
+
+	private static int skipWhitespace(final ByteBuffer buffer, final int from, final int to) {
+		int i = from;
+		while (i < to && isWhitespace(buffer.get(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isWhitespace(final byte b) {
+		return b >= 0 && b <= ' ';
+	}
+
+	private static String decode(final ByteBuffer buffer, final int from, final int to) {
+		byte[] bytes = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			bytes[i - from] = buffer.get(i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The values of the instances of a chunk, stored by the attributes of the file. Numeric values are stored in double arrays with a bitmap of the missing values and all other values as objects, where
+	 * missing values are null.
+	 */
+	private static class ParsedColumns {
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private final boolean[] numeric;
+		private final int classIndex;
+		private final double[][] numericValues;
+		private final BitSet[] missingNumericValues;
+		private final Object[][] objectValues;
+		private int numRows = 0;
+		private int capacity = INITIAL_CAPACITY;
+
+		private ParsedColumns(final boolean[] numeric, final int classIndex) {
+			this.numeric = numeric;
+			this.classIndex = classIndex;
+			this.numericValues = new double[numeric.length][];
+			this.missingNumericValues = new BitSet[numeric.length];
+			this.objectValues = new Object[numeric.length][];
+			for (int i = 0; i < numeric.length; i++) {
+				if (numeric[i]) {
+					this.numericValues[i] = new double[this.capacity];
+					this.missingNumericValues[i] = new BitSet();
+				} else {
+					this.objectValues[i] = new Object[this.capacity];
+				}
+			}
+		}
+
+		private int addRow() {
+			if (this.numRows == this.capacity) {
+				this.capacity = this.capacity + (this.capacity >> 1);
+				for (int i = 0; i < this.numeric.length; i++) {
+					if (this.numeric[i]) {
+						this.numericValues[i] = Arrays.copyOf(this.numericValues[i], this.capacity);
+					} else {
+						this.objectValues[i] = Arrays.copyOf(this.objectValues[i], this.capacity);
+					}
+				}
+			}
+			return this.numRows++;
+		}
+
+		/* the attributes of the instances do not include the class attribute */
+		private void addInstance(final ILabeledInstance instance) {
+			int row = this.addRow();
+			Object[] values = instance.getAttributes();
+			for (int i = 0; i < values.length; i++) {
+				this.setValue(row, i < this.classIndex ? i : i + 1, values[i]);
+			}
+			this.setValue(row, this.classIndex, instance.getLabel());
+		}
+
+		private void setNumericValue(final int row, final int attribute, final double value) {
+			this.numericValues[attribute][row] = value;
+		}
+
+		private void setValue(final int row, final int attribute, final Object value) {
+			if (!this.numeric[attribute]) {
+				this.objectValues[attribute][row] = value;
+			} else if (value == null) {
+				this.missingNumericValues[attribute].set(row);
+			} else {
+				this.numericValues[attribute][row] = ((Number) value).doubleValue();
+			}
+		}
+
+		/* in a columnar dataset, the class attribute is the last column */
+		private void addTo(final ColumnarDataset dataset) {
+			int labelColumn = this.numeric.length - 1;
+			for (int row = 0; row < this.numRows; row++) {
+				int index = dataset.addEmptyInstance();
+				for (int i = 0; i < this.numeric.length; i++) {
+					int column = i == this.classIndex ? labelColumn : (i < this.classIndex ? i : i - 1);
+					if (!this.numeric[i]) {
+						if (this.objectValues[i][row] != null) {
+							dataset.setValue(index, column, this.objectValues[i][row]);
+						}
+					} else if (!this.missingNumericValues[i].get(row)) {
+						dataset.setNumericValue(index, column, this.numericValues[i][row]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Growable byte array for the lines of the header.
+	 */
+	private static class LineBuilder {
+		private byte[] bytes = new byte[256];
+		private int length = 0;
+
+		private void append(final byte b) {
+			if (this.length == this.bytes.length) {
+				byte[] grown = new byte[this.bytes.length * 2];
+				System.arraycopy(this.bytes, 0, grown, 0, this.length);
+				this.bytes = grown;
+			}
+			this.bytes[this.length++] = b;
+		}
+
+		private int length() {
+			return this.length;
+		}
+
+		private String toStringAndReset() {
+			String line = new String(this.bytes, 0, this.length, StandardCharsets.UTF_8);
+			this.length = 0;
+			return line;
+		}
+	}
+}
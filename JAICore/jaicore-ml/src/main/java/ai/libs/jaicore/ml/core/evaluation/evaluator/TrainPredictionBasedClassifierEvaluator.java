@@ -1,7 +1,15 @@
 package ai.libs.jaicore.ml.core.evaluation.evaluator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -16,6 +24,8 @@ import org.api4.java.ai.ml.core.evaluation.execution.ILearnerRunReport;
 import org.api4.java.ai.ml.core.evaluation.execution.LearnerExecutionFailedException;
 import org.api4.java.ai.ml.core.evaluation.execution.LearnerExecutionInterruptedException;
 import org.api4.java.ai.ml.core.learner.ISupervisedLearner;
+import org.api4.java.algorithm.Timeout;
+import org.api4.java.algorithm.exceptions.AlgorithmTimeoutedException;
 import org.api4.java.common.attributedobjects.ObjectEvaluationFailedException;
 import org.api4.java.common.control.ILoggingCustomizable;
 import org.api4.java.common.event.IEventEmitter;
@@ -24,8 +34,10 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.eventbus.EventBus;
 
+import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.events.TrainTestSplitEvaluationCompletedEvent;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.events.TrainTestSplitEvaluationFailedEvent;
+import ai.libs.jaicore.timing.TimedComputation;
 
 public class TrainPredictionBasedClassifierEvaluator implements IClassifierEvaluator, ILoggingCustomizable, IEventEmitter<Object> {
 
@@ -35,6 +47,9 @@ public class TrainPredictionBasedClassifierEvaluator implements IClassifierEvalu
 	private final IAggregatedPredictionPerformanceMeasure metric;
 	private final EventBus eventBus = new EventBus();
 	private boolean hasListeners;
+	private ExecutorService foldExecutor;
+	private UnaryOperator<ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>> learnerCopier;
+	private Timeout foldTimeout;
 
 	public TrainPredictionBasedClassifierEvaluator(final IFixedDatasetSplitSetGenerator<ILabeledDataset<?>> splitGenerator, final IAggregatedPredictionPerformanceMeasure<?, ?> metric) {
 		super();
@@ -52,36 +67,14 @@ public class TrainPredictionBasedClassifierEvaluator implements IClassifierEvalu
 				throw new IllegalStateException("Number of folds for each split should be 2 but is " + splitSet.getNumberOfFoldsPerSplit() + "! Split generator: " + this.splitGenerator);
 			}
 			int n = splitSet.getNumberOfSplits();
-			List<ILearnerRunReport> reports = new ArrayList<>(n);
-			for (int i = 0; i < n; i++) {
-				List<ILabeledDataset<? extends ILabeledInstance>> folds = splitSet.getFolds(i);
-				this.logger.debug("Executing learner {} on folds of sizes {} (train) and {} (test) using {}.", learner, folds.get(0).size(), folds.get(1).size(), this.executor.getClass().getName());
-				ILearnerRunReport report;
-				try {
-					report = this.executor.execute(learner, folds.get(0), folds.get(1));
-					this.logger.trace("Obtained report. Training times was {}ms, testing time {}ms. Ground truth vector: {}, prediction vector: {}. Pipeline: {}", report.getTrainEndTime() - report.getTrainStartTime(),
-							report.getTestEndTime() - report.getTestStartTime(), report.getPredictionDiffList().getGroundTruthAsList(), report.getPredictionDiffList().getPredictionsAsList(), learner);
-				} catch (LearnerExecutionInterruptedException e) {
-					this.logger.info("Received interrupt of training in iteration #{} after a total evaluation time of {}ms. Sending an event over the bus and forwarding the exception.", i + 1, System.currentTimeMillis() - evaluationStart);
-					ILabeledDataset<?> train = folds.get(0);
-					ILabeledDataset<?> test = folds.get(1);
-					ILearnerRunReport failReport = new LearnerRunReport(train, test, e.getTrainTimeStart(), e.getTrainTimeEnd(), e.getTestTimeStart(), e.getTestTimeEnd(), e);
-					this.eventBus.post(new TrainTestSplitEvaluationFailedEvent<>(learner, failReport));
-					throw e;
-				} catch (LearnerExecutionFailedException e) { // cannot be merged with the above clause, because then the only common supertype is "Exception", which does not have these methods
-					this.logger.info("Catching {} in iteration #{} after a total evaluation time of {}ms. Sending an event over the bus and forwarding the exception.", e.getClass().getName(), i + 1,
-							System.currentTimeMillis() - evaluationStart);
-					ILabeledDataset<?> train = folds.get(0);
-					ILabeledDataset<?> test = folds.get(1);
-					ILearnerRunReport failReport = new LearnerRunReport(train, test, e.getTrainTimeStart(), e.getTrainTimeEnd(), e.getTestTimeStart(), e.getTestTimeEnd(), e);
-					this.eventBus.post(new TrainTestSplitEvaluationFailedEvent<>(learner, failReport));
-					throw e;
-				}
-
-				if (this.hasListeners) {
-					this.eventBus.post(new TrainTestSplitEvaluationCompletedEvent<>(learner, report));
+			List<ILearnerRunReport> reports;
+			if (this.foldExecutor != null && n > 1) {
+				reports = this.executeSplitsInParallel(learner, splitSet, evaluationStart);
+			} else {
+				reports = new ArrayList<>(n);
+				for (int i = 0; i < n; i++) {
+					reports.add(this.executeSplit(learner, splitSet.getFolds(i), i, evaluationStart));
 				}
-				reports.add(report);
 			}
 			this.logger.debug("Compute metric ({}) for the diff of predictions and ground truth.", this.metric.getClass().getName());
 			double score = this.metric.loss(reports.stream().map(ILearnerRunReport::getPredictionDiffList).collect(Collectors.toList()));
@@ -93,6 +86,136 @@ public class TrainPredictionBasedClassifierEvaluator implements IClassifierEvalu
 		}
 	}
 
+	private ILearnerRunReport executeSplit(final ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> learner, final List<ILabeledDataset<? extends ILabeledInstance>> folds, final int i,
+			final long evaluationStart) throws LearnerExecutionFailedException, LearnerExecutionInterruptedException {
+		this.logger.debug("Executing learner {} on folds of sizes {} (train) and {} (test) using {}.", learner, folds.get(0).size(), folds.get(1).size(), this.executor.getClass().getName());
+		ILearnerRunReport report;
+		try {
+			report = this.executor.execute(learner, folds.get(0), folds.get(1));
+			this.logger.trace("Obtained report. Training times was {}ms, testing time {}ms. Ground truth vector: {}, prediction vector: {}. Pipeline: {}", report.getTrainEndTime() - report.getTrainStartTime(),
+					report.getTestEndTime() - report.getTestStartTime(), report.getPredictionDiffList().getGroundTruthAsList(), report.getPredictionDiffList().getPredictionsAsList(), learner);
+		} catch (LearnerExecutionInterruptedException e) {
+			this.logger.info("Received interrupt of training in iteration #{} after a total evaluation time of {}ms. Sending an event over the bus and forwarding the exception.", i + 1, System.currentTimeMillis() - evaluationStart);
+			ILabeledDataset<?> train = folds.get(0);
+			ILabeledDataset<?> test = folds.get(1);
+			ILearnerRunReport failReport = new LearnerRunReport(train, test, e.getTrainTimeStart(), e.getTrainTimeEnd(), e.getTestTimeStart(), e.getTestTimeEnd(), e);
+			this.eventBus.post(new TrainTestSplitEvaluationFailedEvent<>(learner, failReport));
+			throw e;
+		} catch (LearnerExecutionFailedException e) { // cannot be merged with the above clause, because then the only common supertype is "Exception", which does not have these methods
+			this.logger.info("Catching {} in iteration #{} after a total evaluation time of {}ms. Sending an event over the bus and forwarding the exception.", e.getClass().getName(), i + 1,
+					System.currentTimeMillis() - evaluationStart);
+			ILabeledDataset<?> train = folds.get(0);
+			ILabeledDataset<?> test = folds.get(1);
+			ILearnerRunReport failReport = new LearnerRunReport(train, test, e.getTrainTimeStart(), e.getTrainTimeEnd(), e.getTestTimeStart(), e.getTestTimeEnd(), e);
+			this.eventBus.post(new TrainTestSplitEvaluationFailedEvent<>(learner, failReport));
+			throw e;
+		}
+
+		if (this.hasListeners) {
+			this.eventBus.post(new TrainTestSplitEvaluationCompletedEvent<>(learner, report));
+		}
+		return report;
+	}
+
+	/**
+	 * Executes a copy of the learner on each split using the fold executor. Reports are returned in the order of the splits.
+	 * As soon as one split fails (or times out), all other split executions are cancelled.
+	 */
+	private List<ILearnerRunReport> executeSplitsInParallel(final ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> learner,
+			final IDatasetSplitSet<ILabeledDataset<? extends ILabeledInstance>> splitSet, final long evaluationStart) throws InterruptedException, LearnerExecutionFailedException, SplitFailedException {
+		int n = splitSet.getNumberOfSplits();
+		this.logger.debug("Executing {} splits in parallel using {}.", n, this.foldExecutor);
+		CompletionService<Pair<Integer, ILearnerRunReport>> completionService = new ExecutorCompletionService<>(this.foldExecutor);
+		List<Future<Pair<Integer, ILearnerRunReport>>> futures = new ArrayList<>(n);
+		ILearnerRunReport[] reports = new ILearnerRunReport[n];
+		try {
+			for (int i = 0; i < n; i++) {
+				final int split = i;
+				final List<ILabeledDataset<? extends ILabeledInstance>> folds = splitSet.getFolds(i);
+				final ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> learnerCopy = this.learnerCopier.apply(learner);
+				futures.add(completionService.submit(() -> {
+					if (this.foldTimeout == null) {
+						return new Pair<>(split, this.executeSplit(learnerCopy, folds, split, evaluationStart));
+					}
+					try {
+						return new Pair<>(split, TimedComputation.compute(() -> this.executeSplit(learnerCopy, folds, split, evaluationStart), this.foldTimeout, "Timeout for split #" + (split + 1)));
+					} catch (AlgorithmTimeoutedException e) { // the failed event has already been posted by executeSplit for the interrupted execution
+						long now = System.currentTimeMillis();
+						this.logger.info("Split #{} timed out after a total evaluation time of {}ms.", split + 1, now - evaluationStart);
+						throw new LearnerExecutionFailedException(-1, now, e);
+					} catch (ExecutionException e) {
+						Throwable cause = e.getCause();
+						if (cause instanceof Error) {
+							throw (Error) cause;
+						}
+						if (cause instanceof Exception) {
+							throw (Exception) cause;
+						}
+						throw e;
+					}
+				}));
+			}
+
+			/* collect the results in the order of their completion, so that the first failure is noticed immediately */
+			for (int i = 0; i < n; i++) {
+				Future<Pair<Integer, ILearnerRunReport>> future = completionService.take();
+				try {
+					Pair<Integer, ILearnerRunReport> result = future.get();
+					reports[result.getX()] = result.getY();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					this.logger.info("Execution of a split failed with {}. Cancelling the remaining splits.", cause.getClass().getName());
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					if (cause instanceof LearnerExecutionFailedException) {
+						throw (LearnerExecutionFailedException) cause;
+					}
+					if (cause instanceof LearnerExecutionInterruptedException) {
+						throw (LearnerExecutionInterruptedException) cause;
+					}
+					throw new IllegalStateException("Unexpected exception in split execution.", cause);
+				}
+			}
+			return Arrays.asList(reports);
+		} finally {
+			futures.forEach(f -> f.cancel(true));
+		}
+	}
+
+	/**
+	 * Lets the splits of a split set be executed in parallel on the given executor. Since learners are stateful, each split is executed on an own copy of the learner that is created with the given copier.
+	 *
+	 * @param foldExecutor
+	 *            The executor on which splits are executed; null to execute them sequentially in the calling thread.
+	 * @param learnerCopier
+	 *            Function that creates an independent, untrained copy of a learner.
+	 */
+	public void setFoldExecutor(final ExecutorService foldExecutor, final UnaryOperator<ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>> learnerCopier) {
+		if (foldExecutor != null) {
+			Objects.requireNonNull(learnerCopier, "A learner copier is required to execute splits in parallel.");
+		}
+		this.foldExecutor = foldExecutor;
+		this.learnerCopier = learnerCopier;
+	}
+
+	public ExecutorService getFoldExecutor() {
+		return this.foldExecutor;
+	}
+
+	/**
+	 * Sets a timeout for the execution of a single split. This timeout is only effective if splits are executed in parallel.
+	 *
+	 * @param foldTimeout
+	 */
+	public void setFoldTimeout(final Timeout foldTimeout) {
+		this.foldTimeout = foldTimeout;
+	}
+
+	public Timeout getFoldTimeout() {
+		return this.foldTimeout;
+	}
+
 	public IFixedDatasetSplitSetGenerator<ILabeledDataset<? extends ILabeledInstance>> getSplitGenerator() {
 		return this.splitGenerator;
 	}
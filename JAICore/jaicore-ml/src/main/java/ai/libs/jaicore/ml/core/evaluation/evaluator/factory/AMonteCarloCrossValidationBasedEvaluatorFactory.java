@@ -1,6 +1,8 @@
 package ai.libs.jaicore.ml.core.evaluation.evaluator.factory;
 
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.function.UnaryOperator;
 
 import org.api4.java.ai.ml.core.IDataConfigurable;
 import org.api4.java.ai.ml.core.dataset.splitter.IDatasetSplitter;
@@ -8,6 +10,7 @@ import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
 import org.api4.java.ai.ml.core.evaluation.IPredictionPerformanceMetricConfigurable;
 import org.api4.java.ai.ml.core.evaluation.supervised.loss.IDeterministicPredictionPerformanceMeasure;
+import org.api4.java.ai.ml.core.learner.ISupervisedLearner;
 import org.api4.java.common.control.IRandomConfigurable;
 
 /**
@@ -29,6 +32,8 @@ public abstract class AMonteCarloCrossValidationBasedEvaluatorFactory<F extends
 	private int timeoutForSolutionEvaluation;
 	protected IDeterministicPredictionPerformanceMeasure<?, ?> metric;
 	private boolean cacheSplitSets = false;
+	private ExecutorService foldExecutor;
+	private UnaryOperator<ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>> learnerCopier;
 
 	/**
 	 * Standard c'tor.
@@ -189,4 +194,27 @@ public abstract class AMonteCarloCrossValidationBasedEvaluatorFactory<F extends
 	public boolean getCacheSplitSets() {
 		return this.cacheSplitSets;
 	}
+
+	/**
+	 * Configures the evaluators to execute the splits in parallel, each on an own copy of the learner.
+	 *
+	 * @param foldExecutor
+	 *            The executor on which the splits are executed; null to execute them sequentially.
+	 * @param learnerCopier
+	 *            Function that creates an independent, untrained copy of a learner.
+	 * @return The factory object.
+	 */
+	public F withFoldExecutor(final ExecutorService foldExecutor, final UnaryOperator<ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>> learnerCopier) {
+		this.foldExecutor = foldExecutor;
+		this.learnerCopier = learnerCopier;
+		return this.getSelf();
+	}
+
+	public ExecutorService getFoldExecutor() {
+		return this.foldExecutor;
+	}
+
+	public UnaryOperator<ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>> getLearnerCopier() {
+		return this.learnerCopier;
+	}
 }
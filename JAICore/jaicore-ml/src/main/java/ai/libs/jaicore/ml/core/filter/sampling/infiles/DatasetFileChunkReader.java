@@ -0,0 +1,160 @@
+package ai.libs.jaicore.ml.core.filter.sampling.infiles;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the datapoints of a dataset file in chunks through a buffered file channel.
+ *
+ * Lines are split on the raw bytes of the buffer and only decoded once they are complete, which is safe for UTF-8 since no byte of a multi-byte character equals a line feed. Empty lines and comments
+ * are skipped, and the returned datapoints are trimmed. If the file has an ARFF header, all lines up to and including the '@data' line are skipped.
+ */
+class DatasetFileChunkReader implements Closeable {
+
+	static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	private static final String DATA_TAG = "@data";
+
+	private final FileChannel channel;
+	private final long size;
+	private ByteBuffer buffer;
+	private int scanPosition;
+	private boolean endOfFile;
+	private boolean dataStarted;
+	private long bytesRead;
+
+	/**
+	 * @param file
+	 *            The dataset file.
+	 * @param hasHeader
+	 *            If true, the datapoints start after the '@data' line, otherwise every line is a datapoint.
+	 * @param bufferSize
+	 *            The initial size of the buffer in bytes. The buffer grows if a single line does not fit into it.
+	 * @throws IOException
+	 *             Could not open the file.
+	 */
+	DatasetFileChunkReader(final File file, final boolean hasHeader, final int bufferSize) throws IOException {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size must be positive but is " + bufferSize);
+		}
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.size = this.channel.size();
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.buffer.flip();
+		this.dataStarted = !hasHeader;
+	}
+
+	DatasetFileChunkReader(final File file, final boolean hasHeader) throws IOException {
+		this(file, hasHeader, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @return The next datapoint of the file, or null if the end of the file has been reached.
+	 * @throws IOException
+	 *             Could not read from the file.
+	 */
+	String nextDatapoint() throws IOException {
+		String line;
+		while ((line = this.readLine()) != null) {
+			String trimmedLine = line.trim();
+			if (trimmedLine.isEmpty() || trimmedLine.charAt(0) == '%') {
+				continue;
+			}
+			if (this.dataStarted) {
+				return trimmedLine;
+			}
+			if (trimmedLine.equals(DATA_TAG)) {
+				this.dataStarted = true;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads datapoints until (at least) the given number of bytes has been consumed from the file or the end of the file has been reached.
+	 *
+	 * @param maxBytes
+	 *            The number of bytes after which the chunk is complete.
+	 * @return The datapoints of the chunk, which is empty if and only if the end of the file has been reached.
+	 * @throws IOException
+	 *             Could not read from the file.
+	 */
+	List<String> readChunk(final long maxBytes) throws IOException {
+		List<String> chunk = new ArrayList<>();
+		long start = this.bytesRead;
+		String datapoint;
+		while (this.bytesRead - start < maxBytes && (datapoint = this.nextDatapoint()) != null) {
+			chunk.add(datapoint);
+		}
+		return chunk;
+	}
+
+	/**
+	 * @return The number of bytes of the file that have been consumed so far.
+	 */
+	long getBytesRead() {
+		return this.bytesRead;
+	}
+
+	/**
+	 * @return The size of the file in bytes.
+	 */
+	long getSize() {
+		return this.size;
+	}
+
+	private String readLine() throws IOException {
+		byte[] bytes = this.buffer.array();
+		while (true) {
+			for (int i = this.scanPosition; i < this.buffer.limit(); i++) {
+				if (bytes[i] == '\n') {
+					return this.consumeLine(i, i + 1);
+				}
+			}
+			this.scanPosition = this.buffer.limit();
+			if (this.endOfFile) {
+				return this.buffer.hasRemaining() ? this.consumeLine(this.buffer.limit(), this.buffer.limit()) : null;
+			}
+			this.fill();
+			bytes = this.buffer.array();
+		}
+	}
+
+	/* returns the line from the current position up to the given end (excluding a trailing carriage return) and moves the position to the given next position */
+	private String consumeLine(final int end, final int next) {
+		int start = this.buffer.position();
+		int lineEnd = end > start && this.buffer.array()[end - 1] == '\r' ? end - 1 : end;
+		String line = new String(this.buffer.array(), start, lineEnd - start, StandardCharsets.UTF_8);
+		this.bytesRead += next - start;
+		this.buffer.position(next);
+		this.scanPosition = next;
+		return line;
+	}
+
+	private void fill() throws IOException {
+		this.scanPosition -= this.buffer.position();
+		this.buffer.compact();
+		if (!this.buffer.hasRemaining()) { // a single line fills the whole buffer
+			ByteBuffer largerBuffer = ByteBuffer.allocate(this.buffer.capacity() * 2);
+			this.buffer.flip();
+			largerBuffer.put(this.buffer);
+			this.buffer = largerBuffer;
+		}
+		if (this.channel.read(this.buffer) < 0) {
+			this.endOfFile = true;
+		}
+		this.buffer.flip();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+}
@@ -1,29 +1,59 @@
 package ai.libs.jaicore.ml.core.filter.sampling.infiles;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.api4.java.algorithm.exceptions.AlgorithmExecutionCanceledException;
 import org.api4.java.common.control.ICancelable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import ai.libs.jaicore.basic.TempFileHandler;
 
 /**
- * Sorts a Dataset file with a Mergesort. A TempFileHandler can be given or a
+ * Sorts a Dataset file with an external Mergesort. A TempFileHandler can be given or a
  * new one will be created otherwise.
  *
+ * The datapoints are read in runs, which are sorted in memory in parallel and written to temporary files. By default, a run has 64MB or less, so that the runs held in memory take no more than half of
+ * the maximum heap size. The sorted runs are then merged in a single k-way merge (or, for very many runs, in several passes). If all datapoints fit into a single run, no temporary files are used at all. All files are read and written through buffered file channels.
+ *
  * @author Lukas Brandt
  */
 public class DatasetFileSorter implements ICancelable {
 
+	private static final Logger logger = LoggerFactory.getLogger(DatasetFileSorter.class);
+
+	private static final long MAX_DEFAULT_RUN_SIZE_IN_BYTES = 64L << 20;
+	private static final long MIN_DEFAULT_RUN_SIZE_IN_BYTES = 1L << 20;
+	private static final double MAX_HEAP_SHARE_OF_RUNS = 0.5;
+	private static final int HEAP_BYTES_PER_FILE_BYTE = 4; // a character takes up to two bytes in a string, plus the overhead of the strings and the references to them in the chunk and the sorted array
+	private static final int MAX_RUNS_PER_MERGE = 64;
+	private static final int MERGE_BUFFER_SIZE = 1 << 16;
+	private static final int WRITE_BUFFER_SIZE = 1 << 20;
+	private static final int CHECK_INTERVAL = 10000;
+
 	private File datasetFile;
 	private TempFileHandler tempFileHandler;
 	private boolean usesOwnTempFileHandler;
-	private boolean canceled;
+	private volatile boolean canceled;
+	private long runSizeInBytes = -1;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
 
 	// Default comperator, which compared the single features as strings
 	private Comparator<String> comparator = (s1, s2) -> {
@@ -39,6 +69,23 @@ public class DatasetFileSorter implements ICancelable {
 		return 0;
 	};
 
+	/* the position of a sorted run in the k-way merge */
+	private static class RunCursor {
+		private final int run;
+		private final DatasetFileChunkReader reader;
+		private String datapoint;
+
+		private RunCursor(final int run, final DatasetFileChunkReader reader) {
+			this.run = run;
+			this.reader = reader;
+		}
+
+		private boolean advance() throws IOException {
+			this.datapoint = this.reader.nextDatapoint();
+			return this.datapoint != null;
+		}
+	}
+
 	public DatasetFileSorter(final File datasetFile, final TempFileHandler tempFileHandler) {
 		this.datasetFile = datasetFile;
 		if (!datasetFile.exists()) {
@@ -55,149 +102,229 @@ public class DatasetFileSorter implements ICancelable {
 
 	/**
 	 * @param comparator
-	 *            Custom comparator for the dataset file lines.
+	 *            Custom comparator for the dataset file lines. It may be used by several threads at the same time.
 	 */
 	public void setComparator(final Comparator<String> comparator) {
 		this.comparator = comparator;
 	}
 
 	/**
+	 * @param runSizeInBytes
+	 *            The number of bytes of the dataset file that are sorted in memory at once. At most one run per thread plus the one being read are held in memory at the same time, where the first
+	 *            two runs are read before any of them is sorted to find out whether a single run suffices. On the heap, a run takes several times its size in the file. By default, the run size is
+	 *            derived from the maximum heap size and the number of threads.
+	 */
+	public void setRunSizeInBytes(final long runSizeInBytes) {
+		if (runSizeInBytes <= 0) {
+			throw new IllegalArgumentException("The run size must be positive but is " + runSizeInBytes);
+		}
+		this.runSizeInBytes = runSizeInBytes;
+	}
+
+	/**
+	 * @param numThreads
+	 *            The number of threads that sort runs in parallel.
+	 */
+	public void setNumThreads(final int numThreads) {
+		if (numThreads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive but is " + numThreads);
+		}
+		this.numThreads = numThreads;
+	}
+
+	private long getRunSizeInBytes() {
+		if (this.runSizeInBytes > 0) {
+			return this.runSizeInBytes;
+		}
+		long heapForRuns = (long) (Runtime.getRuntime().maxMemory() * MAX_HEAP_SHARE_OF_RUNS);
+		long runSize = heapForRuns / HEAP_BYTES_PER_FILE_BYTE / (this.numThreads + 1);
+		return Math.max(MIN_DEFAULT_RUN_SIZE_IN_BYTES, Math.min(MAX_DEFAULT_RUN_SIZE_IN_BYTES, runSize));
+	}
+
+	/**
+	 * Writes the header of the dataset file followed by its sorted datapoints into a new file.
 	 *
 	 * @param sortedFilePath
-	 * @return
+	 *            The path of the file for the sorted dataset.
+	 * @return The file with the sorted dataset.
 	 * @throws IOException
+	 *             Could not read the dataset file or write the sorted or a temporary file.
 	 * @throws InterruptedException
+	 *             The thread has been interrupted while sorting.
 	 * @throws AlgorithmExecutionCanceledException
+	 *             The sorter has been canceled.
 	 */
 	public File sort(final String sortedFilePath) throws IOException, InterruptedException, AlgorithmExecutionCanceledException {
-		IOException exception;
-		try (FileWriter fileWriter = new FileWriter(new File(sortedFilePath)); FileReader fr = new FileReader(this.datasetFile); BufferedReader datasetFileReader = new BufferedReader(fr)) {
-			// Create a new file for the sorted dataset with the ARFF header
-			String arffHeader;
-			arffHeader = ArffUtilities.extractArffHeader(this.datasetFile);
-			fileWriter.write(arffHeader);
-
-			// Create a temp file with all datapoints
-			String tempFileUUID = this.tempFileHandler.createTempFile().getName();
-			FileWriter tempFileWriter = this.tempFileHandler.getFileWriterForTempFile(tempFileUUID);
-			String dataPointLine;
-			boolean datastarted = false;
-			while ((dataPointLine = datasetFileReader.readLine()) != null) {
-				if (dataPointLine.trim().equals("") || dataPointLine.trim().charAt(0) == '%') {
-					continue;
+		long start = System.currentTimeMillis();
+		File sortedFile = new File(sortedFilePath);
+		List<File> runs = new ArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool(this.numThreads);
+		long runSize = this.getRunSizeInBytes();
+		try (DatasetFileChunkReader reader = new DatasetFileChunkReader(this.datasetFile, true)) {
+			String arffHeader = ArffUtilities.extractArffHeader(this.datasetFile);
+			List<String> chunk = reader.readChunk(runSize);
+			List<String> nextChunk = chunk.isEmpty() ? chunk : reader.readChunk(runSize);
+
+			/* if all datapoints fit into a single run, sort them in memory and directly write them to the output */
+			if (nextChunk.isEmpty()) {
+				String[] datapoints = chunk.toArray(new String[0]);
+				Arrays.parallelSort(datapoints, this.comparator);
+				this.checkTermination();
+				try (BufferedWriter writer = openWriter(sortedFile)) {
+					writer.write(arffHeader);
+					writeDatapoints(datapoints, writer);
 				}
-				if (datastarted) {
-					tempFileWriter.write(dataPointLine.trim() + "\n");
-				} else {
-					if (dataPointLine.trim().equals("@data")) {
-						datastarted = true;
+			} else {
+
+				/* otherwise, sort the runs in parallel, write them to temporary files, and merge them. A run is only read once a thread is free to sort it */
+				logger.debug("Sorting {} in runs of {} bytes with {} threads.", this.datasetFile, runSize, this.numThreads);
+				Deque<Future<?>> pendingRuns = new ArrayDeque<>();
+				while (!chunk.isEmpty()) {
+					this.checkTermination();
+					pendingRuns.add(pool.submit(this.getRunSorter(chunk, runs)));
+					if (pendingRuns.size() >= this.numThreads) {
+						awaitRun(pendingRuns.poll());
 					}
+					chunk = nextChunk != null ? nextChunk : reader.readChunk(runSize);
+					nextChunk = null;
+				}
+				while (!pendingRuns.isEmpty()) {
+					awaitRun(pendingRuns.poll());
+				}
+				while (runs.size() > MAX_RUNS_PER_MERGE) {
+					this.mergeRunsIntoFewerRuns(runs);
+				}
+				try (BufferedWriter writer = openWriter(sortedFile)) {
+					writer.write(arffHeader);
+					this.merge(runs, writer);
 				}
 			}
-			tempFileWriter.flush();
-
-			// Sort the temp file
-			String sortedFileUUID = this.mergesort(tempFileUUID);
-
-			// Write the sorted lines from the temp file to the output file.
-			BufferedReader sortedReader = this.tempFileHandler.getFileReaderForTempFile(sortedFileUUID);
-			String line;
-			while ((line = sortedReader.readLine()) != null) {
-				fileWriter.write(line + "\n");
-			}
-			fileWriter.flush();
-			return new File(sortedFilePath);
-		} catch (IOException e) {
-			exception = e;
+			long runtime = Math.max(1, System.currentTimeMillis() - start);
+			logger.info("Sorted {} MB of {} in {} run(s) in {}ms ({} MB/s).", String.format("%.1f", reader.getSize() / 1E6), this.datasetFile, Math.max(1, runs.size()), runtime,
+					String.format("%.1f", reader.getSize() / 1E3 / runtime));
+			return sortedFile;
 		} finally {
+			pool.shutdownNow();
+			for (File run : runs) {
+				this.tempFileHandler.deleteTempFile(run.getName());
+			}
 			// Start clean up of the temporary file handler if a new one was used for this
 			// sorting.
 			if (this.usesOwnTempFileHandler) {
 				this.tempFileHandler.close();
 			}
 		}
-		throw exception;
-	}
-
-	private String mergesort(final String fileUUID) throws IOException, InterruptedException, AlgorithmExecutionCanceledException {
-		int length = ArffUtilities.countDatasetEntries(this.tempFileHandler.getTempFile(fileUUID), false);
-		if (length <= 1) {
-			return fileUUID;
-		} else {
-			// Split the existing file into two halfs
-			String leftUUID = this.tempFileHandler.createTempFile().getName();
-			String rightUUID = this.tempFileHandler.createTempFile().getName();
-			try (FileWriter leftWriter = this.tempFileHandler.getFileWriterForTempFile(leftUUID)) {
-				try (FileWriter rightWriter = this.tempFileHandler.getFileWriterForTempFile(rightUUID)) {
-					try (BufferedReader reader = this.tempFileHandler.getFileReaderForTempFile(fileUUID)) {
-						int i = 0;
-						String line;
-						while ((line = reader.readLine()) != null) {
-							if (i % 100 == 0 && Thread.interrupted()) {
-								throw new InterruptedException();
-							}
-							if (i < (length / 2)) {
-								leftWriter.write(line + "\n");
-							} else {
-								rightWriter.write(line + "\n");
-							}
-							i++;
-						}
-						if (Thread.interrupted()) {
-							throw new InterruptedException();
-						}
-						leftWriter.flush();
-						rightWriter.flush();
-						// Sort the two halfs
-						String sortedLeftUUID = this.mergesort(leftUUID);
-						String sortedRightUUID = this.mergesort(rightUUID);
-						// Merge the sorted halfs back together ande delete the left and right temp files
-						if (Thread.interrupted()) {
-							throw new InterruptedException();
-						}
-						if (this.canceled) {
-							throw new AlgorithmExecutionCanceledException(0);
-						}
-						String mergedFileUUID = this.merge(sortedLeftUUID, sortedRightUUID);
-						this.tempFileHandler.deleteTempFile(leftUUID);
-						this.tempFileHandler.deleteTempFile(rightUUID);
-						return mergedFileUUID;
-					}
+	}
+
+	/* the temporary file is created by the calling thread, since the temp file handler is not thread-safe */
+	private Runnable getRunSorter(final List<String> chunk, final List<File> runs) {
+		File run = this.tempFileHandler.createTempFile();
+		runs.add(run);
+		return () -> {
+			String[] datapoints = chunk.toArray(new String[0]);
+			Arrays.sort(datapoints, this.comparator);
+			try (BufferedWriter writer = openWriter(run)) {
+				writeDatapoints(datapoints, writer);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+	}
+
+	private static void awaitRun(final Future<?> run) throws IOException, InterruptedException {
+		try {
+			run.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IllegalStateException && e.getCause().getCause() instanceof IOException) {
+				throw (IOException) e.getCause().getCause();
+			}
+			throw new IOException("Could not sort a run of the dataset.", e.getCause());
+		}
+	}
+
+	private void mergeRunsIntoFewerRuns(final List<File> runs) throws IOException, InterruptedException, AlgorithmExecutionCanceledException {
+		List<File> mergedRuns = new ArrayList<>();
+		boolean merged = false;
+		try {
+			for (int i = 0; i < runs.size(); i += MAX_RUNS_PER_MERGE) {
+				List<File> group = runs.subList(i, Math.min(runs.size(), i + MAX_RUNS_PER_MERGE));
+				File mergedRun = this.tempFileHandler.createTempFile();
+				mergedRuns.add(mergedRun);
+				try (BufferedWriter writer = openWriter(mergedRun)) {
+					this.merge(group, writer);
+				}
+				for (File run : group) {
+					this.tempFileHandler.deleteTempFile(run.getName());
+				}
+			}
+			merged = true;
+		} finally {
+
+			/* the runs that have not been merged yet are still in the given list and deleted by the caller, but the merged runs are not */
+			if (!merged) {
+				for (File run : mergedRuns) {
+					this.tempFileHandler.deleteTempFile(run.getName());
 				}
 			}
 		}
+		runs.clear();
+		runs.addAll(mergedRuns);
 	}
 
-	private String merge(final String leftUUID, final String rightUUID) throws IOException {
-		String uuid = this.tempFileHandler.createTempFile().getName();
-		try (FileWriter writer = this.tempFileHandler.getFileWriterForTempFile(uuid)) {
-			try (BufferedReader leftReader = this.tempFileHandler.getFileReaderForTempFile(leftUUID)) {
-				try (BufferedReader rightReader = this.tempFileHandler.getFileReaderForTempFile(rightUUID)) {
-					String leftLine = leftReader.readLine();
-					String rightLine = rightReader.readLine();
-					while (leftLine != null || rightLine != null) {
-						if (leftLine == null) {
-							writer.write(rightLine + "\n");
-							rightLine = rightReader.readLine();
-						} else if (rightLine == null) {
-							writer.write(leftLine + "\n");
-							leftLine = leftReader.readLine();
-						} else {
-							int c = this.comparator.compare(leftLine, rightLine);
-							if (c > 0) {
-								writer.write(rightLine + "\n");
-								rightLine = rightReader.readLine();
-							} else {
-								writer.write(leftLine + "\n");
-								leftLine = leftReader.readLine();
-							}
-						}
-					}
-					writer.flush();
+	/* k-way merge of the given sorted runs; datapoints that are equal w.r.t. the comparator keep the order of their runs */
+	private void merge(final List<File> runs, final BufferedWriter writer) throws IOException, InterruptedException, AlgorithmExecutionCanceledException {
+		PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size(), (c1, c2) -> {
+			int c = this.comparator.compare(c1.datapoint, c2.datapoint);
+			return c != 0 ? c : Integer.compare(c1.run, c2.run);
+		});
+		List<DatasetFileChunkReader> readers = new ArrayList<>(runs.size());
+		try {
+			for (int i = 0; i < runs.size(); i++) {
+				DatasetFileChunkReader reader = new DatasetFileChunkReader(runs.get(i), false, MERGE_BUFFER_SIZE);
+				readers.add(reader);
+				RunCursor cursor = new RunCursor(i, reader);
+				if (cursor.advance()) {
+					queue.add(cursor);
+				}
+			}
+			long i = 0;
+			while (!queue.isEmpty()) {
+				if (i++ % CHECK_INTERVAL == 0) {
+					this.checkTermination();
+				}
+				RunCursor cursor = queue.poll();
+				writer.write(cursor.datapoint);
+				writer.write('\n');
+				if (cursor.advance()) {
+					queue.add(cursor);
 				}
 			}
+		} finally {
+			for (DatasetFileChunkReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+
+	private static void writeDatapoints(final String[] datapoints, final BufferedWriter writer) throws IOException {
+		for (String datapoint : datapoints) {
+			writer.write(datapoint);
+			writer.write('\n');
+		}
+	}
+
+	private static BufferedWriter openWriter(final File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1), WRITE_BUFFER_SIZE);
+	}
+
+	private void checkTermination() throws InterruptedException, AlgorithmExecutionCanceledException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (this.canceled) {
+			throw new AlgorithmExecutionCanceledException(0);
 		}
-		return uuid;
 	}
 
 	@Override
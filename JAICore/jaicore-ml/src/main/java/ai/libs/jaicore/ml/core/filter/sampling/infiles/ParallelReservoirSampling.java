@@ -0,0 +1,317 @@
+package ai.libs.jaicore.ml.core.filter.sampling.infiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.api4.java.algorithm.events.IAlgorithmEvent;
+import org.api4.java.algorithm.exceptions.AlgorithmException;
+import org.api4.java.algorithm.exceptions.AlgorithmExecutionCanceledException;
+import org.api4.java.algorithm.exceptions.AlgorithmTimeoutedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ai.libs.jaicore.ml.core.filter.sampling.SampleElementAddedEvent;
+
+/**
+ * Single-pass, parallel implementation of (stratified) Reservoir Sampling.
+ *
+ * The dataset file is read in chunks, and each chunk is handed to one of several workers, each of which maintains a reservoir for every stratum it has seen. Chunks are assigned to the workers in a
+ * round-robin fashion, so the sample only depends on the given random object and the number of threads. After the file has been read, the reservoirs of the workers are merged, and every stratum
+ * contributes to the sample in proportion to its size, like in the stratified file sampling. Unlike the latter, neither the datapoints need to be counted in advance nor the strati need to be written to
+ * temporary files.
+ *
+ * Without a stratifier, all datapoints belong to the same stratum, which yields a simple random sample.
+ */
+public class ParallelReservoirSampling extends AFileSamplingAlgorithm {
+
+	private static final long CHUNK_SIZE_IN_BYTES = 4L << 20;
+
+	private Logger logger = LoggerFactory.getLogger(ParallelReservoirSampling.class);
+	private Random random;
+	private Function<String, String> stratifier;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private DatasetFileChunkReader reader;
+	private List<ExecutorService> workers;
+	private List<Reservoirs> reservoirsOfWorkers;
+	private Deque<Future<?>> pendingChunks;
+	private int numChunks;
+	private long startTime;
+	private boolean sampleWritten;
+	private double throughputInMBPerSecond;
+
+	/* the reservoirs of the strati (by their names) seen by a worker */
+	private static class Reservoirs {
+		private final Random random;
+		private final int capacity;
+		private final Map<String, Reservoir> strati = new HashMap<>();
+
+		private Reservoirs(final Random random, final int capacity) {
+			this.random = random;
+			this.capacity = capacity;
+		}
+
+		private void add(final String stratum, final String datapoint) {
+			Reservoir reservoir = this.strati.computeIfAbsent(stratum, s -> new Reservoir());
+			reservoir.size++;
+			if (reservoir.sample.size() < this.capacity) {
+				reservoir.sample.add(datapoint);
+			} else {
+				// Replace elements with decreasing probability.
+				long j = (long) (this.random.nextDouble() * reservoir.size);
+				if (j < this.capacity) {
+					reservoir.sample.set((int) j, datapoint);
+				}
+			}
+		}
+	}
+
+	/* a uniform sample of (at most capacity) datapoints of a stratum together with the number of datapoints it has been drawn from */
+	private static class Reservoir {
+		private long size;
+		private List<String> sample = new ArrayList<>();
+	}
+
+	/**
+	 * Constructor for a simple random sample.
+	 *
+	 * @param random
+	 *            Random object for sampling.
+	 * @param input
+	 *            The dataset file.
+	 */
+	public ParallelReservoirSampling(final Random random, final File input) {
+		this(random, null, input);
+	}
+
+	/**
+	 * Constructor for a stratified sample.
+	 *
+	 * @param random
+	 *            Random object for sampling inside of the strati.
+	 * @param stratifier
+	 *            Function that assigns a datapoint (i.e. a line of the file) to the name of its stratum. It is used by several threads at the same time.
+	 * @param input
+	 *            The dataset file.
+	 */
+	public ParallelReservoirSampling(final Random random, final Function<String, String> stratifier, final File input) {
+		super(input);
+		this.random = random;
+		this.stratifier = stratifier;
+	}
+
+	/**
+	 * Creates a stratifier that assigns datapoints to strati by their class.
+	 *
+	 * @param targetAttribute
+	 *            Index of the target attribute, or -1 for the last attribute.
+	 * @return The stratifier.
+	 */
+	public static Function<String, String> getClassStratifier(final int targetAttribute) {
+		return datapoint -> {
+			String[] features = datapoint.split(",");
+			return features[targetAttribute == -1 ? features.length - 1 : targetAttribute];
+		};
+	}
+
+	/**
+	 * @param numThreads
+	 *            The number of workers that sample from the chunks of the file in parallel.
+	 */
+	public void setNumThreads(final int numThreads) {
+		if (numThreads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive but is " + numThreads);
+		}
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * @return The number of MB of the dataset file that have been sampled from per second, or 0 as long as the sampling has not finished.
+	 */
+	public double getThroughputInMBPerSecond() {
+		return this.throughputInMBPerSecond;
+	}
+
+	@Override
+	public IAlgorithmEvent nextWithException() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException, AlgorithmTimeoutedException {
+		switch (this.getState()) {
+		case CREATED:
+			// Initialize variables and start the workers.
+			try {
+				this.startTime = System.currentTimeMillis();
+				this.reader = new DatasetFileChunkReader(this.getInput(), true);
+				this.workers = new ArrayList<>(this.numThreads);
+				this.reservoirsOfWorkers = new ArrayList<>(this.numThreads);
+				for (int i = 0; i < this.numThreads; i++) {
+					this.workers.add(Executors.newSingleThreadExecutor());
+					this.reservoirsOfWorkers.add(new Reservoirs(new Random(this.random.nextLong()), this.sampleSize));
+				}
+				this.pendingChunks = new ArrayDeque<>();
+				this.numChunks = 0;
+				return this.activate();
+			} catch (IOException e) {
+				throw new AlgorithmException("Was not able to open the input file.", e);
+			}
+		case ACTIVE:
+			this.checkAndConductTermination();
+			List<String> chunk;
+			try {
+				chunk = this.reader.readChunk(CHUNK_SIZE_IN_BYTES);
+			} catch (IOException e) {
+				throw new AlgorithmException("Was not able to read datapoints from input file", e);
+			}
+			if (!chunk.isEmpty()) {
+				// Hand the chunk to the next worker, but do not read too far ahead of the workers.
+				if (this.pendingChunks.size() >= 2 * this.numThreads) {
+					this.awaitChunk(this.pendingChunks.poll());
+				}
+				Reservoirs reservoirs = this.reservoirsOfWorkers.get(this.numChunks % this.numThreads);
+				this.pendingChunks.add(this.workers.get(this.numChunks % this.numThreads).submit(() -> {
+					for (String datapoint : chunk) {
+						reservoirs.add(this.stratifier != null ? this.stratifier.apply(datapoint) : "", datapoint);
+					}
+				}));
+				this.numChunks++;
+				return new SampleElementAddedEvent(this);
+			} else {
+				// Wait for the workers, merge their reservoirs, and write the sample into the output file.
+				while (!this.pendingChunks.isEmpty()) {
+					this.awaitChunk(this.pendingChunks.poll());
+				}
+				List<String> sample = this.drawSample(this.mergeReservoirsOfWorkers());
+				try {
+					for (int i = 0; i < sample.size(); i++) {
+						if (i % 100 == 0) {
+							this.checkAndConductTermination();
+						}
+						this.outputFileWriter.write(sample.get(i) + "\n");
+					}
+				} catch (IOException e) {
+					throw new AlgorithmException("Was not able to write sampled datapoints into output file.", e);
+				}
+				long runtime = Math.max(1, System.currentTimeMillis() - this.startTime);
+				this.throughputInMBPerSecond = this.reader.getSize() / 1E3 / runtime;
+				this.logger.info("Sampled {} of {} datapoints from {} MB in {}ms ({} MB/s).", sample.size(), this.getInput(), String.format("%.1f", this.reader.getSize() / 1E6), runtime,
+						String.format("%.1f", this.throughputInMBPerSecond));
+				this.sampleWritten = true;
+				this.cleanUp();
+				return this.terminate();
+			}
+		case INACTIVE:
+			if (!this.sampleWritten) {
+				throw new AlgorithmException("Expected sample size was not reached before termination");
+			} else {
+				return this.terminate();
+			}
+		default:
+			this.cleanUp();
+			throw new IllegalStateException("Unknown algorithm state " + this.getState());
+		}
+	}
+
+	private void awaitChunk(final Future<?> chunk) throws InterruptedException, AlgorithmException {
+		try {
+			chunk.get();
+		} catch (ExecutionException e) {
+			throw new AlgorithmException("Was not able to sample from a chunk of the input file.", e.getCause());
+		}
+	}
+
+	/* merges the reservoirs of each stratum such that they contain a uniform sample of all datapoints of the stratum */
+	private Map<String, Reservoir> mergeReservoirsOfWorkers() {
+		Map<String, Reservoir> merged = new TreeMap<>();
+		for (Reservoirs reservoirs : this.reservoirsOfWorkers) {
+			for (Entry<String, Reservoir> stratum : reservoirs.strati.entrySet()) {
+				merged.merge(stratum.getKey(), stratum.getValue(), this::merge);
+			}
+		}
+		return merged;
+	}
+
+	/* draws the datapoints of the merged sample one by one from either reservoir, with probabilities proportional to the number of datapoints the reservoirs have not yet contributed */
+	private Reservoir merge(final Reservoir r1, final Reservoir r2) {
+		Reservoir merged = new Reservoir();
+		merged.size = r1.size + r2.size;
+		long remaining1 = r1.size;
+		long remaining2 = r2.size;
+		long n = Math.min(merged.size, this.sampleSize);
+		for (long i = 0; i < n; i++) {
+			if (this.random.nextDouble() * (remaining1 + remaining2) < remaining1) {
+				merged.sample.add(removeRandomElement(r1.sample, this.random));
+				remaining1--;
+			} else {
+				merged.sample.add(removeRandomElement(r2.sample, this.random));
+				remaining2--;
+			}
+		}
+		return merged;
+	}
+
+	/* determines the sample size of each stratum in proportion to its size (filling up rounding instances randomly) and draws that many datapoints from its reservoir */
+	private List<String> drawSample(final Map<String, Reservoir> strati) {
+		long datapointAmount = strati.values().stream().mapToLong(r -> r.size).sum();
+		int targetSize = (int) Math.min(this.sampleSize, datapointAmount);
+		List<Reservoir> reservoirs = new ArrayList<>(strati.values());
+		int[] sampleSizeForStrati = new int[reservoirs.size()];
+		int numOfSamplesThatWillBeCreated = 0;
+		List<Integer> fillupStrati = new ArrayList<>(); // strati to fill up rounding instances
+		for (int i = 0; i < reservoirs.size(); i++) {
+			sampleSizeForStrati[i] = (int) Math.floor(targetSize * ((double) reservoirs.get(i).size / datapointAmount));
+			numOfSamplesThatWillBeCreated += sampleSizeForStrati[i];
+			if (sampleSizeForStrati[i] < reservoirs.get(i).sample.size()) {
+				fillupStrati.add(i);
+			}
+		}
+		while (numOfSamplesThatWillBeCreated < targetSize) {
+			Collections.shuffle(fillupStrati, this.random);
+			int indexForNextFillUp = fillupStrati.remove(0);
+			sampleSizeForStrati[indexForNextFillUp]++;
+			numOfSamplesThatWillBeCreated++;
+		}
+		List<String> sample = new ArrayList<>(targetSize);
+		for (int i = 0; i < reservoirs.size(); i++) {
+			List<String> reservoir = reservoirs.get(i).sample;
+			for (int j = 0; j < sampleSizeForStrati[i]; j++) {
+				sample.add(removeRandomElement(reservoir, this.random));
+			}
+		}
+		return sample;
+	}
+
+	private static String removeRandomElement(final List<String> list, final Random random) {
+		int index = random.nextInt(list.size());
+		String element = list.get(index);
+		list.set(index, list.get(list.size() - 1));
+		list.remove(list.size() - 1);
+		return element;
+	}
+
+	@Override
+	protected void cleanUp() {
+		if (this.workers != null) {
+			this.workers.forEach(ExecutorService::shutdownNow);
+		}
+		if (this.reader != null) {
+			try {
+				this.reader.close();
+			} catch (IOException e) {
+				this.logger.warn("Could not close input file reader.", e);
+			}
+		}
+	}
+
+}
@@ -1,8 +1,15 @@
 package ai.libs.jaicore.ml.hpo.multifidelity.hyperband;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
@@ -35,6 +42,9 @@ import ai.libs.jaicore.ml.hpo.multifidelity.hyperband.Hyperband.MultiFidelitySco
  * For more details, refer to the published paper by Li et al. from 2018:
  * Hyperband: A Novel Bandit-Based Approach to Hyperparameter Optimization. In: Journal of Machine Learning research 18 (2018) 1-52
  *
+ * If configured via {@link IHyperbandConfig#isAsync()}, the brackets are run with asynchronous successive halving as proposed by Li et al. in 2020:
+ * A System for Massively Parallel Hyperparameter Tuning. In: Proceedings of Machine Learning and Systems 2 (2020) 230-246
+ *
  * @author mwever
  *
  */
@@ -136,6 +146,70 @@ public class Hyperband extends AOptimizer<MultiFidelitySoftwareConfigurationProb
 
 	private ExecutorService pool = null;
 
+	/**
+	 * A bracket of the asynchronous mode. Rung i evaluates candidates with budget r * eta^i, and at most n candidates are sampled for rung 0.
+	 */
+	private class AsyncBracket {
+		private final int n;
+		private final List<Double> budgets = new ArrayList<>();
+		private final List<List<HyperbandSolutionCandidate>> results = new ArrayList<>();
+		private final List<Set<ComponentInstance>> promoted = new ArrayList<>();
+		private int numSampled = 0;
+
+		private AsyncBracket(final int s, final int n, final double r) {
+			this.n = n;
+			for (int i = 0; i <= s; i++) {
+				this.budgets.add(r * Math.pow(Hyperband.this.eta, i));
+				this.results.add(new ArrayList<>());
+				this.promoted.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+			}
+		}
+
+		/**
+		 * @return The next evaluation of this bracket or null if no candidate can be promoted and all candidates have been sampled. Promotions to higher rungs are preferred.
+		 */
+		private AsyncJob getNextJob() {
+			for (int i = this.budgets.size() - 2; i >= 0; i--) {
+				List<HyperbandSolutionCandidate> rungResults = this.results.get(i);
+				int k = (int) Math.floor(rungResults.size() / Hyperband.this.eta);
+				if (k > this.promoted.get(i).size()) {
+					List<HyperbandSolutionCandidate> sortedResults = new ArrayList<>(rungResults);
+					sortedResults.sort(Comparator.comparing(HyperbandSolutionCandidate::getScore));
+					for (int j = 0; j < k; j++) {
+						ComponentInstance ci = sortedResults.get(j).getComponentInstance();
+						if (this.promoted.get(i).add(ci)) {
+							return new AsyncJob(this, i + 1, ci);
+						}
+					}
+				}
+			}
+			if (this.numSampled < this.n) {
+				this.numSampled++;
+				return new AsyncJob(this, 0, ComponentInstanceUtil.sampleRandomComponentInstance(Hyperband.this.getInput().getRequiredInterface(), Hyperband.this.getInput().getComponents(), Hyperband.this.rand));
+			}
+			return null;
+		}
+	}
+
+	private class AsyncJob {
+		private final AsyncBracket bracket;
+		private final int rung;
+		private final ComponentInstance ci;
+		private HyperbandSolutionCandidate result;
+
+		private AsyncJob(final AsyncBracket bracket, final int rung, final ComponentInstance ci) {
+			this.bracket = bracket;
+			this.rung = rung;
+			this.ci = ci;
+		}
+
+		private AsyncJob evaluate() {
+			double budget = this.bracket.budgets.get(this.rung);
+			this.result = new HyperbandSolutionCandidate(this.ci, budget, Hyperband.this.evaluateCandidate(this.ci, budget));
+			return this;
+		}
+	}
+
 	public Hyperband(final IHyperbandConfig config, final MultiFidelitySoftwareConfigurationProblem<Double> problem) {
 		super(config, problem);
 		this.rand = new Random(config.getSeed());
@@ -165,36 +239,117 @@ public class Hyperband extends AOptimizer<MultiFidelitySoftwareConfigurationProb
 			throw new AlgorithmException("Algorithm has already finished.");
 		default:
 		case ACTIVE:
-			for (int s = this.sMax; s >= 0; s--) {
-				int n = (int) Math.ceil((this.b / this.rMax) * (Math.pow(this.eta, s) / (s + 1)));
-				double r = (this.rMax) * Math.pow(this.eta, -s);
-				LOGGER.info("Execute round {} of HyperBand with n={}, r={}", (this.sMax - s + 1), n, r);
-
-				// sample random configurations
-				List<ComponentInstance> t = this.getNCandidates(n);
-				// begin successive halving with (n,r) inner loop
-				for (int i = 0; i <= s; i++) {
-					int nI = (int) Math.floor(n / Math.pow(this.eta, i));
-					double rI = (r * Math.pow(this.eta, i));
-
-					// evaluated candidates
-					List<HyperbandSolutionCandidate> evaluatedCandidates = this.evaluate(t, rI);
-
-					// sort, update best seen solution
-					evaluatedCandidates.sort((o1, o2) -> o1.getScore().compareTo(o2.getScore()));
-					this.updateBestSeenSolution(evaluatedCandidates.get(0));
-
-					// select top k
-					t.clear();
-					int k = (int) Math.floor(nI / this.eta);
-					IntStream.range(0, k).mapToObj(x -> evaluatedCandidates.get(x).getComponentInstance()).forEach(t::add);
+			try {
+				if (this.getConfig().isAsync()) {
+					this.runBracketsAsynchronously();
+				} else {
+					this.runBracketsSynchronously();
+				}
+			} finally {
+				if (this.pool != null) {
+					this.pool.shutdownNow();
 				}
 			}
+			return super.terminate();
+		}
+	}
 
-			if (this.pool != null) {
-				this.pool.shutdownNow();
+	private void runBracketsSynchronously() throws InterruptedException {
+		for (int s = this.sMax; s >= 0; s--) {
+			int n = (int) Math.ceil((this.b / this.rMax) * (Math.pow(this.eta, s) / (s + 1)));
+			double r = (this.rMax) * Math.pow(this.eta, -s);
+			LOGGER.info("Execute round {} of HyperBand with n={}, r={}", (this.sMax - s + 1), n, r);
+
+			// sample random configurations
+			List<ComponentInstance> t = this.getNCandidates(n);
+			// begin successive halving with (n,r) inner loop
+			for (int i = 0; i <= s; i++) {
+				int nI = (int) Math.floor(n / Math.pow(this.eta, i));
+				double rI = (r * Math.pow(this.eta, i));
+
+				// evaluated candidates
+				List<HyperbandSolutionCandidate> evaluatedCandidates = this.evaluate(t, rI);
+
+				// sort, update best seen solution
+				evaluatedCandidates.sort((o1, o2) -> o1.getScore().compareTo(o2.getScore()));
+				this.updateBestSeenSolution(evaluatedCandidates.get(0));
+
+				// select top k
+				t.clear();
+				int k = (int) Math.floor(nI / this.eta);
+				IntStream.range(0, k).mapToObj(x -> evaluatedCandidates.get(x).getComponentInstance()).forEach(t::add);
 			}
-			return super.terminate();
+		}
+	}
+
+	/**
+	 * Runs all brackets at the same time with asynchronous successive halving. Whenever a worker becomes free, the brackets are asked for the next evaluation in a round robin fashion, so that up to
+	 * cpus evaluations are running until no bracket can promote or sample a candidate anymore. Results are recorded and promotions are decided in the calling thread only.
+	 */
+	private void runBracketsAsynchronously() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		List<AsyncBracket> brackets = new ArrayList<>();
+		for (int s = this.sMax; s >= 0; s--) {
+			int n = (int) Math.ceil((this.b / this.rMax) * (Math.pow(this.eta, s) / (s + 1)));
+			double r = (this.rMax) * Math.pow(this.eta, -s);
+			brackets.add(new AsyncBracket(s, n, r));
+		}
+		LOGGER.info("Execute {} brackets of HyperBand asynchronously.", brackets.size());
+
+		CompletionService<AsyncJob> completionService = this.pool != null ? new ExecutorCompletionService<>(this.pool) : null;
+		int runningJobs = 0;
+		int nextBracket = 0;
+		while (true) {
+			this.checkAndConductTermination();
+
+			// occupy all free cpus with promotions or new candidates
+			AsyncJob job = null;
+			while ((completionService == null || runningJobs < this.getConfig().cpus()) && (job = this.getNextAsyncJob(brackets, nextBracket)) != null) {
+				nextBracket = (brackets.indexOf(job.bracket) + 1) % brackets.size();
+				if (completionService == null) {
+					this.recordResult(job.evaluate());
+					this.checkAndConductTermination();
+				} else {
+					completionService.submit(job::evaluate);
+					runningJobs++;
+				}
+			}
+			if (runningJobs == 0) {
+				return;
+			}
+
+			// wait for the next result, which may allow for a promotion
+			try {
+				this.recordResult(completionService.take().get());
+			} catch (ExecutionException e) {
+				throw new AlgorithmException("Could not evaluate candidate.", e.getCause());
+			}
+			runningJobs--;
+		}
+	}
+
+	private AsyncJob getNextAsyncJob(final List<AsyncBracket> brackets, final int firstBracket) {
+		for (int i = 0; i < brackets.size(); i++) {
+			AsyncJob job = brackets.get((firstBracket + i) % brackets.size()).getNextJob();
+			if (job != null) {
+				return job;
+			}
+		}
+		return null;
+	}
+
+	private void recordResult(final AsyncJob job) {
+		job.bracket.results.get(job.rung).add(job.result);
+		this.updateBestSeenSolution(job.result);
+	}
+
+	private double evaluateCandidate(final ComponentInstance ci, final double budget) {
+		try {
+			return this.getInput().getCompositionEvaluator().evaluate(ci, budget);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return this.crashedEvaluationScore;
+		} catch (ObjectEvaluationFailedException e) {
+			return this.crashedEvaluationScore;
 		}
 	}
 
@@ -207,16 +362,7 @@ public class Hyperband extends AOptimizer<MultiFidelitySoftwareConfigurationProb
 
 		for (ComponentInstance ci : t) {
 			runnables.add(() -> {
-				double score;
-				try {
-					score = Hyperband.this.getInput().getCompositionEvaluator().evaluate(ci, budget);
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					score = Hyperband.this.crashedEvaluationScore;
-				} catch (ObjectEvaluationFailedException e) {
-					score = Hyperband.this.crashedEvaluationScore;
-				}
-
+				double score = this.evaluateCandidate(ci, budget);
 				lock.lock();
 				try {
 					candidateList.add(new HyperbandSolutionCandidate(ci, budget, score));
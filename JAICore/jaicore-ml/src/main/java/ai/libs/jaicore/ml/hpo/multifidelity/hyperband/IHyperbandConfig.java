@@ -9,6 +9,7 @@ public interface IHyperbandConfig extends IOwnerBasedAlgorithmConfig {
 	public static final String K_SEED = NS + "seed";
 	public static final String K_ITERATIONS = NS + "iterations";
 	public static final String K_CRASH_SCORE = NS + "crash_score";
+	public static final String K_ASYNC = NS + "async";
 
 	/**
 	 * The parameter eta defines that after each round eta^-1 many solutions of the current population are preserved for the next stage of a race. The default value (according to the Hyperband paper) is 3.
@@ -41,4 +42,14 @@ public interface IHyperbandConfig extends IOwnerBasedAlgorithmConfig {
 	@DefaultValue(Integer.MAX_VALUE + "")
 	public double getCrashScore();
 
+	/**
+	 * In the asynchronous mode (asynchronous successive halving, Li et al. 2020), the brackets do not wait for all evaluations of a rung to finish. Instead, a candidate is promoted to the next rung
+	 * as soon as it is among the best 1/eta of the candidates evaluated on its rung so far, and all brackets are run at the same time so that all cpus are busy until the last evaluation.
+	 *
+	 * @return Whether to run the brackets asynchronously.
+	 */
+	@Key(K_ASYNC)
+	@DefaultValue("false")
+	public boolean isAsync();
+
 }
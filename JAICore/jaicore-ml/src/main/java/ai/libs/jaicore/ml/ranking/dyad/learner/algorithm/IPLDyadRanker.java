@@ -1,5 +1,10 @@
 package ai.libs.jaicore.ml.ranking.dyad.learner.algorithm;
 
+import java.util.List;
+
+import org.api4.java.ai.ml.core.exception.PredictionException;
+import org.api4.java.ai.ml.ranking.dyad.dataset.IDyad;
+
 /**
  * An abstract representation for a dyad ranker using Placket Luce models.
  *
@@ -8,4 +13,17 @@ package ai.libs.jaicore.ml.ranking.dyad.learner.algorithm;
  */
 public interface IPLDyadRanker extends IDyadRanker {
 
+	/**
+	 * Computes a score for each of the given dyads in one batch. A ranking predicted over any set of dyads orders them by descending score, where dyads with equal scores keep their order. Since
+	 * the Plackett-Luce model assigns each dyad a skill that does not depend on the other dyads, this allows to rank dyads incrementally.
+	 *
+	 * @param dyads
+	 *            The dyads to score.
+	 * @return The scores of the dyads in the order of the given list.
+	 * @throws PredictionException
+	 *             if the dyads cannot be scored.
+	 * @throws InterruptedException
+	 *             if the thread has been interrupted.
+	 */
+	public double[] getRankingScores(List<IDyad> dyads) throws PredictionException, InterruptedException;
 }
@@ -59,6 +59,17 @@ public interface IPLNetDyadRankerConfiguration extends Mutable {
 	 */
 	public static final String K_EARLY_STOPPING_RETRAIN = "plnet.early.stopping.retrain";
 
+	/**
+	 * Whether to compute the gradient of a whole mini batch with a single forward and backward pass through the network and to apply the updater once per mini batch. Otherwise, the updater is
+	 * applied to the gradient of every dyad of every ranking separately.
+	 */
+	public static final String K_BATCHED_TRAINING = "plnet.training.batched";
+
+	/**
+	 * The number of threads among which the rankings of a mini batch are split in batched training. Each additional thread works on its own copy of the network.
+	 */
+	public static final String K_TRAINING_THREADS = "plnet.training.threads";
+
 	@Key(K_PLNET_LEARNINGRATE)
 	@DefaultValue("0.1")
 	public double plNetLearningRate();
@@ -99,4 +110,12 @@ public interface IPLNetDyadRankerConfiguration extends Mutable {
 	@DefaultValue("true")
 	public boolean plNetEarlyStoppingRetrain();
 
+	@Key(K_BATCHED_TRAINING)
+	@DefaultValue("false")
+	public boolean plNetBatchedTraining();
+
+	@Key(K_TRAINING_THREADS)
+	@DefaultValue("1")
+	public int plNetTrainingThreads();
+
 }
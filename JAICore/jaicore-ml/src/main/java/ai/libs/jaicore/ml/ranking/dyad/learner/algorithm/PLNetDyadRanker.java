@@ -8,6 +8,10 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.aeonbits.owner.ConfigFactory;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
@@ -70,6 +74,10 @@ public class PLNetDyadRanker extends ASupervisedLearner<IDyadRankingInstance, ID
 	private int epoch;
 	private int iteration;
 
+	/* copies of the network used by the additional threads in batched training */
+	private ExecutorService trainingPool;
+	private List<MultiLayerNetwork> trainingWorkers;
+
 	/**
 	 * Constructs a new {@link PLNetDyadRanker} using the default
 	 * {@link IPLNetDyadRankerConfiguration}.
@@ -177,6 +185,10 @@ public class PLNetDyadRanker extends ASupervisedLearner<IDyadRankingInstance, ID
 	 *            A mini batch consisting of a {@link List} of {@link INDarray}.
 	 */
 	private void updateWithMinibatch(final List<INDArray> minibatch) {
+		if (this.configuration.plNetBatchedTraining()) {
+			this.updateWithBatchedGradient(minibatch);
+			return;
+		}
 		double actualMiniBatchSize = minibatch.size();
 		INDArray cumulativeDeltaW = Nd4j.zeros(this.plNet.params().length());
 		for (INDArray instance : minibatch) {
@@ -187,6 +199,93 @@ public class PLNetDyadRanker extends ASupervisedLearner<IDyadRankingInstance, ID
 		this.iteration++;
 	}
 
+	/**
+	 * Updates this {@link PLNetDyadRanker} based on the mean gradient of the loss over the rankings of the mini batch. The dyads of all rankings are fed through the network at once, and the
+	 * updater is applied only once. If a training pool is active, the rankings are split among the network and its copies.
+	 *
+	 * @param minibatch
+	 *            A mini batch consisting of a {@link List} of {@link INDarray}.
+	 */
+	private void updateWithBatchedGradient(final List<INDArray> minibatch) {
+		int numShards = this.trainingPool != null ? Math.min(this.trainingWorkers.size() + 1, minibatch.size()) : 1;
+		int shardSize = (int) Math.ceil((double) minibatch.size() / numShards);
+		List<Future<INDArray>> workerGradients = new ArrayList<>(numShards - 1);
+		for (int i = 1; i < numShards && i * shardSize < minibatch.size(); i++) {
+			MultiLayerNetwork worker = this.trainingWorkers.get(i - 1);
+			worker.setParams(this.plNet.params());
+			List<INDArray> shard = minibatch.subList(i * shardSize, Math.min((i + 1) * shardSize, minibatch.size()));
+			workerGradients.add(this.trainingPool.submit(() -> this.computeBatchedGradient(worker, shard).gradient()));
+		}
+		Gradient gradient = this.computeBatchedGradient(this.plNet, minibatch.subList(0, Math.min(shardSize, minibatch.size())));
+		try {
+			for (Future<INDArray> workerGradient : workerGradients) {
+				gradient.gradient().addi(workerGradient.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.info("Interrupted while waiting for the gradients of the training threads. Skipping the update.");
+			return;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not compute the gradient in a training thread.", e.getCause());
+		}
+		gradient.gradient().divi(minibatch.size());
+		this.plNet.getUpdater().update(this.plNet, gradient, this.iteration, this.epoch, 1, LayerWorkspaceMgr.noWorkspaces());
+		this.plNet.params().subi(gradient.gradient());
+		this.iteration++;
+	}
+
+	/**
+	 * Computes the sum of the gradients of the loss over the given rankings with a single forward and backward pass. Since the gradient of the network's parameters is summed up over the rows of
+	 * the input, feeding all dyads at once and back-propagating the loss gradient of every dyad w.r.t. its output yields the sum of the per-dyad gradients.
+	 *
+	 * @param net
+	 *            The network to use; its gradient view is overwritten.
+	 * @param rankings
+	 *            The rankings, each given as a matrix whose rows are the dyads from best to worst.
+	 * @return The gradient, which is a view on the gradients of the network.
+	 */
+	private Gradient computeBatchedGradient(final MultiLayerNetwork net, final List<INDArray> rankings) {
+		INDArray dyadMatrix = Nd4j.vstack(rankings);
+		net.setInput(dyadMatrix);
+		List<INDArray> activations = net.feedForward(true, false);
+		INDArray output = activations.get(activations.size() - 1);
+		double[] lossGradients = new double[dyadMatrix.rows()];
+		int offset = 0;
+		for (INDArray ranking : rankings) {
+			int dyadRankingLength = ranking.rows();
+			double[] outputsOfRanking = new double[dyadRankingLength];
+			for (int k = 0; k < dyadRankingLength; k++) {
+				outputsOfRanking[k] = output.getDouble(offset + k);
+			}
+			INDArray lossGradientsOfRanking = PLNetLoss.computeLossGradients(Nd4j.create(outputsOfRanking));
+			for (int k = 0; k < dyadRankingLength; k++) {
+				lossGradients[offset + k] = lossGradientsOfRanking.getDouble(k);
+			}
+			offset += dyadRankingLength;
+		}
+		return net.backpropGradient(Nd4j.create(lossGradients).transpose(), null).getFirst();
+	}
+
+	private void startTrainingPool() {
+		int numThreads = this.configuration.plNetTrainingThreads();
+		if (!this.configuration.plNetBatchedTraining() || numThreads <= 1) {
+			return;
+		}
+		this.trainingWorkers = new ArrayList<>(numThreads - 1);
+		for (int i = 1; i < numThreads; i++) {
+			this.trainingWorkers.add(this.plNet.clone());
+		}
+		this.trainingPool = Executors.newFixedThreadPool(numThreads - 1);
+	}
+
+	private void stopTrainingPool() {
+		if (this.trainingPool != null) {
+			this.trainingPool.shutdownNow();
+			this.trainingPool = null;
+			this.trainingWorkers = null;
+		}
+	}
+
 	/**
 	 * Updates this {@link PLNetDyadRanker} based on the given {@link IInstance},
 	 * which needs to be an {@link IDyadRankingInstance}. The update procedure is
@@ -594,6 +693,31 @@ public class PLNetDyadRanker extends ASupervisedLearner<IDyadRankingInstance, ID
 		return this.plNet.output(plNetInput).getDouble(0);
 	}
 
+	/**
+	 * Computes the skills of all dyads with a single forward pass of the PLNet.
+	 */
+	@Override
+	public double[] getRankingScores(final List<IDyad> dyads) {
+		if (dyads.isEmpty()) {
+			return new double[0];
+		}
+		if (this.plNet == null) {
+			int dyadSize = (dyads.get(0).getContext().length()) + (dyads.get(0).getAlternative().length());
+			this.plNet = this.createNetwork(dyadSize);
+			this.plNet.init();
+		}
+		List<INDArray> dyadList = new ArrayList<>(dyads.size());
+		for (IDyad dyad : dyads) {
+			dyadList.add(this.dyadToVector(dyad));
+		}
+		INDArray plNetOutput = this.plNet.output(Nd4j.vstack(dyadList));
+		double[] skills = new double[dyads.size()];
+		for (int i = 0; i < skills.length; i++) {
+			skills[i] = plNetOutput.getDouble(i);
+		}
+		return skills;
+	}
+
 	public void fit(final DyadRankingDataset dataset, final int maxEpochs, final double earlyStoppingTrainRatio) {
 		this.fit(dataset.toND4j(), maxEpochs, earlyStoppingTrainRatio);
 	}
@@ -608,14 +732,23 @@ public class PLNetDyadRanker extends ASupervisedLearner<IDyadRankingInstance, ID
 			this.plNet.init();
 		}
 
-		double currentBestScore = Double.POSITIVE_INFINITY;
-		MultiLayerNetwork currentBestModel = this.plNet;
 		this.epoch = 0;
 		this.iteration = 0;
+		this.startTrainingPool();
+		try {
+			this.trainEpochs(drTrain, drTest, maxEpochs, earlyStoppingTrainRatio);
+		} finally {
+			this.stopTrainingPool();
+		}
+	}
+
+	private void trainEpochs(final List<INDArray> drTrain, final List<INDArray> drTest, final int maxEpochs, final double earlyStoppingTrainRatio) {
+		double currentBestScore = Double.POSITIVE_INFINITY;
+		MultiLayerNetwork currentBestModel = this.plNet;
 		int patience = 0;
 		int earlyStoppingCounter = 0;
 
-		while ((patience < this.configuration.plNetEarlyStoppingPatience() || this.configuration.plNetEarlyStoppingPatience() <= 0) && (this.epoch < maxEpochs || maxEpochs == 0)) {
+		while ((patience < this.configuration.plNetEarlyStoppingPatience() || this.configuration.plNetEarlyStoppingPatience() <= 0) && (this.epoch < maxEpochs || maxEpochs == 0) && !Thread.currentThread().isInterrupted()) {
 			// Iterate through training data
 			this.tryUpdatingWithMinibatch(drTrain);
 
@@ -63,4 +63,42 @@ public class PLNetLoss {
 		return Nd4j.create(new double[] {errorGradient});
 	}
 
+	/**
+	 * Computes the gradients of the NLL for PL networks w.r.t. all dyads of the ranking at once, which is equivalent to calling {@link #computeLossGradient(INDArray, int)} for every k but takes linear instead of quadratic time.
+	 * @param plNetOutputs  The outputs for M_n dyads generated by a PLNet's output layer in order of their ranking (from best to worst).
+	 * @return				Row vector whose k-th entry is the gradient of the NLL loss w.r.t. the k-th dyad in the ranking.
+	 */
+	public static INDArray computeLossGradients(INDArray plNetOutputs) {
+		if (!(plNetOutputs.isRowVector()) || plNetOutputs.size(1) < 2 ) {
+			throw new IllegalArgumentException("Input has to be a row vector of 2 or more elements.");
+		}
+		int dyadRankingLength = (int) plNetOutputs.size(1);
+
+		// shift the outputs by their maximum, which does not change the ratios but avoids overflows
+		double maxOutput = plNetOutputs.maxNumber().doubleValue();
+		double[] expOutputs = new double[dyadRankingLength];
+		for (int k = 0; k < dyadRankingLength; k++) {
+			expOutputs[k] = Math.exp(plNetOutputs.getDouble(k) - maxOutput);
+		}
+		double[] innerSums = new double[dyadRankingLength];
+		double innerSum = 0;
+		for (int m = dyadRankingLength - 1; m >= 0; m--) {
+			innerSum += expOutputs[m];
+			innerSums[m] = innerSum;
+		}
+
+		// the term for m = k = M_n - 1 is 1 and cancels out with the subtracted 1
+		double[] errorGradients = new double[dyadRankingLength];
+		double sumOfInverseInnerSums = 0;
+		for (int k = 0; k < dyadRankingLength; k++) {
+			if (k < dyadRankingLength - 1) {
+				sumOfInverseInnerSums += 1 / innerSums[k];
+				errorGradients[k] = expOutputs[k] * sumOfInverseInnerSums - 1;
+			} else {
+				errorGradients[k] = expOutputs[k] * sumOfInverseInnerSums;
+			}
+		}
+		return Nd4j.create(errorGradients);
+	}
+
 }
@@ -155,6 +155,21 @@ public class FeatureTransformPLDyadRanker extends ASupervisedLearner<IDyadRankin
 		return new Ranking<>(skillForDyads.stream().sorted((p1, p2) -> Double.compare(p1.getX(), p2.getX())).map(Pair<Double, IDyad>::getY).collect(Collectors.toList()));
 	}
 
+	/**
+	 * Since {@link #predict(IDyadRankingInstance)} ranks the dyads in ascending order of their skills, the scores are the negated skills.
+	 */
+	@Override
+	public double[] getRankingScores(final List<IDyad> dyads) throws PredictionException {
+		if (this.w == null) {
+			throw new PredictionException("The Ranker has not been trained yet.");
+		}
+		double[] scores = new double[dyads.size()];
+		for (int i = 0; i < scores.length; i++) {
+			scores[i] = -this.computeSkillForDyad(dyads.get(i));
+		}
+		return scores;
+	}
+
 	@Override
 	public IRankingPredictionBatch predict(IDyadRankingInstance[] dTest) throws PredictionException, InterruptedException {
 		List<IRanking<?>> rankings = new ArrayList<>();
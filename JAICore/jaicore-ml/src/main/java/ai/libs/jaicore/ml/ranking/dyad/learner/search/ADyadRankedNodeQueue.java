@@ -3,9 +3,17 @@ package ai.libs.jaicore.ml.ranking.dyad.learner.search;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Set;
 
 import org.api4.java.ai.graphsearch.problem.pathsearch.pathevaluation.IEvaluatedPath;
 import org.api4.java.ai.ml.core.evaluation.IPrediction;
@@ -16,18 +24,22 @@ import org.api4.java.common.math.IVector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
-
 import ai.libs.jaicore.ml.ranking.dyad.dataset.DenseDyadRankingInstance;
 import ai.libs.jaicore.ml.ranking.dyad.dataset.DyadRankingDataset;
 import ai.libs.jaicore.ml.ranking.dyad.learner.Dyad;
 import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.IDyadRanker;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.IPLDyadRanker;
 import ai.libs.jaicore.ml.ranking.dyad.learner.util.AbstractDyadScaler;
 
 /**
  * A queue whose elements are nodes, sorted by a dyad ranker.
  *
+ * The nodes are kept in an indexed binary heap. If the ranker is an {@link IPLDyadRanker}, the score of a dyad does not depend on the other dyads, so only new nodes are scored (all nodes added
+ * by one call of {@link #addAll(Collection)} in one batch). Other rankers can only rank the whole set of dyads, so every insertion re-ranks all nodes. In both cases, nodes with the same score are
+ * polled in the order in which they have been added, which is the order a ranking over all nodes would yield.
+ *
+ * The iterator does not traverse the nodes in the order in which they are polled.
+ *
  * @author Helena Graf
  *
  * @param <N>
@@ -47,25 +59,36 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	private boolean useScaler = false;
 
-	/** the actual queue of nodes */
-	private List<IEvaluatedPath<N, ?, V>> queue = new ArrayList<>();
-
-	/**
-	 * characterizations of the nodes (scaled) (not ordered the same way as the
-	 * nodes!)
-	 */
-	private List<IVector> nodeCharacterizations = new ArrayList<>();
-
 	/** unscaled (original) characterization of the nodes */
 	private IVector originalContextCharacterization;
 
 	/** characterization of the context the nodes are ranked in */
 	private IVector contextCharacterization;
 
-	private List<IDyad> queryDyads = new ArrayList<>();
+	/** the heap of queue entries; the entry at position 0 is the best ranked node */
+	private final List<QueueEntry> heap = new ArrayList<>();
+
+	/** connects nodes to their entries in the heap */
+	private final Map<IEvaluatedPath<N, ?, V>, QueueEntry> entries = new HashMap<>();
+
+	private long nextSequenceNumber = 0;
+
+	/** whether the ranker has been replaced since the scores have been computed */
+	private boolean scoresOutdated = false;
+
+	private class QueueEntry {
+		private final IEvaluatedPath<N, ?, V> node;
+		private final Dyad dyad;
+		private final long sequenceNumber;
+		private double score;
+		private int index;
 
-	/** connects nodes to their respective characterizations */
-	private BiMap<IEvaluatedPath<N, ?, V>, IVector> nodesAndCharacterizationsMap = HashBiMap.create();
+		private QueueEntry(final IEvaluatedPath<N, ?, V> node, final Dyad dyad, final long sequenceNumber) {
+			this.node = node;
+			this.dyad = dyad;
+			this.sequenceNumber = sequenceNumber;
+		}
+	}
 
 	/**
 	 * Constructs a new DyadRankedNodeQueue that ranks the nodes in the queue
@@ -112,71 +135,79 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public int size() {
-		return this.queue.size();
+		return this.heap.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.queue.isEmpty();
+		return this.heap.isEmpty();
 	}
 
 	@Override
 	public boolean contains(final Object o) {
-		return this.queue.contains(o);
+		return this.entries.containsKey(o);
 	}
 
 	@Override
 	public Iterator<IEvaluatedPath<N, ?, V>> iterator() {
-		return this.queue.iterator();
+		Iterator<QueueEntry> it = this.heap.iterator();
+		return new Iterator<IEvaluatedPath<N, ?, V>>() {
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public IEvaluatedPath<N, ?, V> next() {
+				return it.next().node;
+			}
+		};
 	}
 
 	@Override
 	public Object[] toArray() {
-		return this.queue.toArray();
+		return this.getNodes().toArray();
 	}
 
 	@Override
 	public <T> T[] toArray(final T[] a) {
-		return this.queue.toArray(a);
+		return this.getNodes().toArray(a);
+	}
+
+	private List<IEvaluatedPath<N, ?, V>> getNodes() {
+		List<IEvaluatedPath<N, ?, V>> nodes = new ArrayList<>(this.heap.size());
+		for (QueueEntry entry : this.heap) {
+			nodes.add(entry.node);
+		}
+		return nodes;
 	}
 
 	@Override
 	public boolean remove(final Object o) {
-		if (o instanceof IEvaluatedPath<?, ?, ?>) {
-			int index = -1;
-			for (int i = 0; i < this.queue.size(); i++) {
-				if (this.queue.get(i).equals(o)) {
-					index = i;
-				}
-			}
-
-			if (index != -1) {
-				this.removeNodeAtPosition(index);
-				return true;
-			}
+		QueueEntry entry = this.entries.remove(o);
+		if (entry == null) {
 			return false;
-
 		}
-		return false;
+		this.removeFromHeap(entry.index);
+		return true;
 	}
 
 	@Override
 	public boolean containsAll(final Collection<?> c) {
-		return this.queue.containsAll(c);
+		return this.entries.keySet().containsAll(c);
 	}
 
 	@Override
 	public boolean addAll(final Collection<? extends IEvaluatedPath<N, ?, V>> c) {
 		this.logger.trace("Add {} nodes", c.size());
-		boolean changed = false;
-
-		for (IEvaluatedPath<N, ?, V> elem : c) {
-			if (this.add(elem)) {
-				changed = true;
+		Set<IEvaluatedPath<N, ?, V>> newNodes = new LinkedHashSet<>();
+		for (IEvaluatedPath<N, ?, V> node : c) {
+			if (node != null && !this.entries.containsKey(node)) {
+				newNodes.add(node);
 			}
 		}
-
-		return changed;
+		return !newNodes.isEmpty() && this.insert(newNodes);
 	}
 
 	@Override
@@ -199,62 +230,120 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public void clear() {
-		this.queue.clear();
-		this.nodesAndCharacterizationsMap.clear();
-		this.nodeCharacterizations.clear();
+		this.heap.clear();
+		this.entries.clear();
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public boolean add(final IEvaluatedPath<N, ?, V> e) {
-		if (this.queue.contains(e)) {
+		if (this.entries.containsKey(e)) {
 			return true;
 		} else if (e != null) {
-			try {
-				this.logger.debug("Add node to OPEN.");
-				// characterize new node
-				IVector characterization = this.characterize(e);
-				this.nodeCharacterizations.add(characterization);
-
-				Dyad newDyad = new Dyad(this.contextCharacterization, characterization);
-				this.queryDyads.add(newDyad);
-
-				if (this.useScaler) {
-					// scale node
-					DyadRankingDataset dataset = new DyadRankingDataset();
-					dataset.add(new DenseDyadRankingInstance(Arrays.asList(newDyad)));
-					this.scaler.transformAlternatives(dataset);
-				}
+			return this.insert(Collections.singletonList(e));
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Characterizes and ranks the given nodes, none of which may be in the queue already.
+	 *
+	 * @return true if the nodes could be ranked and have been added
+	 */
+	private boolean insert(final Collection<IEvaluatedPath<N, ?, V>> nodes) {
+		this.logger.debug("Add {} node(s) to OPEN.", nodes.size());
+		List<QueueEntry> newEntries = new ArrayList<>(nodes.size());
+		for (IEvaluatedPath<N, ?, V> node : nodes) {
+
+			// characterize new node
+			IVector characterization = this.characterize(node);
+			Dyad newDyad = new Dyad(this.contextCharacterization, characterization);
+			if (this.useScaler) {
+				// scale node
+				this.scaler.transformAlternatives(newDyad, new ArrayList<>());
+			}
+			this.replaceNaNByZeroes(characterization);
+			newEntries.add(new QueueEntry(node, newDyad, this.nextSequenceNumber++));
+		}
 
-				this.replaceNaNByZeroes(characterization);
-
-				// add new pairing of node and characterization
-				this.nodesAndCharacterizationsMap.put(e, characterization);
-
-				// predict new ranking and reorder queue accordingly
-				IPrediction prediction = this.dyadRanker.predict(new DenseDyadRankingInstance(this.queryDyads));
-				this.queue.clear();
-				for (int i = 0; i < ((IRanking<Dyad>) prediction.getPrediction()).size(); i++) {
-					IEvaluatedPath<N, ?, V> toAdd = this.nodesAndCharacterizationsMap.inverse().get(((IRanking<Dyad>) prediction.getPrediction()).get(i).getAlternative());
-					if (toAdd != null) {
-						this.queue.add(toAdd);
-					} else {
-						this.logger.warn("Got a node in a prediction that doesnt exist");
-					}
+		try {
+			if (this.dyadRanker instanceof IPLDyadRanker && !this.scoresOutdated) {
+
+				// only the new dyads need to be scored
+				double[] scores = ((IPLDyadRanker) this.dyadRanker).getRankingScores(this.getDyads(newEntries));
+				for (int i = 0; i < scores.length; i++) {
+					QueueEntry entry = newEntries.get(i);
+					entry.score = scores[i];
+					this.entries.put(entry.node, entry);
+					entry.index = this.heap.size();
+					this.heap.add(entry);
+					this.siftUp(entry.index);
 				}
-				return true;
-			} catch (PredictionException e1) {
-				this.logger.warn("Failed to characterize: {}", e1.getLocalizedMessage());
-				// remove unneeded characterization (ranking has failed)
-				this.nodeCharacterizations.remove(this.nodeCharacterizations.size() - 1);
-				return false;
-			} catch (InterruptedException e1) {
-				Thread.currentThread().interrupt();
-				return false;
+			} else {
+				this.rankAll(newEntries);
 			}
-		} else {
+			return true;
+		} catch (PredictionException e1) {
+			this.logger.warn("Failed to characterize: {}", e1.getLocalizedMessage());
 			return false;
+		} catch (InterruptedException e1) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Ranks the nodes of the queue together with the new entries and rebuilds the heap.
+	 */
+	private void rankAll(final List<QueueEntry> newEntries) throws PredictionException, InterruptedException {
+		List<QueueEntry> allEntries = new ArrayList<>(this.heap);
+		allEntries.sort(Comparator.comparingLong(e -> e.sequenceNumber));
+		allEntries.addAll(newEntries);
+		List<IDyad> dyads = this.getDyads(allEntries);
+		double[] scores;
+		if (this.dyadRanker instanceof IPLDyadRanker) {
+			scores = ((IPLDyadRanker) this.dyadRanker).getRankingScores(dyads);
+		} else {
+
+			// derive the scores from the positions in the predicted ranking
+			IPrediction prediction = this.dyadRanker.predict(new DenseDyadRankingInstance(dyads));
+			IRanking<?> ranking = (IRanking<?>) prediction.getPrediction();
+			Map<Object, Integer> positions = new IdentityHashMap<>();
+			for (int i = 0; i < ranking.size(); i++) {
+				positions.put(ranking.get(i), i);
+			}
+			scores = new double[dyads.size()];
+			for (int i = 0; i < scores.length; i++) {
+				Integer position = positions.get(dyads.get(i));
+				if (position == null) {
+					this.logger.warn("The prediction does not contain the dyad of node {}", allEntries.get(i).node);
+				}
+				scores[i] = position != null ? -position : Double.NEGATIVE_INFINITY;
+			}
 		}
+		for (int i = 0; i < scores.length; i++) {
+			allEntries.get(i).score = scores[i];
+		}
+		for (QueueEntry entry : newEntries) {
+			this.entries.put(entry.node, entry);
+		}
+		this.heap.clear();
+		this.heap.addAll(allEntries);
+		for (int i = 0; i < this.heap.size(); i++) {
+			this.heap.get(i).index = i;
+		}
+		for (int i = this.heap.size() / 2 - 1; i >= 0; i--) {
+			this.siftDown(i);
+		}
+		this.scoresOutdated = false;
+	}
+
+	private List<IDyad> getDyads(final List<QueueEntry> entries) {
+		List<IDyad> dyads = new ArrayList<>(entries.size());
+		for (QueueEntry entry : entries) {
+			dyads.add(entry.dyad);
+		}
+		return dyads;
 	}
 
 	private void replaceNaNByZeroes(final IVector vector) {
@@ -265,40 +354,83 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 		}
 	}
 
-	@Override
-	public boolean offer(final IEvaluatedPath<N, ?, V> e) {
-		return this.add(e);
+	/**
+	 * Entries with higher scores come first; ties are broken by insertion order. Negating the scores orders NaN scores last, as does ranking by descending score.
+	 */
+	private boolean precedes(final QueueEntry a, final QueueEntry b) {
+		int comparison = Double.compare(-a.score, -b.score);
+		return comparison < 0 || (comparison == 0 && a.sequenceNumber < b.sequenceNumber);
 	}
 
-	@Override
-	public IEvaluatedPath<N, ?, V> remove() {
-		return this.removeNodeAtPosition(0);
+	private void siftUp(final int index) {
+		int i = index;
+		QueueEntry entry = this.heap.get(i);
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			QueueEntry parentEntry = this.heap.get(parent);
+			if (!this.precedes(entry, parentEntry)) {
+				break;
+			}
+			this.place(parentEntry, i);
+			i = parent;
+		}
+		this.place(entry, i);
 	}
 
-	public IEvaluatedPath<N, ?, V> removeNodeAtPosition(final int i) {
-		IEvaluatedPath<N, ?, V> removedNode = this.queue.remove(i);
-		this.logger.trace("Retrieve node from OPEN. Index: {}", i);
-		this.nodeCharacterizations.remove(this.nodesAndCharacterizationsMap.get(removedNode));
-		IVector removedAlternative = this.nodesAndCharacterizationsMap.remove(removedNode);
-
-		int index = -1;
-		for (int j = 0; j < this.queryDyads.size(); j++) {
-			if (this.queryDyads.get(j).getAlternative().equals(removedAlternative)) {
-				index = j;
+	private void siftDown(final int index) {
+		int i = index;
+		int n = this.heap.size();
+		QueueEntry entry = this.heap.get(i);
+		while (2 * i + 1 < n) {
+			int child = 2 * i + 1;
+			if (child + 1 < n && this.precedes(this.heap.get(child + 1), this.heap.get(child))) {
+				child++;
+			}
+			QueueEntry childEntry = this.heap.get(child);
+			if (!this.precedes(childEntry, entry)) {
 				break;
 			}
+			this.place(childEntry, i);
+			i = child;
 		}
+		this.place(entry, i);
+	}
+
+	private void place(final QueueEntry entry, final int index) {
+		this.heap.set(index, entry);
+		entry.index = index;
+	}
 
-		if (index >= -1) {
-			this.queryDyads.remove(index);
+	private QueueEntry removeFromHeap(final int index) {
+		QueueEntry removed = this.heap.get(index);
+		QueueEntry last = this.heap.remove(this.heap.size() - 1);
+		if (last != removed) {
+			this.place(last, index);
+			this.siftDown(index);
+			this.siftUp(last.index);
 		}
+		return removed;
+	}
+
+	@Override
+	public boolean offer(final IEvaluatedPath<N, ?, V> e) {
+		return this.add(e);
+	}
 
+	@Override
+	public IEvaluatedPath<N, ?, V> remove() {
+		if (this.heap.isEmpty()) {
+			throw new NoSuchElementException("OPEN is empty.");
+		}
+		IEvaluatedPath<N, ?, V> removedNode = this.removeFromHeap(0).node;
+		this.entries.remove(removedNode);
+		this.logger.trace("Retrieve node from OPEN.");
 		return removedNode;
 	}
 
 	@Override
 	public IEvaluatedPath<N, ?, V> poll() {
-		if (!this.queue.isEmpty()) {
+		if (!this.heap.isEmpty()) {
 			return this.remove();
 		}
 		return null;
@@ -306,12 +438,15 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public IEvaluatedPath<N, ?, V> element() {
-		return this.queue.get(0);
+		if (this.heap.isEmpty()) {
+			throw new NoSuchElementException("OPEN is empty.");
+		}
+		return this.heap.get(0).node;
 	}
 
 	@Override
 	public IEvaluatedPath<N, ?, V> peek() {
-		if (!this.queue.isEmpty()) {
+		if (!this.heap.isEmpty()) {
 			this.logger.trace("Peek from OPEN.");
 			return this.element();
 		}
@@ -330,7 +465,8 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 	/**
 	 * Set which dyad ranker shall be used to rank the nodes. It is not trained in
 	 * this class, so it must be pre-trained before setting it as a dyad ranker for
-	 * this queue!
+	 * this queue! The nodes in the queue are re-ranked with the new ranker when the
+	 * next node is added.
 	 *
 	 * @param dyadRanker
 	 *            the dyad ranker
@@ -338,6 +474,7 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 	public void setDyadRanker(final IDyadRanker dyadRanker) {
 		this.logger.trace("Update dyad ranker. Was {} now is {}", this.dyadRanker.getClass(), dyadRanker.getClass());
 		this.dyadRanker = dyadRanker;
+		this.scoresOutdated = true;
 	}
 
 	public AbstractDyadScaler getScaler() {
@@ -0,0 +1,81 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.filter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowDFTTest {
+
+	private static final int WINDOW_SIZE = 7;
+	private static final int NUMBER_OF_COEFFICIENTS = 4;
+
+	private double[] timeseries;
+
+	@BeforeEach
+	public void setup() {
+		Random random = new Random(0);
+		this.timeseries = new double[50];
+		for (int i = 0; i < this.timeseries.length; i++) {
+			this.timeseries[i] = 100 + random.nextGaussian() * 10;
+		}
+		Arrays.fill(this.timeseries, 20, 30, 5); // some constant windows
+	}
+
+	@Test
+	public void testSlidingWindowsEqualDFTOfWindows() {
+		for (boolean meanCorrected : new boolean[] { false, true }) {
+			SlidingWindowDFT slidingDFT = new SlidingWindowDFT(WINDOW_SIZE, NUMBER_OF_COEFFICIENTS, meanCorrected);
+			double[][] output = slidingDFT.transform(this.timeseries);
+			assertEquals(this.timeseries.length - WINDOW_SIZE + 1, output.length);
+
+			DFT dft = new DFT();
+			dft.setNumberOfDisieredCoefficients(NUMBER_OF_COEFFICIENTS);
+			dft.setMeanCorrected(meanCorrected);
+			for (int window = 0; window < output.length; window++) {
+				double[] expected = dft.fitTransform(Arrays.copyOfRange(this.timeseries, window, window + WINDOW_SIZE));
+				assertEquals(expected.length, output[window].length);
+				for (int i = 0; i < expected.length; i++) {
+					assertEquals(expected[i], output[window][i], 1.0E-8);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSlidingWindowsEqualDFTOfZNormalizedWindows() {
+		SlidingWindowDFT slidingDFT = new SlidingWindowDFT(WINDOW_SIZE, NUMBER_OF_COEFFICIENTS, true);
+		slidingDFT.setZNormalized(true);
+		double[][] output = slidingDFT.transform(this.timeseries);
+
+		ZTransformer zTransformer = new ZTransformer();
+		DFT dft = new DFT();
+		dft.setNumberOfDisieredCoefficients(NUMBER_OF_COEFFICIENTS);
+		dft.setMeanCorrected(true);
+		for (int window = 0; window < output.length; window++) {
+			double[] expected = dft.fitTransform(zTransformer.fitTransform(Arrays.copyOfRange(this.timeseries, window, window + WINDOW_SIZE)));
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], output[window][i], 1.0E-8);
+			}
+		}
+	}
+
+	@Test
+	public void testTransformWindow() {
+		SlidingWindowDFT slidingDFT = new SlidingWindowDFT(WINDOW_SIZE, NUMBER_OF_COEFFICIENTS, false);
+		slidingDFT.setZNormalized(true);
+		double[][] output = slidingDFT.transform(this.timeseries);
+		for (int window = 0; window < output.length; window++) {
+			double[] single = slidingDFT.transformWindow(this.timeseries, window);
+			assertEquals(0, single[0], 0);
+			assertEquals(0, single[1], 0);
+			for (int i = 0; i < single.length; i++) {
+				assertEquals(single[i], output[window][i], 1.0E-8);
+			}
+		}
+	}
+
+}
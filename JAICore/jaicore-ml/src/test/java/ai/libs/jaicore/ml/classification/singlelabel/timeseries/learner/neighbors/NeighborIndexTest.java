@@ -0,0 +1,71 @@
+package ai.libs.jaicore.ml.classification.singlelabel.timeseries.learner.neighbors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.api4.java.common.metric.IDistanceMetric;
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.basic.metric.DynamicTimeWarping;
+import ai.libs.jaicore.basic.metric.EuclideanDistance;
+import ai.libs.jaicore.basic.metric.ManhattanDistance;
+import ai.libs.jaicore.basic.sets.Pair;
+
+/**
+ * Test suite for the {@link INeighborIndex} implementations. The exact indices must yield the same neighbor distances as a linear scan.
+ *
+ * @author fischor
+ */
+public class NeighborIndexTest {
+
+	private static final int NUM_INSTANCES = 300;
+	private static final int LENGTH = 16;
+	private static final int NUM_QUERIES = 50;
+
+	private double[][] randomValues(final Random random, final int n) {
+		double[][] values = new double[n][];
+		for (int i = 0; i < n; i++) {
+			values[i] = random.doubles(LENGTH).toArray();
+		}
+		return values;
+	}
+
+	private double[] getSortedDistances(final PriorityQueue<Pair<Integer, Double>> nearestNeighbors) {
+		return nearestNeighbors.stream().mapToDouble(Pair::getY).sorted().toArray();
+	}
+
+	private void assertSameNeighbors(final IDistanceMetric distanceMeasure, final INeighborIndex index, final double[][] values, final Random random) {
+		INeighborIndex linearScan = new LinearScanNeighborIndex(values, distanceMeasure);
+		for (int q = 0; q < NUM_QUERIES; q++) {
+			double[] query = random.doubles(LENGTH).toArray();
+			int k = 1 + random.nextInt(5);
+			assertArrayEquals(this.getSortedDistances(linearScan.getNearestNeighbors(query, k)), this.getSortedDistances(index.getNearestNeighbors(query, k)), 1.0E-12);
+		}
+	}
+
+	@Test
+	public void testVantagePointTreeWithEuclideanDistance() {
+		Random random = new Random(0);
+		double[][] values = this.randomValues(random, NUM_INSTANCES);
+		IDistanceMetric distanceMeasure = new EuclideanDistance();
+		this.assertSameNeighbors(distanceMeasure, new VantagePointTreeNeighborIndex(values, distanceMeasure), values, random);
+	}
+
+	@Test
+	public void testVantagePointTreeWithManhattanDistance() {
+		Random random = new Random(1);
+		double[][] values = this.randomValues(random, NUM_INSTANCES);
+		IDistanceMetric distanceMeasure = new ManhattanDistance();
+		this.assertSameNeighbors(distanceMeasure, new VantagePointTreeNeighborIndex(values, distanceMeasure), values, random);
+	}
+
+	@Test
+	public void testEnvelopeSortedIndexWithDTW() {
+		Random random = new Random(2);
+		double[][] values = this.randomValues(random, NUM_INSTANCES);
+		DynamicTimeWarping dtw = new DynamicTimeWarping(3);
+		this.assertSameNeighbors(dtw, new EnvelopeSortedNeighborIndex(values, dtw), values, random);
+	}
+}
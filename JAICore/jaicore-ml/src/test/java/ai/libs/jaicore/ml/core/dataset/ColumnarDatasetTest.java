@@ -0,0 +1,87 @@
+package ai.libs.jaicore.ml.core.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.api4.java.ai.ml.core.dataset.serialization.DatasetDeserializationFailedException;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.ml.core.dataset.serialization.ArffDatasetAdapter;
+
+public class ColumnarDatasetTest {
+
+	private static final File DATASET_FILE = new File("testrsc/dataset/arff/krvskp.arff");
+
+	private ILabeledDataset<ILabeledInstance> original;
+	private ColumnarDataset columnar;
+
+	@BeforeEach
+	public void setup() throws DatasetDeserializationFailedException {
+		this.original = ArffDatasetAdapter.readDataset(DATASET_FILE);
+		this.columnar = new ColumnarDataset(this.original.getInstanceSchema(), this.original);
+	}
+
+	@Test
+	public void testThatValuesEqualThoseOfTheOriginalDataset() {
+		DatasetTestUtil.checkDatasetCoherence(this.columnar);
+		assertEquals(this.original.size(), this.columnar.size());
+		double[][] pointMatrix = this.columnar.getPointMatrix();
+		for (int i = 0; i < this.original.size(); i++) {
+			ILabeledInstance expected = this.original.get(i);
+			ILabeledInstance actual = this.columnar.get(i);
+			assertArrayEquals(expected.getAttributes(), actual.getAttributes());
+			assertEquals(expected.getLabel(), actual.getLabel());
+			assertArrayEquals(expected.getPoint(), actual.getPoint(), 0.0);
+			assertArrayEquals(expected.getPoint(), pointMatrix[i], 0.0);
+		}
+		assertArrayEquals(this.original.getLabelVector(), this.columnar.getLabelVector());
+	}
+
+	@Test
+	public void testThatCopiesAreViewsOnTheSameStore() {
+		int rowsBefore = this.columnar.get(0).getStore().getNumRows();
+		ColumnarDataset fold = this.columnar.createEmptyCopy();
+		for (int i = 0; i < this.columnar.size(); i += 2) {
+			fold.add(this.columnar.get(i));
+		}
+		assertEquals((this.columnar.size() + 1) / 2, fold.size());
+		assertEquals(rowsBefore, this.columnar.get(0).getStore().getNumRows());
+		assertEquals(this.columnar.get(2), fold.get(1));
+
+		ColumnarDataset view = this.columnar.getView(new int[] { 3, 1 });
+		assertEquals(this.columnar.get(3), view.get(0));
+		assertEquals(this.columnar.get(1), view.get(1));
+		assertEquals(rowsBefore, this.columnar.get(0).getStore().getNumRows());
+	}
+
+	@Test
+	public void testSettingValuesAndMissingValues() {
+		ColumnarInstance instance = this.columnar.get(0);
+		Object otherValue = this.columnar.get(1).getAttributeValue(0);
+		instance.setAttributeValue(0, otherValue);
+		assertEquals(otherValue, this.columnar.get(0).getAttributeValue(0));
+
+		instance.setAttributeValue(1, null);
+		assertNull(instance.getAttributeValue(1));
+		assertEquals(0.0, instance.getPointValue(1), 0.0);
+
+		instance.setLabel(null);
+		assertFalse(instance.isLabelPresent());
+	}
+
+	@Test
+	public void testRemoveColumn() {
+		int numAttributes = this.columnar.getNumAttributes();
+		Object[] expected = this.original.get(0).getAttributes();
+		this.columnar.removeColumn(0);
+		assertEquals(numAttributes - 1, this.columnar.getNumAttributes());
+		assertEquals(expected[1], this.columnar.get(0).getAttributeValue(0));
+	}
+}
@@ -0,0 +1,67 @@
+package ai.libs.jaicore.ml.core.dataset.serialization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.api4.java.ai.ml.core.dataset.serialization.DatasetDeserializationFailedException;
+import org.api4.java.ai.ml.core.dataset.serialization.UnsupportedAttributeTypeException;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ai.libs.jaicore.ml.core.dataset.ColumnarDataset;
+
+public class MappedArffReaderTest {
+
+	private static final int SMALL_CHUNK_SIZE = 1 << 10;
+
+	@ParameterizedTest
+	@ValueSource(strings = { "testrsc/dataset/arff/krvskp.arff", "testrsc/dataset/arff/numeric_only_with_classindex.arff", "testrsc/dataset/arff/numeric_only_without_classindex.arff", "testrsc/dataset/arff/tiny.arff" })
+	public void testThatDatasetEqualsTheOneOfTheAdapter(final String path) throws DatasetDeserializationFailedException, IOException, UnsupportedAttributeTypeException {
+		File file = new File(path);
+		List<ILabeledInstance> expected = ArffDatasetAdapter.readDataset(file);
+		for (boolean parallel : new boolean[] { false, true }) {
+			MappedArffReader reader = new MappedArffReader(false, file, -1, SMALL_CHUNK_SIZE);
+			this.assertSameInstances(expected, reader.readDataset(parallel));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "testrsc/dataset/arff/krvskp.arff", "testrsc/dataset/arff/numeric_only_with_classindex.arff", "testrsc/dataset/arff/numeric_only_without_classindex.arff", "testrsc/dataset/arff/tiny.arff" })
+	public void testThatColumnarDatasetEqualsTheOneOfTheAdapter(final String path) throws DatasetDeserializationFailedException, IOException, UnsupportedAttributeTypeException {
+		File file = new File(path);
+		ILabeledDataset<ILabeledInstance> expected = ArffDatasetAdapter.readDataset(file);
+		for (boolean parallel : new boolean[] { false, true }) {
+			MappedArffReader reader = new MappedArffReader(false, file, -1, SMALL_CHUNK_SIZE);
+			ColumnarDataset dataset = reader.readColumnarDataset(parallel);
+			assertEquals(expected.getInstanceSchema().getLabelAttribute().getName(), dataset.getInstanceSchema().getLabelAttribute().getName());
+			this.assertSameInstances(expected, dataset);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "testrsc/dataset/arff/krvskp.arff", "testrsc/dataset/arff/numeric_only_with_classindex.arff" })
+	public void testStreamingAndCounting(final String path) throws DatasetDeserializationFailedException, IOException, UnsupportedAttributeTypeException {
+		File file = new File(path);
+		List<ILabeledInstance> expected = ArffDatasetAdapter.readDataset(file);
+		MappedArffReader reader = new MappedArffReader(false, file, -1, SMALL_CHUNK_SIZE);
+		List<ILabeledInstance> streamed = new ArrayList<>();
+		reader.iterator().forEachRemaining(streamed::add);
+		this.assertSameInstances(expected, streamed);
+		assertEquals(expected.size(), reader.countInstances());
+	}
+
+	private void assertSameInstances(final List<ILabeledInstance> expected, final List<ILabeledInstance> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals("Instance " + i + " differs.", expected.get(i).getAttributes(), actual.get(i).getAttributes());
+			assertEquals("Label of instance " + i + " differs.", expected.get(i).getLabel(), actual.get(i).getLabel());
+		}
+	}
+}
@@ -0,0 +1,262 @@
+package ai.libs.jaicore.ml.core.evaluation.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import org.api4.java.ai.ml.classification.singlelabel.evaluation.ISingleLabelClassification;
+import org.api4.java.ai.ml.core.dataset.serialization.DatasetDeserializationFailedException;
+import org.api4.java.ai.ml.core.dataset.splitter.SplitFailedException;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.api4.java.ai.ml.core.evaluation.IPrediction;
+import org.api4.java.ai.ml.core.evaluation.IPredictionAndGroundTruthTable;
+import org.api4.java.ai.ml.core.evaluation.IPredictionBatch;
+import org.api4.java.ai.ml.core.evaluation.execution.IAggregatedPredictionPerformanceMeasure;
+import org.api4.java.ai.ml.core.evaluation.supervised.loss.IDeterministicPredictionPerformanceMeasure;
+import org.api4.java.ai.ml.core.exception.PredictionException;
+import org.api4.java.ai.ml.core.exception.TrainingException;
+import org.api4.java.algorithm.Timeout;
+import org.api4.java.common.attributedobjects.ObjectEvaluationFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.eventbus.Subscribe;
+
+import ai.libs.jaicore.ml.classification.loss.dataset.EAggregatedClassifierMetric;
+import ai.libs.jaicore.ml.classification.loss.dataset.EClassificationPerformanceMeasure;
+import ai.libs.jaicore.ml.classification.singlelabel.learner.MajorityClassifier;
+import ai.libs.jaicore.ml.core.dataset.serialization.ArffDatasetAdapter;
+import ai.libs.jaicore.ml.core.dataset.splitter.DatasetSplitSet;
+import ai.libs.jaicore.ml.core.dataset.splitter.RandomHoldoutSplitter;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.events.TrainTestSplitEvaluationFailedEvent;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.MonteCarloCrossValidationEvaluatorFactory;
+import ai.libs.jaicore.ml.core.evaluation.splitsetgenerator.ConstantSplitSetGenerator;
+import ai.libs.jaicore.ml.core.learner.ASupervisedLearner;
+
+public class TrainPredictionBasedClassifierEvaluatorTest {
+
+	private static final File DATASET_FILE = new File("testrsc/dataset/arff/krvskp.arff");
+	private static final double[] TRAINING_PORTIONS = { 0.5, 0.6, 0.7, 0.8 };
+
+	private static ILabeledDataset<ILabeledInstance> data;
+
+	private DatasetSplitSet<ILabeledDataset<? extends ILabeledInstance>> splitSet;
+	private ExecutorService foldExecutor;
+
+	/* a majority classifier that takes some time to be fitted and that fails on training folds of a certain size */
+	private static class DelayedMajorityClassifier extends ASupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>, IPrediction, IPredictionBatch> {
+		private final MajorityClassifier classifier = new MajorityClassifier();
+		private final ToLongFunction<ILabeledDataset<?>> fitTime;
+		private final int sizeOfFailingTrainingFold;
+		private final CountDownLatch startedFits;
+		private final CountDownLatch interruptedFits;
+
+		private DelayedMajorityClassifier(final ToLongFunction<ILabeledDataset<?>> fitTime) {
+			this(fitTime, -1, new CountDownLatch(0), new CountDownLatch(0));
+		}
+
+		private DelayedMajorityClassifier(final ToLongFunction<ILabeledDataset<?>> fitTime, final int sizeOfFailingTrainingFold, final CountDownLatch startedFits, final CountDownLatch interruptedFits) {
+			this.fitTime = fitTime;
+			this.sizeOfFailingTrainingFold = sizeOfFailingTrainingFold;
+			this.startedFits = startedFits;
+			this.interruptedFits = interruptedFits;
+		}
+
+		@Override
+		public void fit(final ILabeledDataset<? extends ILabeledInstance> dTrain) throws TrainingException, InterruptedException {
+			if (dTrain.size() == this.sizeOfFailingTrainingFold) {
+				this.startedFits.await(10, TimeUnit.SECONDS); // fail only when all other splits are being executed
+				throw new TrainingException("Failing on purpose.");
+			}
+			this.startedFits.countDown();
+			try {
+				Thread.sleep(this.fitTime.applyAsLong(dTrain));
+			} catch (InterruptedException e) {
+				this.interruptedFits.countDown();
+				throw e;
+			}
+			this.classifier.fit(dTrain);
+		}
+
+		@Override
+		public IPrediction predict(final ILabeledInstance xTest) throws PredictionException, InterruptedException {
+			return this.classifier.predict(xTest);
+		}
+
+		@Override
+		public IPredictionBatch predict(final ILabeledInstance[] dTest) throws PredictionException, InterruptedException {
+			return this.classifier.predict(dTest);
+		}
+	}
+
+	/* the mean error rate that records the sizes of the test folds in the order in which their predictions are given */
+	private static class RecordingErrorRate implements IAggregatedPredictionPerformanceMeasure<Integer, ISingleLabelClassification> {
+		private final List<Integer> sizesOfTestFolds = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public double loss(final List<List<? extends Integer>> expected, final List<List<? extends ISingleLabelClassification>> predicted) {
+			expected.forEach(e -> this.sizesOfTestFolds.add(e.size()));
+			return EAggregatedClassifierMetric.MEAN_ERRORRATE.loss(expected, predicted);
+		}
+
+		@Override
+		public double loss(final List<IPredictionAndGroundTruthTable<? extends Integer, ? extends ISingleLabelClassification>> pairTables) {
+			pairTables.forEach(t -> this.sizesOfTestFolds.add(t.getGroundTruthAsList().size()));
+			return EAggregatedClassifierMetric.MEAN_ERRORRATE.loss(pairTables);
+		}
+
+		@Override
+		public double score(final List<List<? extends Integer>> expected, final List<List<? extends ISingleLabelClassification>> predicted) {
+			return 1 - this.loss(expected, predicted);
+		}
+
+		@Override
+		public double score(final List<IPredictionAndGroundTruthTable<? extends Integer, ? extends ISingleLabelClassification>> pairTables) {
+			return 1 - this.loss(pairTables);
+		}
+
+		@Override
+		public IDeterministicPredictionPerformanceMeasure<Integer, ISingleLabelClassification> getBaseMeasure() {
+			return EAggregatedClassifierMetric.MEAN_ERRORRATE.getBaseMeasure();
+		}
+	}
+
+	public static class FailedSplitCounter {
+		private final AtomicInteger failedSplits = new AtomicInteger();
+
+		@Subscribe
+		public void receiveFailedSplit(final TrainTestSplitEvaluationFailedEvent<?, ?> event) {
+			this.failedSplits.incrementAndGet();
+		}
+	}
+
+	@BeforeAll
+	public static void loadData() throws DatasetDeserializationFailedException {
+		data = ArffDatasetAdapter.readDataset(DATASET_FILE);
+	}
+
+	@BeforeEach
+	public void setup() throws SplitFailedException, InterruptedException {
+		this.splitSet = new DatasetSplitSet<>();
+		for (int i = 0; i < TRAINING_PORTIONS.length; i++) {
+			this.splitSet.addSplit(new ArrayList<>(RandomHoldoutSplitter.createSplit(data, i, TRAINING_PORTIONS[i])));
+		}
+		this.foldExecutor = Executors.newFixedThreadPool(TRAINING_PORTIONS.length);
+	}
+
+	@AfterEach
+	public void shutdown() {
+		this.foldExecutor.shutdownNow();
+	}
+
+	private TrainPredictionBasedClassifierEvaluator getEvaluator(final IAggregatedPredictionPerformanceMeasure<?, ?> metric) {
+		return new TrainPredictionBasedClassifierEvaluator(new ConstantSplitSetGenerator<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>(this.splitSet), metric);
+	}
+
+	private int getSizeOfTrainingFold(final int split) {
+		return this.splitSet.getFolds(split).get(0).size();
+	}
+
+	private List<Integer> getSizesOfTestFolds() {
+		List<Integer> sizes = new ArrayList<>();
+		for (int i = 0; i < this.splitSet.getNumberOfSplits(); i++) {
+			sizes.add(this.splitSet.getFolds(i).get(1).size());
+		}
+		return sizes;
+	}
+
+	@Test
+	public void testThatParallelReportsKeepTheOrderOfTheSplits() throws InterruptedException, ObjectEvaluationFailedException {
+		int sizeOfFirstTrainingFold = this.getSizeOfTrainingFold(0);
+		ToLongFunction<ILabeledDataset<?>> fitTime = d -> d.size() == sizeOfFirstTrainingFold ? 200 : 0; // the first split finishes last
+
+		RecordingErrorRate sequentialMetric = new RecordingErrorRate();
+		double sequentialScore = this.getEvaluator(sequentialMetric).evaluate(new DelayedMajorityClassifier(fitTime));
+
+		RecordingErrorRate parallelMetric = new RecordingErrorRate();
+		TrainPredictionBasedClassifierEvaluator parallelEvaluator = this.getEvaluator(parallelMetric);
+		parallelEvaluator.setFoldExecutor(this.foldExecutor, learner -> new DelayedMajorityClassifier(fitTime));
+		double parallelScore = parallelEvaluator.evaluate(new DelayedMajorityClassifier(fitTime));
+
+		assertEquals(sequentialScore, parallelScore, 0.0);
+		assertEquals(this.getSizesOfTestFolds(), sequentialMetric.sizesOfTestFolds);
+		assertEquals(this.getSizesOfTestFolds(), parallelMetric.sizesOfTestFolds);
+	}
+
+	@Test
+	public void testThatTheFirstFailureCancelsTheRemainingSplits() throws InterruptedException {
+		int numberOfOtherSplits = TRAINING_PORTIONS.length - 1;
+		int sizeOfFailingTrainingFold = this.getSizeOfTrainingFold(0);
+		CountDownLatch startedFits = new CountDownLatch(numberOfOtherSplits);
+		CountDownLatch interruptedFits = new CountDownLatch(numberOfOtherSplits);
+		TrainPredictionBasedClassifierEvaluator evaluator = this.getEvaluator(EAggregatedClassifierMetric.MEAN_ERRORRATE);
+		evaluator.setFoldExecutor(this.foldExecutor, learner -> new DelayedMajorityClassifier(d -> 60000, sizeOfFailingTrainingFold, startedFits, interruptedFits));
+		long start = System.currentTimeMillis();
+		try {
+			evaluator.evaluate(new MajorityClassifier());
+			fail("The evaluation of a failing split has not failed.");
+		} catch (ObjectEvaluationFailedException e) {
+			/* expected */
+		}
+		assertTrue("The evaluation has waited for the remaining splits.", System.currentTimeMillis() - start < 30000);
+		assertTrue("Not all remaining splits have been interrupted.", interruptedFits.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testThatATimeoutOfASplitIsReportedOnce() throws InterruptedException {
+		int sizeOfSlowTrainingFold = this.getSizeOfTrainingFold(0);
+		TrainPredictionBasedClassifierEvaluator evaluator = this.getEvaluator(EAggregatedClassifierMetric.MEAN_ERRORRATE);
+		evaluator.setFoldExecutor(this.foldExecutor, learner -> new DelayedMajorityClassifier(d -> d.size() == sizeOfSlowTrainingFold ? 60000 : 0));
+		evaluator.setFoldTimeout(new Timeout(500, TimeUnit.MILLISECONDS));
+		FailedSplitCounter counter = new FailedSplitCounter();
+		evaluator.registerListener(counter);
+		try {
+			evaluator.evaluate(new MajorityClassifier());
+			fail("The evaluation of a split that times out has not failed.");
+		} catch (ObjectEvaluationFailedException e) {
+			/* expected */
+		}
+		assertEquals(1, counter.failedSplits.get());
+	}
+
+	@Test
+	public void testThatSequentialAndParallelScoresAreEqual() throws InterruptedException, ObjectEvaluationFailedException {
+		double sequentialScore = this.getEvaluator(EAggregatedClassifierMetric.MEAN_ERRORRATE).evaluate(new MajorityClassifier());
+		TrainPredictionBasedClassifierEvaluator parallelEvaluator = this.getEvaluator(EAggregatedClassifierMetric.MEAN_ERRORRATE);
+		parallelEvaluator.setFoldExecutor(this.foldExecutor, learner -> new MajorityClassifier());
+		assertEquals(sequentialScore, parallelEvaluator.evaluate(new MajorityClassifier()), 0.0);
+	}
+
+	private MonteCarloCrossValidationEvaluatorFactory getMCCVFactory() {
+		return new MonteCarloCrossValidationEvaluatorFactory().withData(data).withNumMCIterations(TRAINING_PORTIONS.length).withTrainFoldSize(0.7).withMeasure(EClassificationPerformanceMeasure.ERRORRATE)
+				.withRandom(new Random(0));
+	}
+
+	@Test
+	public void testThatMCCVFactoryConfiguresTheFoldExecutor() throws InterruptedException, ObjectEvaluationFailedException {
+		double sequentialScore = this.getMCCVFactory().getLearnerEvaluator().evaluate(new MajorityClassifier());
+		AtomicInteger copies = new AtomicInteger();
+		MonteCarloCrossValidationEvaluator parallelEvaluator = this.getMCCVFactory().withFoldExecutor(this.foldExecutor, learner -> {
+			copies.incrementAndGet();
+			return new MajorityClassifier();
+		}).getLearnerEvaluator();
+		assertEquals(this.foldExecutor, parallelEvaluator.getFoldExecutor());
+		assertEquals(sequentialScore, parallelEvaluator.evaluate(new MajorityClassifier()), 0.0);
+		assertEquals(TRAINING_PORTIONS.length, copies.get());
+	}
+}
@@ -15,6 +15,7 @@ import ai.libs.jaicore.ml.core.filter.sampling.infiles.DatasetFileSorter;
 
 public class DataFileSorterTest {
 	private static final File ARFF_DATASET = new File("testrsc" + File.separator + "ml" + File.separator + "orig" + File.separator + "letter_small.arff");
+	private static final File LARGER_ARFF_DATASET = new File("testrsc" + File.separator + "ml" + File.separator + "orig" + File.separator + "letter.arff");
 
 	@Test
 	public void testDataFileSorting() throws IOException, InterruptedException, AlgorithmExecutionCanceledException {
@@ -39,4 +40,23 @@ public class DataFileSorterTest {
 		assertEquals(sortedData, sortedFileContent);
 	}
 
+	@Test
+	public void testDataFileSortingWithSeveralRuns() throws IOException, InterruptedException, AlgorithmExecutionCanceledException {
+		if (!LARGER_ARFF_DATASET.exists()) {
+			throw new FileNotFoundException();
+		}
+
+		/* sort the dataset once in memory and once in many small runs that need to be merged in several passes */
+		File inMemoryOutFile = new File(LARGER_ARFF_DATASET.getParentFile() + File.separator + "letter_sorted_in_memory.arff");
+		File externalOutFile = new File(LARGER_ARFF_DATASET.getParentFile() + File.separator + "letter_sorted_external.arff");
+		String inMemorySortedFileContent = FileUtil.readFileAsString(new DatasetFileSorter(LARGER_ARFF_DATASET).sort(inMemoryOutFile.getPath()));
+		DatasetFileSorter sorter = new DatasetFileSorter(LARGER_ARFF_DATASET);
+		sorter.setRunSizeInBytes(1024);
+		sorter.setNumThreads(4);
+		String externalSortedFileContent = FileUtil.readFileAsString(sorter.sort(externalOutFile.getPath()));
+		Files.delete(inMemoryOutFile.toPath());
+		Files.delete(externalOutFile.toPath());
+		assertEquals(inMemorySortedFileContent, externalSortedFileContent);
+	}
+
 }
@@ -2,10 +2,18 @@ package ai.libs.jaicore.ml.hpo.hyperband;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.aeonbits.owner.ConfigFactory;
 import org.api4.java.algorithm.exceptions.AlgorithmException;
@@ -28,11 +36,52 @@ import ai.libs.jaicore.ml.hpo.multifidelity.hyperband.IHyperbandConfig;
 
 public class HyperBandTest {
 
+	private static final double MAX_BUDGET = 27.0;
+	private static final double ETA = 3.0;
+
+	private static Collection<IComponent> components;
 	private static MultiFidelitySoftwareConfigurationProblem<Double> input;
 
+	/**
+	 * Records the budgets on which each candidate is evaluated. If a candidate is evaluated on a second budget, it has been promoted.
+	 */
+	private static class RecordingEvaluator implements IMultiFidelityObjectEvaluator<IComponentInstance, Double> {
+		private final Map<IComponentInstance, List<Double>> budgets = Collections.synchronizedMap(new IdentityHashMap<>());
+		private final CountDownLatch promotion = new CountDownLatch(1);
+		private final AtomicBoolean blockFirstEvaluation;
+		private volatile boolean firstEvaluationReleasedByPromotion;
+
+		private RecordingEvaluator(final boolean blockFirstEvaluation) {
+			this.blockFirstEvaluation = new AtomicBoolean(blockFirstEvaluation);
+		}
+
+		@Override
+		public double getMaxBudget() {
+			return MAX_BUDGET;
+		}
+
+		@Override
+		public double getMinBudget() {
+			return 1.0;
+		}
+
+		@Override
+		public Double evaluate(final IComponentInstance t, final double budget) throws InterruptedException, ObjectEvaluationFailedException {
+			if (this.blockFirstEvaluation.compareAndSet(true, false)) {
+				this.firstEvaluationReleasedByPromotion = this.promotion.await(30, TimeUnit.SECONDS);
+			}
+			List<Double> budgetsOfCandidate = this.budgets.computeIfAbsent(t, ci -> Collections.synchronizedList(new ArrayList<>()));
+			budgetsOfCandidate.add(budget);
+			if (budgetsOfCandidate.size() > 1) {
+				this.promotion.countDown();
+			}
+			return new Random().nextDouble();
+		}
+	}
+
 	@BeforeAll
 	public static void setup() {
-		Collection<IComponent> components = new ArrayList<>();
+		components = new ArrayList<>();
 		Component a = new Component("A");
 		a.addParameter(new Parameter("p1", new NumericParameterDomain(false, 0.0, 100.0), 50.0));
 		components.add(a);
@@ -70,6 +119,66 @@ public class HyperBandTest {
 		this.runHyperbandTest(config);
 	}
 
+	@Test
+	public void testAsyncHyperBandRunSingleThreaded() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		IHyperbandConfig config = ConfigFactory.create(IHyperbandConfig.class);
+		config.setProperty(IHyperbandConfig.K_ASYNC, "true");
+		this.runHyperbandTest(config);
+	}
+
+	@Test
+	public void testAsyncHyperBandRunMultiThreaded() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		IHyperbandConfig config = ConfigFactory.create(IHyperbandConfig.class);
+		config.setProperty(IHyperbandConfig.K_CPUS, "4");
+		config.setProperty(IHyperbandConfig.K_ASYNC, "true");
+		this.runHyperbandTest(config);
+	}
+
+	@Test
+	public void testThatAsyncHyperBandPromotesCandidatesSingleThreaded() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		this.testThatAsyncHyperBandPromotesCandidates(1);
+	}
+
+	@Test
+	public void testThatAsyncHyperBandPromotesCandidatesMultiThreaded() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		this.testThatAsyncHyperBandPromotesCandidates(4);
+	}
+
+	private void testThatAsyncHyperBandPromotesCandidates(final int cpus) throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		RecordingEvaluator evaluator = new RecordingEvaluator(false);
+		this.runAsyncHyperband(evaluator, cpus);
+
+		/* candidates climb the rungs one after another, and some of them reach the maximum budget */
+		boolean promotion = false;
+		boolean maxBudgetReached = false;
+		for (List<Double> budgets : evaluator.budgets.values()) {
+			for (int i = 1; i < budgets.size(); i++) {
+				assertEquals(budgets.get(i - 1) * ETA, budgets.get(i), 1E-8);
+				promotion = true;
+			}
+			maxBudgetReached |= Math.abs(budgets.get(budgets.size() - 1) - MAX_BUDGET) < 1E-8;
+		}
+		assertTrue("No candidate has been promoted.", promotion);
+		assertTrue("No candidate has been evaluated on the maximum budget.", maxBudgetReached);
+	}
+
+	@Test
+	public void testThatAsyncHyperBandPromotesWhileRungIsIncomplete() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+
+		/* the first evaluation only finishes once a candidate has been promoted, so the rung of the first candidate is incomplete at the time of the promotion */
+		RecordingEvaluator evaluator = new RecordingEvaluator(true);
+		this.runAsyncHyperband(evaluator, 4);
+		assertTrue("The free workers waited for the first evaluation instead of promoting candidates.", evaluator.firstEvaluationReleasedByPromotion);
+	}
+
+	private void runAsyncHyperband(final RecordingEvaluator evaluator, final int cpus) throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		IHyperbandConfig config = ConfigFactory.create(IHyperbandConfig.class);
+		config.setProperty(IHyperbandConfig.K_CPUS, String.valueOf(cpus));
+		config.setProperty(IHyperbandConfig.K_ASYNC, "true");
+		config.setProperty(IHyperbandConfig.K_ETA, String.valueOf(ETA));
+		assertNotNull(new Hyperband(config, new MultiFidelitySoftwareConfigurationProblem<>(components, "A", evaluator)).call());
+	}
+
 	private void runHyperbandTest(final IHyperbandConfig config) throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
 		Hyperband hb = new Hyperband(config, input);
 		HyperbandSolutionCandidate result = hb.call();
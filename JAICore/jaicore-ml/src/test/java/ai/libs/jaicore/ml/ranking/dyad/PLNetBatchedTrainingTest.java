@@ -0,0 +1,121 @@
+package ai.libs.jaicore.ml.ranking.dyad;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import ai.libs.jaicore.math.linearalgebra.DenseDoubleVector;
+import ai.libs.jaicore.ml.ranking.dyad.learner.Dyad;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.IPLNetDyadRankerConfiguration;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.PLNetDyadRanker;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.PLNetLoss;
+
+/**
+ * Trains a {@link PLNetDyadRanker} for one epoch with a fixed seed.
+ *
+ * The per-dyad training applies the updater to the gradient of every single dyad, whereas the batched training applies it once to the mean gradient of a mini batch, so their parameters do not
+ * match. Hence, we check that the batched training yields the same parameters regardless of the number of threads and that every kind of training decreases the loss.
+ */
+public class PLNetBatchedTrainingTest {
+
+	private static final int NUM_RANKINGS = 256;
+	private static final int RANKING_LENGTH = 4;
+	private static final int CONTEXT_SIZE = 2;
+	private static final int DYAD_SIZE = 6;
+	private static final int TRAINING_THREADS = 4;
+	private static final double TOLERANCE = 1E-4;
+
+	private static List<INDArray> rankings;
+
+	@BeforeAll
+	public static void setup() {
+
+		/* the rankings order the dyads by a random linear utility */
+		Random random = new Random(0);
+		double[] weights = new double[DYAD_SIZE];
+		for (int i = 0; i < DYAD_SIZE; i++) {
+			weights[i] = random.nextGaussian();
+		}
+		rankings = new ArrayList<>(NUM_RANKINGS);
+		for (int r = 0; r < NUM_RANKINGS; r++) {
+			double[][] dyads = new double[RANKING_LENGTH][DYAD_SIZE];
+			for (double[] dyad : dyads) {
+				for (int i = 0; i < DYAD_SIZE; i++) {
+					dyad[i] = random.nextDouble();
+				}
+			}
+			Arrays.sort(dyads, (d1, d2) -> Double.compare(utility(weights, d2), utility(weights, d1)));
+			rankings.add(Nd4j.create(dyads));
+		}
+	}
+
+	private static double utility(final double[] weights, final double[] dyad) {
+		double utility = 0;
+		for (int i = 0; i < weights.length; i++) {
+			utility += weights[i] * dyad[i];
+		}
+		return utility;
+	}
+
+	private static PLNetDyadRanker createRanker(final boolean batchedTraining, final int trainingThreads) {
+		IPLNetDyadRankerConfiguration config = ConfigFactory.create(IPLNetDyadRankerConfiguration.class);
+		config.setProperty(IPLNetDyadRankerConfiguration.K_PLNET_SEED, "1");
+		config.setProperty(IPLNetDyadRankerConfiguration.K_PLNET_LEARNINGRATE, "0.01");
+		config.setProperty(IPLNetDyadRankerConfiguration.K_MINI_BATCH_SIZE, "16");
+		config.setProperty(IPLNetDyadRankerConfiguration.K_EARLY_STOPPING_PATIENCE, "0");
+		config.setProperty(IPLNetDyadRankerConfiguration.K_BATCHED_TRAINING, String.valueOf(batchedTraining));
+		config.setProperty(IPLNetDyadRankerConfiguration.K_TRAINING_THREADS, String.valueOf(trainingThreads));
+		return new PLNetDyadRanker(config);
+	}
+
+	private static PLNetDyadRanker trainOneEpoch(final boolean batchedTraining, final int trainingThreads) {
+		PLNetDyadRanker ranker = createRanker(batchedTraining, trainingThreads);
+		ranker.fit(rankings, 1, 1.0);
+		return ranker;
+	}
+
+	private static double getAverageLoss(final MultiLayerNetwork plNet) {
+		double sumOfLosses = 0;
+		for (INDArray ranking : rankings) {
+			sumOfLosses += PLNetLoss.computeLoss(plNet.output(ranking).transpose()).getDouble(0);
+		}
+		return sumOfLosses / rankings.size();
+	}
+
+	@Test
+	public void testThatBatchedTrainingYieldsSameParametersForAnyNumberOfThreads() {
+		INDArray singleThreadedParams = trainOneEpoch(true, 1).getPlNet().params();
+		INDArray multiThreadedParams = trainOneEpoch(true, TRAINING_THREADS).getPlNet().params();
+		assertEquals(singleThreadedParams.length(), multiThreadedParams.length());
+		for (int i = 0; i < singleThreadedParams.length(); i++) {
+			assertEquals(singleThreadedParams.getDouble(i), multiThreadedParams.getDouble(i), TOLERANCE);
+		}
+	}
+
+	@Test
+	public void testThatTrainingDecreasesLoss() {
+
+		/* scoring a dyad initializes the network in the same way as the training does */
+		PLNetDyadRanker untrainedRanker = createRanker(false, 1);
+		untrainedRanker.getRankingScores(Arrays.asList(new Dyad(new DenseDoubleVector(CONTEXT_SIZE, 0.0), new DenseDoubleVector(DYAD_SIZE - CONTEXT_SIZE, 0.0))));
+		double initialLoss = getAverageLoss(untrainedRanker.getPlNet());
+
+		double perDyadLoss = getAverageLoss(trainOneEpoch(false, 1).getPlNet());
+		double batchedLoss = getAverageLoss(trainOneEpoch(true, 1).getPlNet());
+		double multiThreadedBatchedLoss = getAverageLoss(trainOneEpoch(true, TRAINING_THREADS).getPlNet());
+		assertTrue("Per-dyad training did not decrease the loss " + initialLoss + " but yields " + perDyadLoss, perDyadLoss < initialLoss);
+		assertTrue("Batched training did not decrease the loss " + initialLoss + " but yields " + batchedLoss, batchedLoss < initialLoss);
+		assertTrue("Multi-threaded batched training did not decrease the loss " + initialLoss + " but yields " + multiThreadedBatchedLoss, multiThreadedBatchedLoss < initialLoss);
+	}
+}
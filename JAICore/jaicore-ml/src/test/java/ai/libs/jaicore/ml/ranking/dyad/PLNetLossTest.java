@@ -110,4 +110,26 @@ public class PLNetLossTest {
 		double computedGradient = PLNetLoss.computeLossGradient(plNetOutputs, k).getDouble(0);
 		assertTrue(Math.abs(trueGradient - computedGradient) < this.tolerance);
 	}
+
+	@Test
+	public void computeGradientsTest() {
+		for (double[] outputs : new double[][] { { 10.0, 5.0, 2.0, 1 }, { -2.0, 4.2, 0 }, { 12.345, 6.789 } }) {
+			INDArray plNetOutputs = Nd4j.create(outputs);
+			INDArray computedGradients = PLNetLoss.computeLossGradients(plNetOutputs);
+			for (int k = 0; k < outputs.length; k++) {
+				double trueGradient = PLNetLoss.computeLossGradient(plNetOutputs, k).getDouble(0);
+				assertTrue(Math.abs(trueGradient - computedGradients.getDouble(k)) < this.tolerance);
+			}
+		}
+	}
+
+	@Test
+	public void computeGradientsForLargeOutputsTest() {
+		// the gradients do not change if all outputs are shifted, but the exponentials of the shifted outputs overflow
+		INDArray trueGradients = PLNetLoss.computeLossGradients(Nd4j.create(new double[] { 0, 1, -1 }));
+		INDArray computedGradients = PLNetLoss.computeLossGradients(Nd4j.create(new double[] { 800, 801, 799 }));
+		for (int k = 0; k < 3; k++) {
+			assertTrue(Math.abs(trueGradients.getDouble(k) - computedGradients.getDouble(k)) < this.tolerance);
+		}
+	}
 }
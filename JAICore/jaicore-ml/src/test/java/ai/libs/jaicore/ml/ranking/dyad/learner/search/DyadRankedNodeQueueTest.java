@@ -0,0 +1,191 @@
+package ai.libs.jaicore.ml.ranking.dyad.learner.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.api4.java.ai.graphsearch.problem.pathsearch.pathevaluation.IEvaluatedPath;
+import org.api4.java.ai.ml.core.exception.PredictionException;
+import org.api4.java.ai.ml.ranking.IRanking;
+import org.api4.java.ai.ml.ranking.IRankingPredictionBatch;
+import org.api4.java.ai.ml.ranking.dyad.dataset.IDyad;
+import org.api4.java.ai.ml.ranking.dyad.dataset.IDyadRankingDataset;
+import org.api4.java.ai.ml.ranking.dyad.dataset.IDyadRankingInstance;
+import org.api4.java.common.math.IVector;
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.math.linearalgebra.DenseDoubleVector;
+import ai.libs.jaicore.ml.core.learner.ASupervisedLearner;
+import ai.libs.jaicore.ml.ranking.RankingPredictionBatch;
+import ai.libs.jaicore.ml.ranking.dyad.dataset.DenseDyadRankingInstance;
+import ai.libs.jaicore.ml.ranking.dyad.learner.Dyad;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.IDyadRanker;
+import ai.libs.jaicore.ml.ranking.dyad.learner.algorithm.IPLDyadRanker;
+import ai.libs.jaicore.ml.ranking.label.learner.clusterbased.customdatatypes.Ranking;
+import ai.libs.jaicore.search.model.travesaltree.BackPointerPath;
+
+/**
+ * Checks that the nodes are polled from an {@link ADyadRankedNodeQueue} in the order of a ranking over all nodes in the queue, which is predicted anew before each poll.
+ */
+public class DyadRankedNodeQueueTest {
+
+	private static final int NUMBER_OF_OPERATIONS = 1000;
+	private static final int NUMBER_OF_DISTINCT_SCORES = 5;
+
+	/**
+	 * Ranks the dyads by descending score, which is the first value of the alternative times a fixed sign. Ties are broken by the second value of the alternative, which is the number of the node.
+	 */
+	private static class FixedDyadRanker extends ASupervisedLearner<IDyadRankingInstance, IDyadRankingDataset, IRanking<IDyad>, IRankingPredictionBatch> implements IDyadRanker {
+
+		private final double sign;
+
+		private FixedDyadRanker(final double sign) {
+			this.sign = sign;
+		}
+
+		protected double getScore(final IDyad dyad) {
+			return this.sign * dyad.getAlternative().getValue(0);
+		}
+
+		@Override
+		public void fit(final IDyadRankingDataset dTrain) {
+			/* the ranker is fixed */
+		}
+
+		@Override
+		public IRanking<IDyad> predict(final IDyadRankingInstance instance) {
+			List<IDyad> dyads = new ArrayList<>();
+			instance.forEach(dyads::add);
+			dyads.sort(Comparator.comparingDouble((IDyad d) -> -this.getScore(d)).thenComparingDouble(d -> d.getAlternative().getValue(1)));
+			return new Ranking<>(dyads);
+		}
+
+		@Override
+		public IRankingPredictionBatch predict(final IDyadRankingInstance[] dTest) {
+			List<IRanking<?>> rankings = new ArrayList<>();
+			for (IDyadRankingInstance instance : dTest) {
+				rankings.add(this.predict(instance));
+			}
+			return new RankingPredictionBatch(rankings);
+		}
+	}
+
+	private static class FixedPLDyadRanker extends FixedDyadRanker implements IPLDyadRanker {
+
+		private FixedPLDyadRanker(final double sign) {
+			super(sign);
+		}
+
+		@Override
+		public double[] getRankingScores(final List<IDyad> dyads) throws PredictionException {
+			return dyads.stream().mapToDouble(this::getScore).toArray();
+		}
+	}
+
+	/**
+	 * Characterizes node i by a score out of a few distinct values (so that there are ties) and by i itself.
+	 */
+	private static class NumberedNodeQueue extends ADyadRankedNodeQueue<Integer, Double> {
+
+		private NumberedNodeQueue(final IDyadRanker ranker) {
+			super(new DenseDoubleVector(1, 1.0), ranker, null);
+		}
+
+		@Override
+		protected IVector characterize(final IEvaluatedPath<Integer, ?, Double> node) {
+			return characterizeNode(node.getHead());
+		}
+	}
+
+	private static IVector characterizeNode(final int i) {
+		return new DenseDoubleVector(new double[] { (i * 7) % NUMBER_OF_DISTINCT_SCORES, i });
+	}
+
+	@Test
+	public void testPollOrderWithPLRanker() throws PredictionException, InterruptedException {
+		this.testPollOrder(new FixedPLDyadRanker(1), new FixedPLDyadRanker(-1));
+	}
+
+	@Test
+	public void testPollOrderWithRankerThatRanksAllNodes() throws PredictionException, InterruptedException {
+		this.testPollOrder(new FixedDyadRanker(1), new FixedDyadRanker(-1));
+	}
+
+	@Test
+	public void testPollOrderWhenReplacingPLRankerByRankerThatRanksAllNodes() throws PredictionException, InterruptedException {
+		this.testPollOrder(new FixedPLDyadRanker(1), new FixedDyadRanker(-1));
+	}
+
+	/**
+	 * Interleaves additions, polls, and removals, and compares each polled node to the first node of a ranking over all nodes that are in the queue. Half-way, the ranker is replaced right before
+	 * an addition, which re-ranks all nodes.
+	 */
+	private void testPollOrder(final IDyadRanker ranker, final IDyadRanker replacingRanker) throws PredictionException, InterruptedException {
+		Random random = new Random(0);
+		NumberedNodeQueue queue = new NumberedNodeQueue(ranker);
+		IDyadRanker currentRanker = ranker;
+		List<BackPointerPath<Integer, String, Double>> nodesInQueue = new ArrayList<>(); // in the order of their insertion
+		int nextNode = 0;
+		for (int operation = 0; operation < NUMBER_OF_OPERATIONS; operation++) {
+			double r = random.nextDouble();
+			if (r < 0.45) {
+				if (operation >= NUMBER_OF_OPERATIONS / 2 && currentRanker != replacingRanker) {
+					queue.setDyadRanker(replacingRanker);
+					currentRanker = replacingRanker;
+				}
+				List<BackPointerPath<Integer, String, Double>> newNodes = new ArrayList<>();
+				int numberOfNewNodes = 1 + random.nextInt(3);
+				for (int i = 0; i < numberOfNewNodes; i++) {
+					newNodes.add(new BackPointerPath<>(nextNode++));
+				}
+				if (newNodes.size() == 1) {
+					assertTrue(queue.add(newNodes.get(0)));
+				} else {
+					assertTrue(queue.addAll(newNodes));
+				}
+				nodesInQueue.addAll(newNodes);
+			} else if (r < 0.8) {
+				IEvaluatedPath<Integer, ?, Double> expected = this.getFirstNodeOfRanking(currentRanker, nodesInQueue);
+				assertSame(expected, queue.poll());
+				nodesInQueue.remove(expected);
+			} else if (!nodesInQueue.isEmpty()) {
+				BackPointerPath<Integer, String, Double> node = nodesInQueue.remove(random.nextInt(nodesInQueue.size()));
+				assertTrue(queue.remove(node));
+				assertFalse(queue.remove(node));
+			}
+			assertEquals(nodesInQueue.size(), queue.size());
+		}
+		while (!nodesInQueue.isEmpty()) {
+			IEvaluatedPath<Integer, ?, Double> expected = this.getFirstNodeOfRanking(currentRanker, nodesInQueue);
+			assertSame(expected, queue.peek());
+			assertSame(expected, queue.poll());
+			nodesInQueue.remove(expected);
+		}
+		assertTrue(queue.isEmpty());
+		assertNull(queue.poll());
+	}
+
+	private IEvaluatedPath<Integer, ?, Double> getFirstNodeOfRanking(final IDyadRanker ranker, final List<BackPointerPath<Integer, String, Double>> nodes) throws PredictionException, InterruptedException {
+		if (nodes.isEmpty()) {
+			return null;
+		}
+		Map<IDyad, BackPointerPath<Integer, String, Double>> nodesOfDyads = new HashMap<>();
+		List<IDyad> dyads = new ArrayList<>();
+		for (BackPointerPath<Integer, String, Double> node : nodes) {
+			Dyad dyad = new Dyad(new DenseDoubleVector(1, 1.0), characterizeNode(node.getHead()));
+			nodesOfDyads.put(dyad, node);
+			dyads.add(dyad);
+		}
+		IRanking<?> ranking = (IRanking<?>) ranker.predict(new DenseDyadRankingInstance(dyads)).getPrediction();
+		return nodesOfDyads.get(ranking.get(0));
+	}
+}
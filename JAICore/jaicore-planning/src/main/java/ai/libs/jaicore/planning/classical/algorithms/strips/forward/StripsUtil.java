@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import ai.libs.jaicore.logic.fol.structure.CNFFormula;
 import ai.libs.jaicore.logic.fol.structure.Clause;
 import ai.libs.jaicore.logic.fol.structure.ConstantParam;
+import ai.libs.jaicore.logic.fol.structure.DeltaMonom;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.LiteralParam;
 import ai.libs.jaicore.logic.fol.structure.Monom;
@@ -163,6 +164,22 @@ public class StripsUtil {
 		}
 	}
 
+	/**
+	 * Computes the state that results from applying the action in the given state without modifying it. The successor shares its literals with the given state, so the cost is linear in the number of
+	 * changed literals rather than in the size of the state.
+	 *
+	 * @param state
+	 *            The state in which the action is applied.
+	 * @param appliedAction
+	 *            The applied action.
+	 * @return The successor state.
+	 */
+	public static Monom getStateAfterAction(final Monom state, final Action appliedAction) {
+		Monom successor = new DeltaMonom(state);
+		updateState(successor, appliedAction);
+		return successor;
+	}
+
 	public static Monom getStateAfterPlanExecution(final Monom initState, final Plan plan) {
 		Monom state = new Monom(initState);
 		plan.getActions().forEach(a -> updateState(state, a));
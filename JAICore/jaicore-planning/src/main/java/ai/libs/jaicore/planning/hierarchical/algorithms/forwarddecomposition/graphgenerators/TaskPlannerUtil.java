@@ -26,6 +26,8 @@ import org.slf4j.LoggerFactory;
 import ai.libs.jaicore.basic.sets.SetUtil;
 import ai.libs.jaicore.logic.fol.structure.CNFFormula;
 import ai.libs.jaicore.logic.fol.structure.ConstantParam;
+import ai.libs.jaicore.logic.fol.structure.DeltaMonom;
+import ai.libs.jaicore.logic.fol.structure.FactIndex;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.LiteralParam;
 import ai.libs.jaicore.logic.fol.structure.Monom;
@@ -64,9 +66,11 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 			return applicableDerivedMethods;
 		}
 		this.logger.debug("Identified {} methods that are suitable based on their name.", potentiallySuitableMethod.size());
+		Monom unitedKnowledge = this.getUnitedKnowledge(knowledge, state);
+		FactIndex unitedKnowledgeIndex = this.getIndexIfRequired(unitedKnowledge, potentiallySuitableMethod.stream().map(Method::getPrecondition).collect(Collectors.toList()));
 		for (Method m : potentiallySuitableMethod) {
 			this.logger.debug("Method {} is potentially suited to solve this task. Checking its applicability.", m.getName());
-			Collection<MethodInstance> additionalInstances = this.getMethodInstancesForTaskThatAreApplicableInState(knowledge, m, task, state, remainingProblems);
+			Collection<MethodInstance> additionalInstances = this.getMethodInstancesForTaskThatAreApplicableInState(unitedKnowledge, unitedKnowledgeIndex, m, task, state, remainingProblems);
 			assert !m.isLonely() || additionalInstances.size() <= 1 : "Computed more than one instantiations for lonely method: \n\t" + additionalInstances.stream().map(MethodInstance::toString).collect(Collectors.joining("\n\t"));
 			applicableDerivedMethods.addAll(additionalInstances);
 		}
@@ -75,11 +79,18 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 
 	public Collection<MethodInstance> getMethodInstancesForTaskThatAreApplicableInState(final CNFFormula knowledge, final Method method, final Literal task, final Monom state, final List<Literal> remainingProblems)
 			throws InterruptedException {
+		Monom unitedKnowledge = this.getUnitedKnowledge(knowledge, state);
+		return this.getMethodInstancesForTaskThatAreApplicableInState(unitedKnowledge, this.getIndexIfRequired(unitedKnowledge, Arrays.asList(method.getPrecondition())), method, task, state, remainingProblems);
+	}
+
+	private Collection<MethodInstance> getMethodInstancesForTaskThatAreApplicableInState(final Monom unitedKnowledge, final FactIndex unitedKnowledgeIndex, final Method method, final Literal task, final Monom state,
+			final List<Literal> remainingProblems) throws InterruptedException {
 
 		this.logger.info("Determine instances of method {} that are applicable in current state for task {}. Complete agenda: {}. Enable TRACE to see current state.", method.getName(), task, remainingProblems);
 		this.logger.trace("State is {}", state);
 		Collection<MethodInstance> applicableDerivedMethodInstances = new ArrayList<>();
-		Collection<Map<VariableParam, LiteralParam>> maps = this.getMappingsThatMatchTasksAndMakesItApplicable(knowledge, method.getTask(), task, method.getPrecondition(), state);
+		Collection<Map<VariableParam, LiteralParam>> maps = this.getMappingsThatMatchTasksAndMakesItApplicable(method.getTask(), task, method.getPrecondition(), unitedKnowledge, unitedKnowledgeIndex);
+		Set<ConstantParam> constantsInState = null;
 		for (Map<VariableParam, LiteralParam> grounding : maps) {
 			this.logger.debug("Now considering partial grounding {}", grounding);
 
@@ -163,7 +174,10 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 			for (Map<VariableParam, ConstantParam> extendedGrounding : extendedGroundings) {
 
 				/* create new objects for unassigned open output variables */
-				Set<ConstantParam> knownConstants = new HashSet<>(state.getConstantParams());
+				if (constantsInState == null) {
+					constantsInState = unitedKnowledge == state && unitedKnowledgeIndex != null ? unitedKnowledgeIndex.getConstantParams() : state.getConstantParams();
+				}
+				Set<ConstantParam> knownConstants = new HashSet<>(constantsInState);
 				knownConstants.addAll(extendedGrounding.values());
 				for (Literal l : remainingProblems) {
 					knownConstants.addAll(l.getConstantParams());
@@ -316,7 +330,8 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 		}
 		sbTaskNameOfOperation.append(")");
 		Literal taskOfOperation = new Literal(sbTaskNameOfOperation.toString());
-		for (Map<VariableParam, LiteralParam> grounding : this.getMappingsThatMatchTasksAndMakesItApplicable(knowledge, taskOfOperation, task, op.getPrecondition(), state)) {
+		Monom unitedKnowledge = this.getUnitedKnowledge(knowledge, state);
+		for (Map<VariableParam, LiteralParam> grounding : this.getMappingsThatMatchTasksAndMakesItApplicable(taskOfOperation, task, op.getPrecondition(), unitedKnowledge, this.getIndexIfRequired(unitedKnowledge, Arrays.asList(op.getPrecondition())))) {
 			Map<VariableParam, ConstantParam> constantGrounding = new HashMap<>();
 			for (Entry<VariableParam,LiteralParam> groundingEntry : grounding.entrySet()) {
 				constantGrounding.put(groundingEntry.getKey(), (ConstantParam) groundingEntry.getValue());
@@ -330,8 +345,28 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 		return applicableDerivedActions;
 	}
 
-	private Collection<Map<VariableParam, LiteralParam>> getMappingsThatMatchTasksAndMakesItApplicable(final CNFFormula knowledge, final Literal methodOrPrimitiveTask, final Literal target, final Monom preconditionOfMethodOrPrimitive,
-			final Monom state) throws InterruptedException {
+	/**
+	 * Adds the knowledge to the state. The state is only read, so it is only copied if additional knowledge is given.
+	 */
+	private Monom getUnitedKnowledge(final CNFFormula knowledge, final Monom state) {
+		assert knowledge == null || !knowledge.hasDisjunctions() : "Currently no support for non-factbase knowledge!";
+		if (knowledge == null) {
+			return state;
+		}
+		Monom unitedKnowledge = new DeltaMonom(state);
+		unitedKnowledge.addAll(knowledge.extractMonom());
+		return unitedKnowledge;
+	}
+
+	/**
+	 * The index is only needed to match non-empty preconditions, so it is not built if all preconditions are empty.
+	 */
+	private FactIndex getIndexIfRequired(final Monom unitedKnowledge, final Collection<Monom> preconditions) {
+		return preconditions.stream().allMatch(Monom::isEmpty) ? null : new FactIndex(unitedKnowledge);
+	}
+
+	private Collection<Map<VariableParam, LiteralParam>> getMappingsThatMatchTasksAndMakesItApplicable(final Literal methodOrPrimitiveTask, final Literal target, final Monom preconditionOfMethodOrPrimitive, final Monom unitedKnowledge,
+			final FactIndex unitedKnowledgeIndex) throws InterruptedException {
 		assert preconditionOfMethodOrPrimitive != null : "precondition of methode or primitive task " + methodOrPrimitiveTask + " is null";
 		this.logger.info("Now computing the possible applications of method {} for task {}", methodOrPrimitiveTask, target);
 
@@ -373,19 +408,12 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 		}
 		final List<Map<VariableParam, LiteralParam>> groundings = new ArrayList<>();
 
-		/* create knowledge for the check */
-		assert knowledge == null || !knowledge.hasDisjunctions() : "Currently no support for non-factbase knowledge!";
-		Monom unitedKnowledge = new Monom(state);
-		if (knowledge != null) {
-			unitedKnowledge.addAll(knowledge.extractMonom());
-		}
-
 		/* determine potential output parameters of the task */
 		final Collection<VariableParam> outputs = SetUtil.difference(target.getVariableParams(), preconditionOfMethodOrPrimitive.getVariableParams());
 		final Collection<VariableParam> parametersThatNeedGrounding = SetUtil.difference(target.getVariableParams(), outputs);
 
 		/* first compute the possible groundings of the TASK to the state objects; if the task is already ground, add the empty completion */
-		final Collection<Map<VariableParam, ConstantParam>> groundingsOfTargetTask = SetUtil.allTotalMappings(parametersThatNeedGrounding, unitedKnowledge.getConstantParams());
+		final Collection<Map<VariableParam, ConstantParam>> groundingsOfTargetTask = SetUtil.allTotalMappings(parametersThatNeedGrounding, unitedKnowledgeIndex.getConstantParams());
 		if (groundingsOfTargetTask.isEmpty()) {
 			groundingsOfTargetTask.add(new HashMap<>());
 		}
@@ -411,7 +439,7 @@ public class TaskPlannerUtil implements ILoggingCustomizable {
 			Monom positiveRequirements = new Monom(preconditionOfMethodOrPrimitive.stream().filter(Literal::isPositive).collect(Collectors.toList()), groundingForMethodOrPrimitiveTask);
 			Collection<Map<VariableParam, LiteralParam>> restMaps;
 			if (!positiveRequirements.isEmpty()) {
-				ForwardChainer fc = new ForwardChainer(new ForwardChainingProblem(unitedKnowledge, positiveRequirements, true));
+				ForwardChainer fc = new ForwardChainer(new ForwardChainingProblem(unitedKnowledge, positiveRequirements, true, unitedKnowledgeIndex));
 				try {
 					restMaps = fc.call();
 				} catch (AlgorithmExecutionCanceledException | TimeoutException e) {
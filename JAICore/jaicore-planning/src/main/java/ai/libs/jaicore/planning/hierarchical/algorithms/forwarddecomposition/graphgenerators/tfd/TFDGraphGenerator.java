@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -18,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ai.libs.jaicore.logging.ToJSONStringUtil;
+import ai.libs.jaicore.logic.fol.structure.DeltaMonom;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.Monom;
 import ai.libs.jaicore.planning.classical.algorithms.strips.forward.StripsUtil;
@@ -31,6 +33,8 @@ import ai.libs.jaicore.search.model.NodeExpansionDescription;
 
 public class TFDGraphGenerator implements IGraphGenerator<TFDNode, String>, ILoggingCustomizable {
 
+	private static final Pattern TASK_ORDER_PATTERN = Pattern.compile("(\\d+)_");
+
 	private Logger logger = LoggerFactory.getLogger(TFDGraphGenerator.class);
 	protected TaskPlannerUtil util = new TaskPlannerUtil(null);
 	protected final IHTNPlanningProblem problem;
@@ -46,9 +50,8 @@ public class TFDGraphGenerator implements IGraphGenerator<TFDNode, String>, ILog
 	protected Collection<TFDNode> getSuccessorsResultingFromResolvingPrimitiveTask(final Monom state, final Literal taskToBeResolved, final List<Literal> remainingOtherTasks) throws InterruptedException {
 		Collection<TFDNode> successors = new ArrayList<>();
 		for (Action applicableAction : this.util.getActionsForPrimitiveTaskThatAreApplicableInState(null, this.primitiveTasks.get(taskToBeResolved.getPropertyName()), taskToBeResolved, state)) {
-			Monom stateCopy = new Monom(state);
-			StripsUtil.updateState(stateCopy, applicableAction);
-			successors.add(this.postProcessPrimitiveTaskNode(new TFDNode(stateCopy, remainingOtherTasks, null, applicableAction)));
+			Monom successorState = StripsUtil.getStateAfterAction(state, applicableAction);
+			successors.add(this.postProcessPrimitiveTaskNode(new TFDNode(successorState, remainingOtherTasks, null, applicableAction)));
 		}
 		return successors;
 	}
@@ -112,7 +115,7 @@ public class TFDGraphGenerator implements IGraphGenerator<TFDNode, String>, ILog
 
 	@Override
 	public ISingleRootGenerator<TFDNode> getRootGenerator() {
-		return () -> new TFDNode(this.problem.getInit(), this.stripTNPrefixes(new TaskPlannerUtil(null).getTaskChainOfTotallyOrderedNetwork(this.problem.getNetwork())));
+		return () -> new TFDNode(new DeltaMonom(this.problem.getInit()), this.stripTNPrefixes(new TaskPlannerUtil(null).getTaskChainOfTotallyOrderedNetwork(this.problem.getNetwork())));
 	}
 
 	@Override
@@ -139,8 +142,10 @@ public class TFDGraphGenerator implements IGraphGenerator<TFDNode, String>, ILog
 
 			this.logger.info("Node generation finished and took {}ms. Generated {} successors.", System.currentTimeMillis() - creationStartTime, successors.size());
 
-			/* change order in remaining tasks based on numbered prefixes */
-			successors = successors.stream().map(this::orderRemainingTasksByPriority).collect(Collectors.toList());
+			/* change order in remaining tasks based on numbered prefixes; successors of primitive tasks share their task list, so each list is only ordered once */
+			Map<List<Literal>, List<Literal>> orderedTaskLists = new IdentityHashMap<>();
+			successors = successors.stream().map(n -> new TFDNode(n.getState(), orderedTaskLists.computeIfAbsent(n.getRemainingTasks(), this::orderTasksByPriority), n.getAppliedMethodInstance(), n.getAppliedAction()))
+					.collect(Collectors.toList());
 
 			/* derive successor descriptions from the nodes */
 			return successors.stream().map(n -> new NodeExpansionDescription<>(n, n.getAppliedAction() != null ? n.getAppliedAction().getEncoding() : n.getAppliedMethodInstance().getEncoding())).collect(Collectors.toList());
@@ -148,13 +153,16 @@ public class TFDGraphGenerator implements IGraphGenerator<TFDNode, String>, ILog
 	}
 
 	public TFDNode orderRemainingTasksByPriority(final TFDNode node) {
+		return new TFDNode(node.getState(), this.orderTasksByPriority(node.getRemainingTasks()), node.getAppliedMethodInstance(), node.getAppliedAction());
+	}
+
+	private List<Literal> orderTasksByPriority(final List<Literal> tasks) {
 
 		/* determine order of tasks based on the prefixes */
-		Pattern p = Pattern.compile("(\\d+)_");
 		List<Literal> unorderedLiterals = new ArrayList<>();
 		Map<Integer, List<Literal>> orderedLiterals = new HashMap<>();
-		node.getRemainingTasks().forEach(t -> {
-			Matcher m = p.matcher(t.getPropertyName());
+		tasks.forEach(t -> {
+			Matcher m = TASK_ORDER_PATTERN.matcher(t.getPropertyName());
 			if (m.find()) {
 				int order = Integer.parseInt(m.group(1));
 				if (!orderedLiterals.containsKey(order)) {
@@ -171,7 +179,7 @@ public class TFDGraphGenerator implements IGraphGenerator<TFDNode, String>, ILog
 		List<Literal> newLiteralList = new ArrayList<>();
 		orderedLiterals.keySet().stream().sorted().forEach(order -> newLiteralList.addAll(orderedLiterals.get(order)));
 		newLiteralList.addAll(unorderedLiterals);
-		return new TFDNode(node.getState(), newLiteralList, node.getAppliedMethodInstance(), node.getAppliedAction());
+		return newLiteralList;
 	}
 
 	public boolean isPathSemanticallySubsumed(final List<TFDNode> path, final List<TFDNode> potentialSuperPath) throws InterruptedException {
@@ -52,6 +52,10 @@ public class TFDNode implements Serializable {
 		return this.problem;
 	}
 
+	/**
+	 * @return The state of the node. States of successive nodes share their literals (see {@link ai.libs.jaicore.logic.fol.structure.DeltaMonom}), so the state must not be modified; use
+	 *         {@link ai.libs.jaicore.planning.classical.algorithms.strips.forward.StripsUtil#getStateAfterAction(Monom, ai.libs.jaicore.planning.core.Action)} to derive a successor state.
+	 */
 	public Monom getState() {
 		return this.problem.getState();
 	}
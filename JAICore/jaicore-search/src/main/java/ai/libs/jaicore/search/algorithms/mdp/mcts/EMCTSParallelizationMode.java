@@ -0,0 +1,14 @@
+package ai.libs.jaicore.search.algorithms.mdp.mcts;
+
+/**
+ * Determines how MCTS distributes its playouts if it is allowed to use more than one CPU.
+ *
+ * TREE: All threads share one search tree and one tree policy. Policies implementing {@link IParallelizablePolicy} receive a virtual loss for the actions currently chosen by other threads so that the threads
+ * spread over the tree; all other tree policies are accessed under a lock.
+ *
+ * ROOT: Each thread builds its own search tree with its own copy of the tree policy (requires an {@link IParallelizablePolicy}). The statistics of all playouts are merged into the tree policy of the algorithm,
+ * which is the one being returned.
+ */
+public enum EMCTSParallelizationMode {
+	TREE, ROOT
+}
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.api4.java.ai.graphsearch.problem.IPathSearchWithPathEvaluationsInput;
 import org.api4.java.ai.graphsearch.problem.implicit.graphgenerator.IPathGoalTester;
@@ -35,9 +36,9 @@ public class GraphBasedMDP<N, A> implements IMDP<N, A, Double>, ILoggingCustomiz
 	private final N root;
 	private final ISuccessorGenerator<N, A> succGen;
 	private final IPathGoalTester<N, A> goalTester;
-	private final Map<N, Pair<N, A>> backPointers = new HashMap<>();
+	private final Map<N, Pair<N, A>> backPointers = new ConcurrentHashMap<>(); // concurrent, because MCTS may explore the MDP in parallel
 	private Logger logger = LoggerFactory.getLogger(GraphBasedMDP.class);
-	private final Map<N, Map<A, N>> successorCache = new HashMap<>();
+	private final Map<N, Map<A, N>> successorCache = new ConcurrentHashMap<>();
 	private final boolean lazy;
 	private final ILazySuccessorGenerator<N, A> lazySuccGen;
 
@@ -66,7 +67,7 @@ public class GraphBasedMDP<N, A> implements IMDP<N, A, Double>, ILoggingCustomiz
 		this.logger.debug("Computing applicable actions.");
 		Collection<INewNodeDescription<N, A>> successors = this.succGen.generateSuccessors(state);
 		Collection<A> actions = new ArrayList<>();
-		Map<A, N> cache = new HashMap<>();
+		Map<A, N> cache = new ConcurrentHashMap<>();
 		if (Thread.interrupted()) {
 			throw new InterruptedException("The computation of applicable actions has been interrupted.");
 		}
@@ -121,11 +122,9 @@ public class GraphBasedMDP<N, A> implements IMDP<N, A, Double>, ILoggingCustomiz
 	public Map<N, Double> getProb(final N state, final A action) throws InterruptedException {
 
 		/* first determine the successor node (either by cache or by constructing the successors again) */
-		N successor = null;
-		if (this.successorCache.containsKey(state) && this.successorCache.get(state).containsKey(action)) {
-			successor = this.successorCache.get(state).get(action);
-		}
-		else {
+		Map<A, N> cachedSuccessors = this.successorCache.get(state);
+		N successor = cachedSuccessors != null ? cachedSuccessors.get(action) : null;
+		if (successor == null) {
 			Optional<INewNodeDescription<N, A>> succOpt = this.succGen.generateSuccessors(state).stream().filter(nd -> nd.getArcLabel().equals(action)).findAny();
 			if (!succOpt.isPresent()) {
 				this.logger.error("THERE IS NO SUCCESSOR REACHABLE WITH ACTION {} IN THE MDP!", action);
@@ -218,7 +217,7 @@ public class GraphBasedMDP<N, A> implements IMDP<N, A, Double>, ILoggingCustomiz
 			if (this.successorCache.size() > MAX_SUCCESSOR_CACHE_SIZE) {
 				this.successorCache.clear();
 			}
-			this.successorCache.computeIfAbsent(state, n -> new HashMap<>()).put(ne.getArcLabel(), ne.getTo());
+			this.successorCache.computeIfAbsent(state, n -> new ConcurrentHashMap<>()).put(ne.getArcLabel(), ne.getTo());
 			this.backPointers.put(ne.getTo(), new Pair<>(state, ne.getArcLabel()));
 			return ne.getArcLabel();
 		}
@@ -232,7 +231,8 @@ public class GraphBasedMDP<N, A> implements IMDP<N, A, Double>, ILoggingCustomiz
 
 	@Override
 	public boolean isActionApplicableInState(final N state, final A action) throws InterruptedException {
-		if (this.successorCache.containsKey(state) && this.successorCache.get(state).containsKey(action)) {
+		Map<A, N> cachedSuccessors = this.successorCache.get(state);
+		if (cachedSuccessors != null && cachedSuccessors.containsKey(action)) {
 			return true;
 		}
 		return this.getApplicableActions(state).contains(action);
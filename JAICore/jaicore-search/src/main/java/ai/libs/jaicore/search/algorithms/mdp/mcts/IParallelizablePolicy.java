@@ -0,0 +1,26 @@
+package ai.libs.jaicore.search.algorithms.mdp.mcts;
+
+/**
+ * A tree policy that can be used by several MCTS threads at the same time. Implementations must be safe for concurrent queries and updates.
+ *
+ * @param <N>
+ *            Type of states (nodes)
+ * @param <A>
+ *            Type of actions
+ */
+public interface IParallelizablePolicy<N, A> extends IPathUpdatablePolicy<N, A, Double> {
+
+	/**
+	 * Marks that a thread currently plays the action in the node, so that the policy can make the action look worse to other threads until the result of the playout is known.
+	 *
+	 * @return true if the virtual loss has been applied (and hence must be removed later) and false otherwise.
+	 */
+	public boolean addVirtualLoss(N node, A action);
+
+	public void removeVirtualLoss(N node, A action);
+
+	/**
+	 * @return A policy with the same configuration but without any statistics.
+	 */
+	public IParallelizablePolicy<N, A> createEmptyCopy();
+}
@@ -3,14 +3,21 @@ package ai.libs.jaicore.search.algorithms.mdp.mcts;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import org.api4.java.algorithm.Timeout;
@@ -29,6 +36,8 @@ import org.slf4j.LoggerFactory;
 import com.google.common.eventbus.Subscribe;
 
 import ai.libs.jaicore.basic.algorithm.AAlgorithm;
+import ai.libs.jaicore.basic.algorithm.EAlgorithmState;
+import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.graphvisualizer.events.graph.GraphInitializedEvent;
 import ai.libs.jaicore.graphvisualizer.events.graph.NodeAddedEvent;
 import ai.libs.jaicore.search.model.other.SearchGraphPath;
@@ -37,6 +46,8 @@ import ai.libs.jaicore.search.probleminputs.MDPUtils;
 import ai.libs.jaicore.timing.TimedComputation;
 
 /**
+ * If the algorithm may use more than one CPU (and threads), it conducts as many playouts in parallel as CPUs are available. How the playouts share the search tree is determined by the
+ * {@link EMCTSParallelizationMode}. Each step of the algorithm still returns the event of exactly one playout.
  *
  * @author Felix Mohr
  *
@@ -60,10 +71,8 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 	private final int maxIterations;
 
 	/* variables describing the state of the search */
-	private int iterations = 0;
-	private final Collection<N> tpReadyStates = new HashSet<>();
-	private final Map<N, Collection<A>> applicableActionsPerState = new HashMap<>();
-	private final Map<N, List<A>> untriedActionsOfIncompleteStates = new HashMap<>();
+	private final AtomicInteger iterations = new AtomicInteger(0);
+	private final List<SearchTree> trees = new ArrayList<>(); // this is a single tree unless the search is root-parallelized
 	private int lastProgressReport = 0;
 
 	/* stats variables */
@@ -73,10 +82,48 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 
 	/* taboo management */
 	private final boolean tabooExhaustedNodes;
-	private Map<N, Collection<A>> tabooActions = new HashMap<>();
+
+	/* parallelization */
+	private EMCTSParallelizationMode parallelizationMode = EMCTSParallelizationMode.TREE;
+	private int numThreads = 1;
+	private ExecutorService pool;
+	private final Lock treePolicyLock = new ReentrantLock(); // only used for tree policies that are not safe for concurrent access
+	private final Lock defaultPolicyLock = new ReentrantLock(); // only used for default policies other than uniform sampling
+	private final Queue<IAlgorithmEvent> pendingIterationEvents = new LinkedList<>(); // events of parallel playouts that have already been posted but not yet been returned
+	private boolean rootExhausted = false;
 
 	private ILabeledPath<N, A> enforcedPrefixPath = null;
 
+	/**
+	 * The part of the search state that belongs to one search tree.
+	 */
+	private class SearchTree {
+		private final IPathUpdatablePolicy<N, A, Double> policy;
+		private final Collection<N> tpReadyStates = ConcurrentHashMap.newKeySet();
+		private final Map<N, Collection<A>> applicableActionsPerState = new ConcurrentHashMap<>();
+		private final Map<N, List<A>> untriedActionsOfIncompleteStates = new ConcurrentHashMap<>();
+		private final Map<N, Collection<A>> tabooActions = new ConcurrentHashMap<>();
+
+		private SearchTree(final IPathUpdatablePolicy<N, A, Double> policy) {
+			this.policy = policy;
+		}
+	}
+
+	/**
+	 * Result of a single playout. The events are posted by the thread that controls the algorithm and not by the thread that conducted the playout.
+	 */
+	private class Playout {
+		private final List<Object> events = new ArrayList<>();
+		private IAlgorithmEvent iterationEvent;
+		private boolean rootExhausted = false;
+
+		private Playout completeWith(final IAlgorithmEvent event) {
+			this.iterationEvent = event;
+			this.events.add(event);
+			return this;
+		}
+	}
+
 	public MCTS(final IMDP<N, A, Double> input, final IPathUpdatablePolicy<N, A, Double> treePolicy, final IPolicy<N, A> defaultPolicy, final int maxIterations, final double gamma, final double epsilon, final boolean tabooExhaustedNodes) {
 		super(input);
 		Objects.requireNonNull(input);
@@ -90,6 +137,7 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 		this.maxIterations = maxIterations;
 		this.maxDepth = MDPUtils.getTimeHorizon(gamma, epsilon);
 		this.tabooExhaustedNodes = tabooExhaustedNodes;
+		this.trees.add(new SearchTree(treePolicy));
 
 		/* forward event of tree policy or default policy if they send some */
 		if (treePolicy instanceof IRelaxedEventEmitter) {
@@ -104,6 +152,10 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 	}
 
 	public List<A> getPotentialActions(final ILabeledPath<N, A> path, final Collection<A> applicableActions) {
+		return this.getPotentialActions(this.trees.get(0), path, applicableActions);
+	}
+
+	private List<A> getPotentialActions(final SearchTree tree, final ILabeledPath<N, A> path, final Collection<A> applicableActions) {
 		N current = path.getHead();
 		List<A> possibleActions = new ArrayList<>(applicableActions);
 		if (possibleActions.isEmpty()) {
@@ -114,13 +166,13 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 		/* determine possible actions */
 		this.logger.debug("Computing potential actions based on {} applicable ones for state {}", applicableActions.size(), current);
 		if (this.tabooExhaustedNodes) {
-			Collection<A> tabooActionsForThisState = this.tabooActions.get(current);
+			Collection<A> tabooActionsForThisState = tree.tabooActions.get(current);
 			this.logger.debug("Found {} tabooed actions for this state.", tabooActionsForThisState != null ? tabooActionsForThisState.size() : 0);
 			if (tabooActionsForThisState != null) {
 				possibleActions = possibleActions.stream().filter(a -> !tabooActionsForThisState.contains(a)).collect(Collectors.toList());
 			}
 			if (possibleActions.isEmpty() && path.getNumberOfNodes() > 1) { // otherwise we are in the root and the thing ends
-				this.tabooLastActionOfPath(path);
+				this.tabooLastActionOfPath(tree, path);
 			}
 		}
 		return possibleActions;
@@ -147,269 +199,432 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 		try {
 			switch (this.getState()) {
 			case CREATED:
-				this.logger.info("Initialized MCTS algorithm {}.\n\tTree Policy: {}\n\tDefault Policy: {}\n\tMax Iterations: {}\n\tMax Depth: {}\n\tTaboo Exhausted Nodes: {}", this.getClass().getName(), this.treePolicy, this.defaultPolicy,
-						this.maxIterations, this.maxDepth, this.tabooExhaustedNodes);
-				return this.activate();
+				this.logger.info("Initialized MCTS algorithm {}.\n\tTree Policy: {}\n\tDefault Policy: {}\n\tMax Iterations: {}\n\tMax Depth: {}\n\tTaboo Exhausted Nodes: {}\n\tCPUs: {}\n\tParallelization Mode: {}", this.getClass().getName(),
+						this.treePolicy, this.defaultPolicy, this.maxIterations, this.maxDepth, this.tabooExhaustedNodes, this.getNumCPUs(), this.parallelizationMode);
+				IAlgorithmEvent initEvent = this.activate();
+				int threadsForAlgorithm = (this.getConfig().threads() >= 0) ? Math.min(this.getConfig().threads(), this.getNumCPUs()) : this.getNumCPUs();
+				if (threadsForAlgorithm > 1) {
+					this.parallelizePlayouts(threadsForAlgorithm);
+				}
+				return initEvent;
 			case ACTIVE:
-				if (this.iterations >= this.maxIterations) {
+
+				/* parallel playouts produce several events in one step, which are returned one after the other */
+				if (!this.pendingIterationEvents.isEmpty()) {
+					return this.pendingIterationEvents.poll();
+				}
+				if (this.rootExhausted) {
+					this.logger.info("There are no possible actions in the root. Finishing.");
+					return this.terminate();
+				}
+				if (this.iterations.get() >= this.maxIterations) {
 					this.logger.info("Number of iterations reached limit of {}.", this.maxIterations);
 					return this.terminate();
 				} else {
 					try {
-						long timeStart = System.currentTimeMillis();
-						this.iterations++;
-
-						/* if the number of (estimated) remaining rollouts is relevant for the tree policy, tell it */
-						if (this.treePolicy instanceof IRolloutLimitDependentPolicy && this.isTimeoutDefined()) {
-							double avgTimeOfRollouts = this.msSpentInRollouts * 1.0 / this.iterations;
-							int expectedRemainingNumberOfRollouts = (int) Math.floor(this.getRemainingTimeToDeadline().milliseconds() / avgTimeOfRollouts);
-							((IRolloutLimitDependentPolicy) this.treePolicy).setEstimatedNumberOfRemainingRollouts(expectedRemainingNumberOfRollouts);
+						if (this.pool != null) {
+							return this.conductPlayoutsInParallel();
+						}
+						Playout playout = this.conductPlayout(this.trees.get(0));
+						playout.events.forEach(this::post);
+						if (playout.rootExhausted) {
+							this.logger.info("There are no possible actions in the root. Finishing.");
+							return this.terminate();
 						}
+						return playout.iterationEvent;
+					} catch (ActionPredictionFailedException | ObjectEvaluationFailedException e) {
+						throw new AlgorithmException("Could not create playout due to an exception! MCTS cannot deal with this in general. Please modify your MDP such that this kind of exceptions is resolved to some kind of score.", e);
+					} catch (ExecutionException e) {
+						throw new AlgorithmException("Observed error during timed computation.", e);
+					}
+				}
+			default:
+				throw new IllegalStateException("Don't know what to do in state " + this.getState());
+			}
+		}
+		finally {
+			this.logger.debug("Unregistering thread {}", Thread.currentThread());
+			this.unregisterActiveThread();
+		}
+	}
 
-						/* draw playout */
-						this.logger.info("Draw next playout: #{}.", this.iterations);
-						int invocationsOfTreePolicyInThisIteration = 0;
-						int invocationsOfDefaultPolicyInThisIteration = 0;
-						long timeSpentInActionApplicabilityComputationThisIteration = 0;
-						long timeSpentInSuccessorGenerationThisIteration = 0;
-						long timeSpentInTreePolicyQueriesThisIteration = 0;
-						long timeSpentInTreePolicyUpdatesThisIteration = 0;
-						long timeSpentInDefaultPolicyThisIteration = 0;
-						List<Double> scores = new ArrayList<>();
-						ILabeledPath<N, A> path = new SearchGraphPath<>(this.mdp.getInitState());
-						N current = path.getRoot();
-						A action = null;
-						int phase = 1;
-						long lastTerminationCheck = 0;
-						int depth = 0;
-						while (path.getNumberOfNodes() < this.maxDepth) {
-
-							/* check whether this is a terminal state, and check this within a try-block to catch a potential interrupt */
-							try {
-								if (this.mdp.isTerminalState(current)) {
-									break;
+	private void parallelizePlayouts(final int threads) {
+		this.numThreads = threads;
+		if (this.parallelizationMode == EMCTSParallelizationMode.ROOT) {
+			this.trees.clear();
+			for (int i = 0; i < threads; i++) {
+				this.trees.add(new SearchTree(((IParallelizablePolicy<N, A>) this.treePolicy).createEmptyCopy()));
+			}
+		}
+		AtomicInteger counter = new AtomicInteger(0);
+		this.pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r);
+			t.setName("MCTS-worker-" + counter.incrementAndGet());
+			return t;
+		});
+		this.logger.info("Conducting up to {} playouts in parallel using {}-parallelization.", threads, this.parallelizationMode);
+	}
+
+	/**
+	 * Conducts one playout per thread (or less if the iteration limit is reached), posts the events of all playouts, and returns the event of the first one. The others are returned in the subsequent steps.
+	 */
+	private IAlgorithmEvent conductPlayoutsInParallel() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		int numPlayouts = Math.min(this.numThreads, this.maxIterations - this.iterations.get());
+		List<Future<Playout>> futures = new ArrayList<>(numPlayouts);
+		for (int i = 0; i < numPlayouts; i++) {
+			SearchTree tree = this.trees.get(i % this.trees.size());
+			futures.add(this.pool.submit(() -> this.conductPlayout(tree)));
+		}
+		List<Playout> playouts = new ArrayList<>(numPlayouts);
+		try {
+			for (Future<Playout> future : futures) {
+				playouts.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			futures.forEach(f -> f.cancel(true));
+			this.checkAndConductTermination(); // if we have been canceled or timeouted, throw the corresponding exception
+			throw e; // otherwise re-throw the InterruptedException
+		} catch (ExecutionException e) {
+			futures.forEach(f -> f.cancel(true));
+			Throwable cause = e.getCause();
+			if (cause instanceof AlgorithmTimeoutedException) {
+				throw (AlgorithmTimeoutedException) cause;
+			}
+			if (cause instanceof AlgorithmExecutionCanceledException) {
+				throw (AlgorithmExecutionCanceledException) cause;
+			}
+			if (cause instanceof InterruptedException) {
+				this.checkAndConductTermination();
+				throw (InterruptedException) cause;
+			}
+			if (cause instanceof AlgorithmException) {
+				throw (AlgorithmException) cause;
+			}
+			if (cause instanceof ActionPredictionFailedException || cause instanceof ObjectEvaluationFailedException) {
+				throw new AlgorithmException("Could not create playout due to an exception! MCTS cannot deal with this in general. Please modify your MDP such that this kind of exceptions is resolved to some kind of score.", cause);
+			}
+			throw new AlgorithmException("Observed error in parallel playout.", cause);
+		}
+
+		/* publish the events of all playouts and queue the iteration events for being returned */
+		for (Playout playout : playouts) {
+			playout.events.forEach(this::post);
+			if (playout.iterationEvent != null) {
+				this.pendingIterationEvents.add(playout.iterationEvent);
+			}
+			this.rootExhausted |= playout.rootExhausted;
+		}
+		if (this.pendingIterationEvents.isEmpty()) {
+			this.logger.info("There are no possible actions in the root. Finishing.");
+			return this.terminate();
+		}
+		return this.pendingIterationEvents.poll();
+	}
+
+	private Playout conductPlayout(final SearchTree tree) throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException, ActionPredictionFailedException, ObjectEvaluationFailedException, ExecutionException {
+		Playout playout = new Playout();
+		List<Pair<N, A>> virtualLosses = new ArrayList<>();
+		try {
+			long timeStart = System.currentTimeMillis();
+			int iteration = this.iterations.incrementAndGet();
+
+			/* if the number of (estimated) remaining rollouts is relevant for the tree policy, tell it */
+			if (tree.policy instanceof IRolloutLimitDependentPolicy && this.isTimeoutDefined()) {
+				double avgTimeOfRollouts = this.msSpentInRollouts * 1.0 / iteration;
+				int expectedRemainingNumberOfRollouts = (int) Math.floor(this.getRemainingTimeToDeadline().milliseconds() / avgTimeOfRollouts);
+				((IRolloutLimitDependentPolicy) tree.policy).setEstimatedNumberOfRemainingRollouts(expectedRemainingNumberOfRollouts);
+			}
+
+			/* draw playout */
+			this.logger.info("Draw next playout: #{}.", iteration);
+			int invocationsOfTreePolicyInThisIteration = 0;
+			int invocationsOfDefaultPolicyInThisIteration = 0;
+			long timeSpentInActionApplicabilityComputationThisIteration = 0;
+			long timeSpentInSuccessorGenerationThisIteration = 0;
+			long timeSpentInTreePolicyQueriesThisIteration = 0;
+			long timeSpentInTreePolicyUpdatesThisIteration = 0;
+			long timeSpentInDefaultPolicyThisIteration = 0;
+			List<Double> scores = new ArrayList<>();
+			ILabeledPath<N, A> path = new SearchGraphPath<>(this.mdp.getInitState());
+			N current = path.getRoot();
+			A action = null;
+			int phase = 1;
+			long lastTerminationCheck = 0;
+			int depth = 0;
+			while (path.getNumberOfNodes() < this.maxDepth) {
+
+				/* check whether this is a terminal state, and check this within a try-block to catch a potential interrupt */
+				try {
+					if (this.mdp.isTerminalState(current)) {
+						break;
+					}
+				}
+				catch (InterruptedException e) {
+					this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
+					throw e; // otherwise re-throw the InterruptedException
+				}
+
+				this.logger.debug("Now extending the roll-out in depth {}", depth);
+				depth++;
+
+				/* make sure that we have not been canceled/timeouted/interrupted */
+				long now = System.currentTimeMillis();
+				if (now - lastTerminationCheck > 1000) {
+					this.checkAndConductTermination();
+					lastTerminationCheck = now;
+				}
+
+				/* first case: Tree policy can be applied */
+				if (phase == 1 && tree.tpReadyStates.contains(current)) {
+
+					/* here we assume that the set of applicable actions is stored in memory, and we just compute the subset of them for the case that taboo is active */
+					this.logger.debug("Computing possible actions for node {}", current);
+					assert tree.applicableActionsPerState.containsKey(current) && !tree.applicableActionsPerState.get(current).isEmpty() : "It makes no sense to apply the TP to a node without applicable actions!";
+					List<A> possibleActions = this.getPotentialActions(tree, path, tree.applicableActionsPerState.get(current));
+					if (possibleActions.isEmpty()) {
+						if (path.isPoint()) { // if we are in the root and cannot do anything anymore, then stop the algorithm.
+							this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration, invocationsOfTreePolicyInThisIteration,
+									invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration, timeSpentInDefaultPolicyThisIteration);
+							playout.rootExhausted = true;
+							return playout;
+						}
+						break;
+					}
+
+					this.logger.debug("Ask tree policy to choose one action of: {}.", possibleActions);
+					long tpStart = System.currentTimeMillis();
+					try {
+						action = this.getActionFromTreePolicy(tree, current, possibleActions);
+					}
+					catch (InterruptedException e) {
+						this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
+						throw e; // otherwise re-throw the InterruptedException
+					}
+					timeSpentInTreePolicyQueriesThisIteration += (System.currentTimeMillis() - tpStart);
+					invocationsOfTreePolicyInThisIteration++;
+					Objects.requireNonNull(action, "Actions in MCTS must never be null, but tree policy returned null!");
+					this.logger.debug("Tree policy recommended action {}.", action);
+
+					/* in tree-parallel MCTS, discourage the other threads from following this playout */
+					if (this.pool != null && this.parallelizationMode == EMCTSParallelizationMode.TREE && tree.policy instanceof IParallelizablePolicy
+							&& ((IParallelizablePolicy<N, A>) tree.policy).addVirtualLoss(current, action)) {
+						virtualLosses.add(new Pair<>(current, action));
+					}
+				} else {
+					if (phase == 1) { // switch to next phase
+						this.logger.debug("Switching to roll-out phase 2.");
+						phase = 2;
+					}
+					if (phase == 2) { // this phase is for the first node on the path that is not TP ready. This node has (unless it is a leaf) untried actions
+
+						/* compute the actions that have not been tried for this node */
+						List<A> untriedActions = tree.untriedActionsOfIncompleteStates.get(current);
+						if (untriedActions == null) { // if this is the first time we see this node, compute *all* its successors
+
+							/* compute possible actions (this is done first since this may take long/timeout/interrupt, so that we check afterwards whether we are still active */
+							long startActionTime = System.currentTimeMillis();
+							if (this.getRemainingTimeToDeadline().milliseconds() < 2000) {
+								if (this.getRemainingTimeToDeadline().milliseconds() > 0) {
+									Thread.sleep(this.getRemainingTimeToDeadline().milliseconds());
 								}
+								this.checkAndConductTermination();
 							}
-							catch (InterruptedException e) {
-								this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
-								throw e; // otherwise re-throw the InterruptedException
-							}
+							Collection<A> applicableActions = this.getApplicableActions(current);
+							timeSpentInActionApplicabilityComputationThisIteration += (System.currentTimeMillis() - startActionTime);
+							tree.applicableActionsPerState.put(current, applicableActions);
 
-							this.logger.debug("Now extending the roll-out in depth {}", depth);
-							depth++;
+							/* if there are no applicable actions for this node (dead-end) conduct back-propagation */
+							if (applicableActions.isEmpty()) {
+								long tpStart = System.currentTimeMillis();
+								this.updateTreePolicy(tree, path, scores);
+								timeSpentInTreePolicyUpdatesThisIteration += (System.currentTimeMillis() - tpStart);
+								this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration,
+										invocationsOfTreePolicyInThisIteration, invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration,
+										timeSpentInDefaultPolicyThisIteration);
+								return playout.completeWith(new MCTSIterationCompletedEvent<>(this, this.treePolicy, new SearchGraphPath<>(path), scores));
+							}
 
-							/* make sure that we have not been canceled/timeouted/interrupted */
-							long now = System.currentTimeMillis();
-							if (now - lastTerminationCheck > 1000) {
-								this.checkAndConductTermination();
-								lastTerminationCheck = now;
+							/* register the untried actions unless a concurrent playout has done so in the meantime */
+							List<A> newUntriedActions = new ArrayList<>(applicableActions);
+							untriedActions = tree.untriedActionsOfIncompleteStates.putIfAbsent(current, newUntriedActions);
+							if (untriedActions == null) {
+								untriedActions = newUntriedActions;
 							}
+						}
 
-							/* first case: Tree policy can be applied */
-							if (phase == 1 && this.tpReadyStates.contains(current)) {
-
-								/* here we assume that the set of applicable actions is stored in memory, and we just compute the subset of them for the case that taboo is active */
-								this.logger.debug("Computing possible actions for node {}", current);
-								assert this.applicableActionsPerState.containsKey(current) && !this.applicableActionsPerState.get(current).isEmpty() : "It makes no sense to apply the TP to a node without applicable actions!";
-								List<A> possibleActions = this.getPotentialActions(path, this.applicableActionsPerState.get(current));
-								if (possibleActions.isEmpty()) {
-									if (path.isPoint()) { // if we are in the root and cannot do anything anymore, then stop the algorithm.
-										this.logger.info("There are no possible actions in the root. Finishing.");
-										this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration, invocationsOfTreePolicyInThisIteration,
-												invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration, timeSpentInDefaultPolicyThisIteration);
-										return this.terminate();
-									}
-									break;
-								}
+						/* now remove the first untried action from the list. The (then possibly empty) list is not removed so that concurrent playouts do not compute the successors of the state again */
+						boolean wasLastUntriedAction;
+						synchronized (untriedActions) {
+							this.logger.debug("There are {} untried actions: {}", untriedActions.size(), untriedActions);
+							action = untriedActions.isEmpty() ? null : untriedActions.remove(0);
+							wasLastUntriedAction = untriedActions.isEmpty();
+						}
+						phase = 3;
+						if (action == null) {
+							this.logger.debug("The last untried action of {} has been taken by a concurrent playout. Switching to roll-out phase 3.", current);
+							continue;
+						}
+						this.logger.debug("Choosing untried action {}. There are {} remaining untried actions.", action, untriedActions.size());
 
-								this.logger.debug("Ask tree policy to choose one action of: {}.", possibleActions);
-								long tpStart = System.currentTimeMillis();
-								try {
-									action = this.treePolicy.getAction(current, possibleActions);
-								}
-								catch (InterruptedException e) {
-									this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
-									throw e; // otherwise re-throw the InterruptedException
-								}
-								timeSpentInTreePolicyQueriesThisIteration += (System.currentTimeMillis() - tpStart);
-								invocationsOfTreePolicyInThisIteration++;
-								Objects.requireNonNull(action, "Actions in MCTS must never be null, but tree policy returned null!");
-								this.logger.debug("Tree policy recommended action {}.", action);
+						/* if this was the last untried action, add the state to the tree policy pool */
+						if (wasLastUntriedAction) {
+							tree.tpReadyStates.add(current);
+							if (path.isPoint()) {
+								playout.events.add(new GraphInitializedEvent<>(this, current));
 							} else {
-								if (phase == 1) { // switch to next phase
-									this.logger.debug("Switching to roll-out phase 2.");
-									phase = 2;
-								}
-								if (phase == 2) { // this phase is for the first node on the path that is not TP ready. This node has (unless it is a leaf) untried actions
-
-									/* compute the actions that have not been tried for this node */
-									List<A> untriedActions;
-									if (!this.untriedActionsOfIncompleteStates.containsKey(current)) { // if this is the first time we see this node, compute *all* its successors
-
-										/* compute possible actions (this is done first since this may take long/timeout/interrupt, so that we check afterwards whether we are still active */
-										long startActionTime = System.currentTimeMillis();
-										if (this.getRemainingTimeToDeadline().milliseconds() < 2000) {
-											if (this.getRemainingTimeToDeadline().milliseconds() > 0) {
-												Thread.sleep(this.getRemainingTimeToDeadline().milliseconds());
-											}
-											this.checkAndConductTermination();
-										}
-										Collection<A> applicableActions = this.getApplicableActions(current);
-										untriedActions = new ArrayList<>(applicableActions);
-										timeSpentInActionApplicabilityComputationThisIteration += (System.currentTimeMillis() - startActionTime);
-										this.applicableActionsPerState.put(current, applicableActions);
-
-										/* if there are no applicable actions for this node (dead-end) conduct back-propagation */
-										if (untriedActions.isEmpty()) {
-											long tpStart = System.currentTimeMillis();
-											this.treePolicy.updatePath(path, scores);
-											timeSpentInTreePolicyUpdatesThisIteration += (System.currentTimeMillis() - tpStart);
-											IAlgorithmEvent event = new MCTSIterationCompletedEvent<>(this, this.treePolicy, new SearchGraphPath<>(path), scores);
-											this.post(event);
-											this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration,
-													invocationsOfTreePolicyInThisIteration, invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration,
-													timeSpentInDefaultPolicyThisIteration);
-											return event;
-										}
-										this.untriedActionsOfIncompleteStates.put(current, untriedActions);
-									} else {
-										untriedActions = this.untriedActionsOfIncompleteStates.get(current);
-									}
-
-									/* now remove the first untried action from the list */
-									this.logger.debug("There are {} untried actions: {}", untriedActions.size(), untriedActions);
-									assert !untriedActions.isEmpty() : "Untried actions must not be empty!";
-									action = untriedActions.remove(0);
-									this.logger.debug("Choosing untried action {}. There are {} remaining untried actions: {}", action, untriedActions.size(), untriedActions);
-									Objects.requireNonNull(action, "Actions in MCTS must never be null!");
-
-									/* if this was the last untried action, remove it from that field and add it to the tree policy pool */
-									if (untriedActions.isEmpty()) {
-										this.untriedActionsOfIncompleteStates.remove(current);
-										this.tpReadyStates.add(current);
-										if (path.isPoint()) {
-											this.post(new GraphInitializedEvent<>(this, current));
-										} else {
-											this.post(new NodeAddedEvent<>(this, path.getPathToParentOfHead().getHead(), current, "none"));
-										}
-										this.logger.debug("Adding state {} to tree policy domain.", current);
-									}
-									phase = 3;
-									this.logger.debug("Switching to roll-out phase 3.");
-								} else if (phase == 3) {
-
-									long startDP = System.currentTimeMillis();
-
-									/* if the default policy is a uniform sampler, just directly ask the MDP */
-									if (this.uniformSamplingDefaultPolicy) {
-										this.logger.debug("Sample a single action directly from the MDP.");
-										try {
-											action = this.mdp.getUniformlyRandomApplicableAction(current, this.randomSourceOfUniformSamplyPolicy);
-										}
-										catch (InterruptedException e) {
-											this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
-											throw e; // otherwise re-throw the InterruptedException
-										}
-									} else {
-
-										/* determine possible actions and ask default policy which one to choose */
-										long startActionTime = System.currentTimeMillis();
-										Collection<A> applicableActions = this.getApplicableActions(current);
-										timeSpentInActionApplicabilityComputationThisIteration += (System.currentTimeMillis() - startActionTime);
-										this.logger.debug("Ask default policy to choose one action of: {}.", applicableActions);
-										try {
-											action = this.defaultPolicy.getAction(current, applicableActions);
-										}
-										catch (InterruptedException e) {
-											this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
-											throw e; // otherwise re-throw the InterruptedException
-										}
-										assert applicableActions.contains(action);
-									}
-									timeSpentInDefaultPolicyThisIteration += (System.currentTimeMillis() - startDP);
-									invocationsOfDefaultPolicyInThisIteration++;
-									Objects.requireNonNull(action, "Actions in MCTS must never be null, but default policy has returned null!");
-									this.logger.debug("Default policy chose action {}.", action);
-								} else {
-									throw new IllegalStateException("Invalid phase " + phase);
-								}
+								playout.events.add(new NodeAddedEvent<>(this, path.getPathToParentOfHead().getHead(), current, "none"));
 							}
+							this.logger.debug("Adding state {} to tree policy domain.", current);
+						}
+						this.logger.debug("Switching to roll-out phase 3.");
+					} else if (phase == 3) {
 
-							/* we now have the action chosen for this node. Now draw a successor state */
+						long startDP = System.currentTimeMillis();
+
+						/* if the default policy is a uniform sampler, just directly ask the MDP */
+						if (this.uniformSamplingDefaultPolicy) {
+							this.logger.debug("Sample a single action directly from the MDP.");
 							try {
-								long startSuccessorComputation = System.currentTimeMillis();
-								N nextState = this.utils.drawSuccessorState(this.mdp, current, action);
-								timeSpentInSuccessorGenerationThisIteration += System.currentTimeMillis() - startSuccessorComputation;
-								scores.add(this.mdp.getScore(current, action, nextState));
-								current = nextState;
-								path.extend(current, action);
+								action = this.mdp.getUniformlyRandomApplicableAction(current, this.randomSourceOfUniformSamplyPolicy);
 							}
 							catch (InterruptedException e) {
 								this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
 								throw e; // otherwise re-throw the InterruptedException
 							}
-						}
-
-						/* if we touched the ground with the tree policy, add the last action to the taboo list */
-						if (this.tabooExhaustedNodes && phase == 1) {
-							this.tabooLastActionOfPath(path);
-						}
-
-						/* decide whether to show a progress report */
-						int progress = (int) Math.round(this.iterations * 100.0 / this.maxIterations);
-						if (progress > this.lastProgressReport && progress % 5 == 0) {
-							this.logger.info("Progress: {}%", Math.round(this.iterations * 100.0 / this.maxIterations));
-							this.lastProgressReport = progress;
-						}
+						} else {
 
-						boolean hasNullScore = scores.contains(null);
-						// if (hasNullScore) {
-						// this.logger.warn("Found playout with null-score. Ignoring this run.");
-						// this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration, invocationsOfTreePolicyInThisIteration,
-						// invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration, timeSpentInDefaultPolicyThisIteration);
-						// return this.nextWithException();
-						// }
-
-						/* create and publish roll-out event */
-						boolean isGoalPath;
-						try {
-							isGoalPath = this.mdp.isTerminalState(path.getHead());
-						}
-						catch (InterruptedException e) {
-							this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
-							throw e; // otherwise re-throw the InterruptedException
-						}
-						double totalUndiscountedScore = hasNullScore ? Double.NaN : scores.stream().reduce(0.0, (a, b) -> a.doubleValue() + b.doubleValue());
-						this.logger.info("Found playout of length {}. Head is goal: {}. (Undiscounted) score of path is {}.", path.getNumberOfNodes(), isGoalPath, totalUndiscountedScore);
-						this.logger.debug("Found leaf node with score {}. Now propagating this score over the path with actions {}. Leaf state is: {}.", totalUndiscountedScore, path.getArcs(), path.getHead());
-						if (!path.isPoint()) {
-							long tpStart = System.currentTimeMillis();
-							this.treePolicy.updatePath(path, scores);
-							timeSpentInTreePolicyUpdatesThisIteration += (System.currentTimeMillis() - tpStart);
+							/* determine possible actions and ask default policy which one to choose */
+							long startActionTime = System.currentTimeMillis();
+							Collection<A> applicableActions = this.getApplicableActions(current);
+							timeSpentInActionApplicabilityComputationThisIteration += (System.currentTimeMillis() - startActionTime);
+							this.logger.debug("Ask default policy to choose one action of: {}.", applicableActions);
+							try {
+								action = this.getActionFromDefaultPolicy(current, applicableActions);
+							}
+							catch (InterruptedException e) {
+								this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
+								throw e; // otherwise re-throw the InterruptedException
+							}
+							assert applicableActions.contains(action);
 						}
-						IAlgorithmEvent event = new MCTSIterationCompletedEvent<>(this, this.treePolicy, new SearchGraphPath<>(path), scores);
-						this.post(event);
-						this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration, invocationsOfTreePolicyInThisIteration,
-								invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration, timeSpentInDefaultPolicyThisIteration);
-						return event;
-					} catch (ActionPredictionFailedException | ObjectEvaluationFailedException e) {
-						throw new AlgorithmException("Could not create playout due to an exception! MCTS cannot deal with this in general. Please modify your MDP such that this kind of exceptions is resolved to some kind of score.", e);
-					} catch (ExecutionException e) {
-						throw new AlgorithmException("Observed error during timed computation.", e);
+						timeSpentInDefaultPolicyThisIteration += (System.currentTimeMillis() - startDP);
+						invocationsOfDefaultPolicyInThisIteration++;
+						Objects.requireNonNull(action, "Actions in MCTS must never be null, but default policy has returned null!");
+						this.logger.debug("Default policy chose action {}.", action);
+					} else {
+						throw new IllegalStateException("Invalid phase " + phase);
 					}
 				}
-			default:
-				throw new IllegalStateException("Don't know what to do in state " + this.getState());
+
+				/* we now have the action chosen for this node. Now draw a successor state */
+				try {
+					long startSuccessorComputation = System.currentTimeMillis();
+					N nextState = this.utils.drawSuccessorState(this.mdp, current, action);
+					timeSpentInSuccessorGenerationThisIteration += System.currentTimeMillis() - startSuccessorComputation;
+					scores.add(this.mdp.getScore(current, action, nextState));
+					current = nextState;
+					path.extend(current, action);
+				}
+				catch (InterruptedException e) {
+					this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
+					throw e; // otherwise re-throw the InterruptedException
+				}
+			}
+
+			/* if we touched the ground with the tree policy, add the last action to the taboo list */
+			if (this.tabooExhaustedNodes && phase == 1) {
+				this.tabooLastActionOfPath(tree, path);
+			}
+
+			/* decide whether to show a progress report */
+			this.reportProgress(iteration);
+
+			boolean hasNullScore = scores.contains(null);
+
+			/* create roll-out event */
+			boolean isGoalPath;
+			try {
+				isGoalPath = this.mdp.isTerminalState(path.getHead());
 			}
+			catch (InterruptedException e) {
+				this.checkAndConductTermination(); // if we have been canceled, throw the corresponding exception
+				throw e; // otherwise re-throw the InterruptedException
+			}
+			double totalUndiscountedScore = hasNullScore ? Double.NaN : scores.stream().reduce(0.0, (a, b) -> a.doubleValue() + b.doubleValue());
+			this.logger.info("Found playout of length {}. Head is goal: {}. (Undiscounted) score of path is {}.", path.getNumberOfNodes(), isGoalPath, totalUndiscountedScore);
+			this.logger.debug("Found leaf node with score {}. Now propagating this score over the path with actions {}. Leaf state is: {}.", totalUndiscountedScore, path.getArcs(), path.getHead());
+			if (!path.isPoint()) {
+				long tpStart = System.currentTimeMillis();
+				this.updateTreePolicy(tree, path, scores);
+				timeSpentInTreePolicyUpdatesThisIteration += (System.currentTimeMillis() - tpStart);
+			}
+			this.summarizeIteration(System.currentTimeMillis() - timeStart, timeSpentInActionApplicabilityComputationThisIteration, timeSpentInSuccessorGenerationThisIteration, invocationsOfTreePolicyInThisIteration,
+					invocationsOfDefaultPolicyInThisIteration, timeSpentInTreePolicyQueriesThisIteration, timeSpentInTreePolicyUpdatesThisIteration, timeSpentInDefaultPolicyThisIteration);
+			return playout.completeWith(new MCTSIterationCompletedEvent<>(this, this.treePolicy, new SearchGraphPath<>(path), scores));
 		}
 		finally {
-			this.logger.debug("Unregistering thread {}", Thread.currentThread());
-			this.unregisterActiveThread();
+			for (Pair<N, A> virtualLoss : virtualLosses) {
+				((IParallelizablePolicy<N, A>) tree.policy).removeVirtualLoss(virtualLoss.getX(), virtualLoss.getY());
+			}
+		}
+	}
+
+	private A getActionFromTreePolicy(final SearchTree tree, final N state, final List<A> possibleActions) throws ActionPredictionFailedException, InterruptedException {
+		if (this.pool == null || tree.policy instanceof IParallelizablePolicy) {
+			return tree.policy.getAction(state, possibleActions);
+		}
+		this.treePolicyLock.lockInterruptibly();
+		try {
+			return tree.policy.getAction(state, possibleActions);
+		}
+		finally {
+			this.treePolicyLock.unlock();
+		}
+	}
+
+	private A getActionFromDefaultPolicy(final N state, final Collection<A> applicableActions) throws ActionPredictionFailedException, InterruptedException {
+		if (this.pool == null) {
+			return this.defaultPolicy.getAction(state, applicableActions);
+		}
+		this.defaultPolicyLock.lockInterruptibly();
+		try {
+			return this.defaultPolicy.getAction(state, applicableActions);
+		}
+		finally {
+			this.defaultPolicyLock.unlock();
 		}
 	}
 
-	private void summarizeIteration(final long timeForRolloutThisIteration, final long timeSpentInActionApplicability, final long timeSpentInSuccessorGenerationThisIteration, final int numInvocationsOfTP, final int numInvocationsOfDP,
-			final long timeSpentInTreePolicyQueriesThisIteration, final long timeSpentInTreePolicyUpdatesThisIteration, final long timeSpentInDefaultPolicyThisIteration) {
+	/**
+	 * Updates the policy of the tree. In root-parallel MCTS, the path is also used to update the tree policy of the algorithm, which hence contains the merged statistics of all trees.
+	 */
+	private void updateTreePolicy(final SearchTree tree, final ILabeledPath<N, A> path, final List<Double> scores) throws InterruptedException {
+		if (this.pool == null || tree.policy instanceof IParallelizablePolicy) {
+			tree.policy.updatePath(path, scores);
+		} else {
+			this.treePolicyLock.lockInterruptibly();
+			try {
+				tree.policy.updatePath(path, scores);
+			}
+			finally {
+				this.treePolicyLock.unlock();
+			}
+		}
+		if (tree.policy != this.treePolicy) {
+			this.treePolicy.updatePath(path, scores);
+		}
+	}
+
+	private synchronized void reportProgress(final int iteration) {
+		int progress = (int) Math.round(iteration * 100.0 / this.maxIterations);
+		if (progress > this.lastProgressReport && progress % 5 == 0) {
+			this.logger.info("Progress: {}%", progress);
+			this.lastProgressReport = progress;
+		}
+	}
+
+	private synchronized void summarizeIteration(final long timeForRolloutThisIteration, final long timeSpentInActionApplicability, final long timeSpentInSuccessorGenerationThisIteration, final int numInvocationsOfTP,
+			final int numInvocationsOfDP, final long timeSpentInTreePolicyQueriesThisIteration, final long timeSpentInTreePolicyUpdatesThisIteration, final long timeSpentInDefaultPolicyThisIteration) {
 		this.msSpentInRollouts += timeForRolloutThisIteration;
 		this.msSpentInTreePolicyQueries += timeSpentInTreePolicyQueriesThisIteration;
 		this.msSpentInTreePolicyUpdates += timeSpentInTreePolicyUpdatesThisIteration;
@@ -419,24 +634,54 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 				numInvocationsOfDP, timeSpentInDefaultPolicyThisIteration, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
 	}
 
-	private void tabooLastActionOfPath(final ILabeledPath<N, A> path) {
+	private void tabooLastActionOfPath(final SearchTree tree, final ILabeledPath<N, A> path) {
 		if (path.isPoint()) {
 			throw new IllegalArgumentException("The path is a point, which has no first action to taboo.");
 		}
 		N lastStatePriorToEnd = path.getParentOfHead();
 		A lastAction = path.getOutArc(lastStatePriorToEnd);
-		this.tabooActions.computeIfAbsent(lastStatePriorToEnd, n -> new HashSet<>()).add(lastAction);
+		tree.tabooActions.computeIfAbsent(lastStatePriorToEnd, n -> ConcurrentHashMap.newKeySet()).add(lastAction);
 		this.logger.debug("Adding action {} to taboo list of state {}", lastAction, lastStatePriorToEnd);
 	}
 
+	@Override
+	protected void shutdown() {
+		super.shutdown();
+		if (this.pool != null) {
+			this.logger.info("Shutting down pool of playout threads.");
+			this.pool.shutdownNow();
+		}
+	}
+
 	public int getNumberOfRealizedPlayouts() {
-		return this.iterations;
+		return this.iterations.get();
 	}
 
 	public IPathUpdatablePolicy<N, A, Double> getTreePolicy() {
 		return this.treePolicy;
 	}
 
+	public EMCTSParallelizationMode getParallelizationMode() {
+		return this.parallelizationMode;
+	}
+
+	/**
+	 * Determines how playouts share the search tree if the algorithm may use more than one CPU (see {@link #setNumCPUs(int)}).
+	 *
+	 * @param parallelizationMode
+	 *            The mode of parallelization. Root parallelization requires a tree policy that implements {@link IParallelizablePolicy}.
+	 */
+	public void setParallelizationMode(final EMCTSParallelizationMode parallelizationMode) {
+		Objects.requireNonNull(parallelizationMode);
+		if (this.getState() != EAlgorithmState.CREATED) {
+			throw new IllegalStateException("The parallelization mode can only be set before the algorithm is started.");
+		}
+		if (parallelizationMode == EMCTSParallelizationMode.ROOT && !(this.treePolicy instanceof IParallelizablePolicy)) {
+			throw new IllegalArgumentException("Root parallelization requires a tree policy that implements " + IParallelizablePolicy.class.getName() + ", but " + this.treePolicy.getClass().getName() + " does not.");
+		}
+		this.parallelizationMode = parallelizationMode;
+	}
+
 	@Override
 	public IPolicy<N, A> call() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
 		while (this.hasNext()) {
@@ -450,11 +695,12 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 			throw new IllegalArgumentException("Illegal prefix, since root does not coincide with algorithm root. Proposed root is: " + path.getRoot());
 		}
 		this.enforcedPrefixPath = path;
+		Collection<N> tpReadyStates = this.trees.get(0).tpReadyStates;
 		N last = null;
 		for (N node : path.getNodes()) {
 			if (last != null) {
-				this.tpReadyStates.remove(last);
-				this.tpReadyStates.add(node);
+				tpReadyStates.remove(last);
+				tpReadyStates.add(node);
 			}
 			last = node;
 		}
@@ -503,7 +749,7 @@ public class MCTS<N, A> extends AAlgorithm<IMDP<N, A, Double>, IPolicy<N, A>> {
 	}
 
 	public int getNumberOfNodesInMemory() {
-		return this.tpReadyStates.size();
+		return this.trees.stream().mapToInt(t -> t.tpReadyStates.size()).sum();
 	}
 
 	public int getMsSpentInRollouts() {
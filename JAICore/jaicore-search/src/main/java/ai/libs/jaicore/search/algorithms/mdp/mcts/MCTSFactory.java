@@ -13,6 +13,8 @@ public abstract class MCTSFactory<N, A, B extends MCTSFactory<N, A, B>> extends
 	private Random random = new Random(0);
 	private boolean tabooExhaustedNodes = false;
 	private boolean maximize = false;
+	private int numCPUs = 1;
+	private EMCTSParallelizationMode parallelizationMode = EMCTSParallelizationMode.TREE;
 
 	public int getMaxIterations() {
 		return this.maxIterations;
@@ -73,7 +75,36 @@ public abstract class MCTSFactory<N, A, B extends MCTSFactory<N, A, B>> extends
 		return this.getSelf();
 	}
 
+	public int getNumCPUs() {
+		return this.numCPUs;
+	}
+
+	/**
+	 * @param numCPUs
+	 *            The number of playouts that the algorithm conducts in parallel.
+	 */
+	public B withNumCPUs(final int numCPUs) {
+		this.numCPUs = numCPUs;
+		return this.getSelf();
+	}
+
+	public EMCTSParallelizationMode getParallelizationMode() {
+		return this.parallelizationMode;
+	}
 
+	public B withParallelizationMode(final EMCTSParallelizationMode parallelizationMode) {
+		this.parallelizationMode = parallelizationMode;
+		return this.getSelf();
+	}
+
+	/**
+	 * Applies the parallelization settings of this factory to an algorithm created by it.
+	 */
+	protected <M extends MCTS<N, A>> M configureParallelization(final M algorithm) {
+		algorithm.setNumCPUs(this.numCPUs);
+		algorithm.setParallelizationMode(this.parallelizationMode);
+		return algorithm;
+	}
 
 	@Override
 	public MCTS<N, A> getAlgorithm() {
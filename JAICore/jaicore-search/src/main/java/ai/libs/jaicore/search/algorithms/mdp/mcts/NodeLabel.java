@@ -1,14 +1,25 @@
 package ai.libs.jaicore.search.algorithms.mdp.mcts;
 
-import java.util.HashMap;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Statistics of a node. The label may be read and updated by several MCTS threads at the same time.
+ *
+ * @param <A>
+ *            Type of actions
+ */
 public class NodeLabel<A> {
 
-	private int visits = 0;
-	private Map<A, Integer> numberOfChoicesPerAction = new HashMap<>();
-	private Map<A, Double> accumulatedRewardsOfAction = new HashMap<>();
+	private volatile int visits = 0;
+	private Map<A, Integer> numberOfChoicesPerAction = new ConcurrentHashMap<>();
+	private Map<A, Double> accumulatedRewardsOfAction = new ConcurrentHashMap<>();
 
+	/* virtual losses of playouts that currently pass this node but have not been back-propagated yet */
+	private volatile int virtualVisits = 0;
+	private final Map<A, Integer> virtualLossesPerAction = new ConcurrentHashMap<>();
+	private volatile double minObservedReward = Double.NaN;
+	private volatile double maxObservedReward = Double.NaN;
 
 	public int getVisits() {
 		return this.visits;
@@ -23,7 +34,7 @@ public class NodeLabel<A> {
 	}
 
 	public void setNumberOfChoicesPerAction(final Map<A, Integer> numberOfChoicesPerAction) {
-		this.numberOfChoicesPerAction = numberOfChoicesPerAction;
+		this.numberOfChoicesPerAction = new ConcurrentHashMap<>(numberOfChoicesPerAction);
 	}
 
 	public double getAccumulatedRewardsOfAction(final A action) {
@@ -31,7 +42,7 @@ public class NodeLabel<A> {
 	}
 
 	public void setAccumulatedRewardsOfAction(final Map<A, Double> accumulatedRewardsOfAction) {
-		this.accumulatedRewardsOfAction = accumulatedRewardsOfAction;
+		this.accumulatedRewardsOfAction = new ConcurrentHashMap<>(accumulatedRewardsOfAction);
 	}
 
 	public int getNumPulls(final A action) {
@@ -46,15 +57,56 @@ public class NodeLabel<A> {
 		return this.getAccumulatedRewardsOfAction(action) / this.getNumPulls(action);
 	}
 
-	public void addRewardForAction(final A action, final double reward) {
-		this.accumulatedRewardsOfAction.put(action,  this.getAccumulatedRewardsOfAction(action) + reward);
+	public synchronized void addRewardForAction(final A action, final double reward) {
+		this.accumulatedRewardsOfAction.merge(action, reward, Double::sum);
+		if (!Double.isNaN(reward)) {
+			if (Double.isNaN(this.minObservedReward) || reward < this.minObservedReward) {
+				this.minObservedReward = reward;
+			}
+			if (Double.isNaN(this.maxObservedReward) || reward > this.maxObservedReward) {
+				this.maxObservedReward = reward;
+			}
+		}
+	}
+
+	public synchronized void addVisit() {
+		this.visits++;
+	}
+
+	public synchronized void addPull(final A a) {
+		this.numberOfChoicesPerAction.merge(a, 1, Integer::sum);
+	}
+
+	/**
+	 * @return The worst reward observed for any action of this node (the minimum if maximizing and the maximum otherwise) or NaN if no reward has been observed yet.
+	 */
+	public double getWorstObservedReward(final boolean maximize) {
+		return maximize ? this.minObservedReward : this.maxObservedReward;
+	}
+
+	public int getVirtualVisits() {
+		return this.virtualVisits;
+	}
+
+	public int getNumVirtualLosses(final A action) {
+		return this.virtualLossesPerAction.getOrDefault(action, 0);
 	}
 
-	public void addVisit() {
-		this.visits ++;
+	public synchronized void addVirtualLoss(final A action) {
+		this.virtualVisits++;
+		this.virtualLossesPerAction.merge(action, 1, Integer::sum);
 	}
 
-	public void addPull(final A a) {
-		this.numberOfChoicesPerAction.put(a, this.numberOfChoicesPerAction.computeIfAbsent(a, ac -> 0) + 1);
+	public synchronized void removeVirtualLoss(final A action) {
+		Integer losses = this.virtualLossesPerAction.get(action);
+		if (losses == null) {
+			throw new IllegalStateException("There is no virtual loss for action " + action + " that could be removed.");
+		}
+		this.virtualVisits--;
+		if (losses == 1) {
+			this.virtualLossesPerAction.remove(action);
+		} else {
+			this.virtualLossesPerAction.put(action, losses - 1);
+		}
 	}
 }
@@ -1,8 +1,8 @@
 package ai.libs.jaicore.search.algorithms.mdp.mcts.spuct;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.api4.java.common.control.ILoggingCustomizable;
 import org.api4.java.datastructure.graph.ILabeledPath;
@@ -16,7 +16,7 @@ public class SPUCBPolicy<N, A> extends UCBPolicy<N, A> implements ILoggingCustom
 	private String loggerName;
 	private Logger logger = LoggerFactory.getLogger(SPUCBPolicy.class);
 	private final double bigD;
-	private Map<NodeLabel<A>, Double> squaredObservations = new HashMap<>();
+	private Map<NodeLabel<A>, Double> squaredObservations = new ConcurrentHashMap<>();
 
 	public SPUCBPolicy(final double gamma, final double bigD) {
 		this(gamma, true, bigD);
@@ -53,10 +53,18 @@ public class SPUCBPolicy<N, A> extends UCBPolicy<N, A> implements ILoggingCustom
 			else if (!Double.isNaN(accumulatedScores)) {
 				accumulatedScores = Double.NaN;
 			}
-			this.squaredObservations.put(nl, this.squaredObservations.computeIfAbsent(nl, label -> 0.0) + Math.pow(accumulatedScores, 2));
+			this.squaredObservations.merge(nl, Math.pow(accumulatedScores, 2), Double::sum);
 		}
 	}
 
+	@Override
+	public SPUCBPolicy<N, A> createEmptyCopy() {
+		SPUCBPolicy<N, A> copy = new SPUCBPolicy<>(this.getGamma(), this.isMaximize(), this.bigD);
+		copy.setExplorationConstant(this.getExplorationConstant());
+		copy.setBehaviorWhenActionForNotFullyExploredStateIsRequested(this.getBehaviorWhenActionForNotFullyExploredStateIsRequested());
+		return copy;
+	}
+
 	@Override
 	public double getScore(final N node, final A action) {
 
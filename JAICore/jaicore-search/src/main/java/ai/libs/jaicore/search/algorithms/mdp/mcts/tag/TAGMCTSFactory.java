@@ -45,6 +45,6 @@ public class TAGMCTSFactory<N, A> extends MCTSFactory<N, A, TAGMCTSFactory<N, A>
 
 	@Override
 	public TAGMCTS<N, A> getAlgorithm(final IMDP<N, A, Double> input) {
-		return new TAGMCTS<>(input, this.explorationConstant, this.s, this.delta, this.thresholdIncrement, this.getMaxIterations(), this.getGamma(), this.getEpsilon(), this.getRandom(), this.isTabooExhaustedNodes());
+		return this.configureParallelization(new TAGMCTS<>(input, this.explorationConstant, this.s, this.delta, this.thresholdIncrement, this.getMaxIterations(), this.getGamma(), this.getEpsilon(), this.getRandom(), this.isTabooExhaustedNodes()));
 	}
 }
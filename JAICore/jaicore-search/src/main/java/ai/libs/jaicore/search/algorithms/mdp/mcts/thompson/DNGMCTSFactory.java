@@ -27,6 +27,6 @@ public class DNGMCTSFactory<N, A> extends MCTSFactory<N, A, DNGMCTSFactory<N, A>
 
 	@Override
 	public MCTS<N, A> getAlgorithm(final IMDP<N, A, Double> input) {
-		return new DNGMCTS<>(input, this.varianceFactor, this.initLambda, this.getMaxIterations(), this.getGamma(), this.getEpsilon(), this.getRandom(), this.isTabooExhaustedNodes(), this.isMaximize());
+		return this.configureParallelization(new DNGMCTS<>(input, this.varianceFactor, this.initLambda, this.getMaxIterations(), this.getGamma(), this.getEpsilon(), this.getRandom(), this.isTabooExhaustedNodes(), this.isMaximize()));
 	}
 }
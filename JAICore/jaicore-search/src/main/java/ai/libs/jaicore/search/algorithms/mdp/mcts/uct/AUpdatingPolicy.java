@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.api4.java.common.control.ILoggingCustomizable;
@@ -14,10 +15,10 @@ import org.slf4j.LoggerFactory;
 
 import ai.libs.jaicore.basic.sets.SetUtil;
 import ai.libs.jaicore.search.algorithms.mdp.mcts.EBehaviorForNotFullyExploredStates;
-import ai.libs.jaicore.search.algorithms.mdp.mcts.IPathUpdatablePolicy;
+import ai.libs.jaicore.search.algorithms.mdp.mcts.IParallelizablePolicy;
 import ai.libs.jaicore.search.algorithms.mdp.mcts.NodeLabel;
 
-public abstract class AUpdatingPolicy<N, A> implements IPathUpdatablePolicy<N, A, Double>, ILoggingCustomizable {
+public abstract class AUpdatingPolicy<N, A> implements IParallelizablePolicy<N, A>, ILoggingCustomizable {
 
 	private Logger logger = LoggerFactory.getLogger(AUpdatingPolicy.class);
 
@@ -26,7 +27,7 @@ public abstract class AUpdatingPolicy<N, A> implements IPathUpdatablePolicy<N, A
 
 	private EBehaviorForNotFullyExploredStates behaviorWhenActionForNotFullyExploredStateIsRequested;
 
-	private final Map<N, NodeLabel<A>> labels = new HashMap<>();
+	private final Map<N, NodeLabel<A>> labels = new ConcurrentHashMap<>(); // concurrent, because the policy may be used in parallel MCTS
 
 	public AUpdatingPolicy(final double gamma, final boolean maximize) {
 		super();
@@ -35,10 +36,11 @@ public abstract class AUpdatingPolicy<N, A> implements IPathUpdatablePolicy<N, A
 	}
 
 	public NodeLabel<A> getLabelOfNode(final N node) {
-		if (!this.labels.containsKey(node)) {
+		NodeLabel<A> label = this.labels.get(node);
+		if (label == null) {
 			throw new IllegalArgumentException("No label for node " + node);
 		}
-		return this.labels.get(node);
+		return label;
 	}
 
 	public abstract double getScore(N node, A action);
@@ -67,9 +69,11 @@ public abstract class AUpdatingPolicy<N, A> implements IPathUpdatablePolicy<N, A
 			NodeLabel<A> label = this.labels.computeIfAbsent(node, n -> new NodeLabel<>());
 			double rewardForThisAction = scores.get(i) != null ? scores.get(i) : Double.NaN;
 			accumulatedDiscountedReward = rewardForThisAction + this.gamma * accumulatedDiscountedReward;
-			label.addRewardForAction(action, accumulatedDiscountedReward);
-			label.addPull(action);
-			label.addVisit();
+			synchronized (label) { // other threads must not see the reward without the pull
+				label.addRewardForAction(action, accumulatedDiscountedReward);
+				label.addPull(action);
+				label.addVisit();
+			}
 			this.logger.trace("Updated label of node {}. Visits now {}. Action pulls of {} now {}. Observed total rewards for this action: {}", node, label.getVisits(), action, label.getNumPulls(action),
 					label.getAccumulatedRewardsOfAction(action));
 		}
@@ -118,6 +122,24 @@ public abstract class AUpdatingPolicy<N, A> implements IPathUpdatablePolicy<N, A
 		return choice;
 	}
 
+	/**
+	 * Virtual losses are only applied to nodes that already have a label, i.e., for which the tree policy is already working with statistics.
+	 */
+	@Override
+	public boolean addVirtualLoss(final N node, final A action) {
+		NodeLabel<A> label = this.labels.get(node);
+		if (label == null) {
+			return false;
+		}
+		label.addVirtualLoss(action);
+		return true;
+	}
+
+	@Override
+	public void removeVirtualLoss(final N node, final A action) {
+		this.getLabelOfNode(node).removeVirtualLoss(action);
+	}
+
 	public boolean isMaximize() {
 		return this.maximize;
 	}
@@ -61,14 +61,32 @@ public class UCBPolicy<T, A> extends AUpdatingPolicy<T, A> implements ILoggingCu
 			return (this.isMaximize() ? -1 : 1) * Double.MAX_VALUE;
 		}
 		int timesThisActionHasBeenChosen = nodeLabel.getNumPulls(action);
-		double averageScoreForThisAction = nodeLabel.getAccumulatedRewardsOfAction(action) / timesThisActionHasBeenChosen;
-		double explorationTerm = (this.isMaximize() ? 1 : -1) * this.explorationConstant * Math.sqrt(Math.log(nodeLabel.getVisits()) / timesThisActionHasBeenChosen);
+		double accumulatedRewards = nodeLabel.getAccumulatedRewardsOfAction(action);
+		int visits = nodeLabel.getVisits();
+
+		/* in parallel MCTS, count the playouts of other threads that currently use this action as pulls with the worst reward seen in this node */
+		int virtualLosses = nodeLabel.getNumVirtualLosses(action);
+		double worstObservedReward = nodeLabel.getWorstObservedReward(this.isMaximize());
+		if (virtualLosses > 0 && !Double.isNaN(worstObservedReward)) {
+			timesThisActionHasBeenChosen += virtualLosses;
+			accumulatedRewards += virtualLosses * worstObservedReward;
+			visits += nodeLabel.getVirtualVisits();
+		}
+		double averageScoreForThisAction = accumulatedRewards / timesThisActionHasBeenChosen;
+		double explorationTerm = (this.isMaximize() ? 1 : -1) * this.explorationConstant * Math.sqrt(Math.log(visits) / timesThisActionHasBeenChosen);
 		double score = averageScoreForThisAction + explorationTerm;
-		this.logger.trace("Computed UCB score {} = {} + {} * {} * sqrt(log({})/{}). That is, exploration term is {}", score, averageScoreForThisAction, this.isMaximize() ? 1 : -1, this.explorationConstant, nodeLabel.getVisits(),
-				timesThisActionHasBeenChosen, explorationTerm);
+		this.logger.trace("Computed UCB score {} = {} + {} * {} * sqrt(log({})/{}). That is, exploration term is {}. Virtual losses: {}", score, averageScoreForThisAction, this.isMaximize() ? 1 : -1, this.explorationConstant, visits,
+				timesThisActionHasBeenChosen, explorationTerm, virtualLosses);
 		return score;
 	}
 
+	@Override
+	public UCBPolicy<T, A> createEmptyCopy() {
+		UCBPolicy<T, A> copy = new UCBPolicy<>(this.getGamma(), this.explorationConstant, this.isMaximize());
+		copy.setBehaviorWhenActionForNotFullyExploredStateIsRequested(this.getBehaviorWhenActionForNotFullyExploredStateIsRequested());
+		return copy;
+	}
+
 	public double getExplorationConstant() {
 		return this.explorationConstant;
 	}
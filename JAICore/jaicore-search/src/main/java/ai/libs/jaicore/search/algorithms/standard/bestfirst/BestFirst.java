@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -113,7 +112,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 	private final boolean cancelableNodeEvaluator;
 
 	/* general algorithm state and statistics */
-	private int createdCounter;
+	private final AtomicInteger createdCounter = new AtomicInteger();
 	private int expandedCounter;
 	private boolean initialized = false;
 	private final List<INewNodeDescription<N, A>> lastExpansion = new ArrayList<>();
@@ -128,7 +127,8 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 	protected Queue<BackPointerPath<N, A, V>> open = new PriorityQueue<>((n1, n2) -> n1.getScore().compareTo(n2.getScore()));
 	private BackPointerPath<N, A, V> nodeSelectedForExpansion; // the node that will be expanded next
 	private final Map<N, Thread> expanding = new HashMap<>(); // EXPANDING contains the nodes being expanded and the threads doing this job
-	private final Set<N> closed = new HashSet<>(); // CLOSED contains only node but not paths
+	private final Set<N> closed = ConcurrentHashMap.newKeySet(); // CLOSED contains only node but not paths
+	private boolean concurrentOpen = false; // if OPEN is thread-safe by itself, node builders insert nodes without acquiring the open lock
 
 	/* parallelization */
 	protected int additionalThreadsForNodeAttachment = 0;
@@ -161,6 +161,12 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 		this.considerNodeEvaluationOptimistic = config.optimisticHeuristic();
 		this.lowerBoundEvaluator = lowerBoundEvaluator;
 
+		/* if desired, replace OPEN by a striped version that allows for concurrent node attachment */
+		if (config.openStripes() > 1) {
+			this.open = new StripedOpenList<>(config.openStripes(), config.strictOpenOrder());
+			this.concurrentOpen = true;
+		}
+
 		/* if the node evaluator is graph dependent, communicate the generator to it */
 		this.nodeEvaluator = problem.getPathEvaluator();
 		if (this.nodeEvaluator == null) {
@@ -268,7 +274,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 				}
 
 				/* update creation counter */
-				BestFirst.this.createdCounter++;
+				BestFirst.this.createdCounter.incrementAndGet();
 
 				/* compute node label */
 				try {
@@ -374,7 +380,11 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 				 * parent discarding rule, just insert it on OPEN
 				 */
 				if (!nodeProcessed) {
-					if (!newNode.isGoal()) {
+					if (!newNode.isGoal() && BestFirst.this.concurrentOpen) {
+						assert !BestFirst.this.closed.contains(newNode.getHead()) : "Currently only tree search is supported. But now we add a node to OPEN whose point has already been expanded before.";
+						BestFirst.this.bfLogger.debug("Inserting successor {} of {} to concurrent OPEN. F-Value is {}", newNode.hashCode(), this.expandedNodeInternal.hashCode(), newNode.getScore());
+						BestFirst.this.open.add(newNode);
+					} else if (!newNode.isGoal()) {
 						BestFirst.this.openLock.lockInterruptibly();
 						synchronized (BestFirst.this.expanding) {
 							try {
@@ -394,7 +404,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 						}
 					}
 					BestFirst.this.post(new NodeTypeSwitchEvent<>(BestFirst.this, newNode, (newNode.isGoal() ? ENodeType.OR_SOLUTION.toString() : ENodeType.OR_OPEN.toString())));
-					BestFirst.this.createdCounter++;
+					BestFirst.this.createdCounter.incrementAndGet();
 				}
 
 				/* Recognize solution in cache together with annotation */
@@ -443,11 +453,15 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 	}
 
 	protected BackPointerPath<N, A, V> newNode(final BackPointerPath<N, A, V> parent, final N t2, final A arc, final V evaluation) throws InterruptedException {
-		this.openLock.lockInterruptibly();
-		try {
+		if (this.concurrentOpen) {
 			assert !this.open.contains(parent) : "Parent node " + parent + " is still on OPEN, which must not be the case! OPEN class: " + this.open.getClass().getName() + ". OPEN size: " + this.open.size();
-		} finally {
-			this.openLock.unlock();
+		} else {
+			this.openLock.lockInterruptibly();
+			try {
+				assert !this.open.contains(parent) : "Parent node " + parent + " is still on OPEN, which must not be the case! OPEN class: " + this.open.getClass().getName() + ". OPEN size: " + this.open.size();
+			} finally {
+				this.openLock.unlock();
+			}
 		}
 
 		/* create new node and check whether it is a goal */
@@ -546,7 +560,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 
 		/* register time required to compute this node label */
 		long fTime = System.currentTimeMillis() - startComputation;
-		node.setAnnotation(ENodeAnnotation.F_TIME.toString(), fTime);
+		node.setEvaluationTime(fTime);
 		this.bfLogger.debug("Computed label {} for {} in {}ms", label, node.hashCode(), fTime);
 
 		/* if no label was computed, prune the node and cancel the computation */
@@ -556,7 +570,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 			} else {
 				BestFirst.this.bfLogger.debug("Not inserting node {} because computation of f-value timed out.", node.hashCode());
 			}
-			if (!node.getAnnotations().containsKey(ENodeAnnotation.F_ERROR.toString())) {
+			if (node.getAnnotation(ENodeAnnotation.F_ERROR.toString()) == null) {
 				node.setAnnotation(ENodeAnnotation.F_ERROR.toString(), "f-computer returned NULL");
 			}
 			return;
@@ -629,7 +643,8 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 				this.open.remove(this.nodeSelectedForExpansion);
 				int openSizeAfter = this.open.size();
 				assert this.ext2int.containsKey(this.nodeSelectedForExpansion.getHead()) : "A node chosen for expansion has no entry in the ext2int map!";
-				assert openSizeAfter == openSizeBefore - 1 : "OPEN size must descrease by one when selecting node for expansion";
+				assert this.concurrentOpen || openSizeAfter == openSizeBefore - 1 : "OPEN size must descrease by one when selecting node for expansion";
+				assert !this.open.contains(this.nodeSelectedForExpansion) : "Node selected for expansion is still on OPEN";
 			} finally {
 				this.openLock.unlock();
 			}
@@ -1289,6 +1304,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 			collection.clear();
 			collection.addAll(this.open);
 			this.open = collection;
+			this.concurrentOpen = collection instanceof StripedOpenList;
 		} finally {
 			this.openLock.unlock();
 		}
@@ -1336,7 +1352,7 @@ public class BestFirst<I extends IPathSearchWithPathEvaluationsInput<N, A, V>, N
 	}
 
 	public int getCreatedCounter() {
-		return this.createdCounter;
+		return this.createdCounter.get();
 	}
 
 	public V getFValue(final N node) {
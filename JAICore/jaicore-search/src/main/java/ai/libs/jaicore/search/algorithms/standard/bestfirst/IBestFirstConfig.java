@@ -7,6 +7,8 @@ public interface IBestFirstConfig extends IOwnerBasedAlgorithmConfig {
 
 	public static final String K_PD = "bestfirst.parentdiscarding";
 	public static final String K_OE = "bestfirst.optimisticheuristic";
+	public static final String K_OPEN_STRIPES = "bestfirst.open.stripes";
+	public static final String K_OPEN_STRICT = "bestfirst.open.strict";
 
 	/**
 	 * @return Whether or not parent discarding should be used
@@ -18,4 +20,18 @@ public interface IBestFirstConfig extends IOwnerBasedAlgorithmConfig {
 	@Key(K_OE)
 	@DefaultValue("false")
 	public boolean optimisticHeuristic();
+
+	/**
+	 * @return Number of independently locked stripes of OPEN. If greater than 1, OPEN is a {@link StripedOpenList} so that worker threads can attach nodes without synchronizing on a global lock.
+	 */
+	@Key(K_OPEN_STRIPES)
+	@DefaultValue("1")
+	public int openStripes();
+
+	/**
+	 * @return Whether a striped OPEN always returns the globally best node (same order as the standard OPEN) or only the better of two randomly chosen stripes.
+	 */
+	@Key(K_OPEN_STRICT)
+	@DefaultValue("true")
+	public boolean strictOpenOrder();
 }
@@ -0,0 +1,202 @@
+package ai.libs.jaicore.search.algorithms.standard.bestfirst;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ai.libs.jaicore.search.model.travesaltree.BackPointerPath;
+
+/**
+ * Thread-safe OPEN list that distributes its nodes over several independently locked priority queues (stripes).
+ *
+ * Insertions lock only a single, randomly chosen stripe, so that worker threads attaching nodes in parallel rarely block each other.
+ * In strict mode, {@link #peek()} and {@link #poll()} consider the heads of all stripes and hence return the globally best node just like a {@link PriorityQueue}.
+ * In relaxed mode, only the heads of two randomly chosen stripes are compared (multi-queue selection), which trades exactness of the order for less contention.
+ *
+ * @author fmohr
+ *
+ * @param <N>
+ * @param <A>
+ * @param <V>
+ */
+public class StripedOpenList<N, A, V extends Comparable<V>> extends AbstractQueue<BackPointerPath<N, A, V>> {
+
+	private final Comparator<BackPointerPath<N, A, V>> comparator = (n1, n2) -> n1.getScore().compareTo(n2.getScore());
+	private final int numStripes;
+	private final boolean strict;
+	private final List<PriorityQueue<BackPointerPath<N, A, V>>> stripes;
+	private final ReentrantLock[] locks;
+	private final Map<BackPointerPath<N, A, V>, Integer> stripeOfNode = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
+
+	public StripedOpenList(final int numStripes, final boolean strict) {
+		if (numStripes < 1) {
+			throw new IllegalArgumentException("The number of stripes must be positive but is " + numStripes);
+		}
+		this.numStripes = numStripes;
+		this.strict = strict;
+		this.stripes = new ArrayList<>(numStripes);
+		this.locks = new ReentrantLock[numStripes];
+		for (int i = 0; i < numStripes; i++) {
+			this.stripes.add(new PriorityQueue<>(this.comparator));
+			this.locks[i] = new ReentrantLock();
+		}
+	}
+
+	@Override
+	public boolean offer(final BackPointerPath<N, A, V> node) {
+		if (node.getScore() == null) {
+			throw new IllegalArgumentException("Cannot insert nodes with value NULL into OPEN!");
+		}
+		int stripe = ThreadLocalRandom.current().nextInt(this.numStripes);
+		this.locks[stripe].lock();
+		try {
+			if (this.stripeOfNode.putIfAbsent(node, stripe) != null) {
+				return false;
+			}
+			this.stripes.get(stripe).add(node);
+			this.size.incrementAndGet();
+			return true;
+		} finally {
+			this.locks[stripe].unlock();
+		}
+	}
+
+	private BackPointerPath<N, A, V> headOfStripe(final int stripe) {
+		this.locks[stripe].lock();
+		try {
+			return this.stripes.get(stripe).peek();
+		} finally {
+			this.locks[stripe].unlock();
+		}
+	}
+
+	private BackPointerPath<N, A, V> better(final BackPointerPath<N, A, V> n1, final BackPointerPath<N, A, V> n2) {
+		if (n1 == null) {
+			return n2;
+		}
+		if (n2 == null) {
+			return n1;
+		}
+		return this.comparator.compare(n1, n2) <= 0 ? n1 : n2;
+	}
+
+	@Override
+	public BackPointerPath<N, A, V> peek() {
+		if (!this.strict && this.numStripes > 1) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			int first = random.nextInt(this.numStripes);
+			int second = (first + 1 + random.nextInt(this.numStripes - 1)) % this.numStripes;
+			BackPointerPath<N, A, V> candidate = this.better(this.headOfStripe(first), this.headOfStripe(second));
+			if (candidate != null) {
+				return candidate;
+			}
+		}
+
+		/* in strict mode (or if both sampled stripes are empty), we consider the heads of all stripes */
+		BackPointerPath<N, A, V> best = null;
+		for (int i = 0; i < this.numStripes; i++) {
+			best = this.better(best, this.headOfStripe(i));
+		}
+		return best;
+	}
+
+	@Override
+	public BackPointerPath<N, A, V> poll() {
+		BackPointerPath<N, A, V> node;
+		do {
+			node = this.peek();
+		} while (node != null && !this.remove(node)); // another thread may have taken the node in the meantime
+		return node;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		if (o == null) {
+			return false;
+		}
+		/*
+		 * nodes never change their stripe, but between the lookup and the locking of the stripe, another thread may have removed the node and offered it again, in which case it may now be in another
+		 * stripe; then we look it up again
+		 */
+		Integer stripe;
+		while ((stripe = this.stripeOfNode.get(o)) != null) {
+			this.locks[stripe].lock();
+			try {
+				if (this.stripeOfNode.remove(o, stripe)) {
+					this.stripes.get(stripe).remove(o);
+					this.size.decrementAndGet();
+					return true;
+				}
+			} finally {
+				this.locks[stripe].unlock();
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return o != null &&  this.stripeOfNode.containsKey(o);
+	}
+
+	@Override
+	public int size() {
+		return this.size.get();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.size.get() == 0;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < this.numStripes; i++) {
+			this.locks[i].lock();
+		}
+		try {
+			this.stripes.forEach(PriorityQueue::clear);
+			this.stripeOfNode.clear();
+			this.size.set(0);
+		} finally {
+			for (int i = this.numStripes - 1; i >= 0; i--) {
+				this.locks[i].unlock();
+			}
+		}
+	}
+
+	/**
+	 * @return An iterator over a snapshot of the nodes currently on OPEN. The iterator does not support removal.
+	 */
+	@Override
+	public Iterator<BackPointerPath<N, A, V>> iterator() {
+		List<BackPointerPath<N, A, V>> snapshot = new ArrayList<>(this.size());
+		for (int i = 0; i < this.numStripes; i++) {
+			this.locks[i].lock();
+			try {
+				snapshot.addAll(this.stripes.get(i));
+			} finally {
+				this.locks[i].unlock();
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	public int getNumberOfStripes() {
+		return this.numStripes;
+	}
+
+	public boolean isStrict() {
+		return this.strict;
+	}
+}
@@ -1,20 +1,29 @@
 package ai.libs.jaicore.search.algorithms.standard.bestfirst.nodeevaluation;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import org.api4.java.ai.graphsearch.problem.implicit.graphgenerator.IPathGoalTester;
@@ -37,6 +46,7 @@ import org.api4.java.datastructure.graph.implicit.IGraphGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.common.eventbus.Subscribe;
 
 import ai.libs.jaicore.basic.algorithm.AlgorithmInitializedEvent;
@@ -58,23 +68,31 @@ import ai.libs.jaicore.search.model.travesaltree.BackPointerPath;
 import ai.libs.jaicore.search.probleminputs.GraphSearchWithSubpathEvaluationsInput;
 import ai.libs.jaicore.timing.TimedComputation;
 
+/**
+ * Evaluates a node by the best score of a number of random completions of the node.
+ *
+ * The scores of evaluated solutions are memoized for all nodes above them, so solutions that have been evaluated under a node, e.g. while evaluating one of its ancestors, count as samples of the node
+ * and are not drawn again. The samples of a node are drawn one after another, but they can be evaluated in parallel (see {@link #setNumberOfThreadsForSampleEvaluation(int)}). All memos are bounded by
+ * the total number of nodes of the paths they store (see {@link #setMemoCapacity(long)}); the least recently used paths are evicted first.
+ */
 public class RandomCompletionBasedNodeEvaluator<T, A, V extends Comparable<V>> extends TimeAwareNodeEvaluator<T, A, V>
 implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutionReportingPathEvaluator<T, A, V>, ICancelablePathEvaluator, IPotentiallyUncertaintyAnnotatingPathEvaluator<T, A, V>, ILoggingCustomizable {
 
 	private static final IAlgorithm<?, ?> ALGORITHM = null;
 	private static final boolean LOG_FAILURES_AS_ERRORS = false;
+	public static final long DEFAULT_MEMO_CAPACITY = 10000000L;
 
 	private String loggerName;
 	private Logger logger = LoggerFactory.getLogger(RandomCompletionBasedNodeEvaluator.class);
 
 	private final int timeoutForSingleCompletionEvaluationInMS;
 
-	protected Set<List<T>> unsuccessfulPaths = Collections.synchronizedSet(new HashSet<>());
-	protected Set<ILabeledPath<T, A>> postedSolutions = new HashSet<>();
-	protected Map<List<T>, Integer> timesToComputeEvaluations = new HashMap<>();
+	protected Set<List<T>> unsuccessfulPaths = Collections.newSetFromMap(newMemo(DEFAULT_MEMO_CAPACITY, List::size));
+	protected Set<ILabeledPath<T, A>> postedSolutions = ConcurrentHashMap.newKeySet();
+	protected Map<List<T>, Integer> timesToComputeEvaluations = newMemo(DEFAULT_MEMO_CAPACITY, List::size);
 
-	protected Map<List<T>, V> scoresOfSolutionPaths = new ConcurrentHashMap<>();
-	protected Map<ILabeledPath<T, A>, V> fValues = new ConcurrentHashMap<>();
+	protected Map<List<T>, V> scoresOfSolutionPaths = newMemo(DEFAULT_MEMO_CAPACITY, List::size);
+	protected Map<ILabeledPath<T, A>, V> fValues = newMemo(DEFAULT_MEMO_CAPACITY, ILabeledPath::getNumberOfNodes);
 	protected Map<String, Integer> ppFails = new ConcurrentHashMap<>();
 	protected Map<String, Integer> plFails = new ConcurrentHashMap<>();
 	protected Map<String, Integer> plSuccesses = new ConcurrentHashMap<>();
@@ -96,9 +114,29 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 	protected IUncertaintySource<T, A, V> uncertaintySource;
 	protected SolutionEventBus<T> eventBus = new SolutionEventBus<>();
 	private final List<Object> solutionListeners = new ArrayList<>();
-	private final Map<List<T>, V> bestKnownScoreUnderNodeInCompleterGraph = new HashMap<>();
+	private Map<T, SubtreeScores<V>> bestKnownScoreUnderNodeInCompleterGraph = newMemo(DEFAULT_MEMO_CAPACITY, node -> 1);
 	private boolean visualizeSubSearch;
 
+	private volatile int numberOfThreadsForSampleEvaluation = 1;
+	private final Set<ExecutorService> activeSampleEvaluationPools = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The best score of the solutions that have been evaluated under a node of the completer graph, together with their number.
+	 */
+	private static class SubtreeScores<V extends Comparable<V>> {
+		private final V best;
+		private final int numberOfSolutions;
+
+		private SubtreeScores(final V best, final int numberOfSolutions) {
+			this.best = best;
+			this.numberOfSolutions = numberOfSolutions;
+		}
+
+		private SubtreeScores<V> add(final V score) {
+			return new SubtreeScores<>(score.compareTo(this.best) < 0 ? score : this.best, this.numberOfSolutions + 1);
+		}
+	}
+
 	public RandomCompletionBasedNodeEvaluator(final Random random, final int samples, final IObjectEvaluator<ILabeledPath<T, A>, V> solutionEvaluator) {
 		this(random, samples, samples, solutionEvaluator, -1, -1);
 	}
@@ -151,6 +189,82 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 		return true;
 	}
 
+	private static <K, W> Map<K, W> newMemo(final long capacity, final ToIntFunction<K> numberOfNodesOfKey) {
+		return CacheBuilder.newBuilder().maximumWeight(capacity).<K, W>weigher((k, v) -> numberOfNodesOfKey.applyAsInt(k)).build().asMap();
+	}
+
+	/**
+	 * Sets the capacity of each memo of the evaluator (e.g. the scores of solution paths or the f-values of nodes). If the paths stored in a memo have more nodes than that in total, the least recently
+	 * used paths are evicted, which are recomputed if they are needed again. This can only be set before the first node is evaluated.
+	 *
+	 * @param capacity
+	 *            The total number of nodes of the paths each memo can hold (the memo of the scores under the nodes holds at most that many nodes).
+	 */
+	public void setMemoCapacity(final long capacity) {
+		if (this.timestampOfFirstEvaluation != 0) {
+			throw new IllegalStateException("The memo capacity cannot be changed after the first node has been evaluated.");
+		}
+		this.unsuccessfulPaths = Collections.newSetFromMap(newMemo(capacity, List::size));
+		this.timesToComputeEvaluations = newMemo(capacity, List::size);
+		this.scoresOfSolutionPaths = newMemo(capacity, List::size);
+		this.fValues = newMemo(capacity, ILabeledPath::getNumberOfNodes);
+		this.bestKnownScoreUnderNodeInCompleterGraph = newMemo(capacity, node -> 1);
+	}
+
+	/**
+	 * Sets the number of threads that evaluate the samples of a node in parallel. The samples are still drawn one after another. Each node evaluation uses its own threads, which are shut down once the
+	 * node has been evaluated, so a new value applies to all subsequent node evaluations.
+	 *
+	 * If more than one thread is used, the solution evaluator must be thread-safe. Moreover, the solutions and rollouts are then posted by the threads that evaluate them, so the solution listeners may
+	 * be called concurrently and must be thread-safe, too.
+	 *
+	 * @param numberOfThreadsForSampleEvaluation
+	 *            The number of threads (default 1, in which case the samples are evaluated by the thread that evaluates the node).
+	 */
+	public void setNumberOfThreadsForSampleEvaluation(final int numberOfThreadsForSampleEvaluation) {
+		if (numberOfThreadsForSampleEvaluation <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive but is " + numberOfThreadsForSampleEvaluation);
+		}
+		this.numberOfThreadsForSampleEvaluation = numberOfThreadsForSampleEvaluation;
+	}
+
+	private ExecutorService createSampleEvaluationPool(final int numberOfThreads) {
+		AtomicInteger counter = new AtomicInteger(0);
+		ExecutorService pool = Executors.newFixedThreadPool(numberOfThreads, r -> {
+			Thread t = new Thread(r);
+			t.setName("RCNE-sample-evaluation-" + counter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		this.activeSampleEvaluationPools.add(pool);
+		return pool;
+	}
+
+	/**
+	 * Determines the timeout for the evaluation of a sample. This is done when the evaluation starts, because it may have been waiting for a thread of the pool.
+	 *
+	 * @param deadline
+	 *            The deadline of the node evaluation or -1 if there is none.
+	 * @return The timeout for the evaluation in milliseconds or -1 if there is none.
+	 * @throws AlgorithmTimeoutedException
+	 *             If the deadline of the node evaluation has already passed.
+	 */
+	private long getTimeoutForSampleEvaluation(final long deadline) throws AlgorithmTimeoutedException {
+		long remainingTimeForNodeEvaluation = deadline > 0 ? deadline - System.currentTimeMillis() : -1;
+		if (deadline > 0 && remainingTimeForNodeEvaluation <= 0) {
+			throw new AlgorithmTimeoutedException(-remainingTimeForNodeEvaluation);
+		}
+		if (remainingTimeForNodeEvaluation >= 0 && this.timeoutForSingleCompletionEvaluationInMS >= 0) {
+			return Math.min(remainingTimeForNodeEvaluation, this.timeoutForSingleCompletionEvaluationInMS);
+		} else if (remainingTimeForNodeEvaluation >= 0) {
+			return remainingTimeForNodeEvaluation;
+		} else if (this.timeoutForSingleCompletionEvaluationInMS >= 0) {
+			return this.timeoutForSingleCompletionEvaluationInMS;
+		} else {
+			return -1;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	protected V evaluateTimeouted(final ILabeledPath<T, A> path, final int timeout) throws InterruptedException, PathEvaluationException {
@@ -169,7 +283,8 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 		if (this.timestampOfFirstEvaluation == 0) {
 			this.timestampOfFirstEvaluation = startOfComputation;
 		}
-		if (!this.fValues.containsKey(n)) {
+		V f = this.fValues.get(n); // the f-value is kept in a local variable, because the memo may evict it at any time
+		if (f == null) {
 
 			/* abort if not graph generator is set */
 			if (this.generator == null) {
@@ -188,115 +303,174 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 
 				/* if the node has no sibling (parent has no other child than this node), apply parent's f. This only works if the parent is already part of the explored graph, which is not necessarily the case */
 				if (n.getParent() != null && this.completer.getExploredGraph().hasItem(n.getParent().getHead())) {
-					boolean parentHasFValue = this.fValues.containsKey(n.getParent());
-					assert parentHasFValue || n.getParent().getParent() == null : "No f-value has been stored for the parent of node with hash code " + n.hashCode() + " (hash code of parent is " + n.getParent().hashCode()
-							+ ") whose f-value we may want to reuse.\nThis is only allowed for top-level nodes, but the actual path is: "
-							+ n.path().stream().map(k -> "\n\t" + k.hashCode() + "\t(f-value: " + k.getScore() + ")").collect(Collectors.joining());
+					V scoreOfParent = this.fValues.get(n.getParent());
+					if (scoreOfParent == null && n.getParent().getParent() != null) {
+						this.logger.debug("No f-value is stored for the parent of node with hash code {} (anymore), so it cannot be reused.", n.hashCode());
+					}
 					boolean nodeHasSibling = this.completer.getExploredGraph().getSuccessors(n.getParent().getHead()).size() > 1;
-					if (!n.isPoint() && !nodeHasSibling && parentHasFValue) {
-						V score = this.fValues.get(n.getParent());
-						this.fValues.put(n, score);
-						this.logger.debug("Score {} of parent can be used since the last action did not affect the performance.", score);
-						if (score == null) {
-							this.logger.warn("Returning score NULL inherited from parent, this should not happen.");
-						}
+					if (!n.isPoint() && !nodeHasSibling && scoreOfParent != null) {
+						this.fValues.put(n, scoreOfParent);
+						this.logger.debug("Score {} of parent can be used since the last action did not affect the performance.", scoreOfParent);
 						if (this.uncertaintySource != null) { // inherit uncertainty from parent
 							n.setAnnotation(ENodeAnnotation.F_UNCERTAINTY.name(), n.getParent().getAnnotation(ENodeAnnotation.F_UNCERTAINTY.name()));
 						}
 						assert !this.annotatesUncertainty() || n.getAnnotation(ENodeAnnotation.F_UNCERTAINTY.name()) != null : "No uncertainty has been annotated to node " + n + " even though we claim to annotate!";
-						return score;
+						return scoreOfParent;
 					}
 				}
 
-				/* draw random completions and determine best solution */
+				/* draw random completions and determine best solution. Solutions under the node that have already been evaluated count as samples, because the completer does not draw them again */
 				AtomicInteger drawnSamples = new AtomicInteger();
 				AtomicInteger successfulSamples = new AtomicInteger();
+				SubtreeScores<V> knownScores = this.bestKnownScoreUnderNodeInCompleterGraph.get(n.getHead());
+				if (knownScores != null && this.uncertaintySource == null) {
+					successfulSamples.set(Math.min(knownScores.numberOfSolutions, this.desiredNumberOfSuccesfulSamples));
+					this.logger.debug("Reusing {} solutions that have already been evaluated under the node.", successfulSamples);
+				}
 				int countedExceptions = 0;
-				List<V> evaluations = new ArrayList<>();
+				List<V> evaluations = Collections.synchronizedList(new ArrayList<>());
 				List<ILabeledPath<T, A>> completedPaths = new ArrayList<>();
+				Deque<Future<Boolean>> pendingEvaluations = new ArrayDeque<>();
+				int numberOfThreads = this.numberOfThreadsForSampleEvaluation;
+				ExecutorService pool = numberOfThreads > 1 ? this.createSampleEvaluationPool(numberOfThreads) : null;
+				boolean drawing = true;
 				this.logger.debug("Now drawing {} successful examples but no more than {}", this.desiredNumberOfSuccesfulSamples, this.maxSamples);
-				while (successfulSamples.get() < this.desiredNumberOfSuccesfulSamples) {
-					this.logger.debug("Drawing next sample. {} samples have been drawn already, {} have been successful. Thread interruption state is: {}", drawnSamples, successfulSamples, Thread.currentThread().isInterrupted());
-					this.checkInterruption();
-					if (deadline > 0 && deadline < System.currentTimeMillis()) {
-						this.logger.info("Deadline for random completions hit! Finishing node evaluation.");
-						break;
-					}
+				try {
+					while (!pendingEvaluations.isEmpty() || (drawing && successfulSamples.get() < this.desiredNumberOfSuccesfulSamples)) {
+
+						/* draw new samples as long as there are threads to evaluate them */
+						while (drawing && pendingEvaluations.size() < numberOfThreads && successfulSamples.get() + pendingEvaluations.size() < this.desiredNumberOfSuccesfulSamples) {
+							this.logger.debug("Drawing next sample. {} samples have been drawn already, {} have been successful. Thread interruption state is: {}", drawnSamples, successfulSamples, Thread.currentThread().isInterrupted());
+							try {
+								this.checkInterruption();
+							} catch (InterruptedException e) {
+								cancelEvaluations(pendingEvaluations);
+								throw e;
+							}
+							if (deadline > 0 && deadline < System.currentTimeMillis()) {
+								this.logger.info("Deadline for random completions hit! Finishing node evaluation.");
+								drawing = false;
+								break;
+							}
 
-					/* determine time that is available to conduct next computation */
-					long remainingTimeForNodeEvaluation = deadline > 0 ? deadline - System.currentTimeMillis() : -1; // this value is positive or -1 due to the previous check
-					long timeoutForJob;
-					if (remainingTimeForNodeEvaluation >= 0 && this.timeoutForSingleCompletionEvaluationInMS >= 0) {
-						timeoutForJob = Math.min(remainingTimeForNodeEvaluation, this.timeoutForSingleCompletionEvaluationInMS);
-					} else if (remainingTimeForNodeEvaluation >= 0) {
-						timeoutForJob = remainingTimeForNodeEvaluation;
-					} else if (this.timeoutForSingleCompletionEvaluationInMS >= 0) {
-						timeoutForJob = this.timeoutForSingleCompletionEvaluationInMS;
-					} else {
-						timeoutForJob = -1;
-					}
+							/* complete the current path by the dfs-solution; we assume that this goes quickly */
+							ILabeledPath<T, A> tmpCompletedPath = null;
+							try {
+								this.logger.debug("Now drawing new solution.");
+								tmpCompletedPath = this.getNextRandomPathCompletionForNode(n);
+							} catch (RCNEPathCompletionFailedException e1) {
+								if (e1.getCause() instanceof InterruptedException) {
+									cancelEvaluations(pendingEvaluations);
+									throw (InterruptedException) e1.getCause();
+								}
+								this.logger.info("Stopping sampling.");
+								drawing = false;
+								break;
+							}
+							final ILabeledPath<T, A> completedPath = tmpCompletedPath;
+							completedPaths.add(completedPath);
+							final int evaluationId = this.random.nextInt(1000000);
+							this.logger.debug("Identified complete path with {} nodes. Now evaluating the path; assigning evaluation id {}", completedPath.getNumberOfNodes(), evaluationId);
+
+							/* evaluate the found solution (in this thread if no pool is used); the internal value model is updated when the score is computed */
+							this.logger.debug("Enqueuing timed computation with evaluation id {}", evaluationId);
+							FutureTask<Boolean> evaluation = new FutureTask<>(() -> {
+								long timeoutForJob = this.getTimeoutForSampleEvaluation(deadline);
+								this.logger.debug("Starting timed computation with timeout {} and evaluation id {}", timeoutForJob, evaluationId);
+								return TimedComputation.compute(() -> {
+									drawnSamples.incrementAndGet();
+									V val = this.getFValueOfSolutionPath(completedPath);
+									this.logger.debug("Completed path evaluation with id {}. Score is {}", evaluationId, val);
+									successfulSamples.incrementAndGet();
+									this.eventBus.post(new RolloutEvent<>(ALGORITHM, n.path(), val));
+									if (val != null) {
+										evaluations.add(val);
+									} else {
+										this.logger.warn("Got NULL result as score for evaluation with id {}", evaluationId);
+									}
+									return true;
+								}, new Timeout(timeoutForJob, TimeUnit.MILLISECONDS), "RCNE-timeout for evaluation with id " + evaluationId);
+							});
+							pendingEvaluations.add(evaluation);
+							if (pool != null) {
+								try {
+									pool.execute(evaluation);
+								} catch (RejectedExecutionException e) {
+									this.logger.info("Sample evaluation pool has been shut down (perhaps due a cancel on the evaluator). Stopping sampling.");
+									pendingEvaluations.removeLast();
+									drawing = false;
+									break;
+								}
+							} else {
+								evaluation.run();
+							}
+						}
 
-					/* complete the current path by the dfs-solution; we assume that this goes quickly */
-					ILabeledPath<T, A> tmpCompletedPath = null;
-					try {
-						this.logger.debug("Computed remaining time for evaluation: {}ms. Timeout for the job is hence {}ms. Now drawing new solution.", remainingTimeForNodeEvaluation, timeoutForJob);
-						tmpCompletedPath = this.getNextRandomPathCompletionForNode(n);
-					} catch (RCNEPathCompletionFailedException e1) {
-						if (e1.getCause() instanceof InterruptedException) {
-							throw (InterruptedException) e1.getCause();
+						/* wait for the oldest evaluation */
+						Future<Boolean> evaluation = pendingEvaluations.poll();
+						if (evaluation == null) {
+							break;
 						}
-						this.logger.info("Stopping sampling.");
-						break;
-					}
-					final ILabeledPath<T, A> completedPath = tmpCompletedPath;
-					completedPaths.add(completedPath);
-					final int evaluationId = this.random.nextInt(1000000);
-					this.logger.debug("Identified complete path with {} nodes. Now evaluating the path; assigning evaluation id {}", completedPath.getNumberOfNodes(), evaluationId);
-
-					/* evaluate the found solution and update internal value model */
-					try {
-						this.logger.debug("Enqueuing timed computation with timeout {} and evaluation id {}", timeoutForJob, evaluationId);
-						TimedComputation.compute(() -> {
-							this.logger.debug("Starting timed computation with timeout {} and evaluation id {}", timeoutForJob, evaluationId);
-							drawnSamples.incrementAndGet();
-							V val = this.getFValueOfSolutionPath(completedPath);
-							this.logger.debug("Completed path evaluation with id {}. Score is {}", evaluationId, val);
-							successfulSamples.incrementAndGet();
-							this.eventBus.post(new RolloutEvent<>(ALGORITHM, n.path(), val));
-							if (val != null) {
-								evaluations.add(val);
-								this.updateMapOfBestScoreFoundSoFar(completedPath, val);
-							} else {
-								this.logger.warn("Got NULL result as score for evaluation with id {}", evaluationId);
+						try {
+							evaluation.get();
+						} catch (CancellationException e) {
+							this.logger.info("Sample evaluation has been canceled (perhaps due a cancel on the evaluator). Stopping sampling.");
+							drawing = false;
+						} catch (InterruptedException e) { // Interrupts are directly re-thrown
+							this.logger.debug("Path evaluation has been interrupted.");
+							evaluation.cancel(true);
+							cancelEvaluations(pendingEvaluations);
+							throw e;
+						} catch (ExecutionException e) {
+							Throwable ex = e.getCause();
+							if (ex instanceof InterruptedException) {
+								this.logger.debug("Path evaluation has been interrupted.");
+								cancelEvaluations(pendingEvaluations);
+								throw (InterruptedException) ex;
 							}
-							return true;
-						}, new Timeout(timeoutForJob, TimeUnit.MILLISECONDS), "RCNE-timeout for evaluation with id " + evaluationId);
-					} catch (InterruptedException e) { // Interrupts are directly re-thrown
-						this.logger.debug("Path evaluation has been interrupted.");
-						throw e;
-					} catch (Exception ex) {
-						if (countedExceptions == this.maxSamples) {
-							this.logger.warn("Too many retry attempts, giving up. {} samples were drawn, {} were successful. Head of path is: {}.", drawnSamples, successfulSamples, path.getHead());
-							throw new PathEvaluationException("Error in the evaluation of a node!", ex);
-						} else {
-							countedExceptions++;
-							if (ex instanceof AlgorithmTimeoutedException) {
-								this.logger.debug("Candidate evaluation failed due to timeout (either for this candidate or for the whole node).");
+							if (ex instanceof Error) {
+								cancelEvaluations(pendingEvaluations);
+								throw (Error) ex;
+							}
+							if (countedExceptions == this.maxSamples) {
+								this.logger.warn("Too many retry attempts, giving up. {} samples were drawn, {} were successful. Head of path is: {}.", drawnSamples, successfulSamples, path.getHead());
+								cancelEvaluations(pendingEvaluations);
+								throw new PathEvaluationException("Error in the evaluation of a node!", (Exception) ex);
 							} else {
-								if (LOG_FAILURES_AS_ERRORS) {
-									this.logger.error("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+								countedExceptions++;
+								if (ex instanceof AlgorithmTimeoutedException) {
+									this.logger.debug("Candidate evaluation failed due to timeout (either for this candidate or for the whole node).");
 								} else {
-									this.logger.warn("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+									if (LOG_FAILURES_AS_ERRORS) {
+										this.logger.error("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+									} else {
+										this.logger.warn("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+									}
 								}
 							}
+						} finally {
+							this.logger.debug("Finished process for sample {}.", drawnSamples);
 						}
-					} finally { // make sure that the abortion task is definitely killed
-						this.logger.debug("Finished process for sample {}.", drawnSamples);
+					}
+				} finally {
+					if (pool != null) {
+						this.activeSampleEvaluationPools.remove(pool);
+						pool.shutdownNow();
 					}
 				}
 
 				/* the only reason why we have no score at this point is that all evaluations have failed with exception or were interrupted */
-				V best = this.bestKnownScoreUnderNodeInCompleterGraph.get(n.getNodes());
+				SubtreeScores<V> scoresUnderNode = this.bestKnownScoreUnderNodeInCompleterGraph.get(n.getHead());
+				V best = scoresUnderNode != null ? scoresUnderNode.best : null;
+				List<V> candidatesForBest = new ArrayList<>(evaluations); // the memo may have evicted the scores of the node
+				if (knownScores != null) {
+					candidatesForBest.add(knownScores.best);
+				}
+				for (V val : candidatesForBest) {
+					if (best == null || val.compareTo(best) < 0) {
+						best = val;
+					}
+				}
 				this.logger.debug("Finished sampling. {} samples were drawn, {} were successful. Best seen score is {}", drawnSamples, successfulSamples, best);
 				if (best == null) {
 					if (n.getHead().equals(this.root)) {
@@ -324,6 +498,7 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 					this.logger.debug("Not setting uncertainty, because no uncertainty source has been defined.");
 				}
 				this.fValues.put(n, best);
+				f = best;
 			}
 
 			/* the node is a goal node */
@@ -334,6 +509,7 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 					return null;
 				}
 				this.fValues.put(n, score);
+				f = score;
 				if (!this.postedSolutions.contains(n)) {
 					this.logger.error("Found a goal node whose solution has not been posted before!");
 				}
@@ -345,9 +521,6 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 				n.setAnnotation(ENodeAnnotation.F_UNCERTAINTY.name(), uncertainty);
 			}
 		}
-		assert this.fValues.containsKey(n);
-
-		V f = this.fValues.get(n);
 		this.logger.info("Returning f-value: {}. Annotated uncertainty is {}", f, n.getAnnotation(ENodeAnnotation.F_UNCERTAINTY.name()));
 		return f;
 	}
@@ -363,8 +536,10 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 			}
 			BackPointerPath<T, A, ?> current = n.getParent();
 			while (current != null && !this.fValues.containsKey(current)) {
-				this.fValues.put(current, (V) current.getScore());
-				this.logger.debug("Filling up the f-value of {} with {}", current.hashCode(), current.getScore());
+				if (current.getScore() != null) { // the memo cannot hold null values
+					this.fValues.put(current, (V) current.getScore());
+					this.logger.debug("Filling up the f-value of {} with {}", current.hashCode(), current.getScore());
+				}
 				current = current.getParent();
 			}
 		}
@@ -403,20 +578,20 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 
 
 
-	private void updateMapOfBestScoreFoundSoFar(final ILabeledPath<T, A> nodeInCompleterGraph, final V scoreOnOriginalBenchmark) {
-		V bestKnownScore = this.bestKnownScoreUnderNodeInCompleterGraph.get(nodeInCompleterGraph.getNodes());
-		if (bestKnownScore == null || scoreOnOriginalBenchmark.compareTo(bestKnownScore) < 0) {
-			this.logger.debug("Updating best score of path, because score {} is better than previously observed best score {}", scoreOnOriginalBenchmark, bestKnownScore);
-			this.bestKnownScoreUnderNodeInCompleterGraph.put(nodeInCompleterGraph.getNodes(), scoreOnOriginalBenchmark);
-			if (!nodeInCompleterGraph.isPoint()) {
-				this.updateMapOfBestScoreFoundSoFar(nodeInCompleterGraph.getPathToParentOfHead(), scoreOnOriginalBenchmark);
-			}
+	private static void cancelEvaluations(final Deque<Future<Boolean>> evaluations) {
+		evaluations.forEach(f -> f.cancel(true));
+		evaluations.clear();
+	}
+
+	private void updateScoresUnderNodesOfSolution(final List<T> solution, final V score) {
+		for (T node : solution) { // the completer graph is a tree, so each node identifies the path to it
+			this.bestKnownScoreUnderNodeInCompleterGraph.compute(node, (k, scores) -> scores != null ? scores.add(score) : new SubtreeScores<>(score, 1));
 		}
 	}
 
 	protected V getFValueOfSolutionPath(final ILabeledPath<T, A> path) throws InterruptedException, PathEvaluationException {
-		boolean knownPath = this.scoresOfSolutionPaths.containsKey(path.getNodes());
-		if (!knownPath) {
+		V score = this.scoresOfSolutionPaths.get(path.getNodes()); // the score is kept in a local variable, because the memo may evict it at any time
+		if (score == null) {
 			if (this.unsuccessfulPaths.contains(path.getNodes())) {
 				this.logger.warn("Asking again for the reevaluation of a path that was evaluated unsuccessfully in a previous run; returning NULL: {}", path);
 				return null;
@@ -452,9 +627,15 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 				return null;
 			}
 
+			score = val;
 			this.scoresOfSolutionPaths.put(path.getNodes(), val);
 			this.timesToComputeEvaluations.put(path.getNodes(), (int) duration);
-			this.postSolution(path);
+			if (!this.postedSolutions.contains(path)) {
+				this.updateScoresUnderNodesOfSolution(path.getNodes(), val);
+				this.postSolution(path, val, (int) duration);
+			} else {
+				this.logger.debug("Neither counting nor posting the re-evaluated solution again, because its score has been evicted from the memo.");
+			}
 		} else {
 			this.logger.info("Associated plan is known. Reading score from cache.");
 			if (this.logger.isTraceEnabled()) {
@@ -468,14 +649,12 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 				throw new IllegalStateException("Reading cached score of a plan whose path has not been posted as a solution! Are there several paths to a plan?");
 			}
 		}
-		V score = this.scoresOfSolutionPaths.get(path.getNodes());
 		this.logger.debug("Determined value {} for path of length {}.", score, path.getNumberOfNodes());
-		assert score != null : "Stored scores must never be null";
 		this.logger.trace("Full path is {}", path);
 		return score;
 	}
 
-	protected void postSolution(final ILabeledPath<T, A> solution) {
+	protected void postSolution(final ILabeledPath<T, A> solution, final V score, final int timeToComputeScore) {
 		assert !this.postedSolutions.contains(solution) : "Solution " + solution.toString() + " already posted!";
 		assert this.goalTester.isGoal(solution) : "Last node is not a goal node!";
 		this.postedSolutions.add(solution);
@@ -488,8 +667,8 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 			if (this.eventBus == null) {
 				this.eventBus = new SolutionEventBus<>();
 			}
-			EvaluatedSearchGraphPath<T, ?, V> solutionObject = new EvaluatedSearchGraphPath<>(solution, this.scoresOfSolutionPaths.get(solution.getNodes()));
-			solutionObject.setAnnotation("fTime", this.timesToComputeEvaluations.get(solution.getNodes()));
+			EvaluatedSearchGraphPath<T, ?, V> solutionObject = new EvaluatedSearchGraphPath<>(solution, score);
+			solutionObject.setAnnotation("fTime", timeToComputeScore);
 			solutionObject.setAnnotation("timeToSolution", (int) (System.currentTimeMillis() - this.timestampOfFirstEvaluation));
 			solutionObject.setAnnotation("nodesEvaluatedToSolution", numberOfComputedFValues);
 			this.logger.debug("Posting solution {} to {} listeners: {}", solutionObject, this.solutionListeners.size(), this.solutionListeners);
@@ -542,6 +721,7 @@ implements IPotentiallyGraphDependentPathEvaluator<T, A, V>, IPotentiallySolutio
 	public void cancelActiveTasks() {
 		this.logger.info("Receive cancel signal. Canceling the completer.");
 		this.completer.cancel();
+		this.activeSampleEvaluationPools.forEach(pool -> pool.shutdownNow().forEach(r -> ((Future<?>) r).cancel(true))); // queued evaluations have not been started
 	}
 
 	@Override
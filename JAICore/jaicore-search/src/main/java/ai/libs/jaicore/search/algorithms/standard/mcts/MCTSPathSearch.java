@@ -125,6 +125,15 @@ public class MCTSPathSearch<I extends IPathSearchWithPathEvaluationsInput<N, A,
 		this.mcts.setTimeout(new Timeout(to.seconds() - 1, TimeUnit.SECONDS));
 	}
 
+	/**
+	 * The CPUs are used by MCTS to conduct playouts in parallel.
+	 */
+	@Override
+	public void setNumCPUs(final int numberOfCPUs) {
+		super.setNumCPUs(numberOfCPUs);
+		this.mcts.setNumCPUs(numberOfCPUs);
+	}
+
 	@Override
 	public void cancel() {
 		super.cancel();
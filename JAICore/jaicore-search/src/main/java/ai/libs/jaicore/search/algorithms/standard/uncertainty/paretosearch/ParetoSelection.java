@@ -52,10 +52,10 @@ public class ParetoSelection<T, A, V extends Comparable<V>> implements Queue<Bac
 	 */
 	@SuppressWarnings("unchecked")
 	private boolean dominates(final BackPointerPath<T, A, V> p, final BackPointerPath<T, A, V> q) {
-		if (!p.getAnnotations().containsKey(UNCERTAINTY)) {
+		if (p.getAnnotation(UNCERTAINTY) == null) {
 			throw new IllegalArgumentException("Node " + p + " has no uncertainty information.");
 		}
-		if (!q.getAnnotations().containsKey(UNCERTAINTY)) {
+		if (q.getAnnotation(UNCERTAINTY) == null) {
 			throw new IllegalArgumentException("Node " + q + " has no uncertainty information.");
 		}
 		// Get f and u values of nodes
@@ -14,12 +14,32 @@ import ai.libs.jaicore.graph.ReadOnlyPathAccessor;
 import ai.libs.jaicore.logging.ToJSONStringUtil;
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.ENodeAnnotation;
 
+/**
+ * Search node that represents the path to its head by a back pointer to the parent node.
+ *
+ * Since search algorithms create millions of these objects, the frequently accessed properties (score, goal flag, depth, and evaluation time) are stored in dedicated fields.
+ * All other annotations are kept in a map that is only allocated once the first such annotation is set.
+ * The dedicated properties can still be accessed via their {@link ENodeAnnotation} keys through the generic annotation methods.
+ *
+ * @author fmohr
+ *
+ * @param <N>
+ * @param <A>
+ * @param <V>
+ */
 public class BackPointerPath<N, A, V extends Comparable<V>> implements IEvaluatedPath<N, A, V> {
+
+	private static final String KEY_SCORE = ENodeAnnotation.F_SCORE.toString();
+	private static final String KEY_TIME = ENodeAnnotation.F_TIME.toString();
+
 	private final N nodeLabel;
 	private final A edgeLabelToParent;
 	private boolean goal;
+	private V score;
+	private int depth;
+	private long evaluationTime = -1; // negative if unknown
 	protected BackPointerPath<N, A, V> parent;
-	private final Map<String, Object> annotations = new HashMap<>(); // for nodes effectively examined
+	private Map<String, Object> annotations; // rare annotations; allocated lazily
 
 	public BackPointerPath(final N point) {
 		this(null, point, null);
@@ -28,6 +48,7 @@ public class BackPointerPath<N, A, V extends Comparable<V>> implements IEvaluate
 	public BackPointerPath(final BackPointerPath<N, A, V> parent, final N point, final A edgeLabelToParent) {
 		super();
 		this.parent = parent;
+		this.depth = parent != null ? parent.depth + 1 : 0;
 		this.nodeLabel = point;
 		this.edgeLabelToParent = edgeLabelToParent;
 	}
@@ -41,30 +62,82 @@ public class BackPointerPath<N, A, V extends Comparable<V>> implements IEvaluate
 		return this.nodeLabel;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public V getScore() {
-		return (V) this.annotations.get(ENodeAnnotation.F_SCORE.toString());
+		return this.score;
 	}
 
+	/**
+	 * Switches the parent of this node. Note that only the depth of this node is updated but not the one of nodes below it.
+	 *
+	 * @param newParent
+	 */
 	public void setParent(final BackPointerPath<N, A, V> newParent) {
 		this.parent = newParent;
+		this.depth = newParent != null ? newParent.depth + 1 : 0;
 	}
 
 	public void setScore(final V internalLabel) {
-		this.setAnnotation(ENodeAnnotation.F_SCORE.toString(), internalLabel);
+		this.score = internalLabel;
+	}
+
+	/**
+	 * @return The number of edges between the root and this node at the time of its creation (or last parent switch).
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * @return Time in milliseconds that was required to compute the score of this node or -1 if this is unknown.
+	 */
+	public long getEvaluationTime() {
+		return this.evaluationTime;
+	}
+
+	public void setEvaluationTime(final long evaluationTime) {
+		this.evaluationTime = evaluationTime;
 	}
 
+	@SuppressWarnings("unchecked")
 	public void setAnnotation(final String annotationName, final Object annotationValue) {
-		this.annotations.put(annotationName, annotationValue);
+		if (KEY_SCORE.equals(annotationName)) {
+			this.score = (V) annotationValue;
+		} else if (KEY_TIME.equals(annotationName)) {
+			this.evaluationTime = annotationValue != null ? ((Number) annotationValue).longValue() : -1;
+		} else {
+			synchronized (this) {
+				if (this.annotations == null) {
+					this.annotations = new HashMap<>(4);
+				}
+				this.annotations.put(annotationName, annotationValue);
+			}
+		}
 	}
 
 	public Object getAnnotation(final String annotationName) {
-		return this.annotations.get(annotationName);
+		if (KEY_SCORE.equals(annotationName)) {
+			return this.score;
+		}
+		if (KEY_TIME.equals(annotationName)) {
+			return this.evaluationTime >= 0 ? this.evaluationTime : null;
+		}
+		Map<String, Object> rareAnnotations = this.annotations;
+		return rareAnnotations != null ? rareAnnotations.get(annotationName) : null;
 	}
 
-	public Map<String, Object> getAnnotations() {
-		return this.annotations;
+	/**
+	 * @return A snapshot of all annotations of this node including the ones held in dedicated fields. Modifications of the returned map are not reflected in the node.
+	 */
+	public synchronized Map<String, Object> getAnnotations() {
+		Map<String, Object> allAnnotations = this.annotations != null ? new HashMap<>(this.annotations) : new HashMap<>();
+		if (this.score != null) {
+			allAnnotations.put(KEY_SCORE, this.score);
+		}
+		if (this.evaluationTime >= 0) {
+			allAnnotations.put(KEY_TIME, this.evaluationTime);
+		}
+		return allAnnotations;
 	}
 
 	public boolean isGoal() {
@@ -110,7 +183,7 @@ public class BackPointerPath<N, A, V extends Comparable<V>> implements IEvaluate
 			s += "null";
 		}
 		s += ", annotations=";
-		s += this.annotations;
+		s += this.getAnnotations();
 		s += "]";
 		return s;
 	}
@@ -121,7 +194,7 @@ public class BackPointerPath<N, A, V extends Comparable<V>> implements IEvaluate
 		fields.put("externalLabel", this.nodeLabel);
 		fields.put("goal", this.goal);
 		fields.put(ENodeAnnotation.F_SCORE.name(), this.getScore());
-		fields.put(ENodeAnnotation.F_ERROR.name(), this.annotations.get(ENodeAnnotation.F_ERROR.name()));
+		fields.put(ENodeAnnotation.F_ERROR.name(), this.getAnnotation(ENodeAnnotation.F_ERROR.name()));
 		return ToJSONStringUtil.toJSONString(this.getClass().getSimpleName(), fields);
 	}
 
@@ -151,7 +224,7 @@ public class BackPointerPath<N, A, V extends Comparable<V>> implements IEvaluate
 
 	@Override
 	public int getNumberOfNodes() {
-		return this.parent == null ? 1 : this.parent.getNumberOfNodes() + 1;
+		return this.parent == null ? 1 : this.parent.getNumberOfNodes() + 1; // not based on the depth field, which is not updated on parent switches of ancestors
 	}
 
 	@Override
@@ -36,7 +36,7 @@ public class JaicoreNodeInfoGenerator<N, V extends Comparable<V>> implements Nod
 		}
 		sb.append("</table>");
 		sb.append("<h2>Node Score</h2>");
-		sb.append(annotations.get(ENodeAnnotation.F_SCORE.toString()) + "");
+		sb.append(node.getScore() + "");
 		if (annotations.containsKey("fRPSamples")) {
 			sb.append(" (based on " + annotations.get("fRPSamples") + " samples)");
 		}
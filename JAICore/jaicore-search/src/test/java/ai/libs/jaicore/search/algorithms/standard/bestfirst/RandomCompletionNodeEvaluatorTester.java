@@ -2,6 +2,7 @@ package ai.libs.jaicore.search.algorithms.standard.bestfirst;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -258,6 +259,144 @@ public class RandomCompletionNodeEvaluatorTester extends TimeAwareNodeEvaluatorT
 		assertEquals(numRepetitions, observedSolutions.get());
 	}
 
+	@Test
+	public void testThatSolutionsEvaluatedForParentAreReusedForChild() throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException, PathEvaluationException {
+		this.testReuseOfSolutionsEvaluatedForParent(false);
+	}
+
+	@Test
+	public void testThatSolutionsEvaluatedForParentAreNotReusedIfUncertaintyIsAnnotated() throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException, PathEvaluationException {
+		this.testReuseOfSolutionsEvaluatedForParent(true);
+	}
+
+	/**
+	 * Evaluates the root and then its child under which most of the solutions of the root have been found. Unless an uncertainty source is set, these solutions count as samples of the child, so only
+	 * the remaining samples are drawn for it.
+	 */
+	public void testReuseOfSolutionsEvaluatedForParent(final boolean annotateUncertainty) throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException, PathEvaluationException {
+		final int CITIES = 7;
+		final int NUM_SAMPLES = 10;
+
+		StandardBestFirst<EnhancedTTSPState, String, Double> bf = this.getBF(CITIES, n -> n.getNodes().size() * 1.0);
+		AtomicInteger numberOfEvaluations = new AtomicInteger(0);
+		RandomCompletionBasedNodeEvaluator<EnhancedTTSPState, String, Double> ne = this.getNodeEvaluator(CITIES, p -> {
+			numberOfEvaluations.incrementAndGet();
+			return p.getHead().getTime();
+		}, 0, NUM_SAMPLES, NUM_SAMPLES, -1);
+		ne.setGenerator(bf.getGraphGenerator(), bf.getGoalTester());
+		if (annotateUncertainty) {
+			ne.setUncertaintySource((n, simulationPaths, simulationEvaluations) -> 0.5);
+		}
+		Map<List<EnhancedTTSPState>, Double> solutions = new HashMap<>();
+		ne.registerSolutionListener(new Object() {
+
+			@Subscribe
+			public void receiveSolution(final EvaluatedSearchSolutionCandidateFoundEvent<EnhancedTTSPState, String, Double> e) {
+				solutions.put(e.getSolutionCandidate().getNodes(), e.getScore());
+			}
+		});
+
+		/* evaluate the root */
+		bf.initGraph();
+		BackPointerPath<EnhancedTTSPState, String, Double> root = bf.getOpen().get(0);
+		ne.evaluate(root);
+		assertEquals(NUM_SAMPLES, numberOfEvaluations.get());
+		assertEquals(NUM_SAMPLES, solutions.size());
+
+		/* evaluate the child with most solutions of the root */
+		BackPointerPath<EnhancedTTSPState, String, Double> child = null;
+		int solutionsUnderChild = 0;
+		for (BackPointerPath<EnhancedTTSPState, String, Double> candidate : this.getChildren(bf, root)) {
+			int solutionsUnderCandidate = (int) solutions.keySet().stream().filter(s -> s.get(1).equals(candidate.getHead())).count();
+			if (solutionsUnderCandidate > solutionsUnderChild) {
+				child = candidate;
+				solutionsUnderChild = solutionsUnderCandidate;
+			}
+		}
+		assertNotNull(child);
+		assertTrue(solutionsUnderChild > 1);
+		numberOfEvaluations.set(0);
+		double score = ne.evaluate(child);
+		int expectedNumberOfEvaluations = annotateUncertainty ? NUM_SAMPLES : NUM_SAMPLES - solutionsUnderChild;
+		assertEquals(expectedNumberOfEvaluations, numberOfEvaluations.get());
+		assertEquals(NUM_SAMPLES + expectedNumberOfEvaluations, solutions.size());
+
+		/* the score of the child is the best of all its solutions, including the reused ones */
+		EnhancedTTSPState headOfChild = child.getHead();
+		assertEquals(solutions.entrySet().stream().filter(e -> e.getKey().get(1).equals(headOfChild)).mapToDouble(Entry::getValue).min().getAsDouble(), score, 0.0);
+	}
+
+	@Test
+	public void testThatParallelSampleEvaluationYieldsSameScoresAsSequentialEvaluation() throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException, PathEvaluationException {
+		final int CITIES = 7;
+		final int NUM_SAMPLES = 10;
+
+		StandardBestFirst<EnhancedTTSPState, String, Double> bf = this.getBF(CITIES, n -> n.getNodes().size() * 1.0);
+		bf.initGraph();
+		BackPointerPath<EnhancedTTSPState, String, Double> root = bf.getOpen().get(0);
+		List<BackPointerPath<EnhancedTTSPState, String, Double>> nodes = new ArrayList<>();
+		nodes.add(root);
+		for (BackPointerPath<EnhancedTTSPState, String, Double> child : this.getChildren(bf, root)) {
+			nodes.add(child);
+			nodes.addAll(this.getChildren(bf, child));
+		}
+
+		/* the samples are drawn in the same order regardless of the number of threads, so with a deterministic solution evaluator, the scores must be the same */
+		List<List<Double>> scoresPerNumberOfThreads = new ArrayList<>();
+		for (int numberOfThreads : new int[] { 1, 4 }) {
+			RandomCompletionBasedNodeEvaluator<EnhancedTTSPState, String, Double> ne = this.getNodeEvaluator(CITIES, p -> p.getHead().getTime(), 0, NUM_SAMPLES, NUM_SAMPLES, -1);
+			ne.setGenerator(bf.getGraphGenerator(), bf.getGoalTester());
+			ne.setNumberOfThreadsForSampleEvaluation(numberOfThreads);
+			List<Double> scores = new ArrayList<>();
+			for (BackPointerPath<EnhancedTTSPState, String, Double> node : nodes) {
+				scores.add(ne.evaluate(node));
+			}
+			ne.cancelActiveTasks();
+			scoresPerNumberOfThreads.add(scores);
+		}
+		assertEquals(scoresPerNumberOfThreads.get(0), scoresPerNumberOfThreads.get(1));
+	}
+
+	@Test
+	public void testEvaluationWithMemosThatEvictEntries() throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException, PathEvaluationException {
+		final int CITIES = 6;
+		final int NUM_SAMPLES = 5;
+
+		StandardBestFirst<EnhancedTTSPState, String, Double> bf = this.getBF(CITIES, n -> n.getNodes().size() * 1.0);
+		RandomCompletionBasedNodeEvaluator<EnhancedTTSPState, String, Double> ne = this.getNodeEvaluator(CITIES, p -> p.getHead().getTime(), 0, NUM_SAMPLES, NUM_SAMPLES, -1);
+		ne.setGenerator(bf.getGraphGenerator(), bf.getGoalTester());
+		ne.setMemoCapacity(10); // solution paths have more nodes than that, so their scores are evicted immediately
+		Map<List<EnhancedTTSPState>, Double> solutions = new HashMap<>();
+		ne.registerSolutionListener(new Object() {
+
+			@Subscribe
+			public void receiveSolution(final EvaluatedSearchSolutionCandidateFoundEvent<EnhancedTTSPState, String, Double> e) {
+				solutions.put(e.getSolutionCandidate().getNodes(), e.getScore());
+			}
+		});
+
+		/* evaluate the root, where the scores of the solutions must be posted even though they are evicted */
+		bf.initGraph();
+		BackPointerPath<EnhancedTTSPState, String, Double> root = bf.getOpen().get(0);
+		Double scoreOfRoot = ne.evaluate(root);
+		assertEquals(NUM_SAMPLES, solutions.size());
+		assertFalse(solutions.containsValue(null));
+		assertEquals(solutions.values().stream().mapToDouble(Double::doubleValue).min().getAsDouble(), scoreOfRoot, 0.0);
+
+		/* evaluate the root again (which may have been evicted, too) and then its children; every score must be the score of a solution under the node */
+		assertTrue(solutions.containsValue(ne.evaluate(root)));
+		for (BackPointerPath<EnhancedTTSPState, String, Double> child : this.getChildren(bf, root)) {
+			Double score = ne.evaluate(child);
+			assertNotNull(score);
+			assertTrue(solutions.entrySet().stream().anyMatch(e -> e.getKey().get(1).equals(child.getHead()) && e.getValue().equals(score)));
+		}
+		assertFalse(solutions.containsValue(null));
+	}
+
+	private List<BackPointerPath<EnhancedTTSPState, String, Double>> getChildren(final StandardBestFirst<EnhancedTTSPState, String, Double> bf, final BackPointerPath<EnhancedTTSPState, String, Double> node) throws InterruptedException {
+		return bf.getGraphGenerator().getSuccessorGenerator().generateSuccessors(node.getHead()).stream().map(d -> new BackPointerPath<>(node, d.getTo(), d.getArcLabel())).collect(Collectors.toList());
+	}
+
 	public RandomCompletionBasedNodeEvaluator<EnhancedTTSPState, String, Double> getNodeEvaluator(final int problemDifficulty, final IObjectEvaluator<ILabeledPath<EnhancedTTSPState, String>, Double> oe, final int seed, final int numSamples,
 			final int maxSamples, final int timeoutForNodeEvaluationInMs) {
 
@@ -0,0 +1,17 @@
+package ai.libs.jaicore.search.algorithms.standard.bestfirst;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.api4.java.ai.graphsearch.problem.IPathSearch;
+
+import ai.libs.jaicore.search.algorithms.GraphSearchWithSubPathEvaluationUninformedTester;
+import ai.libs.jaicore.search.probleminputs.GraphSearchWithSubpathEvaluationsInput;
+
+public class StripedOpenBestFirstTester extends GraphSearchWithSubPathEvaluationUninformedTester {
+
+	@Override
+	public <N, A> IPathSearch<?, ?, N, A> getSearchAlgorithm(final GraphSearchWithSubpathEvaluationsInput<N, A, Double> problem) {
+		IBestFirstConfig config = ConfigFactory.create(IBestFirstConfig.class);
+		config.setProperty(IBestFirstConfig.K_OPEN_STRIPES, "4");
+		return new StandardBestFirst<>(config, problem);
+	}
+}
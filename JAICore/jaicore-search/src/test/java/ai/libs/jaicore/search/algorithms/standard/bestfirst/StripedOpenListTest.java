@@ -0,0 +1,80 @@
+package ai.libs.jaicore.search.algorithms.standard.bestfirst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.search.model.travesaltree.BackPointerPath;
+
+public class StripedOpenListTest {
+
+	private static BackPointerPath<Integer, Integer, Double> node(final int id, final double score) {
+		BackPointerPath<Integer, Integer, Double> node = new BackPointerPath<>(id);
+		node.setScore(score);
+		return node;
+	}
+
+	@Test
+	public void testThatStrictModeReturnsNodesInOrderOfScores() {
+		StripedOpenList<Integer, Integer, Double> open = new StripedOpenList<>(8, true);
+		Random random = new Random(0);
+		for (int i = 0; i < 1000; i++) {
+			open.add(node(i, random.nextDouble()));
+		}
+		assertEquals(1000, open.size());
+		double last = Double.NEGATIVE_INFINITY;
+		while (!open.isEmpty()) {
+			BackPointerPath<Integer, Integer, Double> next = open.poll();
+			assertTrue(next.getScore() >= last);
+			last = next.getScore();
+		}
+		assertNull(open.poll());
+	}
+
+	@Test
+	public void testRemovalOfArbitraryNodes() {
+		StripedOpenList<Integer, Integer, Double> open = new StripedOpenList<>(4, false);
+		List<BackPointerPath<Integer, Integer, Double>> nodes = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			BackPointerPath<Integer, Integer, Double> n = node(i, i);
+			nodes.add(n);
+			open.add(n);
+		}
+		for (int i = 0; i < 100; i += 2) {
+			assertTrue(open.remove(nodes.get(i)));
+			assertFalse(open.contains(nodes.get(i)));
+			assertFalse(open.remove(nodes.get(i)));
+		}
+		assertEquals(50, open.size());
+		assertEquals(50, open.stream().count());
+		assertFalse(open.contains(null));
+	}
+
+	@Test
+	public void testConcurrentInsertions() throws InterruptedException {
+		StripedOpenList<Integer, Integer, Double> open = new StripedOpenList<>(4, true);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			final int offset = t * 10000;
+			pool.submit(() -> {
+				for (int i = 0; i < 10000; i++) {
+					open.add(node(offset + i, offset + i));
+				}
+			});
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+		assertEquals(40000, open.size());
+		assertEquals(0, (int) open.peek().getHead());
+	}
+}
@@ -0,0 +1,13 @@
+package ai.libs.jaicore.search.algorithms.standard.mcts;
+
+import ai.libs.jaicore.search.algorithms.mdp.mcts.EMCTSParallelizationMode;
+import ai.libs.jaicore.search.algorithms.mdp.mcts.uct.UCTFactory;
+
+public class TreeParallelUCTTester extends MCTSForGraphSearchTester {
+
+	@Override
+	public <N, A> UCTFactory<N, A> getFactory() {
+		return new UCTFactory<N, A>().withNumCPUs(4).withParallelizationMode(EMCTSParallelizationMode.TREE);
+	}
+
+}
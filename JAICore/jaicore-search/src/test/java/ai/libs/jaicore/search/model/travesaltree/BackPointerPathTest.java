@@ -0,0 +1,61 @@
+package ai.libs.jaicore.search.model.travesaltree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.ENodeAnnotation;
+
+public class BackPointerPathTest {
+
+	@Test
+	public void testThatDedicatedPropertiesAreAccessibleAsAnnotations() {
+		BackPointerPath<String, String, Double> node = new BackPointerPath<>("root");
+		assertNull(node.getAnnotation(ENodeAnnotation.F_SCORE.toString()));
+		assertNull(node.getAnnotation(ENodeAnnotation.F_TIME.toString()));
+		assertTrue(node.getAnnotations().isEmpty());
+
+		node.setAnnotation(ENodeAnnotation.F_SCORE.toString(), 2.0);
+		node.setEvaluationTime(5);
+		assertEquals(2.0, node.getScore(), 0.0);
+		assertEquals(5L, node.getAnnotation(ENodeAnnotation.F_TIME.toString()));
+
+		node.setScore(3.0);
+		node.setAnnotation(ENodeAnnotation.F_TIME.toString(), 7);
+		assertEquals(3.0, node.getAnnotation(ENodeAnnotation.F_SCORE.toString()));
+		assertEquals(7L, node.getEvaluationTime());
+	}
+
+	@Test
+	public void testRareAnnotations() {
+		BackPointerPath<String, String, Double> node = new BackPointerPath<>("root");
+		node.setScore(1.0);
+		node.setAnnotation(ENodeAnnotation.F_ERROR.toString(), "error");
+		Map<String, Object> annotations = node.getAnnotations();
+		assertEquals(2, annotations.size());
+		assertEquals("error", annotations.get(ENodeAnnotation.F_ERROR.toString()));
+		assertEquals(1.0, annotations.get(ENodeAnnotation.F_SCORE.toString()));
+
+		/* the returned map is a snapshot */
+		annotations.put("foo", "bar");
+		assertFalse(node.getAnnotations().containsKey("foo"));
+	}
+
+	@Test
+	public void testDepth() {
+		BackPointerPath<String, String, Double> root = new BackPointerPath<>("root");
+		BackPointerPath<String, String, Double> child = new BackPointerPath<>(root, "child", "a");
+		BackPointerPath<String, String, Double> grandChild = new BackPointerPath<>(child, "grandchild", "b");
+		assertEquals(0, root.getDepth());
+		assertEquals(1, child.getDepth());
+		assertEquals(2, grandChild.getDepth());
+		assertEquals(grandChild.getNumberOfNodes() - 1, grandChild.getDepth());
+		grandChild.setParent(root);
+		assertEquals(1, grandChild.getDepth());
+	}
+}
@@ -0,0 +1,246 @@
+package ai.libs.hasco.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.MapMaker;
+
+import ai.libs.jaicore.components.api.IComponent;
+import ai.libs.jaicore.components.api.IComponentInstance;
+import ai.libs.jaicore.components.api.IParameter;
+import ai.libs.jaicore.components.api.IRequiredInterfaceDefinition;
+import ai.libs.jaicore.components.model.ComponentInstance;
+import ai.libs.jaicore.logic.fol.structure.DeltaMonom;
+import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.Monom;
+
+/**
+ * Decodes the component instances described by a state of the HASCO planning problem.
+ *
+ * The literals that describe component instances are indexed by the names of the objects they refer to, and components are looked up by name. The states of TFD nodes are {@link DeltaMonom}s that share a
+ * base with the states of their ancestors and descendants. The index of such a base is computed once and cached for as long as the base is in use, so decoding the state of a node only needs to index the
+ * literals in which the state differs from its base.
+ */
+class ComponentInstanceStateDecoder {
+
+	static final String LITERAL_RESOLVES = "resolves";
+	static final String LITERAL_PARAMCONTAINER = "parameterContainer";
+	static final String LITERAL_VAL = "val";
+	static final String LITERAL_OVERWRITTEN = "overwritten";
+	static final String LITERAL_INTERFACEGROUPDEFINITION = "interfaceGroup"; // [component name, interface ID (role), component handle, iGroupHandle]
+	static final String LITERAL_INTERFACEMEMBERSHIP = "interfaceMember"; // [iHandle, iGroupHandle, iIndex]
+
+	private static final String KEY_SEPARATOR = "\u0000";
+
+	private static final Map<Set<Literal>, LiteralIndex> BASE_INDICES = new MapMaker().weakKeys().makeMap();
+	private static final Map<Collection<? extends IComponent>, Map<String, IComponent>> COMPONENT_INDICES = new MapMaker().weakKeys().makeMap();
+
+	/**
+	 * The literals of a set that are relevant for component instances, indexed by predicate and key (see {@link #getKey(Literal)}).
+	 */
+	private static class LiteralIndex {
+		private final Map<String, Map<String, Literal>> literals = new HashMap<>();
+
+		private LiteralIndex(final Collection<Literal> literals) {
+			for (Literal l : literals) {
+				String key = getKey(l);
+				if (key != null) {
+					this.literals.computeIfAbsent(l.getPropertyName(), p -> new HashMap<>()).put(key, l);
+				}
+			}
+		}
+
+		private Map<String, Literal> get(final String predicate) {
+			return this.literals.getOrDefault(predicate, Collections.emptyMap());
+		}
+	}
+
+	private final Monom state;
+	private final LiteralIndex baseIndex;
+	private final LiteralIndex addedIndex;
+	private final Set<Literal> removedLiterals;
+
+	ComponentInstanceStateDecoder(final Monom state) {
+		this.state = state;
+		if (state instanceof DeltaMonom) {
+			DeltaMonom deltaState = (DeltaMonom) state;
+			this.baseIndex = BASE_INDICES.computeIfAbsent(deltaState.getBase(), LiteralIndex::new);
+			this.addedIndex = new LiteralIndex(deltaState.getAddedLiterals());
+			this.removedLiterals = deltaState.getRemovedLiterals();
+		} else {
+			this.baseIndex = new LiteralIndex(state);
+			this.addedIndex = new LiteralIndex(Collections.emptyList());
+			this.removedLiterals = Collections.emptySet();
+		}
+	}
+
+	/**
+	 * Determines the key of a literal in the index, i.e. the name of the object (and parameter) described by it, or null if the literal is not relevant for component instances.
+	 */
+	private static String getKey(final Literal l) {
+		switch (l.getPropertyName()) {
+		case LITERAL_RESOLVES: // key is the handle of the resolving component instance
+		case LITERAL_INTERFACEGROUPDEFINITION: // key is the handle of the interface group
+			return l.getParameters().get(3).getName();
+		case LITERAL_PARAMCONTAINER: // key is the handle of the component instance and the parameter name
+			return l.getParameters().get(2).getName() + KEY_SEPARATOR + l.getParameters().get(1).getName();
+		case LITERAL_VAL: // key is the container
+		case LITERAL_OVERWRITTEN: // key is the container
+		case LITERAL_INTERFACEMEMBERSHIP: // key is the handle of the interface
+			return l.getParameters().get(0).getName();
+		default:
+			return null;
+		}
+	}
+
+	private static Map<String, IComponent> getComponentsByName(final Collection<? extends IComponent> components) {
+		Map<String, IComponent> componentsByName = COMPONENT_INDICES.get(components);
+		if (componentsByName == null || componentsByName.size() != components.size()) {
+			componentsByName = new HashMap<>();
+			for (IComponent c : components) {
+				componentsByName.put(c.getName(), c);
+			}
+			COMPONENT_INDICES.put(components, componentsByName);
+		}
+		return componentsByName;
+	}
+
+	/**
+	 * @return The literal of the state with the given predicate and key, or null if there is none.
+	 */
+	Literal getLiteral(final String predicate, final String key) {
+		Literal l = this.addedIndex.get(predicate).get(key);
+		if (l != null) {
+			return l;
+		}
+		l = this.baseIndex.get(predicate).get(key);
+		return l != null && !this.removedLiterals.contains(l) ? l : null;
+	}
+
+	/**
+	 * @return All literals of the state with the given predicate.
+	 */
+	List<Literal> getLiterals(final String predicate) {
+		List<Literal> literals = new ArrayList<>();
+		for (Literal l : this.baseIndex.get(predicate).values()) {
+			if (!this.removedLiterals.contains(l)) {
+				literals.add(l);
+			}
+		}
+		literals.addAll(this.addedIndex.get(predicate).values());
+		return literals;
+	}
+
+	/**
+	 * @return The name of the container of the given parameter of the given component instance, or null if there is none.
+	 */
+	String getParameterContainer(final String objectName, final String parameterName) {
+		Literal l = this.getLiteral(LITERAL_PARAMCONTAINER, objectName + KEY_SEPARATOR + parameterName);
+		return l != null ? l.getParameters().get(3).getName() : null;
+	}
+
+	/**
+	 * @return The value of the given container, or null if there is none.
+	 */
+	String getValue(final String container) {
+		Literal l = this.getLiteral(LITERAL_VAL, container);
+		return l != null ? l.getParameters().get(1).getName() : null;
+	}
+
+	boolean isOverwritten(final String container) {
+		return this.getLiteral(LITERAL_OVERWRITTEN, container) != null;
+	}
+
+	/**
+	 * Creates the component instances of the state.
+	 *
+	 * @param components
+	 *            The components that may occur in the state.
+	 * @param resolveIntervals
+	 *            Whether the values of numeric parameters are resolved to a single number.
+	 * @return The component instances by their handles in the state.
+	 */
+	Map<String, ComponentInstance> getGroundComponents(final Collection<? extends IComponent> components, final boolean resolveIntervals) {
+		Map<String, IComponent> componentsByName = getComponentsByName(components);
+		Map<String, ComponentInstance> objectMap = new HashMap<>();
+		List<Literal> resolvesLiterals = this.getLiterals(LITERAL_RESOLVES);
+
+		/* create (empty) component instances */
+		for (Literal l : resolvesLiterals) { // field 0 and 1 (parent object name and interface name) are ignored here
+			String componentName = l.getParameters().get(2).getName();
+			IComponent component = componentsByName.get(componentName);
+			if (component == null) {
+				throw new IllegalStateException("Error when treating literal " + l + ". The provided list of components has no component with name \"" + componentName + "\". List of known components: "
+						+ components.stream().map(c -> "\n\t" + c.getName()).collect(Collectors.joining()));
+			}
+			objectMap.put(l.getParameters().get(3).getName(), new ComponentInstance(component, new HashMap<>(), new HashMap<>()));
+		}
+
+		/* now establish the binding of the required interfaces of the component instances */
+		Map<String, Map<String, Map<Integer, ComponentInstance>>> orderedRequiredInterfaceMap = new HashMap<>(); // stores for each ci reference and each of its ri references the map that assigns to the slot number the
+		// concrete component instance
+		for (Literal l : resolvesLiterals) {
+			String handleOfRequiredInterface = l.getParameters().get(0).getName();
+			if (handleOfRequiredInterface.equals("request")) {
+				continue;
+			}
+			Literal membership = this.getLiteral(LITERAL_INTERFACEMEMBERSHIP, handleOfRequiredInterface);
+			if (membership == null) {
+				throw new IllegalArgumentException("The state contains a literal " + l + ", which suggests that " + handleOfRequiredInterface
+						+ " is the handle of a requried interface. But this handle is not registered in the map. State is: " + this.state.stream().sorted((s1, s2) -> s1.compareTo(s2)).map(lit -> "\n\t" + lit).collect(Collectors.joining()));
+			}
+			Literal interfaceGroup = this.getLiteral(LITERAL_INTERFACEGROUPDEFINITION, membership.getParameters().get(1).getName());
+			String handleOfComponentInstanceThatRequiresTheInterface = interfaceGroup != null ? interfaceGroup.getParameters().get(2).getName() : null;
+			String role = interfaceGroup != null ? interfaceGroup.getParameters().get(1).getName() : null;
+			ComponentInstance providingCI = objectMap.get(l.getParameters().get(3).getName());
+			int indexOfRealization = Integer.parseInt(membership.getParameters().get(2).getName());
+			orderedRequiredInterfaceMap.computeIfAbsent(handleOfComponentInstanceThatRequiresTheInterface, rci -> new HashMap<>()).computeIfAbsent(role, gri -> new HashMap<>()).put(indexOfRealization, providingCI);
+		}
+		for (Entry<String, ComponentInstance> entry : objectMap.entrySet()) {
+			ComponentInstance requiringCI = entry.getValue();
+			Map<String, Map<Integer, ComponentInstance>> provisions = orderedRequiredInterfaceMap.getOrDefault(entry.getKey(), Collections.emptyMap());
+			for (IRequiredInterfaceDefinition ri : requiringCI.getComponent().getRequiredInterfaces()) {
+				String reqInterfaceId = ri.getId();
+				List<IComponentInstance> realizations = new ArrayList<>();
+				Map<Integer, ComponentInstance> provisionsOfThisInterface = provisions.get(reqInterfaceId);
+				if (provisionsOfThisInterface != null) {
+					int n = provisionsOfThisInterface.size();
+					for (int i = 1; i <= n; i++) { // indices here start at 1
+						if (!provisionsOfThisInterface.containsKey(i)) {
+							throw new IllegalArgumentException(
+									"The realizations of the required interface " + requiringCI + " of component " + requiringCI.getComponent().getName() + " is not consecutive! Here is the map: \n" + provisionsOfThisInterface);
+						}
+						realizations.add(provisionsOfThisInterface.get(i));
+					}
+				}
+				requiringCI.getSatisfactionOfRequiredInterfaces().put(reqInterfaceId, realizations);
+			}
+		}
+
+		/* set the explicitly defined parameters (e.g. overwritten containers) in the component instances */
+		for (Entry<String, ComponentInstance> entry : objectMap.entrySet()) {
+			String objectName = entry.getKey();
+			ComponentInstance object = entry.getValue();
+			for (IParameter p : object.getComponent().getParameters()) {
+				String paramContainerName = this.getParameterContainer(objectName, p.getName());
+				if (paramContainerName == null) {
+					throw new IllegalStateException("The data container for parameter " + p.getName() + " of " + object.getComponent().getName() + " (object " + objectName + ") is not defined! State: "
+							+ this.state.stream().sorted().map(l -> "\n\t" + l).collect(Collectors.joining()));
+				}
+				if (this.isOverwritten(paramContainerName)) {
+					String assignedValue = this.getValue(paramContainerName);
+					assert assignedValue != null : "parameter containers must always have a value!";
+					object.getParameterValues().put(p.getName(), HASCOUtil.getParamValue(p, assignedValue, resolveIntervals));
+				}
+			}
+		}
+		return objectMap;
+	}
+}
@@ -1,6 +1,5 @@
 package ai.libs.hasco.core;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -22,12 +21,10 @@ import ai.libs.hasco.core.reduction.softcomp2planning.HASCOReduction;
 import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.basic.sets.SetUtil;
 import ai.libs.jaicore.components.api.IComponent;
-import ai.libs.jaicore.components.api.IComponentInstance;
 import ai.libs.jaicore.components.api.INumericParameterRefinementConfigurationMap;
 import ai.libs.jaicore.components.api.IParameter;
 import ai.libs.jaicore.components.api.IParameterDependency;
 import ai.libs.jaicore.components.api.IParameterDomain;
-import ai.libs.jaicore.components.api.IRequiredInterfaceDefinition;
 import ai.libs.jaicore.components.model.CategoricalParameterDomain;
 import ai.libs.jaicore.components.model.ComponentInstance;
 import ai.libs.jaicore.components.model.ComponentUtil;
@@ -54,11 +51,9 @@ import ai.libs.jaicore.search.model.travesaltree.BackPointerPath;
  */
 public class HASCOUtil {
 
-	private static final String LITERAL_RESOLVES = "resolves";
-	private static final String LITERAL_PARAMCONTAINER = "parameterContainer";
-	private static final String LITERAL_VAL = "val";
-	private static final String LITERAL_INTERFACEGROUPDEFINITION = "interfaceGroup"; // [component name, interface ID (role), component handle, iGroupHandle]
-	private static final String LITERAL_INTERFACEMEMBERSHIP = "interfaceMember"; // [iHandle, iGroupHandle]
+	private static final String LITERAL_RESOLVES = ComponentInstanceStateDecoder.LITERAL_RESOLVES;
+	private static final String LITERAL_PARAMCONTAINER = ComponentInstanceStateDecoder.LITERAL_PARAMCONTAINER;
+	private static final String LITERAL_VAL = ComponentInstanceStateDecoder.LITERAL_VAL;
 
 	private static final Logger logger = LoggerFactory.getLogger(HASCOUtil.class);
 
@@ -102,7 +97,7 @@ public class HASCOUtil {
 	 */
 	public static Map<String, String> getParameterContainerMap(final Monom state, final String objectName) {
 		Map<String, String> parameterContainerMap = new HashMap<>();
-		List<Literal> containerLiterals = state.stream().filter(l -> l.getPropertyName().equals(LITERAL_PARAMCONTAINER) && l.getParameters().get(2).getName().equals(objectName)).collect(Collectors.toList());
+		List<Literal> containerLiterals = new ComponentInstanceStateDecoder(state).getLiterals(LITERAL_PARAMCONTAINER).stream().filter(l -> l.getParameters().get(2).getName().equals(objectName)).collect(Collectors.toList());
 		containerLiterals.forEach(l -> parameterContainerMap.put(l.getParameters().get(1).getName(), l.getParameters().get(3).getName()));
 		return parameterContainerMap;
 	}
@@ -197,117 +192,20 @@ public class HASCOUtil {
 		return state.stream().filter(l -> l.getPropertyName().equals("closed")).map(l -> l.getParameters().get(0).getName()).collect(Collectors.toSet());
 	}
 
+	/**
+	 * Creates the component instances described by a state. Components are looked up by name, and if the state is a {@link ai.libs.jaicore.logic.fol.structure.DeltaMonom} (as the states of TFD nodes),
+	 * only the literals in which it differs from its base are indexed, because the index of the base is shared with the other states derived from that base.
+	 *
+	 * @param state
+	 *            The state.
+	 * @param components
+	 *            The components that may occur in the state.
+	 * @param resolveIntervals
+	 *            Whether the values of numeric parameters are resolved to a single number.
+	 * @return The component instances by their handles in the state.
+	 */
 	public static Map<String, ComponentInstance> getGroundComponentsFromState(final Monom state, final Collection<? extends IComponent> components, final boolean resolveIntervals) {
-		Map<String, ComponentInstance> objectMap = new HashMap<>();
-		Map<String, Map<String, String>> parameterContainerMap = new HashMap<>(); // stores for each object the name of the container of each parameter
-		Map<String, String> parameterValues = new HashMap<>();
-		Map<String, String> interfaceMembershipMap = new HashMap<>();
-		Map<String, Integer> interfaceIndexMap = new HashMap<>();
-		Map<String, String> interfaceGroupComponentMap = new HashMap<>(); // stores for each interface group to which component instance it belongs
-		Map<String, String> interfaceGroupRoleMap = new HashMap<>(); // stores for each interface group the role it has for the component
-		Collection<String> overwrittenDatacontainers = getOverwrittenDatacontainersInState(state);
-		Map<String, Map<String, Map<Integer, ComponentInstance>>> orderedRequiredInterfaceMap = new HashMap<>(); // stores for each ci reference and each of its ri references the map that assigns to the slot number the concrete component
-		// instance
-
-		/* create (empty) component instances, detect containers for parameter values, and register the values of the data containers */
-		for (Literal l : state) {
-			String[] params = l.getParameters().stream().map(LiteralParam::getName).collect(Collectors.toList()).toArray(new String[] {});
-			switch (l.getPropertyName()) {
-			case LITERAL_RESOLVES: // field 0 and 1 (parent object name and interface name) are ignored here
-				String componentName = params[2];
-				String objectName = params[3];
-				Optional<? extends IComponent> component = components.stream().filter(c -> c.getName().equals(componentName)).findAny();
-				if (!component.isPresent()) {
-					throw new IllegalStateException("Error when treating literal " + l + ". The provided list of components has no component with name \"" + componentName + "\". List of known components: "
-							+ components.stream().map(c -> "\n\t" + c.getName()).collect(Collectors.joining()));
-				}
-				ComponentInstance object = new ComponentInstance(component.get(), new HashMap<>(), new HashMap<>());
-				objectMap.put(objectName, object);
-				break;
-			case LITERAL_PARAMCONTAINER:
-				if (!parameterContainerMap.containsKey(params[2])) {
-					parameterContainerMap.put(params[2], new HashMap<>());
-				}
-				parameterContainerMap.get(params[2]).put(params[1], params[3]);
-				break;
-			case LITERAL_VAL:
-				parameterValues.put(params[0], params[1]);
-				break;
-
-			case LITERAL_INTERFACEGROUPDEFINITION:
-				interfaceGroupComponentMap.put(params[3], params[2]);
-				interfaceGroupRoleMap.put(params[3], params[1]);
-				break;
-
-			case LITERAL_INTERFACEMEMBERSHIP: // first argument is the interface, second is the interface group it belongs to, third argument is the index of the realization
-				interfaceMembershipMap.put(params[0], params[1]);
-				interfaceIndexMap.put(params[0], Integer.parseInt(params[2]));
-				break;
-			default:
-				/* simply ignore other cases */
-				break;
-			}
-		}
-
-		/* now establish the binding of the required interfaces of the component instances */
-		state.stream().filter(l -> l.getPropertyName().equals(LITERAL_RESOLVES)).forEach(l -> {
-			String[] params = l.getParameters().stream().map(LiteralParam::getName).collect(Collectors.toList()).toArray(new String[] {});
-			String handleOfRequiredInterface = params[0];
-			String handleOfComponentInstanceThatProvidesTheInterface = params[3];
-			if (!handleOfRequiredInterface.equals("request")) {
-				if (!interfaceMembershipMap.containsKey(handleOfRequiredInterface)) {
-					throw new IllegalArgumentException("The state contains a literal " + l + ", which suggests that " + handleOfRequiredInterface
-							+ " is the handle of a requried interface. But this handle is not registered in the map. State is: " + state.stream().sorted((s1, s2) -> s1.compareTo(s2)).map(lit -> "\n\t" + lit).collect(Collectors.joining()));
-				}
-				String iFaceGroupHandle = interfaceMembershipMap.get(handleOfRequiredInterface);
-				String handleOfComponentInstanceThatRequiresTheInterface = interfaceGroupComponentMap.get(iFaceGroupHandle);
-				ComponentInstance providingCI = objectMap.get(handleOfComponentInstanceThatProvidesTheInterface);
-				int indexOfRealization = interfaceIndexMap.get(handleOfRequiredInterface);
-				orderedRequiredInterfaceMap.computeIfAbsent(handleOfComponentInstanceThatRequiresTheInterface, rci -> new HashMap<>()).computeIfAbsent(interfaceGroupRoleMap.get(iFaceGroupHandle), gri -> new HashMap<>()).put(indexOfRealization, providingCI);
-			}
-		});
-		for (Entry<String, ComponentInstance> entry : objectMap.entrySet()) {
-			ComponentInstance requiringCI = entry.getValue();
-			String requiringCIReference = entry.getKey();
-			for (IRequiredInterfaceDefinition ri : requiringCI.getComponent().getRequiredInterfaces()) {
-				String reqInterfaceId = ri.getId();
-				List<IComponentInstance> realizations = new ArrayList<>();
-				if (orderedRequiredInterfaceMap.containsKey(requiringCIReference) && orderedRequiredInterfaceMap.get(requiringCIReference).containsKey(reqInterfaceId)) {
-					Map<Integer, ComponentInstance> provisionsOfThisInterface = orderedRequiredInterfaceMap.get(requiringCIReference).get(reqInterfaceId);
-					int n = provisionsOfThisInterface.size();
-					for (int i = 1; i <= n; i++) { // indices here start at 1
-						if (!provisionsOfThisInterface.containsKey(i)) {
-							throw new IllegalArgumentException(
-									"The realizations of the required interface " + requiringCI + " of component " + requiringCI.getComponent().getName() + " is not consecutive! Here is the map: \n" + provisionsOfThisInterface);
-						}
-						realizations.add(provisionsOfThisInterface.get(i));
-					}
-				}
-				requiringCI.getSatisfactionOfRequiredInterfaces().put(reqInterfaceId, realizations);
-			}
-		}
-
-		/* set the explicitly defined parameters (e.g. overwritten containers) in the component instances */
-		for (Entry<String, ComponentInstance> entry : objectMap.entrySet()) {
-			String objectName = entry.getKey();
-			ComponentInstance object = entry.getValue();
-			for (IParameter p : object.getComponent().getParameters()) {
-				if (!parameterContainerMap.containsKey(objectName)) {
-					throw new IllegalStateException("No parameter container map has been defined for object " + objectName + " of component " + object.getComponent().getName() + "!");
-				}
-				if (!parameterContainerMap.get(objectName).containsKey(p.getName())) {
-					throw new IllegalStateException(
-							"The data container for parameter " + p.getName() + " of " + object.getComponent().getName() + " is not defined! State: " + state.stream().sorted().map(l -> "\n\t" + l).collect(Collectors.joining()));
-				}
-				String paramContainerName = parameterContainerMap.get(objectName).get(p.getName());
-				if (overwrittenDatacontainers.contains(paramContainerName)) {
-					String assignedValue = parameterValues.get(paramContainerName);
-					assert assignedValue != null : "parameter containers must always have a value!";
-					object.getParameterValues().put(p.getName(), getParamValue(p, assignedValue, resolveIntervals));
-				}
-			}
-		}
-		return objectMap;
+		return new ComponentInstanceStateDecoder(state).getGroundComponents(components, resolveIntervals);
 	}
 
 	public static <N, A, V extends Comparable<V>> ComponentInstance getSolutionCompositionForNode(final IHASCOPlanningReduction<N, A> planningGraphDeriver, final Collection<? extends IComponent> components, final Monom initState,
@@ -345,38 +243,18 @@ public class HASCOUtil {
 	}
 
 	public static Map<IParameter, IParameterDomain> getUpdatedDomainsOfComponentParameters(final Monom state, final IComponent component, final String objectIdentifierInState) {
-		Map<String, String> parameterContainerMap = new HashMap<>();
-		Map<String, String> parameterContainerMapInv = new HashMap<>();
-		Map<String, String> parameterValues = new HashMap<>();
-
-		/* detect containers for parameter values, and register the values of the data containers */
-		for (Literal l : state) {
-			String[] params = l.getParameters().stream().map(LiteralParam::getName).collect(Collectors.toList()).toArray(new String[] {});
-			switch (l.getPropertyName()) {
-			case LITERAL_PARAMCONTAINER:
-				if (!params[2].equals(objectIdentifierInState)) {
-					continue;
-				}
-				parameterContainerMap.put(params[1], params[3]);
-				parameterContainerMapInv.put(params[3], params[1]);
-				break;
-			case LITERAL_VAL:
-				parameterValues.put(params[0], params[1]);
-				break;
-			default: // ignore other literals
-				break;
-			}
-		}
+		ComponentInstanceStateDecoder decoder = new ComponentInstanceStateDecoder(state);
 
 		/* determine current values of the parameters of this component instance */
 		Map<IParameter, String> paramValuesForThisComponentInstance = new HashMap<>();
 		for (IParameter p : component.getParameters()) {
-			if (!parameterContainerMap.containsKey(p.getName())) {
+			String container = decoder.getParameterContainer(objectIdentifierInState, p.getName());
+			if (container == null) {
 				throw new IllegalStateException("The data container for parameter " + p.getName() + " of " + objectIdentifierInState + " is not defined!");
 			}
-			String assignedValue = parameterValues.get(parameterContainerMap.get(p.getName()));
+			String assignedValue = decoder.getValue(container);
 			if (assignedValue == null) {
-				throw new IllegalStateException("No value has been assigned to parameter " + p.getName() + " stored in container " + parameterContainerMap.get(p.getName()) + " in state " + state);
+				throw new IllegalStateException("No value has been assigned to parameter " + p.getName() + " stored in container " + container + " in state " + state);
 			}
 			String value = getParamValue(p, assignedValue, false);
 			assert value != null : "Determined value NULL for parameter " + p.getName() + ", which is not plausible.";
@@ -384,13 +262,13 @@ public class HASCOUtil {
 		}
 
 		/* extract instance */
-		ComponentInstance instance = getComponentInstanceFromState(Arrays.asList(component), state, objectIdentifierInState, false);
+		ComponentInstance instance = decoder.getGroundComponents(Arrays.asList(component), false).get(objectIdentifierInState);
 
 		/* now compute the new domains based on the current values */
 		return getUpdatedDomainsOfComponentParameters(instance);
 	}
 
-	private static String getParamValue(final IParameter p, final String assignedValue, final boolean resolveIntervals) {
+	static String getParamValue(final IParameter p, final String assignedValue, final boolean resolveIntervals) {
 		if (assignedValue == null) {
 			throw new IllegalArgumentException("Cannot determine true value for assigned param value " + assignedValue + " for parameter " + p.getName());
 		}
@@ -2,9 +2,11 @@ package ai.libs.hasco.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -22,6 +24,7 @@ import ai.libs.jaicore.components.model.ComponentInstance;
 import ai.libs.jaicore.components.model.RefinementConfiguredSoftwareConfigurationProblem;
 import ai.libs.jaicore.components.serialization.ComponentSerialization;
 import ai.libs.jaicore.logic.fol.structure.ConstantParam;
+import ai.libs.jaicore.logic.fol.structure.DeltaMonom;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.Monom;
 
@@ -62,6 +65,30 @@ public class HASCOUtilTester {
 		assertEquals("v3", ciSub.getParameterValue("b"));
 	}
 
+	@Test
+	public void testComponentInstanceBuilderOnDerivedStates() throws Exception {
+		File compfile = new File(pathToFiles + "testrsc/simpleproblemwithtwocomponentsandnumericparam.json");
+		Monom state = new Monom(
+				"resolves(request, A, A, solution) & parameterContainer(A, a, solution, newVar2) & val(newVar3, v2) & closed(newVar3) & parameterContainer(B, b, newVar5, newVar6) & parameterContainer(B, a, newVar5, newVar7) & parameterContainer(A, b, solution, newVar3) & parameterFocus(solution, a, NaN) & val(newVar6, v3) & val(newVar7, true) & interfaceMember(newVar4, newVar1, 1) & component(solution) & component(request) & overwritten(newVar7) & component(newVar5) & resolves(newVar4, IFA, B, newVar5) & overwritten(newVar3) & interfaceGroup(A, i1, solution, newVar1) & overwritten(newVar2)");
+		state.add(new Literal("val", Arrays.asList(new ConstantParam("newVar2"), new ConstantParam("[12.5, 13.5]"))));
+		Collection<IComponent> components = new ComponentSerialization().deserializeRepository(compfile);
+
+		/* derive states as the TFD graph generator does; they share the base of the root state */
+		DeltaMonom root = new DeltaMonom(state);
+		DeltaMonom child = new DeltaMonom(root);
+		child.remove(new Literal("val(newVar6, v3)"));
+		child.add(new Literal("val(newVar6, v4)"));
+		child.add(new Literal("overwritten(newVar6)"));
+
+		/* the states must be decoded as their plain counterparts */
+		assertEquals(HASCOUtil.getGroundComponentsFromState(state, components, false), HASCOUtil.getGroundComponentsFromState(root, components, false));
+		assertEquals(HASCOUtil.getGroundComponentsFromState(new Monom(child), components, false), HASCOUtil.getGroundComponentsFromState(child, components, false));
+		IComponentInstance ciSub = HASCOUtil.getComponentInstanceFromState(components, root, "solution", false).getSatisfactionOfRequiredInterface("i1").iterator().next();
+		assertNull(ciSub.getParameterValues().get("b"));
+		ciSub = HASCOUtil.getComponentInstanceFromState(components, child, "solution", false).getSatisfactionOfRequiredInterface("i1").iterator().next();
+		assertEquals("v4", ciSub.getParameterValue("b"));
+	}
+
 	@Test
 	public void testParameterDomainUpdates() throws Exception {
 		RefinementConfiguredSoftwareConfigurationProblem<Double> problem = new RefinementConfiguredSoftwareConfigurationProblem<>(new File(pathToFiles + "testrsc/problemwithdependencies.json"), "IFace", n -> 0.0);
@@ -0,0 +1,60 @@
+package ai.libs.mlplan.cache;
+
+import org.api4.java.common.event.IEvent;
+
+import ai.libs.jaicore.components.api.IComponentInstance;
+
+/**
+ * Informs about a lookup of a component instance in the evaluation cache of a pipeline evaluator.
+ */
+public class EvaluationCacheAccessEvent implements IEvent {
+
+	private final IComponentInstance ci;
+	private final boolean hit;
+	private final Double score;
+	private final int totalHits;
+	private final int totalMisses;
+	private final long timestamp;
+
+	public EvaluationCacheAccessEvent(final IComponentInstance ci, final boolean hit, final Double score, final int totalHits, final int totalMisses) {
+		this.timestamp = System.currentTimeMillis();
+		this.ci = ci;
+		this.hit = hit;
+		this.score = score;
+		this.totalHits = totalHits;
+		this.totalMisses = totalMisses;
+	}
+
+	public IComponentInstance getComponentInstance() {
+		return this.ci;
+	}
+
+	public boolean isHit() {
+		return this.hit;
+	}
+
+	/**
+	 * @return The cached score or null if the lookup was a miss.
+	 */
+	public Double getScore() {
+		return this.score;
+	}
+
+	public int getTotalHits() {
+		return this.totalHits;
+	}
+
+	public int getTotalMisses() {
+		return this.totalMisses;
+	}
+
+	public double getHitRate() {
+		int total = this.totalHits + this.totalMisses;
+		return total > 0 ? (double) this.totalHits / total : 0;
+	}
+
+	@Override
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+}
@@ -0,0 +1,162 @@
+package ai.libs.mlplan.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.api4.java.ai.ml.core.dataset.schema.attribute.IAttribute;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
+import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.api4.java.ai.ml.core.evaluation.supervised.loss.IDeterministicPredictionPerformanceMeasure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import ai.libs.jaicore.components.api.IComponentInstance;
+import ai.libs.jaicore.components.serialization.ComponentSerialization;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.AMonteCarloCrossValidationBasedEvaluatorFactory;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.ISupervisedLearnerEvaluatorFactory;
+
+/**
+ * Builds the keys of an {@link IEvaluationCache}. A key consists of a context, which identifies the data, the benchmark and the seed of the evaluation, and the canonical serialization of the component
+ * instance.
+ */
+public class EvaluationCacheUtil {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private EvaluationCacheUtil() {
+		/* avoid instantiation */
+	}
+
+	/**
+	 * @param context
+	 *            The context of the evaluation as obtained from {@link #getContext(ILabeledDataset, ISupervisedLearnerEvaluatorFactory, IDeterministicPredictionPerformanceMeasure, long)}.
+	 * @param ci
+	 *            The evaluated component instance.
+	 * @return The key of the evaluation of the component instance in the given context.
+	 */
+	public static String getKey(final String context, final IComponentInstance ci) {
+		return context + "|" + getCanonicalSerialization(ci);
+	}
+
+	/**
+	 * @return A context that identifies evaluations of the same data, with the same benchmark and the same seed. It only identifies the splits of the data if the benchmark draws them once, see
+	 *         {@link #hasFixedSplitSets(ISupervisedLearnerEvaluatorFactory)}.
+	 */
+	public static String getContext(final ILabeledDataset<?> data, final ISupervisedLearnerEvaluatorFactory<?, ?> benchmarkFactory, final IDeterministicPredictionPerformanceMeasure<?, ?> metric, final long seed) {
+		return getDatasetFingerprint(data) + "|" + getBenchmarkDescription(benchmarkFactory, metric) + "|" + seed;
+	}
+
+	/**
+	 * Serializes the component instance with {@link ComponentSerialization} and orders the fields of all objects by name, so that equal component instances always yield the same string.
+	 *
+	 * @param ci
+	 *            The component instance to serialize.
+	 * @return The canonical serialization of the component instance.
+	 */
+	public static String getCanonicalSerialization(final IComponentInstance ci) {
+		return sortFields(new ComponentSerialization().serialize(ci)).toString();
+	}
+
+	private static JsonNode sortFields(final JsonNode node) {
+		if (node.isObject()) {
+			List<String> fieldNames = new ArrayList<>();
+			Iterator<String> it = node.fieldNames();
+			while (it.hasNext()) {
+				fieldNames.add(it.next());
+			}
+			Collections.sort(fieldNames);
+			ObjectNode sorted = MAPPER.createObjectNode();
+			for (String fieldName : fieldNames) {
+				sorted.set(fieldName, sortFields(node.get(fieldName)));
+			}
+			return sorted;
+		}
+		if (node.isArray()) {
+			ArrayNode array = MAPPER.createArrayNode();
+			for (JsonNode child : node) {
+				array.add(sortFields(child));
+			}
+			return array;
+		}
+		return node;
+	}
+
+	/**
+	 * Computes a SHA-256 fingerprint of the attributes, the order and the values of the instances of the dataset.
+	 *
+	 * @param data
+	 *            The dataset.
+	 * @return The fingerprint in hexadecimal representation.
+	 */
+	public static String getDatasetFingerprint(final ILabeledDataset<?> data) {
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+		}
+		for (IAttribute att : data.getInstanceSchema().getAttributeList()) {
+			update(md, att.getName());
+			update(md, att.getClass().getName());
+		}
+		update(md, data.getInstanceSchema().getLabelAttribute().getName());
+		for (ILabeledInstance i : data) {
+			for (Object value : i.getAttributes()) {
+				update(md, String.valueOf(value));
+			}
+			update(md, String.valueOf(i.getLabel()));
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : md.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private static void update(final MessageDigest md, final String value) {
+		md.update(value.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0);
+	}
+
+	/**
+	 * Tells whether the benchmark evaluates all candidates on the same splits, which are drawn once from its random source. Otherwise, the splits depend on the order in which the candidates are
+	 * evaluated, so the score of a candidate cannot be reproduced from the data, the benchmark and the seed alone.
+	 *
+	 * @param benchmarkFactory
+	 *            The factory of the benchmark.
+	 * @return true if the splits of the benchmark are fixed for given data and seed.
+	 */
+	public static boolean hasFixedSplitSets(final ISupervisedLearnerEvaluatorFactory<?, ?> benchmarkFactory) {
+		return benchmarkFactory instanceof AMonteCarloCrossValidationBasedEvaluatorFactory && ((AMonteCarloCrossValidationBasedEvaluatorFactory<?>) benchmarkFactory).getCacheSplitSets();
+	}
+
+	/**
+	 * @return A description of the benchmark that covers all its parameters that influence the score, as far as they are known for the type of the factory.
+	 */
+	public static String getBenchmarkDescription(final ISupervisedLearnerEvaluatorFactory<?, ?> benchmarkFactory, final IDeterministicPredictionPerformanceMeasure<?, ?> metric) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(benchmarkFactory.getClass().getName());
+		if (benchmarkFactory instanceof AMonteCarloCrossValidationBasedEvaluatorFactory) {
+			AMonteCarloCrossValidationBasedEvaluatorFactory<?> mccvFactory = (AMonteCarloCrossValidationBasedEvaluatorFactory<?>) benchmarkFactory;
+			sb.append("[iterations=").append(mccvFactory.getNumMCIterations());
+			sb.append(",trainFoldSize=").append(mccvFactory.getTrainFoldSize());
+			sb.append(",splitter=").append(mccvFactory.getDatasetSplitter() != null ? mccvFactory.getDatasetSplitter().getClass().getName() : null);
+			sb.append(",cacheSplitSets=").append(mccvFactory.getCacheSplitSets()).append("]");
+		}
+		sb.append(":");
+		if (metric instanceof Enum) {
+			sb.append(metric.getClass().getName()).append(".").append(((Enum<?>) metric).name());
+		} else if (metric != null) {
+			sb.append(metric.getClass().getName());
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,26 @@
+package ai.libs.mlplan.cache;
+
+import java.util.Optional;
+
+/**
+ * A cache for the scores of pipeline evaluations. The keys are built by {@link EvaluationCacheUtil} and describe the pipeline together with the data, the benchmark and the seed used to evaluate it.
+ */
+public interface IEvaluationCache {
+
+	/**
+	 * @param key
+	 *            The key of the evaluation.
+	 * @return The cached score for the key or an empty optional if the evaluation has not been cached.
+	 */
+	public Optional<Double> get(String key);
+
+	/**
+	 * Stores the score of an evaluation.
+	 *
+	 * @param key
+	 *            The key of the evaluation.
+	 * @param score
+	 *            The score observed for the evaluation.
+	 */
+	public void put(String key, double score);
+}
@@ -0,0 +1,74 @@
+package ai.libs.mlplan.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory cache that keeps the most recently used evaluations. If a backing cache is given (usually a {@link MemoryMappedEvaluationCache}), it serves as second tier: misses are looked up there, and all
+ * new scores are written through to it.
+ */
+public class LRUEvaluationCache implements IEvaluationCache {
+
+	private final Map<String, Double> entries;
+	private final IEvaluationCache backingCache;
+
+	public LRUEvaluationCache(final int capacity) {
+		this(capacity, null);
+	}
+
+	public LRUEvaluationCache(final int capacity, final IEvaluationCache backingCache) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity of the cache must be positive but is " + capacity);
+		}
+		this.entries = new LinkedHashMap<String, Double>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Double> eldest) {
+				return this.size() > capacity;
+			}
+		};
+		this.backingCache = backingCache;
+	}
+
+	@Override
+	public Optional<Double> get(final String key) {
+		synchronized (this.entries) {
+			Double score = this.entries.get(key);
+			if (score != null) {
+				return Optional.of(score);
+			}
+		}
+		if (this.backingCache == null) {
+			return Optional.empty();
+		}
+		Optional<Double> score = this.backingCache.get(key);
+		if (score.isPresent()) {
+			synchronized (this.entries) {
+				this.entries.put(key, score.get());
+			}
+		}
+		return score;
+	}
+
+	@Override
+	public void put(final String key, final double score) {
+		synchronized (this.entries) {
+			this.entries.put(key, score);
+		}
+		if (this.backingCache != null) {
+			this.backingCache.put(key, score);
+		}
+	}
+
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	public IEvaluationCache getBackingCache() {
+		return this.backingCache;
+	}
+}
@@ -0,0 +1,249 @@
+package ai.libs.mlplan.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistent cache that stores the scores in a hash table inside a memory-mapped file, so that evaluations survive the run and can be reused by later runs on the same file.
+ *
+ * Keys are not stored themselves but only their SHA-256 digest. Each slot of the table consists of the 32 bytes of the digest followed by the score, and a slot whose digest is all zeros is empty. Collisions
+ * are resolved by linear probing, and the table is doubled once it is half full.
+ */
+public class MemoryMappedEvaluationCache implements IEvaluationCache, Closeable {
+
+	private static final int MAGIC = 0x4D4C5043; // "MLPC"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int DIGEST_SIZE = 32;
+	private static final int SLOT_SIZE = DIGEST_SIZE + Double.BYTES;
+	private static final int DEFAULT_INITIAL_CAPACITY = 1 << 12;
+	private static final int MAX_CAPACITY = 1 << 25;
+
+	private static final int OFFSET_CAPACITY = 8;
+	private static final int OFFSET_SIZE = 12;
+
+	private final File file;
+	private final FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int size;
+
+	public MemoryMappedEvaluationCache(final File file) throws IOException {
+		this(file, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Opens the cache file or creates it if it does not exist yet.
+	 *
+	 * @param file
+	 *            The file of the cache.
+	 * @param initialCapacity
+	 *            The number of slots of a new file; it is rounded up to the next power of two. Ignored if the file exists.
+	 * @throws IOException
+	 *             if the file cannot be mapped or is not an evaluation cache file.
+	 */
+	public MemoryMappedEvaluationCache(final File file, final int initialCapacity) throws IOException {
+		if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("The initial capacity must be in (0, " + MAX_CAPACITY + "] but is " + initialCapacity);
+		}
+		this.file = file;
+		boolean existing = file.exists() && file.length() > 0;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (existing) {
+				this.openExisting();
+			} else {
+				this.capacity = Integer.highestOneBit(initialCapacity - 1) << 1;
+				if (this.capacity == 0) {
+					this.capacity = 1;
+				}
+				this.buffer = this.map(this.capacity);
+				this.buffer.putInt(0, MAGIC);
+				this.buffer.putInt(4, VERSION);
+				this.buffer.putInt(OFFSET_CAPACITY, this.capacity);
+				this.buffer.putInt(OFFSET_SIZE, 0);
+			}
+		} catch (IOException | RuntimeException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	private void openExisting() throws IOException {
+		if (this.channel.size() < HEADER_SIZE) {
+			throw new IOException("File " + this.file + " is not an evaluation cache file.");
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		this.channel.read(header, 0);
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException("File " + this.file + " is not an evaluation cache file.");
+		}
+		if (header.getInt(4) != VERSION) {
+			throw new IOException("File " + this.file + " has version " + header.getInt(4) + " but only version " + VERSION + " is supported.");
+		}
+		this.capacity = header.getInt(OFFSET_CAPACITY);
+		if (Integer.bitCount(this.capacity) != 1 || this.capacity > MAX_CAPACITY || this.channel.size() < HEADER_SIZE + (long) this.capacity * SLOT_SIZE) {
+			throw new IOException("File " + this.file + " is corrupt: invalid capacity " + this.capacity);
+		}
+		this.buffer = this.map(this.capacity);
+		this.size = this.buffer.getInt(OFFSET_SIZE);
+	}
+
+	private MappedByteBuffer map(final int numSlots) throws IOException {
+		return this.channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) numSlots * SLOT_SIZE);
+	}
+
+	@Override
+	public synchronized Optional<Double> get(final String key) {
+		byte[] digest = digest(key);
+		int slot = this.findSlot(digest);
+		if (this.isEmpty(slot)) {
+			return Optional.empty();
+		}
+		return Optional.of(this.buffer.getDouble(this.getOffset(slot) + DIGEST_SIZE));
+	}
+
+	@Override
+	public synchronized void put(final String key, final double score) {
+		byte[] digest = digest(key);
+		int slot = this.findSlot(digest);
+		if (this.isEmpty(slot)) {
+			if (2 * (this.size + 1) > this.capacity) {
+				this.grow();
+				slot = this.findSlot(digest);
+			}
+			this.writeSlot(slot, digest, score);
+			this.size++;
+			this.buffer.putInt(OFFSET_SIZE, this.size);
+		} else {
+			this.buffer.putDouble(this.getOffset(slot) + DIGEST_SIZE, score);
+		}
+	}
+
+	/**
+	 * @return The slot holding the digest or the empty slot where it would be inserted.
+	 */
+	private int findSlot(final byte[] digest) {
+		int mask = this.capacity - 1;
+		int slot = ByteBuffer.wrap(digest).getInt() & mask;
+		byte[] stored = new byte[DIGEST_SIZE];
+		while (true) {
+			int offset = this.getOffset(slot);
+			for (int i = 0; i < DIGEST_SIZE; i++) {
+				stored[i] = this.buffer.get(offset + i);
+			}
+			if (Arrays.equals(stored, digest) || isZero(stored)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private boolean isEmpty(final int slot) {
+		int offset = this.getOffset(slot);
+		for (int i = 0; i < DIGEST_SIZE; i++) {
+			if (this.buffer.get(offset + i) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void writeSlot(final int slot, final byte[] digest, final double score) {
+		int offset = this.getOffset(slot);
+		for (int i = 0; i < DIGEST_SIZE; i++) {
+			this.buffer.put(offset + i, digest[i]);
+		}
+		this.buffer.putDouble(offset + DIGEST_SIZE, score);
+	}
+
+	private int getOffset(final int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private void grow() {
+		if (this.capacity >= MAX_CAPACITY) {
+			throw new IllegalStateException("The evaluation cache in " + this.file + " has reached its maximum capacity of " + MAX_CAPACITY + " entries.");
+		}
+
+		/* read all entries, then remap the file with twice the number of slots and re-insert them */
+		List<byte[]> digests = new ArrayList<>(this.size);
+		List<Double> scores = new ArrayList<>(this.size);
+		for (int slot = 0; slot < this.capacity; slot++) {
+			if (!this.isEmpty(slot)) {
+				byte[] digest = new byte[DIGEST_SIZE];
+				int offset = this.getOffset(slot);
+				for (int i = 0; i < DIGEST_SIZE; i++) {
+					digest[i] = this.buffer.get(offset + i);
+				}
+				digests.add(digest);
+				scores.add(this.buffer.getDouble(offset + DIGEST_SIZE));
+			}
+		}
+		int newCapacity = this.capacity << 1;
+		try {
+			this.buffer = this.map(newCapacity);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not grow the evaluation cache in " + this.file, e);
+		}
+		int end = this.getOffset(this.capacity);
+		for (int i = HEADER_SIZE; i < end; i++) {
+			this.buffer.put(i, (byte) 0);
+		}
+		this.capacity = newCapacity;
+		this.buffer.putInt(OFFSET_CAPACITY, this.capacity);
+		for (int i = 0; i < digests.size(); i++) {
+			this.writeSlot(this.findSlot(digests.get(i)), digests.get(i), scores.get(i));
+		}
+	}
+
+	public synchronized int size() {
+		return this.size;
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Writes all changes to the file.
+	 */
+	public synchronized void flush() {
+		this.buffer.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.buffer.force();
+		this.channel.close();
+	}
+
+	private static boolean isZero(final byte[] bytes) {
+		for (byte b : bytes) {
+			if (b != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] digest(final String key) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+		}
+	}
+}
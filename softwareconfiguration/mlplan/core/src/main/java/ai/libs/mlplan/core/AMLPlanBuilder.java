@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
@@ -39,6 +40,7 @@ import ai.libs.jaicore.components.serialization.ComponentSerialization;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.ISupervisedLearnerEvaluatorFactory;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.MonteCarloCrossValidationEvaluatorFactory;
 import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
+import ai.libs.mlplan.cache.IEvaluationCache;
 import ai.libs.mlplan.multiclass.MLPlanClassifierConfig;
 import ai.libs.mlplan.safeguard.IEvaluationSafeGuardFactory;
 
@@ -84,6 +86,8 @@ public abstract class AMLPlanBuilder<L extends ISupervisedLearner<ILabeledInstan
 	private ISupervisedLearnerEvaluatorFactory<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> factoryForPipelineEvaluationInSearchPhase = this.getMCCVFactory(3, .7);
 	private ISupervisedLearnerEvaluatorFactory<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> factoryForPipelineEvaluationInSelectionPhase = this.getMCCVFactory(3, .7);
 	private IEvaluationSafeGuardFactory safeGuard = null;
+	private IEvaluationCache evaluationCache = null;
+	private ExecutorService foldExecutor = null;
 
 	protected AMLPlanBuilder() {
 		super();
@@ -526,6 +530,44 @@ public abstract class AMLPlanBuilder<L extends ISupervisedLearner<ILabeledInstan
 		return this.safeGuard;
 	}
 
+	/**
+	 * Sets a cache for the scores of candidate evaluations. Evaluations are only reused if the data, the benchmark, the metric and the seed are the same, so a persistent cache (see
+	 * {@link ai.libs.mlplan.cache.MemoryMappedEvaluationCache}) can be shared by several runs. Since a score is only reproducible if every candidate is evaluated on the same splits, the caching of split
+	 * sets is enabled in MCCV-based benchmarks, and benchmarks of other types are not cached. Candidates whose score is found in the cache are neither checked by the safe guard nor built, so no
+	 * learner events are posted for them.
+	 *
+	 * @param evaluationCache
+	 *            The cache or null to evaluate every candidate.
+	 * @return The builder object.
+	 */
+	public B withEvaluationCache(final IEvaluationCache evaluationCache) {
+		this.evaluationCache = evaluationCache;
+		return this.getSelf();
+	}
+
+	@Override
+	public IEvaluationCache getEvaluationCache() {
+		return this.evaluationCache;
+	}
+
+	/**
+	 * Lets MCCV-based benchmarks execute the splits of a candidate evaluation in parallel on the given executor, each on an own instance of the candidate. The executor is shared by all candidate
+	 * evaluations and is not shut down by ML-Plan.
+	 *
+	 * @param foldExecutor
+	 *            The executor or null to execute the splits sequentially.
+	 * @return The builder object.
+	 */
+	public B withFoldExecutor(final ExecutorService foldExecutor) {
+		this.foldExecutor = foldExecutor;
+		return this.getSelf();
+	}
+
+	@Override
+	public ExecutorService getFoldExecutor() {
+		return this.foldExecutor;
+	}
+
 	/**
 	 * Builds an ML-Plan object for the given dataset as input.
 	 *
@@ -1,6 +1,7 @@
 package ai.libs.mlplan.core;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
 
 import org.api4.java.ai.ml.core.dataset.splitter.IFoldSizeConfigurableRandomDatasetSplitter;
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
@@ -11,6 +12,7 @@ import org.api4.java.ai.ml.core.learner.ISupervisedLearner;
 import ai.libs.hasco.builder.forwarddecomposition.HASCOViaFDBuilder;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.ISupervisedLearnerEvaluatorFactory;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.LearnerEvaluatorConstructionFailedException;
+import ai.libs.mlplan.cache.IEvaluationCache;
 import ai.libs.mlplan.multiclass.MLPlanClassifierConfig;
 import ai.libs.mlplan.safeguard.IEvaluationSafeGuardFactory;
 
@@ -61,6 +63,10 @@ public interface IMLPlanBuilder<L extends ISupervisedLearner<ILabeledInstance, I
 
 	public IEvaluationSafeGuardFactory getSafeGuardFactory();
 
+	public IEvaluationCache getEvaluationCache();
+
+	public ExecutorService getFoldExecutor();
+
 	public double getPortionOfDataReservedForSelectionPhase();
 
 	public B getSelf();
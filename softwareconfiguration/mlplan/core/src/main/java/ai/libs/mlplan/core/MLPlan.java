@@ -3,11 +3,13 @@ package ai.libs.mlplan.core;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.api4.java.ai.graphsearch.problem.IPathSearchInput;
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
+import org.api4.java.ai.ml.core.evaluation.supervised.loss.IDeterministicPredictionPerformanceMeasure;
 import org.api4.java.ai.ml.core.learner.ISupervisedLearner;
 import org.api4.java.algorithm.IAlgorithm;
 import org.api4.java.algorithm.Timeout;
@@ -45,8 +47,12 @@ import ai.libs.jaicore.components.optimizingfactory.OptimizingFactory;
 import ai.libs.jaicore.components.optimizingfactory.OptimizingFactoryProblem;
 import ai.libs.jaicore.components.serialization.ComponentSerialization;
 import ai.libs.jaicore.ml.core.dataset.DatasetUtil;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.AMonteCarloCrossValidationBasedEvaluatorFactory;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.ISupervisedLearnerEvaluatorFactory;
 import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.LearnerEvaluatorConstructionFailedException;
 import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
+import ai.libs.mlplan.cache.EvaluationCacheUtil;
+import ai.libs.mlplan.cache.IEvaluationCache;
 import ai.libs.mlplan.core.events.ClassifierFoundEvent;
 import ai.libs.mlplan.core.events.MLPlanPhaseSwitchedEvent;
 import ai.libs.mlplan.multiclass.MLPlanClassifierConfig;
@@ -153,6 +159,20 @@ public class MLPlan<L extends ISupervisedLearner<ILabeledInstance, ILabeledDatas
 				this.logger.info("No expected blow-up for postprocessing phase has been defined. Automatically configuring {}", blowUpInPostprocessing);
 			}
 
+			/* cached scores can only be reproduced if all candidates are evaluated on the same splits, so make MCCV draw them once */
+			IEvaluationCache evaluationCache = this.builder.getEvaluationCache();
+			if (evaluationCache != null) {
+				this.fixSplitSets(this.builder.getLearnerEvaluationFactoryForSearchPhase());
+				this.fixSplitSets(this.builder.getLearnerEvaluationFactoryForSelectionPhase());
+			}
+
+			/* let the benchmarks execute the splits of a candidate in parallel if an executor has been configured */
+			ExecutorService foldExecutor = this.builder.getFoldExecutor();
+			if (foldExecutor != null) {
+				this.setFoldExecutor(this.builder.getLearnerEvaluationFactoryForSearchPhase(), foldExecutor);
+				this.setFoldExecutor(this.builder.getLearnerEvaluationFactoryForSelectionPhase(), foldExecutor);
+			}
+
 			/* setup the pipeline evaluators */
 			this.logger.debug("Setting up the pipeline evaluators.");
 			Pair<PipelineEvaluator, PipelineEvaluator> evaluators;
@@ -164,6 +184,14 @@ public class MLPlan<L extends ISupervisedLearner<ILabeledInstance, ILabeledDatas
 			}
 			this.classifierEvaluatorForSearch = evaluators.getX();
 			this.classifierEvaluatorForSelection = evaluators.getY();
+			if (evaluationCache != null) {
+				this.logger.info("Using evaluation cache {}.", evaluationCache);
+				this.setEvaluationCache(this.classifierEvaluatorForSearch, evaluationCache, "search", dataShownToSearch, this.builder.getLearnerEvaluationFactoryForSearchPhase(), this.builder.getMetricForSearchPhase());
+				if (this.classifierEvaluatorForSelection != null) {
+					this.setEvaluationCache(this.classifierEvaluatorForSelection, evaluationCache, "selection", dataShownToSelection, this.builder.getLearnerEvaluationFactoryForSelectionPhase(),
+							this.builder.getMetricForSelectionPhase());
+				}
+			}
 			this.classifierEvaluatorForSearch.registerListener(this); // events will be forwarded
 			if (this.classifierEvaluatorForSearch.getSafeGuard() != null) {
 				this.classifierEvaluatorForSearch.getSafeGuard().registerListener(this);
@@ -376,6 +404,39 @@ public class MLPlan<L extends ISupervisedLearner<ILabeledInstance, ILabeledDatas
 		}
 	}
 
+	private void fixSplitSets(final ISupervisedLearnerEvaluatorFactory<?, ?> benchmarkFactory) {
+		if (benchmarkFactory instanceof AMonteCarloCrossValidationBasedEvaluatorFactory && !((AMonteCarloCrossValidationBasedEvaluatorFactory<?>) benchmarkFactory).getCacheSplitSets()) {
+			this.logger.info("Enabling the caching of split sets in {}, because evaluations are cached.", benchmarkFactory);
+			((AMonteCarloCrossValidationBasedEvaluatorFactory<?>) benchmarkFactory).withCacheSplitSets(true);
+		}
+	}
+
+	/* the pipeline evaluators pass time tracking wrappers to the benchmark, so a copy is a new instantiation of the same component instance whose times are tracked by the original wrapper */
+	private void setFoldExecutor(final ISupervisedLearnerEvaluatorFactory<?, ?> benchmarkFactory, final ExecutorService foldExecutor) {
+		if (!(benchmarkFactory instanceof AMonteCarloCrossValidationBasedEvaluatorFactory)) {
+			this.logger.warn("Executing the splits of {} sequentially, because only MCCV-based benchmarks support a fold executor.", benchmarkFactory);
+			return;
+		}
+		ILearnerFactory<L> learnerFactory = this.builder.getLearnerFactory();
+		((AMonteCarloCrossValidationBasedEvaluatorFactory<?>) benchmarkFactory).withFoldExecutor(foldExecutor, learner -> {
+			TimeTrackingLearnerWrapper wrapper = (TimeTrackingLearnerWrapper) learner;
+			try {
+				return wrapper.getCopy(learnerFactory.getComponentInstantiation(wrapper.getComponentInstance()));
+			} catch (ComponentInstantiationFailedException e) {
+				throw new IllegalStateException("Could not instantiate " + wrapper.getComponentInstance() + " again for the parallel execution of splits.", e);
+			}
+		});
+	}
+
+	private void setEvaluationCache(final PipelineEvaluator evaluator, final IEvaluationCache evaluationCache, final String phase, final ILabeledDataset<?> data, final ISupervisedLearnerEvaluatorFactory<?, ?> benchmarkFactory,
+			final IDeterministicPredictionPerformanceMeasure<?, ?> metric) {
+		if (!EvaluationCacheUtil.hasFixedSplitSets(benchmarkFactory)) {
+			this.logger.warn("Not caching evaluations of the {} phase, because the splits of {} are not fixed.", phase, benchmarkFactory);
+			return;
+		}
+		evaluator.setEvaluationCache(evaluationCache, phase + "|" + EvaluationCacheUtil.getContext(data, benchmarkFactory, metric, this.seed));
+	}
+
 	public PipelineEvaluator getClassifierEvaluatorForSearch() {
 		return this.classifierEvaluatorForSearch;
 	}
@@ -1,5 +1,8 @@
 package ai.libs.mlplan.core;
 
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledInstance;
 import org.api4.java.ai.ml.core.evaluation.ISupervisedLearnerEvaluator;
@@ -21,6 +24,9 @@ import ai.libs.jaicore.components.model.ComponentInstance;
 import ai.libs.jaicore.components.model.ComponentInstanceUtil;
 import ai.libs.jaicore.ml.scikitwrapper.ScikitLearnWrapper;
 import ai.libs.jaicore.timing.TimedObjectEvaluator;
+import ai.libs.mlplan.cache.EvaluationCacheAccessEvent;
+import ai.libs.mlplan.cache.EvaluationCacheUtil;
+import ai.libs.mlplan.cache.IEvaluationCache;
 import ai.libs.mlplan.core.events.SupervisedLearnerCreatedEvent;
 import ai.libs.mlplan.core.events.TimeTrackingLearnerEvaluationEvent;
 import ai.libs.mlplan.safeguard.AlwaysEvaluateSafeGuard;
@@ -47,6 +53,11 @@ public class PipelineEvaluator extends TimedObjectEvaluator<IComponentInstance,
 
 	private IEvaluationSafeGuard safeGuard;
 
+	private IEvaluationCache evaluationCache;
+	private String evaluationCacheContext;
+	private final AtomicInteger cacheHits = new AtomicInteger();
+	private final AtomicInteger cacheMisses = new AtomicInteger();
+
 	public PipelineEvaluator(final ILearnerFactory<? extends ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>>> learnerFactory,
 			final ISupervisedLearnerEvaluator<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> benchmark, final Timeout timeoutForEvaluation) {
 		this(learnerFactory, benchmark, timeoutForEvaluation, new AlwaysEvaluateSafeGuard());
@@ -84,6 +95,17 @@ public class PipelineEvaluator extends TimedObjectEvaluator<IComponentInstance,
 	@Override
 	public Double evaluateSupervised(final IComponentInstance c) throws InterruptedException, ObjectEvaluationFailedException {
 		this.logger.debug("Received request to evaluate component instance {}", c);
+		String cacheKey = null;
+		if (this.evaluationCache != null) {
+			cacheKey = EvaluationCacheUtil.getKey(this.evaluationCacheContext, c);
+			Optional<Double> cachedScore = this.evaluationCache.get(cacheKey);
+			if (cachedScore.isPresent()) {
+				this.logger.debug("Found score {} for component instance in the evaluation cache.", cachedScore.get());
+				this.eventBus.post(new EvaluationCacheAccessEvent(c, true, cachedScore.get(), this.cacheHits.incrementAndGet(), this.cacheMisses.get()));
+				return cachedScore.get();
+			}
+			this.eventBus.post(new EvaluationCacheAccessEvent(c, false, null, this.cacheHits.get(), this.cacheMisses.incrementAndGet()));
+		}
 		this.logger.debug("Query evaluation safe guard whether to evaluate this component instance for the given timeout {}.", this.timeoutForEvaluation);
 		try {
 			if (!this.safeGuard.predictWillAdhereToTimeout(c, this.timeoutForEvaluation)) {
@@ -121,6 +143,9 @@ public class PipelineEvaluator extends TimedObjectEvaluator<IComponentInstance,
 			this.eventBus.post(new TimeTrackingLearnerEvaluationEvent(trackableLearner));
 
 			this.safeGuard.updateWithActualInformation(c, trackableLearner);
+			if (cacheKey != null && score != null) {
+				this.evaluationCache.put(cacheKey, score);
+			}
 			return score;
 		} catch (ComponentInstantiationFailedException e) {
 			throw new ObjectEvaluationFailedException("Evaluation of composition failed as the component instantiation could not be built.", e);
@@ -149,6 +174,35 @@ public class PipelineEvaluator extends TimedObjectEvaluator<IComponentInstance,
 		}
 	}
 
+	/**
+	 * Makes the evaluator look up scores in the given cache before evaluating a component instance and store the scores of successful evaluations in it.
+	 *
+	 * A cached score is returned right away: the safe guard is neither queried nor updated, and neither a {@link SupervisedLearnerCreatedEvent} nor a {@link TimeTrackingLearnerEvaluationEvent} is
+	 * posted, since no learner is built. Listeners only receive an {@link EvaluationCacheAccessEvent} for such a candidate. The context must only be shared by evaluators that evaluate each candidate on
+	 * the same splits.
+	 *
+	 * @param evaluationCache
+	 *            The cache or null to disable caching.
+	 * @param context
+	 *            Identifies the data, the benchmark and the seed of this evaluator, see {@link EvaluationCacheUtil#getContext}.
+	 */
+	public void setEvaluationCache(final IEvaluationCache evaluationCache, final String context) {
+		this.evaluationCache = evaluationCache;
+		this.evaluationCacheContext = context;
+	}
+
+	public IEvaluationCache getEvaluationCache() {
+		return this.evaluationCache;
+	}
+
+	public int getNumberOfCacheHits() {
+		return this.cacheHits.get();
+	}
+
+	public int getNumberOfCacheMisses() {
+		return this.cacheMisses.get();
+	}
+
 	public void setPipelineEvaluatorID(final String pipelineEvaluatorID) {
 		this.pipelineEvaluatorID = pipelineEvaluatorID;
 	}
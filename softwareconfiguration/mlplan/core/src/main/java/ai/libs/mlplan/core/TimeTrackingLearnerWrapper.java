@@ -1,6 +1,7 @@
 package ai.libs.mlplan.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.api4.java.ai.ml.core.dataset.supervised.ILabeledDataset;
@@ -35,9 +36,30 @@ public class TimeTrackingLearnerWrapper extends ASupervisedLearner<ILabeledInsta
 	public TimeTrackingLearnerWrapper(final IComponentInstance ci, final ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> wrappedLearner) {
 		this.ci = ci;
 		this.wrappedSLClassifier = wrappedLearner;
-		this.fitTimes = new ArrayList<>();
-		this.batchPredictTimes = new ArrayList<>();
-		this.perInstancePredictionTimes = new ArrayList<>();
+		this.fitTimes = Collections.synchronizedList(new ArrayList<>());
+		this.batchPredictTimes = Collections.synchronizedList(new ArrayList<>());
+		this.perInstancePredictionTimes = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	private TimeTrackingLearnerWrapper(final TimeTrackingLearnerWrapper original, final ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> wrappedLearner) {
+		this.ci = original.ci;
+		this.wrappedSLClassifier = wrappedLearner;
+		this.fitTimes = original.fitTimes;
+		this.batchPredictTimes = original.batchPredictTimes;
+		this.perInstancePredictionTimes = original.perInstancePredictionTimes;
+		this.predictedInductionTime = original.predictedInductionTime;
+		this.predictedInferenceTime = original.predictedInferenceTime;
+	}
+
+	/**
+	 * Creates a wrapper for another instance of the same component instance, e.g. to evaluate several splits in parallel. The times of the copy are recorded in the lists of this wrapper.
+	 *
+	 * @param wrappedLearner
+	 *            The other instance of the component instance.
+	 * @return The wrapper of the given learner.
+	 */
+	public TimeTrackingLearnerWrapper getCopy(final ISupervisedLearner<ILabeledInstance, ILabeledDataset<? extends ILabeledInstance>> wrappedLearner) {
+		return new TimeTrackingLearnerWrapper(this, wrappedLearner);
 	}
 
 	@Override
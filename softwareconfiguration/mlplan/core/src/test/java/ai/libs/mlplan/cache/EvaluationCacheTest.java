@@ -0,0 +1,75 @@
+package ai.libs.mlplan.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import ai.libs.jaicore.ml.classification.loss.dataset.EClassificationPerformanceMeasure;
+import ai.libs.jaicore.ml.core.evaluation.evaluator.factory.MonteCarloCrossValidationEvaluatorFactory;
+
+public class EvaluationCacheTest {
+
+	private static File createCacheFile() throws IOException {
+		File file = File.createTempFile("evaluationcache", ".bin");
+		file.delete();
+		file.deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testThatScoresArePersistedAcrossInstances() throws IOException {
+		File file = createCacheFile();
+		int n = 1000; // enough entries to let the table grow several times
+		try (MemoryMappedEvaluationCache cache = new MemoryMappedEvaluationCache(file, 16)) {
+			for (int i = 0; i < n; i++) {
+				cache.put("key" + i, i / 10.0);
+			}
+			cache.put("key0", -1.0);
+			assertEquals(n, cache.size());
+		}
+		try (MemoryMappedEvaluationCache cache = new MemoryMappedEvaluationCache(file)) {
+			assertEquals(n, cache.size());
+			assertEquals(-1.0, cache.get("key0").get(), 0.0);
+			for (int i = 1; i < n; i++) {
+				assertEquals(i / 10.0, cache.get("key" + i).get(), 0.0);
+			}
+			assertFalse(cache.get("key" + n).isPresent());
+		}
+	}
+
+	@Test
+	public void testThatLRUCacheEvictsAndFallsBackToBackingCache() throws IOException {
+		try (MemoryMappedEvaluationCache disk = new MemoryMappedEvaluationCache(createCacheFile())) {
+			LRUEvaluationCache cache = new LRUEvaluationCache(2, disk);
+			cache.put("a", 1.0);
+			cache.put("b", 2.0);
+			cache.get("a");
+			cache.put("c", 3.0);
+			assertEquals(2, cache.size());
+			assertEquals(3, disk.size());
+			assertEquals(2.0, cache.get("b").get(), 0.0);
+			assertFalse(cache.get("d").isPresent());
+
+			LRUEvaluationCache memoryOnly = new LRUEvaluationCache(1);
+			memoryOnly.put("a", 1.0);
+			memoryOnly.put("b", 2.0);
+			assertFalse(memoryOnly.get("a").isPresent());
+		}
+	}
+
+	@Test
+	public void testThatBenchmarkDescriptionCoversSplitDeterminism() {
+		MonteCarloCrossValidationEvaluatorFactory factory = new MonteCarloCrossValidationEvaluatorFactory().withNumMCIterations(3).withTrainFoldSize(.7);
+		assertFalse(EvaluationCacheUtil.hasFixedSplitSets(factory));
+		String descriptionWithDrawnSplits = EvaluationCacheUtil.getBenchmarkDescription(factory, EClassificationPerformanceMeasure.ERRORRATE);
+		factory.withCacheSplitSets(true);
+		assertTrue(EvaluationCacheUtil.hasFixedSplitSets(factory));
+		assertNotEquals(descriptionWithDrawnSplits, EvaluationCacheUtil.getBenchmarkDescription(factory, EClassificationPerformanceMeasure.ERRORRATE));
+	}
+}
@@ -12,9 +12,11 @@ import ai.libs.jaicore.ml.core.filter.sampling.inmemory.ASamplingAlgorithm;
 import ai.libs.jaicore.ml.core.filter.sampling.inmemory.factories.interfaces.ISamplingAlgorithmFactory;
 import ai.libs.jaicore.ml.functionprediction.learner.learningcurveextrapolation.LearningCurveExtrapolationMethod;
 import ai.libs.jaicore.ml.weka.classification.learner.IWekaClassifier;
+import ai.libs.jaicore.ml.weka.classification.pipeline.PreprocessingCache;
 import ai.libs.jaicore.ml.weka.dataset.WekaInstances;
 import ai.libs.mlplan.core.AMLPlanBuilder;
 import ai.libs.mlplan.multiclass.MLPlanClassifierConfig;
+import ai.libs.mlplan.weka.weka.WekaPipelineFactory;
 
 public class MLPlanWekaBuilder extends AMLPlanBuilder<IWekaClassifier, MLPlanWekaBuilder> {
 
@@ -55,6 +57,19 @@ public class MLPlanWekaBuilder extends AMLPlanBuilder<IWekaClassifier, MLPlanWek
 		throw new UnsupportedOperationException("Learning Curve Prediction based ML-Plan runs are not supported in this release. They will be activated again in the upcoming release.");
 	}
 
+	/**
+	 * Lets all candidate pipelines share their fitted preprocessors, so that a preprocessor is only fitted once per training fold.
+	 *
+	 * @param maxSizeInBytes The (estimated) memory the cache may consume.
+	 * @return The builder.
+	 */
+	public MLPlanWekaBuilder withPreprocessingCache(final long maxSizeInBytes) {
+		if (!(this.getLearnerFactory() instanceof WekaPipelineFactory)) {
+			throw new IllegalStateException("The preprocessing cache can only be used with the WekaPipelineFactory but the learner factory is " + this.getLearnerFactory());
+		}
+		return this.withLearnerFactory(new WekaPipelineFactory(new PreprocessingCache(maxSizeInBytes)));
+	}
+
 	@Override
 	public MLPlanWekaBuilder withDataset(final ILabeledDataset<?> dataset) {
 //		if (!(dataset.getLabelAttribute() instanceof ICategoricalAttribute)) {
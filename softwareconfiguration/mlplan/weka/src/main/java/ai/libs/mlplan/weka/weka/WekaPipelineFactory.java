@@ -15,6 +15,7 @@ import ai.libs.jaicore.components.model.NumericParameterDomain;
 import ai.libs.jaicore.ml.weka.classification.learner.IWekaClassifier;
 import ai.libs.jaicore.ml.weka.classification.learner.WekaClassifier;
 import ai.libs.jaicore.ml.weka.classification.pipeline.MLPipeline;
+import ai.libs.jaicore.ml.weka.classification.pipeline.PreprocessingCache;
 import ai.libs.mlplan.core.ILearnerFactory;
 import weka.attributeSelection.ASEvaluation;
 import weka.attributeSelection.ASSearch;
@@ -32,6 +33,20 @@ public class WekaPipelineFactory implements ILearnerFactory<IWekaClassifier> {
 
 	private static final String L_CLASSIFIER = "classifier";
 
+	private final PreprocessingCache preprocessingCache;
+
+	public WekaPipelineFactory() {
+		this(null);
+	}
+
+	/**
+	 * @param preprocessingCache
+	 *            A cache shared by all pipelines created by this factory, so that pipelines with the same preprocessor only fit it once per training fold; may be null.
+	 */
+	public WekaPipelineFactory(final PreprocessingCache preprocessingCache) {
+		this.preprocessingCache = preprocessingCache;
+	}
+
 	@Override
 	public IWekaClassifier getComponentInstantiation(final IComponentInstance groundComponent) throws ComponentInstantiationFailedException {
 		this.logger.debug("Instantiate weka classifier from component instance {}.", groundComponent);
@@ -48,7 +63,9 @@ public class WekaPipelineFactory implements ILearnerFactory<IWekaClassifier> {
 
 				IWekaClassifier c = this.getComponentInstantiation(groundComponent.getSatisfactionOfRequiredInterface(L_CLASSIFIER).iterator().next());
 				this.logger.debug("Returning a MLPipeline object (aseval: {}, assearch: {}, classifier: {})", eval != null, search != null, c != null);
-				return new WekaClassifier(new MLPipeline(search, eval, c.getClassifier()));
+				MLPipeline pipeline = new MLPipeline(search, eval, c.getClassifier());
+				pipeline.setPreprocessingCache(this.preprocessingCache);
+				return new WekaClassifier(pipeline);
 
 			} else {
 				Classifier c = AbstractClassifier.forName(groundComponent.getComponent().getName(), this.getParameterList(groundComponent).toArray(new String[0]));